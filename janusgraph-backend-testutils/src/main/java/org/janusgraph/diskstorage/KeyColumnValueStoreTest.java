@@ -18,11 +18,17 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
 import org.janusgraph.JanusGraphBaseStoreFeaturesTest;
 import org.janusgraph.TestCategory;
 import org.janusgraph.diskstorage.configuration.Configuration;
+import org.janusgraph.diskstorage.configuration.WriteConfiguration;
+import org.janusgraph.diskstorage.configuration.backend.CommonsConfiguration;
 import org.janusgraph.diskstorage.keycolumnvalue.scan.ScanJob;
 import org.janusgraph.diskstorage.keycolumnvalue.scan.ScanMetrics;
 import org.janusgraph.diskstorage.keycolumnvalue.scan.StandardScanner;
@@ -1180,6 +1186,183 @@ public abstract class KeyColumnValueStoreTest extends AbstractKCVSTest implement
         return jobBuilder.execute().get();
     }
 
+    @Test
+    @FeatureFlag(feature = JanusGraphFeature.OrderedScan)
+    public void scanTestWithCheckpoints() throws Exception {
+        int keys = 1000;
+        //Each of the 16 key ranges holds 64 keys except for the last
+        loadKeysOverKeySpace(keys);
+        clopen();
+
+        StandardScanner scanner = new StandardScanner(manager);
+        WriteConfiguration checkpoints = new CommonsConfiguration();
+        AtomicInteger finished = new AtomicInteger();
+
+        //The first of two instances only scans the even key ranges and does not finish the job
+        ScanMetrics first = runCheckpointedJob(scanner, checkpoints, 0, finished);
+        assertEquals(512, first.getCustom(SimpleScanJob.KEY_COUNT));
+        assertEquals(0, finished.get());
+        assertEquals(8, Iterables.size(checkpoints.getKeys("")));
+
+        //A restarted instance skips the key ranges it has completed
+        ScanMetrics restarted = runCheckpointedJob(scanner, checkpoints, 0, finished);
+        assertEquals(0, restarted.getCustom(SimpleScanJob.KEY_COUNT));
+        assertEquals(0, finished.get());
+
+        //The second instance completes the last key ranges, finishes the job and removes its checkpoints
+        ScanMetrics second = runCheckpointedJob(scanner, checkpoints, 1, finished);
+        assertEquals(keys - 512, second.getCustom(SimpleScanJob.KEY_COUNT));
+        assertEquals(1, finished.get());
+        assertTrue(Iterables.isEmpty(checkpoints.getKeys("")));
+    }
+
+    @Test
+    @FeatureFlag(feature = JanusGraphFeature.OrderedScan)
+    public void scanTestWithCheckpointsFinishedOnce() throws Exception {
+        loadKeysOverKeySpace(1000);
+        clopen();
+
+        StandardScanner scanner = new StandardScanner(manager);
+        WriteConfiguration checkpoints = new CommonsConfiguration();
+        AtomicInteger finished = new AtomicInteger();
+        runCheckpointedJob(scanner, checkpoints, 0, finished);
+
+        //Two runs of the second instance complete the last key ranges at the same time, only one finishes the job
+        CyclicBarrier started = new CyclicBarrier(2);
+        Callable<ScanMetrics> second = () -> {
+            AtomicBoolean first = new AtomicBoolean(true);
+            return runCheckpointedJob(scanner, checkpoints, 1, 2, key -> {
+                if (first.getAndSet(false)) {
+                    try {
+                        started.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException | BrokenBarrierException | TimeoutException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+                return true;
+            }, finished);
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (Future<ScanMetrics> run : executor.invokeAll(Arrays.asList(second, second))) {
+                assertEquals(0, run.get().get(ScanMetrics.Metric.FAILURE));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, finished.get());
+    }
+
+    @Test
+    @FeatureFlag(feature = JanusGraphFeature.OrderedScan)
+    public void scanTestWithCheckpointsAndStorageFailure() throws Exception {
+        int keys = 1000;
+        loadKeysOverKeySpace(keys);
+        clopen();
+
+        StandardScanner scanner = new StandardScanner(manager);
+        WriteConfiguration checkpoints = new CommonsConfiguration();
+        AtomicInteger finished = new AtomicInteger();
+
+        //Reading the keys of the fourth key range fails after its first half, which must not be checkpointed
+        StaticBuffer failingKey = BufferUtil.getLongBuffer(224L << 54);
+        ScanMetrics failed = runCheckpointedJob(scanner, checkpoints, 0, 1, key -> {
+            if (key.equals(failingKey)) throw new IllegalStateException("Storage failure");
+            return true;
+        }, finished);
+        assertEquals(keys - 32, failed.getCustom(SimpleScanJob.KEY_COUNT));
+        assertEquals(1, failed.get(ScanMetrics.Metric.FAILURE));
+        assertEquals(0, finished.get());
+        assertEquals(15, Iterables.size(checkpoints.getKeys("")));
+
+        //The restarted job scans the whole fourth key range again and finishes the job
+        ScanMetrics restarted = runCheckpointedJob(scanner, checkpoints, 0, 1, key -> true, finished);
+        assertEquals(64, restarted.getCustom(SimpleScanJob.KEY_COUNT));
+        assertEquals(1, finished.get());
+        assertTrue(Iterables.isEmpty(checkpoints.getKeys("")));
+    }
+
+    @Test
+    @FeatureFlag(feature = JanusGraphFeature.OrderedScan)
+    public void scanTestWithConcurrentKeyRanges() throws Exception {
+        int keys = 1000;
+        loadKeysOverKeySpace(keys);
+        clopen();
+        assertKeyRangesScannedConcurrently(keys, 4);
+    }
+
+    /**
+     * Writes the given number of keys whose ten most significant bits are the numbers from 0 to keys - 1, so that
+     * the keys are spread over the key space.
+     */
+    protected void loadKeysOverKeySpace(int keys) throws BackendException {
+        for (int i = 0; i < keys; i++) {
+            store.mutate(BufferUtil.getLongBuffer((long) i << 54),
+                    Collections.singletonList(StaticArrayEntry.of(KeyValueStoreUtil.getBuffer(0), KeyValueStoreUtil.getBuffer(i))),
+                    KeyColumnValueStore.NO_DELETIONS, tx);
+        }
+    }
+
+    /**
+     * Scans the keys written by {@link #loadKeysOverKeySpace(int)} with the given scan parallelism, which must be a
+     * power of two. The key filter holds the first key of every key range until the first keys of all ranges have
+     * been read, which only happens if the ranges are read at the same time.
+     */
+    protected void assertKeyRangesScannedConcurrently(int keys, int parallelism) throws Exception {
+        CyclicBarrier firstKeys = new CyclicBarrier(parallelism);
+        Set<Integer> startedRanges = ConcurrentHashMap.newKeySet();
+        AtomicBoolean concurrent = new AtomicBoolean(true);
+        Predicate<StaticBuffer> keyFilter = key -> {
+            int range = (key.getShort(0) & 0xFFFF) * parallelism >>> 16;
+            if (startedRanges.add(range)) {
+                try {
+                    firstKeys.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException | BrokenBarrierException | TimeoutException e) {
+                    concurrent.set(false);
+                }
+            }
+            return true;
+        };
+
+        StandardScanner scanner = new StandardScanner(manager);
+        StandardScanner.Builder jobBuilder = scanner.build();
+        jobBuilder.setStoreName(store.getName());
+        jobBuilder.setJobConfiguration(SimpleScanJob.getJobConf(
+                ImmutableList.of(new SliceQuery(BufferUtil.zeroBuffer(1), BufferUtil.oneBuffer(128)))));
+        jobBuilder.setNumProcessingThreads(2);
+        jobBuilder.setScanParallelism(parallelism);
+        jobBuilder.setTimestampProvider(times);
+        jobBuilder.setJob(new SimpleScanJob(null, keyFilter));
+        ScanMetrics metrics = jobBuilder.execute().get();
+
+        assertEquals(parallelism, startedRanges.size());
+        assertTrue(concurrent.get(), "The key ranges were not scanned at the same time");
+        assertEquals(keys, metrics.getCustom(SimpleScanJob.KEY_COUNT));
+    }
+
+    private ScanMetrics runCheckpointedJob(StandardScanner scanner, WriteConfiguration checkpoints, int instance,
+                                           AtomicInteger finished) throws Exception {
+        return runCheckpointedJob(scanner, checkpoints, instance, 2, key -> true, finished);
+    }
+
+    private ScanMetrics runCheckpointedJob(StandardScanner scanner, WriteConfiguration checkpoints, int instance,
+                                           int numInstances, Predicate<StaticBuffer> keyFilter,
+                                           AtomicInteger finished) throws Exception {
+        StandardScanner.Builder jobBuilder = scanner.build();
+        jobBuilder.setStoreName(store.getName());
+        jobBuilder.setJobConfiguration(SimpleScanJob.getJobConf(
+                ImmutableList.of(new SliceQuery(BufferUtil.zeroBuffer(1), BufferUtil.oneBuffer(128)))));
+        jobBuilder.setNumProcessingThreads(2);
+        jobBuilder.setWorkBlockSize(100);
+        jobBuilder.setTimestampProvider(times);
+        jobBuilder.setJob(new SimpleScanJob(null, keyFilter));
+        jobBuilder.setCheckpoints(checkpoints, 16);
+        jobBuilder.setCheckpointName("scanTestWithCheckpoints");
+        jobBuilder.setInstance(instance, numInstances);
+        jobBuilder.setFinishJob(metrics -> finished.incrementAndGet());
+        return jobBuilder.execute().get();
+    }
+
     @Test
     public void testClearStorage() throws Exception {
         final String[][] values = generateValues();
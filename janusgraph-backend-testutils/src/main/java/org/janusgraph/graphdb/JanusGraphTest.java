@@ -239,6 +239,43 @@ public abstract class JanusGraphTest extends JanusGraphBaseTest {
         assertEmpty(tx.query().vertices());
     }
 
+    /**
+     * Relations written through the serialization arena must read back identically, including large values
+     * which exceed the chunks of the arena and edges with descending sort order
+     */
+    @Test
+    public void testSerializationArena() {
+        clopen(option(SERIALIZATION_ARENA), true);
+        mgmt.makePropertyKey("name").dataType(String.class).cardinality(Cardinality.SINGLE).make();
+        PropertyKey time = mgmt.makePropertyKey("time").dataType(Integer.class).make();
+        ((StandardEdgeLabelMaker) mgmt.makeEdgeLabel("follows")).sortKey(time).sortOrder(Order.DESC).make();
+        finishSchema();
+
+        final int numV = 100;
+        final Random random = new Random(7);
+        final StringBuilder largeValue = new StringBuilder();
+        for (int i = 0; i < 100000; i++) largeValue.append((char) ('a' + random.nextInt(26)));
+        final long[] ids = new long[numV];
+        JanusGraphVertex previous = null;
+        for (int i = 0; i < numV; i++) {
+            JanusGraphVertex v = tx.addVertex("name", i == 0 ? largeValue.toString() : "v" + i);
+            if (previous != null) previous.addEdge("follows", v, "time", i);
+            previous = v;
+            ids[i] = v.longId();
+        }
+        newTx();
+        for (int i = 0; i < numV; i++) {
+            JanusGraphVertex v = getV(tx, ids[i]);
+            assertEquals(i == 0 ? largeValue.toString() : "v" + i, v.value("name"));
+            assertCount(i < numV - 1 ? 1 : 0, v.query().direction(Direction.OUT).labels("follows").edges());
+            if (i < numV - 1) {
+                Edge e = Iterables.getOnlyElement(v.query().direction(Direction.OUT).labels("follows").edges());
+                assertEquals(i + 1, (int) e.<Integer>value("time"));
+                assertEquals(ids[i + 1], ((JanusGraphVertex) e.inVertex()).longId());
+            }
+        }
+    }
+
     /**
      * Adding a removing a vertex with index
      */
@@ -1522,6 +1559,52 @@ public abstract class JanusGraphTest extends JanusGraphBaseTest {
         finishSchema();
     }
 
+    @Test
+    public void testAdjacentSliceCoalescing() {
+        final int numKeys = 6;
+        final String[] keys = new String[numKeys];
+        for (int i = 0; i < numKeys; i++) {
+            keys[i] = "slice" + i;
+            mgmt.makePropertyKey(keys[i]).dataType(Integer.class).cardinality(Cardinality.LIST).make();
+            //Interrupt the consecutive property key ids with an edge label in the middle
+            if (i == numKeys / 2 - 1) mgmt.makeEdgeLabel("sliceLabel").make();
+        }
+        finishSchema();
+        JanusGraphVertex v = tx.addVertex();
+        for (int i = 0; i < numKeys; i++) {
+            v.property(VertexProperty.Cardinality.list, keys[i], i);
+            v.property(VertexProperty.Cardinality.list, keys[i], i + numKeys);
+        }
+        v.addEdge("sliceLabel", tx.addVertex());
+        newTx();
+
+        v = getV(tx, v);
+        final SimpleQueryProfiler profiler = new SimpleQueryProfiler();
+        final JanusGraphVertexQuery<?> query = v.query().keys(keys);
+        ((BasicVertexCentricQueryBuilder) query).profiler(profiler);
+        final Set<Object> values = new HashSet<>();
+        for (JanusGraphVertexProperty<?> p : query.properties()) {
+            values.add(p.value());
+        }
+        int subQueries = 0;
+        for (SimpleQueryProfiler subProfiler : profiler) {
+            if (!subProfiler.getGroupName().equals(QueryProfiler.OPTIMIZATION)) subQueries++;
+        }
+        //Slices of consecutive property keys are merged but not across the edge label
+        assertTrue(subQueries >= 2 && subQueries < numKeys, "Unexpected number of slices: " + subQueries);
+
+        newTx();
+        v = getV(tx, v);
+        final Set<Object> expected = new HashSet<>();
+        for (String key : keys) {
+            for (JanusGraphVertexProperty<?> p : v.query().keys(key).properties()) {
+                expected.add(p.value());
+            }
+        }
+        assertEquals(2 * numKeys, expected.size());
+        assertEquals(expected, values);
+    }
+
     @Test
     public void testIndexUpdatesWithReindexAndRemove() throws InterruptedException, ExecutionException {
         clopen(option(LOG_SEND_DELAY, MANAGEMENT_LOG), Duration.ofMillis(0),
@@ -14,6 +14,7 @@
 
 package org.janusgraph.olap;
 
+import org.janusgraph.StorageSetup;
 import org.janusgraph.core.Cardinality;
 import org.janusgraph.core.JanusGraphComputer;
 import org.janusgraph.core.JanusGraphTransaction;
@@ -62,6 +63,7 @@ import org.junit.jupiter.api.TestInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -75,6 +77,9 @@ import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.COMPUTER_COLUMNAR_VERTEX_MEMORY;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.COMPUTER_IN_MEMORY_SNAPSHOT;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.COMPUTER_SPILL_DIRECTORY;
 import static org.janusgraph.testutil.JanusGraphAssert.assertCount;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -586,6 +591,191 @@ public abstract class OLAPTest extends JanusGraphBaseTest {
         }
     }
 
+    @Test
+    public void degreeCountingFromSnapshot() throws Exception {
+        int numV = 100;
+        int numE = generateRandomGraph(numV);
+        clopen(option(COMPUTER_IN_MEMORY_SNAPSHOT), true);
+
+        final JanusGraphComputer computer = graph.compute();
+        computer.resultMode(JanusGraphComputer.ResultMode.LOCALTX);
+        computer.workers(4);
+        computer.program(new DegreeCounter(2));
+        computer.mapReduce(new DegreeMapper());
+        ComputerResult result = computer.submit().get();
+        System.out.println("Execution time (ms) ["+numV+"|"+numE+"]: " + result.memory().getRuntime());
+        assertEquals(2,result.memory().getIteration());
+        Map<Long,Integer> degrees = result.memory().get(DegreeMapper.DEGREE_RESULT);
+        assertEquals(numV,degrees.size());
+
+        JanusGraphTransaction gview = (JanusGraphTransaction) result.graph();
+        for (JanusGraphVertex v : gview.query().vertices()) {
+            long degree2 = ((Integer)v.value(DegreeCounter.DEGREE)).longValue();
+            long actualDegree2 = 0;
+            for (Object w : v.query().direction(Direction.OUT).vertices()) {
+                actualDegree2 += Iterables.size(((JanusGraphVertex) w).query().direction(Direction.OUT).vertices());
+            }
+            assertEquals(actualDegree2,degree2);
+            assertEquals(degree2,degrees.get(v.longId()).longValue());
+        }
+        gview.rollback();
+    }
+
+    @Test
+    public void degreeCountingWithColumnarVertexMemory() throws Exception {
+        executeDegreeCounting(option(COMPUTER_IN_MEMORY_SNAPSHOT), true, option(COMPUTER_COLUMNAR_VERTEX_MEMORY), true);
+    }
+
+    @Test
+    public void degreeCountingWithSpilling() throws Exception {
+        executeDegreeCounting(option(COMPUTER_IN_MEMORY_SNAPSHOT), true, option(COMPUTER_COLUMNAR_VERTEX_MEMORY), true,
+            option(COMPUTER_SPILL_DIRECTORY), StorageSetup.getHomeDir("spill"));
+        assertEquals(0, new File(StorageSetup.getHomeDir("spill")).list().length);
+    }
+
+    private void executeDegreeCounting(Object... settings) throws Exception {
+        int numV = 100;
+        int numE = generateRandomGraph(numV);
+        clopen(settings);
+
+        final JanusGraphComputer computer = graph.compute();
+        computer.resultMode(JanusGraphComputer.ResultMode.NONE);
+        computer.workers(4);
+        computer.program(new DegreeCounter(2));
+        computer.mapReduce(new DegreeMapper());
+        ComputerResult result = computer.submit().get();
+        System.out.println("Execution time (ms) ["+numV+"|"+numE+"]: " + result.memory().getRuntime());
+        assertEquals(2,result.memory().getIteration());
+        Map<Long,Integer> degrees = result.memory().get(DegreeMapper.DEGREE_RESULT);
+        assertEquals(numV,degrees.size());
+
+        for (JanusGraphVertex v : tx.query().vertices()) {
+            long actualDegree2 = 0;
+            for (Object w : v.query().direction(Direction.OUT).vertices()) {
+                actualDegree2 += Iterables.size(((JanusGraphVertex) w).query().direction(Direction.OUT).vertices());
+            }
+            assertEquals(actualDegree2,degrees.get(v.longId()).longValue());
+        }
+    }
+
+    @Test
+    public void testIncrementalMinIdPropagation() throws Exception {
+        mgmt.makePropertyKey(MinIdPropagation.MIN_ID).dataType(Long.class).cardinality(Cardinality.SINGLE).make();
+        mgmt.makeEdgeLabel("connect").multiplicity(Multiplicity.MULTI).make();
+        finishSchema();
+        //Two components: v0-v1-v2 and v3-v4
+        final JanusGraphVertex[] vertices = new JanusGraphVertex[5];
+        for (int i = 0; i < vertices.length; i++) vertices[i] = tx.addVertex();
+        vertices[0].addEdge("connect", vertices[1]);
+        vertices[1].addEdge("connect", vertices[2]);
+        vertices[3].addEdge("connect", vertices[4]);
+        newTx();
+        final long[] ids = new long[vertices.length];
+        for (int i = 0; i < vertices.length; i++) ids[i] = vertices[i].longId();
+        final long minFirst = Math.min(ids[0], Math.min(ids[1], ids[2]));
+        final long minSecond = Math.min(ids[3], ids[4]);
+
+        ComputerResult result = graph.compute().resultMode(JanusGraphComputer.ResultMode.PERSIST)
+            .program(new MinIdPropagation()).submit().get();
+        assertEquals(5L, (long) result.memory().<Long>get(MinIdPropagation.INITIAL_EXECUTIONS));
+        newTx();
+        for (int i = 0; i < ids.length; i++) {
+            assertEquals(i < 3 ? minFirst : minSecond, (long) getV(tx, ids[i]).<Long>value(MinIdPropagation.MIN_ID));
+        }
+
+        //Connect both components and only execute the endpoints of the new edge initially
+        getV(tx, ids[2]).addEdge("connect", getV(tx, ids[4]));
+        newTx();
+        result = graph.compute().resultMode(JanusGraphComputer.ResultMode.PERSIST)
+            .incremental(ImmutableSet.of(ids[2], ids[4])).program(new MinIdPropagation()).submit().get();
+        assertEquals(2L, (long) result.memory().<Long>get(MinIdPropagation.INITIAL_EXECUTIONS));
+        newTx();
+        for (final long id : ids) {
+            assertEquals(Math.min(minFirst, minSecond), (long) getV(tx, id).<Long>value(MinIdPropagation.MIN_ID));
+        }
+
+        //Nothing changed, hence nothing is executed and the persisted values are retained
+        result = graph.compute().resultMode(JanusGraphComputer.ResultMode.PERSIST)
+            .incremental(Collections.emptySet()).program(new MinIdPropagation()).submit().get();
+        assertEquals(0L, (long) result.memory().<Long>get(MinIdPropagation.INITIAL_EXECUTIONS));
+        newTx();
+        for (final long id : ids) {
+            assertEquals(Math.min(minFirst, minSecond), (long) getV(tx, id).<Long>value(MinIdPropagation.MIN_ID));
+        }
+    }
+
+    /**
+     * Propagates the minimum vertex id through connected components. The propagation starts from the previously
+     * persisted minimum of a vertex, hence it can be executed incrementally.
+     */
+    public static class MinIdPropagation extends StaticVertexProgram<Long> {
+
+        public static final String MIN_ID = "minid";
+        public static final String VOTE_TO_HALT = "voteToHalt";
+        public static final String INITIAL_EXECUTIONS = "initialExecutions";
+        public static final MessageScope.Local<Long> NEIGHBORS = MessageScope.Local.of(__::bothE);
+
+        @Override
+        public void setup(Memory memory) {
+            memory.set(VOTE_TO_HALT, true);
+            memory.set(INITIAL_EXECUTIONS, 0L);
+        }
+
+        @Override
+        public void execute(Vertex vertex, Messenger<Long> messenger, Memory memory) {
+            final VertexProperty<Long> previous = vertex.property(MIN_ID);
+            final long vertexId = (Long) vertex.id();
+            if (memory.isInitialIteration()) {
+                final long minId = previous.isPresent() ? Math.min(previous.value(), vertexId) : vertexId;
+                vertex.property(VertexProperty.Cardinality.single, MIN_ID, minId);
+                messenger.sendMessage(NEIGHBORS, minId);
+                memory.add(INITIAL_EXECUTIONS, 1L);
+                memory.add(VOTE_TO_HALT, false);
+            } else {
+                final long current = previous.isPresent() ? previous.value() : vertexId;
+                final long minId = IteratorUtils.stream(messenger.receiveMessages()).reduce(current, Math::min);
+                if (minId < current || !previous.isPresent()) {
+                    vertex.property(VertexProperty.Cardinality.single, MIN_ID, minId);
+                    messenger.sendMessage(NEIGHBORS, minId);
+                    memory.add(VOTE_TO_HALT, false);
+                }
+            }
+        }
+
+        @Override
+        public boolean terminate(Memory memory) {
+            final boolean voteToHalt = memory.<Boolean>get(VOTE_TO_HALT);
+            memory.set(VOTE_TO_HALT, true);
+            return voteToHalt;
+        }
+
+        @Override
+        public Set<VertexComputeKey> getVertexComputeKeys() {
+            return ImmutableSet.of(VertexComputeKey.of(MIN_ID, false));
+        }
+
+        @Override
+        public Set<MemoryComputeKey> getMemoryComputeKeys() {
+            return ImmutableSet.of(MemoryComputeKey.of(VOTE_TO_HALT, Operator.and, false, true),
+                MemoryComputeKey.of(INITIAL_EXECUTIONS, Operator.sumLong, false, false));
+        }
+
+        @Override
+        public Set<MessageScope> getMessageScopes(Memory memory) {
+            return ImmutableSet.of(NEIGHBORS);
+        }
+
+        @Override
+        public GraphComputer.ResultGraph getPreferredResultGraph() {
+            return GraphComputer.ResultGraph.ORIGINAL;
+        }
+
+        @Override
+        public GraphComputer.Persist getPreferredPersist() {
+            return GraphComputer.Persist.VERTEX_PROPERTIES;
+        }
+    }
+
     @Test
     public void testPageRank() throws ExecutionException, InterruptedException {
         mgmt.makePropertyKey("distance").dataType(Integer.class).cardinality(Cardinality.SINGLE).make();
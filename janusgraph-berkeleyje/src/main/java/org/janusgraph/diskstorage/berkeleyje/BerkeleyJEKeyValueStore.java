@@ -19,9 +19,11 @@ import com.google.common.base.Preconditions;
 import com.sleepycat.je.*;
 import org.janusgraph.diskstorage.BackendException;
 import org.janusgraph.diskstorage.PermanentBackendException;
+import org.janusgraph.diskstorage.TemporaryBackendException;
 import org.janusgraph.diskstorage.StaticBuffer;
 import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
 import org.janusgraph.diskstorage.keycolumnvalue.keyvalue.KVQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.keyvalue.KVUtil;
 import org.janusgraph.diskstorage.keycolumnvalue.keyvalue.KeySelector;
 import org.janusgraph.diskstorage.keycolumnvalue.keyvalue.KeyValueEntry;
 import org.janusgraph.diskstorage.keycolumnvalue.keyvalue.OrderedKeyValueStore;
@@ -32,8 +34,13 @@ import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.NoSuchElementException;
@@ -42,6 +49,11 @@ public class BerkeleyJEKeyValueStore implements OrderedKeyValueStore {
 
     private static final Logger log = LoggerFactory.getLogger(BerkeleyJEKeyValueStore.class);
 
+    /**
+     * Minimum number of key ranges of a multi-key slice which are read by one thread
+     */
+    private static final int MIN_QUERIES_PER_PARTITION = 8;
+
     private static final StaticBuffer.Factory<DatabaseEntry> ENTRY_FACTORY = (array, offset, limit) -> new DatabaseEntry(array,offset,limit-offset);
 
     @VisibleForTesting
@@ -203,9 +215,84 @@ public class BerkeleyJEKeyValueStore implements OrderedKeyValueStore {
         };
     }
 
+    /**
+     * Reads the key ranges of all queries in ascending order of their start keys with a single cursor, so that
+     * consecutive ranges which are close to each other are found in the same part of the B-tree. In read-only
+     * transactions, the sorted key ranges may be partitioned into contiguous chunks which are read in parallel,
+     * each by its own cursor.
+     */
     @Override
     public Map<KVQuery,RecordIterator<KeyValueEntry>> getSlices(List<KVQuery> queries, StoreTransaction txh) throws BackendException {
-        throw new UnsupportedOperationException();
+        log.trace("beginning db={}, op=getSlices, tx={}", name, txh);
+        final List<KVQuery> sorted = new ArrayList<>(queries);
+        sorted.sort(Comparator.comparing(KVQuery::getStart));
+
+        final int partitions = ((BerkeleyJETx) txh).allowsParallelReads() ?
+            Math.min(manager.getMultiSliceThreads(), sorted.size() / MIN_QUERIES_PER_PARTITION) : 1;
+        if (partitions <= 1) {
+            return getSortedSlices(sorted, txh);
+        }
+
+        final int partitionSize = (sorted.size() + partitions - 1) / partitions;
+        final List<Future<Map<KVQuery,RecordIterator<KeyValueEntry>>>> futures = new ArrayList<>(partitions - 1);
+        for (int start = partitionSize; start < sorted.size(); start += partitionSize) {
+            final List<KVQuery> partition = sorted.subList(start, Math.min(start + partitionSize, sorted.size()));
+            futures.add(manager.getMultiSliceExecutor().submit(() -> getSortedSlices(partition, txh)));
+        }
+        // The calling thread reads the first partition itself
+        final Map<KVQuery,RecordIterator<KeyValueEntry>> results = new HashMap<>(sorted.size());
+        results.putAll(getSortedSlices(sorted.subList(0, partitionSize), txh));
+        try {
+            for (Future<Map<KVQuery,RecordIterator<KeyValueEntry>>> future : futures) {
+                results.putAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new TemporaryBackendException("Interrupted while reading slices", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof BackendException) throw (BackendException) e.getCause();
+            throw new PermanentBackendException(e.getCause());
+        }
+        return results;
+    }
+
+    private Map<KVQuery,RecordIterator<KeyValueEntry>> getSortedSlices(List<KVQuery> queries, StoreTransaction txh) throws BackendException {
+        final Map<KVQuery,RecordIterator<KeyValueEntry>> results = new HashMap<>(queries.size());
+        final ReadOptions readOptions = getReadOptions(txh);
+        final DatabaseEntry foundKey = new DatabaseEntry();
+        final DatabaseEntry foundData = new DatabaseEntry();
+        final Cursor cursor = openCursor(txh);
+        try {
+            for (KVQuery query : queries) {
+                final StaticBuffer keyEnd = query.getEnd();
+                final KeySelector selector = query.getKeySelector();
+                final List<KeyValueEntry> entries = new ArrayList<>();
+                final DatabaseEntry keyStart = query.getStart().as(ENTRY_FACTORY);
+                foundKey.setData(keyStart.getData(), keyStart.getOffset(), keyStart.getSize());
+                OperationResult result = cursor.get(foundKey, foundData, Get.SEARCH_GTE, readOptions);
+                while (result != null) {
+                    final StaticBuffer key = getBuffer(foundKey);
+                    if (key.compareTo(keyEnd) >= 0) {
+                        break;
+                    }
+                    if (selector.include(key)) {
+                        entries.add(new KeyValueEntry(key, getBuffer(foundData)));
+                        if (selector.reachedLimit()) {
+                            break;
+                        }
+                    }
+                    result = cursor.get(foundKey, foundData, Get.NEXT, readOptions);
+                }
+                results.put(query, KVUtil.iterator(entries));
+            }
+        } catch (DatabaseException e) {
+            throw new PermanentBackendException(e);
+        } finally {
+            closeCursor(txh, cursor);
+        }
+        return results;
     }
 
     @Override
@@ -239,6 +326,53 @@ public class BerkeleyJEKeyValueStore implements OrderedKeyValueStore {
         }
     }
 
+    /**
+     * Writes the given entries, which have to be sorted by key, through a single cursor. Since consecutive puts
+     * land in the same bottom internal node of the B-tree, that node stays in the cache and nodes only fill up and
+     * split at their right end instead of at random positions.
+     *
+     * @param entries the entries to write in ascending key order
+     * @param txh the transaction
+     * @throws BackendException if the entries could not be written
+     * @throws IllegalArgumentException if the entries are not sorted by key
+     */
+    void insertSorted(List<KeyValueEntry> entries, StoreTransaction txh) throws BackendException {
+        log.trace("db={}, op=insertSorted, tx={}, entries={}", name, txh, entries.size());
+        for (int i = 1; i < entries.size(); i++) {
+            Preconditions.checkArgument(entries.get(i - 1).getKey().compareTo(entries.get(i).getKey()) <= 0,
+                "Entries are not sorted by key at position %s", i);
+        }
+        final WriteOptions defaultWriteOptions = getWriteOptions(txh);
+        final Cursor cursor = openCursor(txh);
+        try {
+            for (KeyValueEntry entry : entries) {
+                WriteOptions writeOptions = defaultWriteOptions;
+                if (entry.getTtl() != null && entry.getTtl() > 0) {
+                    writeOptions = getWriteOptions(txh).setTTL(ttlConverter.apply(entry.getTtl()), TimeUnit.HOURS);
+                }
+                OperationResult result = cursor.put(entry.getKey().as(ENTRY_FACTORY), entry.getValue().as(ENTRY_FACTORY), Put.OVERWRITE, writeOptions);
+                EnvironmentFailureException.assertState(result != null);
+            }
+        } catch (DatabaseException e) {
+            throw new PermanentBackendException(e);
+        } finally {
+            closeCursor(txh, cursor);
+        }
+    }
+
+    /**
+     * Flushes all changes of this deferred-write database to disk.
+     *
+     * @throws BackendException if the database could not be synced
+     */
+    void sync() throws BackendException {
+        try {
+            db.sync();
+        } catch (DatabaseException e) {
+            throw new PermanentBackendException(e);
+        }
+    }
+
     @Override
     public void delete(StaticBuffer key, StoreTransaction txh) throws BackendException {
         log.trace("Deletion");
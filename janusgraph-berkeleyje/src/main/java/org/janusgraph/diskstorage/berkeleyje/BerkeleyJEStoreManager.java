@@ -16,6 +16,7 @@ package org.janusgraph.diskstorage.berkeleyje;
 
 
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.sleepycat.je.*;
 import org.janusgraph.diskstorage.*;
 import org.janusgraph.diskstorage.common.LocalStoreManager;
@@ -33,16 +34,25 @@ import org.janusgraph.diskstorage.keycolumnvalue.keyvalue.OrderedKeyValueStoreMa
 import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
 import org.janusgraph.graphdb.configuration.PreInitializeConfigOptions;
 import org.janusgraph.graphdb.transaction.TransactionConfiguration;
+import org.janusgraph.util.stats.MetricManager;
 import org.janusgraph.util.system.IOUtils;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.janusgraph.diskstorage.configuration.ConfigOption.disallowEmpty;
+import static org.janusgraph.diskstorage.util.MetricInstrumentedStore.M_CALLS;
+import static org.janusgraph.diskstorage.util.MetricInstrumentedStore.M_TIME;
 
 @PreInitializeConfigOptions
 public class BerkeleyJEStoreManager extends LocalStoreManager implements OrderedKeyValueStoreManager {
@@ -78,11 +88,36 @@ public class BerkeleyJEStoreManager extends LocalStoreManager implements Ordered
             ConfigOption.Type.MASKABLE,  String.class,
             IsolationLevel.REPEATABLE_READ.toString(), disallowEmpty(String.class));
 
+    public static final ConfigOption<Integer> MULTI_SLICE_THREADS =
+            new ConfigOption<>(BERKELEY_NS, "multi-slice-threads",
+            "Number of threads among which the key ranges of a multi-key slice query are partitioned in read-only " +
+            "transactions.  Each thread walks its partition with its own cursor.  With a value of 1, all key ranges " +
+            "are read on the calling thread.",
+            ConfigOption.Type.MASKABLE, 1, ConfigOption.positiveInt());
+
+    public static final ConfigOption<Integer> BATCH_SYNC_INTERVAL =
+            new ConfigOption<>(BERKELEY_NS, "batch-sync-interval",
+            "Number of records written in batch loading mode after which all deferred-write databases are synced " +
+            "to disk.  With a value of 0, the databases are only synced when they are closed.",
+            ConfigOption.Type.MASKABLE, 0, ConfigOption.nonnegativeInt());
+
+    public static final String M_BULK_INSERT = "bulkInsert";
+    public static final String M_BATCH_SYNC = "batchSync";
+    public static final String M_ENTRIES = "entries";
+
+    private static final Comparator<KeyValueEntry> KEY_ORDER = Comparator.comparing(KeyValueEntry::getKey);
+
     private final Map<String, BerkeleyJEKeyValueStore> stores;
 
     protected Environment environment;
     protected final StoreFeatures features;
 
+    private final int multiSliceThreads;
+    private final ExecutorService multiSliceExecutor;
+
+    private final int batchSyncInterval;
+    private final AtomicLong unsyncedRecords = new AtomicLong();
+
     public BerkeleyJEStoreManager(Configuration configuration) throws BackendException {
         super(configuration);
         stores = new HashMap<>();
@@ -92,12 +127,18 @@ public class BerkeleyJEStoreManager extends LocalStoreManager implements Ordered
         CacheMode cacheMode = ConfigOption.getEnumValue(configuration.get(CACHE_MODE), CacheMode.class);
         initialize(cachePercentage, sharedCache, cacheMode);
 
+        multiSliceThreads = configuration.get(MULTI_SLICE_THREADS);
+        multiSliceExecutor = multiSliceThreads > 1 ? Executors.newFixedThreadPool(multiSliceThreads - 1,
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("berkeleyje-multi-slice-%d").build()) : null;
+        batchSyncInterval = configuration.get(BATCH_SYNC_INTERVAL);
+
         features = new StandardStoreFeatures.Builder()
                     .orderedScan(true)
                     .transactional(transactional)
                     .keyConsistent(GraphDatabaseConfiguration.buildGraphConfiguration())
                     .locking(true)
                     .keyOrdered(true)
+                    .multiQuery(true)
                     .scanTxConfig(GraphDatabaseConfiguration.buildGraphConfiguration()
                             .set(ISOLATION_LEVEL, IsolationLevel.READ_UNCOMMITTED.toString())
                     )
@@ -135,6 +176,14 @@ public class BerkeleyJEStoreManager extends LocalStoreManager implements Ordered
         return features;
     }
 
+    int getMultiSliceThreads() {
+        return multiSliceThreads;
+    }
+
+    ExecutorService getMultiSliceExecutor() {
+        return multiSliceExecutor;
+    }
+
     @Override
     public List<KeyRange> getLocalKeyPartition() throws BackendException {
         throw new UnsupportedOperationException();
@@ -219,9 +268,13 @@ public class BerkeleyJEStoreManager extends LocalStoreManager implements Ordered
             }
 
             if (mutationValue.hasAdditions()) {
-                for (KeyValueEntry entry : mutationValue.getAdditions()) {
-                    store.insert(entry.getKey(),entry.getValue(),txh, entry.getTtl());
-                    log.trace("Insertion on {}: {}", mutation.getKey(), entry);
+                if (batchLoading) {
+                    insertSorted(store, mutationValue.getAdditions(), txh);
+                } else {
+                    for (KeyValueEntry entry : mutationValue.getAdditions()) {
+                        store.insert(entry.getKey(),entry.getValue(),txh, entry.getTtl());
+                        log.trace("Insertion on {}: {}", mutation.getKey(), entry);
+                    }
                 }
             }
             if (mutationValue.hasDeletions()) {
@@ -233,6 +286,51 @@ public class BerkeleyJEStoreManager extends LocalStoreManager implements Ordered
         }
     }
 
+    /**
+     * Sorts the additions by key and writes them through a single cursor. This is only used in batch loading mode
+     * where all databases use deferred writes, so that the sorted records are written to the log in large chunks
+     * when the databases are synced or the cache is evicted.
+     */
+    private void insertSorted(BerkeleyJEKeyValueStore store, List<KeyValueEntry> additions, StoreTransaction txh) throws BackendException {
+        final List<KeyValueEntry> sorted = new ArrayList<>(additions);
+        sorted.sort(KEY_ORDER);
+
+        final long start = System.nanoTime();
+        store.insertSorted(sorted, txh);
+        final long elapsed = System.nanoTime() - start;
+
+        if (txh.getConfiguration().hasGroupName()) {
+            final String prefix = txh.getConfiguration().getGroupName();
+            final MetricManager mgr = MetricManager.INSTANCE;
+            mgr.getCounter(prefix, store.getName(), M_BULK_INSERT, M_CALLS).inc();
+            mgr.getCounter(prefix, store.getName(), M_BULK_INSERT, M_ENTRIES).inc(sorted.size());
+            mgr.getTimer(prefix, store.getName(), M_BULK_INSERT, M_TIME).update(elapsed, TimeUnit.NANOSECONDS);
+        }
+
+        if (batchSyncInterval > 0 && unsyncedRecords.addAndGet(sorted.size()) >= batchSyncInterval) {
+            syncDeferredWrites(txh);
+        }
+    }
+
+    private synchronized void syncDeferredWrites(StoreTransaction txh) throws BackendException {
+        final long records = unsyncedRecords.getAndSet(0);
+        if (records == 0) return;
+        final long start = System.nanoTime();
+        for (BerkeleyJEKeyValueStore store : new ArrayList<>(stores.values())) {
+            store.sync();
+        }
+        final long elapsed = System.nanoTime() - start;
+        log.debug("Synced {} batch loaded records to disk in {} ms", records, TimeUnit.NANOSECONDS.toMillis(elapsed));
+
+        if (txh.getConfiguration().hasGroupName()) {
+            final String prefix = txh.getConfiguration().getGroupName();
+            final MetricManager mgr = MetricManager.INSTANCE;
+            mgr.getCounter(prefix, M_BATCH_SYNC, M_CALLS).inc();
+            mgr.getCounter(prefix, M_BATCH_SYNC, M_ENTRIES).inc(records);
+            mgr.getTimer(prefix, M_BATCH_SYNC, M_TIME).update(elapsed, TimeUnit.NANOSECONDS);
+        }
+    }
+
     void removeDatabase(BerkeleyJEKeyValueStore db) {
         if (!stores.containsKey(db.getName())) {
             throw new IllegalArgumentException("Tried to remove an unknown database from the storage manager");
@@ -248,6 +346,8 @@ public class BerkeleyJEStoreManager extends LocalStoreManager implements Ordered
         if (environment != null) {
             if (!stores.isEmpty())
                 throw new IllegalStateException("Cannot shutdown manager since some databases are still open");
+            if (multiSliceExecutor != null)
+                multiSliceExecutor.shutdownNow();
             try {
                 // TODO this looks like a race condition
                 //Wait just a little bit before closing so that independent transaction threads can clean up.
@@ -25,6 +25,7 @@ import org.janusgraph.diskstorage.BackendException;
 import org.janusgraph.diskstorage.PermanentBackendException;
 import org.janusgraph.diskstorage.BaseTransactionConfig;
 import org.janusgraph.diskstorage.common.AbstractStoreTransaction;
+import org.janusgraph.graphdb.transaction.TransactionConfiguration;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -88,6 +89,16 @@ public class BerkeleyJETx extends AbstractStoreTransaction {
         return lockMode;
     }
 
+    /**
+     * Whether cursors of this transaction may be used by several threads at once. This is only the case for
+     * read-only graph transactions which are backed by a BerkeleyJE transaction, since BerkeleyJE only allows
+     * transactions to be shared between threads.
+     */
+    boolean allowsParallelReads() {
+        return tx != null && getConfiguration() instanceof TransactionConfiguration
+            && ((TransactionConfiguration) getConfiguration()).isReadOnly();
+    }
+
     @Override
     public synchronized void rollback() throws BackendException {
         super.rollback();
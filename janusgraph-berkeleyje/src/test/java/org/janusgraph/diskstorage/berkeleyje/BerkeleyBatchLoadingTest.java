@@ -0,0 +1,142 @@
+// Copyright 2020 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.berkeleyje;
+
+import org.janusgraph.BerkeleyStorageSetup;
+import org.janusgraph.diskstorage.AbstractKCVSTest;
+import org.janusgraph.diskstorage.BackendException;
+import org.janusgraph.diskstorage.KeyValueStoreUtil;
+import org.janusgraph.diskstorage.configuration.ModifiableConfiguration;
+import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
+import org.janusgraph.diskstorage.keycolumnvalue.keyvalue.KVMutation;
+import org.janusgraph.diskstorage.keycolumnvalue.keyvalue.KVQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.keyvalue.KeyValueEntry;
+import org.janusgraph.diskstorage.util.RecordIterator;
+import org.janusgraph.diskstorage.util.StandardBaseTransactionConfig;
+import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
+import org.janusgraph.util.stats.MetricManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.janusgraph.diskstorage.util.MetricInstrumentedStore.M_CALLS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BerkeleyBatchLoadingTest extends AbstractKCVSTest {
+
+    private static final String STORE_NAME = "batchStore";
+    private static final String METRICS_GROUP = "batchLoading";
+    private static final int SYNC_INTERVAL = 100;
+
+    private BerkeleyJEStoreManager manager;
+    private BerkeleyJEKeyValueStore store;
+
+    @BeforeEach
+    public void setUp() throws BackendException {
+        ModifiableConfiguration config = BerkeleyStorageSetup.getBerkeleyJEConfiguration()
+            .set(GraphDatabaseConfiguration.STORAGE_BATCH, true)
+            .set(BerkeleyJEStoreManager.BATCH_SYNC_INTERVAL, SYNC_INTERVAL);
+        manager = new BerkeleyJEStoreManager(config);
+        manager.clearStorage();
+        store = manager.openDatabase(STORE_NAME);
+    }
+
+    @AfterEach
+    public void tearDown() throws BackendException {
+        store.close();
+        manager.close();
+    }
+
+    private StandardBaseTransactionConfig getMetricsTxConfig() {
+        return new StandardBaseTransactionConfig.Builder(getTxConfig()).groupName(METRICS_GROUP).build();
+    }
+
+    private static long getCount(String... names) {
+        return MetricManager.INSTANCE.getCounter(METRICS_GROUP, names).getCount();
+    }
+
+    @Test
+    public void testUnsortedAdditionsAreInsertedInKeyOrder() throws BackendException {
+        final int numKeys = 1000;
+        final String[] values = KeyValueStoreUtil.generateData(numKeys);
+        final long bulkInserts = getCount(STORE_NAME, BerkeleyJEStoreManager.M_BULK_INSERT, M_CALLS);
+        final long bulkInsertEntries = getCount(STORE_NAME, BerkeleyJEStoreManager.M_BULK_INSERT, BerkeleyJEStoreManager.M_ENTRIES);
+        final long syncs = getCount(BerkeleyJEStoreManager.M_BATCH_SYNC, M_CALLS);
+        final long syncedEntries = getCount(BerkeleyJEStoreManager.M_BATCH_SYNC, BerkeleyJEStoreManager.M_ENTRIES);
+
+        StoreTransaction tx = manager.beginTransaction(getMetricsTxConfig());
+        for (int batch = 0; batch < 4; batch++) {
+            // Add the keys of each batch in descending order
+            final List<KeyValueEntry> additions = new ArrayList<>();
+            for (int i = numKeys - 1 - batch; i >= 0; i -= 4) {
+                additions.add(new KeyValueEntry(KeyValueStoreUtil.getBuffer(i), KeyValueStoreUtil.getBuffer(values[i])));
+            }
+            // Writing the additions through BerkeleyJEKeyValueStore.insertSorted fails unless they have been sorted
+            manager.mutateMany(Collections.singletonMap(STORE_NAME, new KVMutation(additions, Collections.emptyList())), tx);
+        }
+        tx.commit();
+
+        // Every batch exceeds the sync interval and is hence synced right after it has been written
+        assertEquals(4, getCount(STORE_NAME, BerkeleyJEStoreManager.M_BULK_INSERT, M_CALLS) - bulkInserts);
+        assertEquals(numKeys, getCount(STORE_NAME, BerkeleyJEStoreManager.M_BULK_INSERT, BerkeleyJEStoreManager.M_ENTRIES) - bulkInsertEntries);
+        assertEquals(4, getCount(BerkeleyJEStoreManager.M_BATCH_SYNC, M_CALLS) - syncs);
+        assertEquals(numKeys, getCount(BerkeleyJEStoreManager.M_BATCH_SYNC, BerkeleyJEStoreManager.M_ENTRIES) - syncedEntries);
+
+        tx = manager.beginTransaction(getTxConfig());
+        final RecordIterator<KeyValueEntry> entries = store.getSlice(
+            new KVQuery(KeyValueStoreUtil.MIN_KEY, KeyValueStoreUtil.MAX_KEY), tx);
+        for (int i = 0; i < numKeys; i++) {
+            assertTrue(entries.hasNext());
+            final KeyValueEntry entry = entries.next();
+            assertEquals(i, KeyValueStoreUtil.getID(entry.getKey()));
+            assertEquals(values[i], KeyValueStoreUtil.getString(entry.getValue()));
+        }
+        assertFalse(entries.hasNext());
+        tx.commit();
+    }
+
+    @Test
+    public void testSyncAfterInterval() throws BackendException {
+        final long syncs = getCount(BerkeleyJEStoreManager.M_BATCH_SYNC, M_CALLS);
+        StoreTransaction tx = manager.beginTransaction(getMetricsTxConfig());
+        for (int i = 0; i < 2 * SYNC_INTERVAL; i++) {
+            final KeyValueEntry entry = new KeyValueEntry(KeyValueStoreUtil.getBuffer(i), KeyValueStoreUtil.getBuffer("v" + i));
+            manager.mutateMany(Collections.singletonMap(STORE_NAME,
+                new KVMutation(Collections.singletonList(entry), Collections.emptyList())), tx);
+            // The databases are synced whenever another SYNC_INTERVAL records have been written
+            assertEquals((i + 1) / SYNC_INTERVAL, getCount(BerkeleyJEStoreManager.M_BATCH_SYNC, M_CALLS) - syncs);
+        }
+        tx.commit();
+    }
+
+    @Test
+    public void testInsertSortedRejectsUnsortedEntries() throws BackendException {
+        final List<KeyValueEntry> entries = new ArrayList<>();
+        for (int i = 10; i > 0; i--) {
+            entries.add(new KeyValueEntry(KeyValueStoreUtil.getBuffer(i), KeyValueStoreUtil.getBuffer("v" + i)));
+        }
+        final StoreTransaction tx = manager.beginTransaction(getTxConfig());
+        assertThrows(IllegalArgumentException.class, () -> store.insertSorted(entries, tx));
+        assertFalse(store.getSlice(new KVQuery(KeyValueStoreUtil.MIN_KEY, KeyValueStoreUtil.MAX_KEY), tx).hasNext());
+        tx.commit();
+    }
+}
@@ -14,8 +14,12 @@
 
 package org.janusgraph.graphdb.berkeleyje;
 
+import com.google.common.collect.Iterables;
+import org.janusgraph.core.JanusGraphEdge;
 import org.janusgraph.core.JanusGraphException;
 import org.janusgraph.core.JanusGraphFactory;
+import org.janusgraph.core.JanusGraphTransaction;
+import org.janusgraph.core.JanusGraphVertex;
 import org.janusgraph.diskstorage.Backend;
 import org.janusgraph.diskstorage.BackendException;
 import org.janusgraph.diskstorage.configuration.ConfigOption;
@@ -35,6 +39,9 @@ import org.janusgraph.graphdb.JanusGraphTest;
 
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class BerkeleyGraphTest extends JanusGraphTest {
@@ -112,6 +119,34 @@ public class BerkeleyGraphTest extends JanusGraphTest {
         //Do nothing TODO: Figure out why this is failing in BerkeleyDB!!
     }
 
+    @Test
+    public void testPartitionedMultiQueryInReadOnlyTransaction() {
+        clopen(option(BerkeleyJEStoreManager.MULTI_SLICE_THREADS), 4);
+        final int numVertices = 100;
+        final JanusGraphVertex hub = graph.addVertex();
+        final List<Object> ids = new ArrayList<>(numVertices);
+        for (int i = 0; i < numVertices; i++) {
+            JanusGraphVertex v = graph.addVertex();
+            for (int j = 0; j <= i % 3; j++) {
+                v.addEdge("knows", hub);
+            }
+            ids.add(v.id());
+        }
+        graph.tx().commit();
+
+        final JanusGraphTransaction tx = graph.buildTransaction().readOnly().start();
+        final List<JanusGraphVertex> vertices = new ArrayList<>(numVertices);
+        for (Object id : ids) {
+            vertices.add(tx.getVertex((Long) id));
+        }
+        final Map<JanusGraphVertex, Iterable<JanusGraphEdge>> results = tx.multiQuery(vertices).labels("knows").edges();
+        assertEquals(numVertices, results.size());
+        for (int i = 0; i < numVertices; i++) {
+            assertEquals(i % 3 + 1, Iterables.size(results.get(vertices.get(i))));
+        }
+        tx.rollback();
+    }
+
     @Test
     public void testIDBlockAllocationTimeout() throws BackendException {
         config.set("ids.authority.wait-time", Duration.of(0L, ChronoUnit.NANOS));
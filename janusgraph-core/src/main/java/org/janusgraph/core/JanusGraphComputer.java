@@ -16,6 +16,8 @@ package org.janusgraph.core;
 
 import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
 
+import java.util.Set;
+
 /**
  * @author Matthias Broecheler (me@matthiasb.com)
  */
@@ -47,6 +49,28 @@ public interface JanusGraphComputer extends GraphComputer {
     @Override
     JanusGraphComputer workers(int threads);
 
+    /**
+     * Executes the vertex program incrementally, i.e. only the given vertices are executed in the first iteration
+     * and all other vertices start from the values of the vertex compute keys that were persisted by a previous
+     * execution of the same program. Only the first iteration is restricted to the given vertices, all subsequent
+     * iterations execute every vertex as in a regular execution. The vertex program is therefore responsible for
+     * skipping the work of vertices which have not received any messages, and a program that propagates changes
+     * over many iterations still scans the entire graph in each of them.
+     * <p>
+     * This is only correct for vertex programs which derive their result from the persisted value of a vertex and
+     * the messages it receives, e.g. programs which monotonically propagate a minimum like connected components,
+     * and requires the active vertices to include all vertices which have been changed since the previous execution
+     * (see {@link org.janusgraph.graphdb.olap.computer.ChangedVertexTracker}).
+     *
+     * @param activeVertices the ids of the vertices which are executed in the first iteration
+     * @return this computer
+     * @throws UnsupportedOperationException if this computer cannot execute vertex programs incrementally
+     */
+    default JanusGraphComputer incremental(Set<Long> activeVertices) {
+        throw new UnsupportedOperationException("Incremental execution of vertex programs is not supported by " +
+            getClass().getName());
+    }
+
     default JanusGraphComputer resultMode(ResultMode mode) {
         result(mode.toResultGraph());
         persist(mode.toPersist());
@@ -34,6 +34,7 @@ import org.janusgraph.diskstorage.keycolumnvalue.cache.CacheTransaction;
 import org.janusgraph.diskstorage.keycolumnvalue.cache.ExpirationKCVSCache;
 import org.janusgraph.diskstorage.keycolumnvalue.cache.KCVSCache;
 import org.janusgraph.diskstorage.keycolumnvalue.cache.NoKCVSCache;
+import org.janusgraph.diskstorage.keycolumnvalue.compression.CompressedKCVSManager;
 import org.janusgraph.diskstorage.keycolumnvalue.keyvalue.OrderedKeyValueStoreManager;
 import org.janusgraph.diskstorage.keycolumnvalue.keyvalue.OrderedKeyValueStoreManagerAdapter;
 import org.janusgraph.diskstorage.keycolumnvalue.scan.StandardScanner;
@@ -45,7 +46,9 @@ import org.janusgraph.diskstorage.log.Log;
 import org.janusgraph.diskstorage.log.LogManager;
 import org.janusgraph.diskstorage.log.kcvs.KCVSLog;
 import org.janusgraph.diskstorage.log.kcvs.KCVSLogManager;
+import org.janusgraph.diskstorage.util.BackendCompression;
 import org.janusgraph.diskstorage.util.BackendOperation;
+import org.janusgraph.diskstorage.util.DeflateCompression;
 import org.janusgraph.diskstorage.util.MetricInstrumentedStoreManager;
 import org.janusgraph.diskstorage.util.StandardBaseTransactionConfig;
 import org.janusgraph.diskstorage.util.time.TimestampProvider;
@@ -57,9 +60,12 @@ import org.slf4j.LoggerFactory;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -155,6 +161,7 @@ public class Backend implements LockerProvider, AutoCloseable {
     private IDAuthority idAuthority;
     private KCVSConfiguration systemConfig;
     private KCVSConfiguration userConfig;
+    private KCVSConfiguration scanCheckpoints;
     private boolean hasAttemptedClose;
 
     private final StandardScanner scanner;
@@ -181,6 +188,11 @@ public class Backend implements LockerProvider, AutoCloseable {
         this.configuration = configuration;
 
         KeyColumnValueStoreManager manager = getStorageManager(configuration);
+        BackendCompression compression = getCompression(configuration);
+        if (compression != BackendCompression.NO_COMPRESSION) {
+            manager = new CompressedKCVSManager(manager, compression,
+                new HashSet<>(Arrays.asList(configuration.get(COMPRESSION_STORES))));
+        }
         if (configuration.get(BASIC_METRICS)) {
             storeManager = new MetricInstrumentedStoreManager(manager,METRICS_STOREMANAGER_NAME,configuration.get(METRICS_MERGE_STORES),METRICS_MERGED_STORE);
         } else {
@@ -339,6 +351,17 @@ public class Backend implements LockerProvider, AutoCloseable {
                     //Do nothing, storeManager is closed explicitly by Backend
                 }
             },systemConfigStore,USER_CONFIGURATION_IDENTIFIER,configuration);
+            scanCheckpoints = kcvsConfigurationBuilder.buildConfiguration(new BackendOperation.TransactionalProvider() {
+                @Override
+                public StoreTransaction openTx() throws BackendException {
+                    return storeManagerLocking.beginTransaction(StandardBaseTransactionConfig.of(configuration.get(TIMESTAMP_PROVIDER)));
+                }
+
+                @Override
+                public void close() throws BackendException {
+                    //Do nothing, storeManager is closed explicitly by Backend
+                }
+            },systemConfigStore,SCAN_CHECKPOINT_IDENTIFIER,configuration);
 
         } catch (BackendException e) {
             throw new JanusGraphException("Could not initialize backend", e);
@@ -391,8 +414,11 @@ public class Backend implements LockerProvider, AutoCloseable {
                 .setTimestampProvider(provider)
                 .setJobConfiguration(jobConfig)
                 .setGraphConfiguration(configuration)
-                .setNumProcessingThreads(1)
-                .setWorkBlockSize(this.configuration.get(PAGE_SIZE));
+                .setNumProcessingThreads(configuration.get(SCAN_THREADS))
+                .setScanParallelism(configuration.get(SCAN_PARALLELISM))
+                .setWorkBlockSize(this.configuration.get(PAGE_SIZE))
+                .setCheckpoints(scanCheckpoints, configuration.get(SCAN_CHECKPOINT_RANGES))
+                .setInstance(configuration.get(SCAN_INSTANCE_INDEX), configuration.get(SCAN_INSTANCE_COUNT));
     }
 
     public JanusGraphManagement.IndexJobFuture getScanJobStatus(Object jobId) {
@@ -459,6 +485,33 @@ public class Backend implements LockerProvider, AutoCloseable {
         return (KeyColumnValueStoreManager) manager;
     }
 
+    /**
+     * Returns the compression of the values of the given store, or {@link BackendCompression#NO_COMPRESSION} if
+     * its values are not compressed. Readers which access the store directly, such as the Hadoop input formats,
+     * decompress the values they read with it.
+     */
+    public static BackendCompression getCompression(Configuration config, String storeName) {
+        if (!Arrays.asList(config.get(COMPRESSION_STORES)).contains(storeName)) {
+            return BackendCompression.NO_COMPRESSION;
+        }
+        return getCompression(config);
+    }
+
+    private static BackendCompression getCompression(Configuration config) {
+        String algorithm = config.get(COMPRESSION_ALGORITHM);
+        switch (algorithm) {
+            case COMPRESSION_NONE:
+                return BackendCompression.NO_COMPRESSION;
+            case COMPRESSION_DEFLATE:
+                String dictionary = config.has(COMPRESSION_DICTIONARY) ? config.get(COMPRESSION_DICTIONARY) : null;
+                return new DeflateCompression(config.get(COMPRESSION_LEVEL), config.get(COMPRESSION_MIN_SIZE),
+                    dictionary == null ? null : dictionary.getBytes(StandardCharsets.UTF_8));
+            default:
+                throw new JanusGraphConfigurationException("Unknown compression algorithm \"" + algorithm +
+                    "\".  Known compression algorithms: " + COMPRESSION_NONE + ", " + COMPRESSION_DEFLATE + ".");
+        }
+    }
+
     private static Map<String, IndexProvider> getIndexes(Configuration config) {
         Set<String> containedIndexNamespaces = config.getContainedNamespaces(INDEX_NS);
         Map<String, IndexProvider> indexesMap = new HashMap<>(containedIndexNamespaces.size());
@@ -552,6 +605,7 @@ public class Backend implements LockerProvider, AutoCloseable {
             if (idAuthority != null) idAuthority.close();
             if (systemConfig != null) systemConfig.close();
             if (userConfig != null) userConfig.close();
+            if (scanCheckpoints != null) scanCheckpoints.close();
             storeManager.close();
             if(threadPool != null) {
             	threadPool.shutdown();
@@ -583,6 +637,7 @@ public class Backend implements LockerProvider, AutoCloseable {
             idAuthority.close();
             systemConfig.close();
             userConfig.close();
+            scanCheckpoints.close();
             storeManager.clearStorage();
             storeManager.close();
             //Indexes
@@ -121,6 +121,16 @@ public class BackendTransaction implements LoggableTransaction {
         return Preconditions.checkNotNull(itx, "Unknown index: " + index);
     }
 
+    /**
+     * Returns the thread pool shared across the graph instance for parallel backend operations
+     * or null if parallel backend operations are disabled.
+     *
+     * @return the backend operations thread pool or null
+     */
+    public Executor getThreadPool() {
+        return threadPool;
+    }
+
     public void disableCache() {
         this.cacheEnabled = false;
     }
@@ -61,6 +61,11 @@ public class KCVSProxy implements KeyColumnValueStore {
         return store.getKeys(columnQuery, unwrapTx(txh));
     }
 
+    @Override
+    public List<KeyRange> getKeyRanges() throws BackendException {
+        return store.getKeyRanges();
+    }
+
     @Override
     public String getName() {
         return store.getName();
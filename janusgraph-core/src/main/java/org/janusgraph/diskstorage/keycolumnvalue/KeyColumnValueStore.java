@@ -173,6 +173,20 @@ public interface KeyColumnValueStore {
     KeyIterator getKeys(SliceQuery query, StoreTransaction txh) throws BackendException;
     // like current getKeys if column-slice is such that it queries for vertex state property
 
+    /**
+     * Returns the contiguous key ranges, in key order, into which the storage backend partitions the keys of this
+     * store, e.g. the regions of a table. Scans which read several parts of the store at the same time split it
+     * along these ranges. The start of the first range and the end of the last range are empty, standing for the
+     * beginning and the end of the key space.
+     *
+     * @return the key ranges of this store, or an empty list if the storage backend does not partition its keys
+     * by key ranges
+     * @throws org.janusgraph.diskstorage.BackendException
+     */
+    default List<KeyRange> getKeyRanges() throws BackendException {
+        return Collections.emptyList();
+    }
+
     /**
      * Returns the name of this store. Each store has a unique name which is used to open it.
      *
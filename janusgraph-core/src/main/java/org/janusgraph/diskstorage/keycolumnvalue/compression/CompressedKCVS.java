@@ -0,0 +1,203 @@
+// Copyright 2020 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.keycolumnvalue.compression;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Iterables;
+import org.janusgraph.diskstorage.BackendException;
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.EntryMetaData;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.keycolumnvalue.KCVSProxy;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyIterator;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyRangeQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.KeySliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
+import org.janusgraph.diskstorage.util.BackendCompression;
+import org.janusgraph.diskstorage.util.RecordIterator;
+import org.janusgraph.diskstorage.util.StaticArrayEntry;
+import org.janusgraph.diskstorage.util.StaticArrayEntryList;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compresses the values of all entries which are written to the wrapped store and decompresses them when they
+ * are read. Columns are not compressed, so that the order of the entries and slice queries are not affected.
+ *
+ * @see CompressedKCVSManager
+ */
+public class CompressedKCVS extends KCVSProxy {
+
+    private final BackendCompression compression;
+    private final StaticArrayEntry.GetColVal<Entry, StaticBuffer> compressor;
+    private final StaticArrayEntry.GetColVal<Entry, StaticBuffer> decompressor;
+
+    public CompressedKCVS(KeyColumnValueStore store, BackendCompression compression) {
+        super(store);
+        this.compression = Preconditions.checkNotNull(compression);
+        this.compressor = new ValueTransformer(compression, true);
+        this.decompressor = new ValueTransformer(compression, false);
+    }
+
+    @Override
+    public void mutate(StaticBuffer key, List<Entry> additions, List<StaticBuffer> deletions, StoreTransaction txh) throws BackendException {
+        store.mutate(key, compress(additions, compressor), deletions, unwrapTx(txh));
+    }
+
+    @Override
+    public void acquireLock(StaticBuffer key, StaticBuffer column, StaticBuffer expectedValue,
+                            StoreTransaction txh) throws BackendException {
+        store.acquireLock(key, column, expectedValue == null ? null : compression.compress(expectedValue), unwrapTx(txh));
+    }
+
+    @Override
+    public EntryList getSlice(KeySliceQuery query, StoreTransaction txh) throws BackendException {
+        return decompress(store.getSlice(query, unwrapTx(txh)));
+    }
+
+    @Override
+    public Map<StaticBuffer, EntryList> getSlice(List<StaticBuffer> keys, SliceQuery query, StoreTransaction txh) throws BackendException {
+        final Map<StaticBuffer, EntryList> results = store.getSlice(keys, query, unwrapTx(txh));
+        final Map<StaticBuffer, EntryList> decompressed = new HashMap<>(results.size());
+        for (Map.Entry<StaticBuffer, EntryList> result : results.entrySet()) {
+            decompressed.put(result.getKey(), decompress(result.getValue()));
+        }
+        return decompressed;
+    }
+
+    @Override
+    public KeyIterator getKeys(KeyRangeQuery keyQuery, StoreTransaction txh) throws BackendException {
+        return new DecompressingKeyIterator(store.getKeys(keyQuery, unwrapTx(txh)));
+    }
+
+    @Override
+    public KeyIterator getKeys(SliceQuery columnQuery, StoreTransaction txh) throws BackendException {
+        return new DecompressingKeyIterator(store.getKeys(columnQuery, unwrapTx(txh)));
+    }
+
+    static List<Entry> compress(List<Entry> additions, StaticArrayEntry.GetColVal<Entry, StaticBuffer> compressor) {
+        if (additions.isEmpty()) return additions;
+        final List<Entry> compressed = new ArrayList<>(additions.size());
+        for (Entry entry : additions) {
+            compressed.add(StaticArrayEntry.ofStaticBuffer(entry, compressor));
+        }
+        return compressed;
+    }
+
+    /**
+     * Decompresses the values of entries which have been read from a compressed store without this wrapper, e.g.
+     * by the Hadoop input formats. The entries are decompressed as they are iterated.
+     */
+    public static Iterable<Entry> decompress(Iterable<Entry> entries, BackendCompression compression) {
+        if (compression == BackendCompression.NO_COMPRESSION) return entries;
+        final ValueTransformer decompressor = new ValueTransformer(compression, false);
+        return Iterables.transform(entries, entry -> StaticArrayEntry.ofStaticBuffer(entry, decompressor));
+    }
+
+    private EntryList decompress(EntryList entries) {
+        if (entries.isEmpty()) return entries;
+        return StaticArrayEntryList.ofStaticBuffer(entries.iterator(), decompressor);
+    }
+
+    private Entry decompress(Entry entry) {
+        return StaticArrayEntry.ofStaticBuffer(entry, decompressor);
+    }
+
+    /**
+     * Copies entries while compressing or decompressing their values
+     */
+    static class ValueTransformer implements StaticArrayEntry.GetColVal<Entry, StaticBuffer> {
+
+        private final BackendCompression compression;
+        private final boolean compress;
+
+        ValueTransformer(BackendCompression compression, boolean compress) {
+            this.compression = compression;
+            this.compress = compress;
+        }
+
+        @Override
+        public StaticBuffer getColumn(Entry entry) {
+            return entry.getColumn();
+        }
+
+        @Override
+        public StaticBuffer getValue(Entry entry) {
+            return compress ? compression.compress(entry.getValue()) : compression.decompress(entry.getValue());
+        }
+
+        @Override
+        public EntryMetaData[] getMetaSchema(Entry entry) {
+            return StaticArrayEntry.ENTRY_GETTER.getMetaSchema(entry);
+        }
+
+        @Override
+        public Object getMetaData(Entry entry, EntryMetaData meta) {
+            return StaticArrayEntry.ENTRY_GETTER.getMetaData(entry, meta);
+        }
+    }
+
+    private class DecompressingKeyIterator implements KeyIterator {
+
+        private final KeyIterator iterator;
+
+        private DecompressingKeyIterator(KeyIterator iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public RecordIterator<Entry> getEntries() {
+            final RecordIterator<Entry> entries = iterator.getEntries();
+            return new RecordIterator<Entry>() {
+                @Override
+                public boolean hasNext() {
+                    return entries.hasNext();
+                }
+
+                @Override
+                public Entry next() {
+                    return decompress(entries.next());
+                }
+
+                @Override
+                public void close() throws IOException {
+                    entries.close();
+                }
+            };
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public StaticBuffer next() {
+            return iterator.next();
+        }
+
+        @Override
+        public void close() throws IOException {
+            iterator.close();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+// Copyright 2020 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.keycolumnvalue.compression;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
+import org.janusgraph.diskstorage.BackendException;
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.StoreMetaData;
+import org.janusgraph.diskstorage.keycolumnvalue.KCVMutation;
+import org.janusgraph.diskstorage.keycolumnvalue.KCVSManagerProxy;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStoreManager;
+import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
+import org.janusgraph.diskstorage.util.BackendCompression;
+import org.janusgraph.diskstorage.util.StaticArrayEntry;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compresses the values of the selected stores of the wrapped store manager with a {@link BackendCompression}.
+ * All other stores are passed through unchanged.
+ * <p>
+ * Since compressed values are not readable without this wrapper, the compression and the selected stores have to
+ * remain the same for the entire lifetime of a graph.
+ */
+public class CompressedKCVSManager extends KCVSManagerProxy {
+
+    private final BackendCompression compression;
+    private final Set<String> compressedStores;
+    private final StaticArrayEntry.GetColVal<Entry, StaticBuffer> compressor;
+
+    public CompressedKCVSManager(KeyColumnValueStoreManager manager, BackendCompression compression,
+                                 Set<String> compressedStores) {
+        super(manager);
+        this.compression = Preconditions.checkNotNull(compression);
+        this.compressedStores = ImmutableSet.copyOf(compressedStores);
+        this.compressor = new CompressedKCVS.ValueTransformer(compression, true);
+    }
+
+    @Override
+    public KeyColumnValueStore openDatabase(String name) throws BackendException {
+        return openDatabase(name, StoreMetaData.EMPTY);
+    }
+
+    @Override
+    public KeyColumnValueStore openDatabase(String name, StoreMetaData.Container metaData) throws BackendException {
+        final KeyColumnValueStore store = manager.openDatabase(name, metaData);
+        return compressedStores.contains(name) ? new CompressedKCVS(store, compression) : store;
+    }
+
+    @Override
+    public void mutateMany(Map<String, Map<StaticBuffer, KCVMutation>> mutations, StoreTransaction txh) throws BackendException {
+        final Map<String, Map<StaticBuffer, KCVMutation>> compressedMutations = new HashMap<>(mutations.size());
+        for (Map.Entry<String, Map<StaticBuffer, KCVMutation>> storeMutations : mutations.entrySet()) {
+            if (!compressedStores.contains(storeMutations.getKey())) {
+                compressedMutations.put(storeMutations.getKey(), storeMutations.getValue());
+                continue;
+            }
+            final Map<StaticBuffer, KCVMutation> compressed = new HashMap<>(storeMutations.getValue().size());
+            for (Map.Entry<StaticBuffer, KCVMutation> mutation : storeMutations.getValue().entrySet()) {
+                final KCVMutation m = mutation.getValue();
+                compressed.put(mutation.getKey(), new KCVMutation(CompressedKCVS.compress(m.getAdditions(), compressor), m.getDeletions()));
+            }
+            compressedMutations.put(storeMutations.getKey(), compressed);
+        }
+        manager.mutateMany(compressedMutations, txh);
+    }
+}
@@ -21,6 +21,8 @@ import org.janusgraph.diskstorage.util.StaticArrayEntry;
 import org.janusgraph.diskstorage.util.StaticArrayEntryList;
 
 import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
 
 /**
@@ -51,6 +53,36 @@ public class KVUtil {
         }
     };
 
+    /**
+     * @param entries the entries of an already completed slice
+     * @return an iterator over the given entries
+     */
+    public static RecordIterator<KeyValueEntry> iterator(List<KeyValueEntry> entries) {
+        if (entries.isEmpty()) return EMPTY_ITERATOR;
+        final Iterator<KeyValueEntry> iterator = entries.iterator();
+        return new RecordIterator<KeyValueEntry>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public KeyValueEntry next() {
+                return iterator.next();
+            }
+
+            @Override
+            public void close() {
+
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
     public static EntryList getSlice(OrderedKeyValueStore store, StaticBuffer keyStart, StaticBuffer keyEnd, StoreTransaction txh) throws BackendException {
         return convert(store.getSlice(new KVQuery(keyStart,keyEnd), txh));
     }
@@ -0,0 +1,200 @@
+// Copyright 2020 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.keycolumnvalue.scan;
+
+import com.google.common.base.Preconditions;
+import org.janusgraph.core.JanusGraphException;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.configuration.WriteConfiguration;
+import org.janusgraph.diskstorage.configuration.backend.KCVSConfiguration;
+import org.janusgraph.diskstorage.util.BufferUtil;
+import org.janusgraph.diskstorage.util.StaticArrayBuffer;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Splits the key space of a store into contiguous ranges and records the ranges a scan job has completed
+ * in a {@link WriteConfiguration}, so that a restarted job only scans the remaining ranges.
+ * <p>
+ * The boundaries of the ranges are two byte key prefixes. The ranges of a job can be shared among several
+ * instances, each of which scans the ranges whose index modulo the number of instances equals its own index.
+ * The instance which claims the completion of the job once all ranges have been completed finishes the job.
+ * The store is accessed under its lock, so that the jobs of several instances in the same JVM can share it.
+ */
+class KeyRangeCheckpoints {
+
+    static final int MAX_RANGES = 1 << 16;
+
+    private static final String COMPLETION_CLAIM = "finished";
+
+    private final WriteConfiguration store;
+    private final String prefix;
+    private final int numRanges;
+    private final int instanceIndex;
+    private final int numInstances;
+
+    KeyRangeCheckpoints(WriteConfiguration store, String name, int numRanges, int instanceIndex, int numInstances) {
+        Preconditions.checkArgument(numRanges > 0 && numRanges <= MAX_RANGES,
+                "Invalid number of key ranges: %s", numRanges);
+        Preconditions.checkArgument(numInstances > 0 && instanceIndex >= 0 && instanceIndex < numInstances,
+                "Invalid instance index [%s] for %s instances", instanceIndex, numInstances);
+        this.store = Preconditions.checkNotNull(store);
+        this.prefix = name + "." + numRanges;
+        this.numRanges = numRanges;
+        this.instanceIndex = instanceIndex;
+        this.numInstances = numInstances;
+    }
+
+    int getNumRanges() {
+        return numRanges;
+    }
+
+    /**
+     * @return the indexes of the ranges assigned to this instance which have not been completed yet
+     */
+    List<Integer> getPendingRanges() {
+        Set<Integer> completed = getCompletedRanges();
+        List<Integer> pending = new ArrayList<>();
+        for (int range = instanceIndex; range < numRanges; range += numInstances) {
+            if (!completed.contains(range)) pending.add(range);
+        }
+        return pending;
+    }
+
+    StaticBuffer getKeyStart(int range) {
+        return getKeyStart(range, numRanges);
+    }
+
+    StaticBuffer getKeyEnd(int range, int maxKeyLength) {
+        return getKeyEnd(range, numRanges, maxKeyLength);
+    }
+
+    /**
+     * @return the first key of the given range when the key space is split into the given number of ranges
+     */
+    static StaticBuffer getKeyStart(int range, int numRanges) {
+        if (range == 0) return BufferUtil.zeroBuffer(1);
+        return getBoundary(range, numRanges);
+    }
+
+    /**
+     * @return the end of the given range, exclusive, when the key space is split into the given number of ranges
+     */
+    static StaticBuffer getKeyEnd(int range, int numRanges, int maxKeyLength) {
+        if (range == numRanges - 1) return BufferUtil.oneBuffer(maxKeyLength);
+        return getBoundary(range + 1, numRanges);
+    }
+
+    private static StaticBuffer getBoundary(int range, int numRanges) {
+        int boundary = (int) ((long) range * MAX_RANGES / numRanges);
+        return new StaticArrayBuffer(new byte[]{(byte) (boundary >>> 8), (byte) boundary});
+    }
+
+    void complete(int range) {
+        synchronized (store) {
+            store.set(getKey(range), Boolean.TRUE);
+        }
+    }
+
+    /**
+     * @return true if all ranges of the job, including those assigned to other instances, have been completed
+     */
+    boolean isJobComplete() {
+        return getCompletedRanges().size() == numRanges;
+    }
+
+    /**
+     * Claims the completion of the job for this instance, so that only one of the instances which see all ranges
+     * completed at the same time finishes the job. The claim is removed by {@link #clear()}.
+     *
+     * @return true if all ranges have been completed and no other instance has claimed the completion
+     */
+    boolean claimJobCompletion() {
+        if (!isJobComplete() || !claim(getCompletionClaimKey())) return false;
+        //Another instance may have finished the job and cleared its checkpoints right before the claim
+        if (isJobComplete()) return true;
+        synchronized (store) {
+            store.remove(getCompletionClaimKey());
+        }
+        return false;
+    }
+
+    /**
+     * Sets the given key unless it has been set already. The configuration stored in the backend sets it under a
+     * lock which expects the key to be absent, so that concurrent claims of several instances fail but one.
+     */
+    private boolean claim(String key) {
+        if (store instanceof KCVSConfiguration) {
+            try {
+                ((KCVSConfiguration) store).set(key, Boolean.TRUE, null, true);
+                return true;
+            } catch (JanusGraphException e) {
+                if (store.get(key, Boolean.class) != null) return false;
+                throw e;
+            }
+        }
+        synchronized (store) {
+            if (store.get(key, Boolean.class) != null) return false;
+            store.set(key, Boolean.TRUE);
+            return true;
+        }
+    }
+
+    void clear() {
+        for (int range : getCompletedRanges()) {
+            synchronized (store) {
+                store.remove(getKey(range));
+            }
+        }
+        synchronized (store) {
+            store.remove(getCompletionClaimKey());
+        }
+    }
+
+    private String getKey(int range) {
+        return prefix + "." + range;
+    }
+
+    private String getCompletionClaimKey() {
+        return prefix + "." + COMPLETION_CLAIM;
+    }
+
+    private Set<Integer> getCompletedRanges() {
+        Set<Integer> completed = new HashSet<>();
+        String rangePrefix = prefix + ".";
+        List<String> keys = new ArrayList<>();
+        synchronized (store) {
+            store.getKeys(prefix).forEach(keys::add);
+        }
+        for (String key : keys) {
+            if (!key.startsWith(rangePrefix)) continue;
+            try {
+                int range = Integer.parseInt(key.substring(rangePrefix.length()));
+                if (range >= 0 && range < numRanges) completed.add(range);
+            } catch (NumberFormatException e) {
+                //Key of another job whose name starts with this prefix
+            }
+        }
+        return completed;
+    }
+
+    @Override
+    public String toString() {
+        return prefix;
+    }
+}
@@ -24,6 +24,8 @@ import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
 import org.janusgraph.diskstorage.util.StandardBaseTransactionConfig;
 import org.janusgraph.diskstorage.util.time.TimestampProvider;
 import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.HashSet;
 import java.util.Map;
@@ -38,6 +40,8 @@ import java.util.function.Consumer;
  */
 public class StandardScanner  {
 
+    private static final Logger log = LoggerFactory.getLogger(StandardScanner.class);
+
     private final KeyColumnValueStoreManager manager;
     private final Set<KeyColumnValueStore> openStores;
     private final ConcurrentMap<Object,StandardScannerExecutor> runningJobs;
@@ -86,6 +90,7 @@ public class StandardScanner  {
 
         private ScanJob job;
         private int numProcessingThreads;
+        private int scanParallelism;
         private int workBlockSize;
         private TimestampProvider times;
         private Configuration graphConfiguration;
@@ -93,9 +98,15 @@ public class StandardScanner  {
         private String dbName;
         private Consumer<ScanMetrics> finishJob;
         private Object jobId;
+        private WriteConfiguration checkpointStore;
+        private int numCheckpointRanges;
+        private String checkpointName;
+        private int instanceIndex;
+        private int numInstances;
 
         private Builder() {
             numProcessingThreads = 1;
+            scanParallelism = 1;
             workBlockSize = DEFAULT_WORKBLOCK_SIZE;
             job = null;
             times = null;
@@ -104,6 +115,11 @@ public class StandardScanner  {
             dbName = null;
             jobId = jobCounter.incrementAndGet();
             finishJob = m -> {} ;
+            checkpointStore = null;
+            numCheckpointRanges = 0;
+            checkpointName = null;
+            instanceIndex = 0;
+            numInstances = 1;
         }
 
         public Builder setNumProcessingThreads(int numThreads) {
@@ -113,6 +129,21 @@ public class StandardScanner  {
             return this;
         }
 
+        /**
+         * Sets the number of key ranges which are read concurrently. Each range is read by its own data pulling
+         * threads, one per query. The ranges are the checkpointed ranges of the job, see
+         * {@link #setCheckpoints(WriteConfiguration, int)}, or otherwise the key ranges into which the store
+         * partitions its keys, see {@link KeyColumnValueStore#getKeyRanges()}, or as many equally sized ranges as the
+         * given parallelism if the store does not partition its keys. Only stores with ordered scans are read in
+         * concurrent ranges.
+         */
+        public Builder setScanParallelism(int parallelism) {
+            Preconditions.checkArgument(parallelism>0,
+                    "Need to specify a positive scan parallelism: %s",parallelism);
+            this.scanParallelism = parallelism;
+            return this;
+        }
+
         public Builder setWorkBlockSize(int size) {
             Preconditions.checkArgument(size>0, "Need to specify a positive work block size: %s",size);
             this.workBlockSize = size;
@@ -163,6 +194,58 @@ public class StandardScanner  {
             return this;
         }
 
+        /**
+         * Records the completed key ranges of the job in the given configuration. The store is split into the given
+         * number of ranges, or scanned without checkpoints if it is 0. Checkpoints are only recorded for jobs which
+         * have a checkpoint name, see {@link #setCheckpointName(String)}.
+         */
+        public Builder setCheckpoints(WriteConfiguration store, int numRanges) {
+            Preconditions.checkArgument(numRanges >= 0 && numRanges <= KeyRangeCheckpoints.MAX_RANGES,
+                    "Invalid number of key ranges: %s", numRanges);
+            this.checkpointStore = Preconditions.checkNotNull(store);
+            this.numCheckpointRanges = numRanges;
+            return this;
+        }
+
+        /**
+         * Sets the name under which the completed key ranges are recorded. A job with the same name resumes from
+         * these checkpoints, so the name must uniquely identify the work the job does.
+         */
+        public Builder setCheckpointName(String name) {
+            Preconditions.checkArgument(StringUtils.isNotBlank(name),"Invalid name: %s",name);
+            this.checkpointName = name;
+            return this;
+        }
+
+        /**
+         * Restricts a checkpointed job to the key ranges assigned to the instance with the given index among the
+         * given number of instances. The job is only finished by the instance which completes the last range.
+         */
+        public Builder setInstance(int index, int count) {
+            Preconditions.checkArgument(count > 0 && index >= 0 && index < count,
+                    "Invalid instance index [%s] for %s instances", index, count);
+            this.instanceIndex = index;
+            this.numInstances = count;
+            return this;
+        }
+
+        private KeyRangeCheckpoints buildCheckpoints() {
+            if (checkpointStore == null || numCheckpointRanges == 0 || checkpointName == null) return null;
+            if (!manager.getFeatures().hasOrderedScan()) {
+                log.warn("Storage backend does not support ordered scans. Job [{}] is run without checkpoints", checkpointName);
+                return null;
+            }
+            return new KeyRangeCheckpoints(checkpointStore, checkpointName, numCheckpointRanges, instanceIndex, numInstances);
+        }
+
+        private int getScanParallelism() {
+            if (scanParallelism > 1 && !manager.getFeatures().hasOrderedScan()) {
+                log.warn("Storage backend does not support ordered scans. Job [{}] is run without concurrent key ranges", jobId);
+                return 1;
+            }
+            return scanParallelism;
+        }
+
         public JanusGraphManagement.IndexJobFuture execute() throws BackendException {
             Preconditions.checkNotNull(job,"Need to specify a job to execute");
             Preconditions.checkArgument(StringUtils.isNotBlank(dbName),"Need to specify a database to execute against");
@@ -195,13 +278,15 @@ public class StandardScanner  {
 //                txBuilder.customOptions(customConf);
 //            }
 
+            KeyRangeCheckpoints checkpoints = buildCheckpoints();
             StoreTransaction storeTx = manager.beginTransaction(txBuilder.build());
             KeyColumnValueStore kcvs = manager.openDatabase(dbName);
 
             openStores.add(kcvs);
             try {
                 StandardScannerExecutor executor = new StandardScannerExecutor(job, finishJob, kcvs, storeTx,
-                        manager.getFeatures(), numProcessingThreads, workBlockSize, jobConfiguration, graphConfiguration);
+                        manager.getFeatures(), numProcessingThreads, getScanParallelism(), workBlockSize,
+                        jobConfiguration, graphConfiguration, checkpoints);
                 addJob(jobId,executor);
                 new Thread(executor).start();
                 return executor;
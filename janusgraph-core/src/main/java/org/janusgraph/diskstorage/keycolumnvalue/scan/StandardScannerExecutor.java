@@ -16,6 +16,7 @@ package org.janusgraph.diskstorage.keycolumnvalue.scan;
 
 import com.google.common.base.Preconditions;
 import com.google.common.util.concurrent.AbstractFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.janusgraph.core.schema.JanusGraphManagement;
 import org.janusgraph.diskstorage.*;
 import org.janusgraph.diskstorage.configuration.Configuration;
@@ -31,6 +32,8 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
@@ -52,52 +55,49 @@ class StandardScannerExecutor extends AbstractFuture<ScanMetrics> implements Jan
     private final StoreTransaction storeTx;
     private final KeyColumnValueStore store;
     private final int numProcessors;
+    private final int parallelism;
     private final int workBlockSize;
     private final Configuration jobConfiguration;
     private final Configuration graphConfiguration;
     private final ScanMetrics metrics;
+    private final KeyRangeCheckpoints checkpoints;
+    private final AtomicInteger flushRequests;
+    private final Set<RangeScan> activeScans;
+    // Key ranges which are scanned concurrently without checkpoints
+    private List<KeyRange> keyRanges;
 
     private boolean hasCompleted = false;
-    private boolean interrupted = false;
-
-    private List<BlockingQueue<SliceResult>> dataQueues;
-    private DataPuller[] pullThreads;
+    private volatile boolean interrupted = false;
 
     StandardScannerExecutor(final ScanJob job, final Consumer<ScanMetrics> finishJob,
                             final KeyColumnValueStore store, final StoreTransaction storeTx,
                             final StoreFeatures storeFeatures,
-                            final int numProcessors, final int workBlockSize,
+                            final int numProcessors, final int parallelism, final int workBlockSize,
                             final Configuration jobConfiguration,
-                            final Configuration graphConfiguration) {
+                            final Configuration graphConfiguration,
+                            final KeyRangeCheckpoints checkpoints) {
         this.job = job;
         this.finishJob = finishJob;
         this.store = store;
         this.storeTx = storeTx;
         this.storeFeatures = storeFeatures;
         this.numProcessors = numProcessors;
+        this.parallelism = parallelism;
         this.workBlockSize = workBlockSize;
         this.jobConfiguration = jobConfiguration;
         this.graphConfiguration = graphConfiguration;
+        this.checkpoints = checkpoints;
 
         metrics = new StandardScanMetrics();
-    }
-
-    private DataPuller addDataPuller(SliceQuery sq, StoreTransaction stx, int pos) throws BackendException {
-        final BlockingQueue<SliceResult> queue = new LinkedBlockingQueue<>(
-                this.graphConfiguration.get(GraphDatabaseConfiguration.PAGE_SIZE));
-        dataQueues.add(queue);
-
-        DataPuller dp = new DataPuller(sq, queue,
-                KCVSUtil.getKeys(store,sq,storeFeatures,MAX_KEY_LENGTH,stx),job.getKeyFilter());
-        dp.setName("data-puller-" + pos); // setting the name for thread dumps!
-        dp.start();
-        return dp;
+        flushRequests = new AtomicInteger(0);
+        activeScans = ConcurrentHashMap.newKeySet();
     }
 
     @Override
     public void run() {
         final List<SliceQuery> queries;
         final int numQueries;
+        final List<Integer> ranges;
         try {
             job.workerIterationStart(jobConfiguration, graphConfiguration, metrics);
 
@@ -114,11 +114,17 @@ class StandardScannerExecutor extends AbstractFuture<ScanMetrics> implements Jan
                 Preconditions.checkArgument(end.equals(BufferUtil.oneBuffer(end.length())),
                         "Expected end of first query to be all 1s: %s",end);
             }
-            dataQueues = new ArrayList<>(numQueries);
-            pullThreads = new DataPuller[numQueries];
 
-            for (int pos = 0; pos< numQueries; pos++) {
-                pullThreads[pos] = addDataPuller(queries.get(pos), storeTx, pos);
+            if (checkpoints != null) {
+                ranges = checkpoints.getPendingRanges();
+                log.info("Scanning {} pending key ranges out of {} for job [{}]",
+                        ranges.size(), checkpoints.getNumRanges(), checkpoints);
+            } else if (parallelism > 1) {
+                keyRanges = getKeyRanges();
+                ranges = new ArrayList<>(keyRanges.size());
+                for (int range = 0; range < keyRanges.size(); range++) ranges.add(range);
+            } else {
+                ranges = Collections.singletonList(null);
             }
         }  catch (Throwable e) {
             log.error("Exception trying to setup the job:", e);
@@ -138,53 +144,7 @@ class StandardScannerExecutor extends AbstractFuture<ScanMetrics> implements Jan
         }
 
         try {
-            SliceResult[] currentResults = new SliceResult[numQueries];
-            while (!interrupted) {
-                for (int i = 0; i < numQueries; i++) {
-                    if (currentResults[i]!=null) continue;
-                    BlockingQueue<SliceResult> queue = dataQueues.get(i);
-
-                    SliceResult qr = queue.poll(TIME_PER_TRY,TimeUnit.MILLISECONDS); //Try very short time to see if we are done
-                    if (qr==null) {
-                        if (pullThreads[i].isFinished()) continue; //No more data to be expected
-                        while (!pullThreads[i].isFinished() && qr == null) {
-                            qr = queue.poll(TIME_PER_TRY, TimeUnit.MILLISECONDS);
-                        }
-                        if (qr==null && !pullThreads[i].isFinished())
-                            throw new TemporaryBackendException("Timed out waiting for next row data - storage error likely");
-                    }
-                    currentResults[i]=qr;
-                }
-                SliceResult conditionQuery = currentResults[0];
-                if (conditionQuery==null) break; //Termination condition - primary query has no more data
-                final StaticBuffer key = conditionQuery.key;
-
-                Map<SliceQuery,EntryList> queryResults = new HashMap<>(numQueries);
-                for (int i=0;i<currentResults.length;i++) {
-                    SliceQuery query = queries.get(i);
-                    EntryList entries = EntryList.EMPTY_LIST;
-                    if (currentResults[i]!=null && currentResults[i].key.equals(key)) {
-                        assert query.equals(currentResults[i].query);
-                        entries = currentResults[i].entries;
-                        currentResults[i]=null;
-                    }
-                    queryResults.put(query,entries);
-                }
-                processorQueue.put(new Row(key, queryResults));
-            }
-
-            for (int i = 0; i < pullThreads.length; i++) {
-                pullThreads[i].join(10);
-                if (pullThreads[i].isAlive()) {
-                    log.warn("Data pulling thread [{}] did not terminate. Forcing termination",i);
-                    if (storeFeatures.supportsInterruption()) {
-                        pullThreads[i].interrupt();
-                    } else {
-                        log.warn("Store does not support interruption, so data pulling thread [{}] cannot be interrupted", i);
-                        pullThreads[i].finished = true;
-                    }
-                }
-            }
+            scanRanges(ranges, queries, processorQueue, processors);
 
             for (Processor processor : processors) {
                 processor.finish();
@@ -202,7 +162,16 @@ class StandardScannerExecutor extends AbstractFuture<ScanMetrics> implements Jan
             if (interrupted) {
                 setException(new InterruptedException("Scanner got interrupted"));
             } else {
-                finishJob.accept(metrics);
+                if (checkpoints == null) {
+                    finishJob.accept(metrics);
+                } else if (checkpoints.claimJobCompletion()) {
+                    finishJob.accept(metrics);
+                    checkpoints.clear();
+                } else if (checkpoints.isJobComplete()) {
+                    log.info("Job [{}] is finished by another instance", checkpoints);
+                } else {
+                    log.info("Job [{}] is finished once all of its key ranges have been completed", checkpoints);
+                }
                 set(metrics);
             }
         } catch (Throwable e) {
@@ -215,6 +184,98 @@ class StandardScannerExecutor extends AbstractFuture<ScanMetrics> implements Jan
         }
     }
 
+    /**
+     * Returns the key ranges into which the store partitions its keys, e.g. the regions of an HBase table, or
+     * otherwise as many equally sized ranges as the parallelism.
+     */
+    private List<KeyRange> getKeyRanges() throws BackendException {
+        final List<KeyRange> storeRanges = store.getKeyRanges();
+        final List<KeyRange> result = new ArrayList<>(Math.max(storeRanges.size(), parallelism));
+        if (storeRanges.isEmpty()) {
+            for (int range = 0; range < parallelism; range++) {
+                result.add(new KeyRange(KeyRangeCheckpoints.getKeyStart(range, parallelism),
+                        KeyRangeCheckpoints.getKeyEnd(range, parallelism, MAX_KEY_LENGTH)));
+            }
+        } else {
+            for (KeyRange range : storeRanges) {
+                result.add(new KeyRange(range.getStart().length() == 0 ? BufferUtil.zeroBuffer(1) : range.getStart(),
+                        range.getEnd().length() == 0 ? BufferUtil.oneBuffer(MAX_KEY_LENGTH) : range.getEnd()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Scans the given key ranges, up to {@link #parallelism} of them concurrently. A null range stands for the
+     * whole store.
+     */
+    private void scanRanges(List<Integer> ranges, List<SliceQuery> queries, BlockingQueue<Row> processorQueue,
+                            Processor[] processors) throws Exception {
+        final int numThreads = Math.min(parallelism, ranges.size());
+        if (numThreads <= 1) {
+            for (Integer range : ranges) {
+                if (interrupted) break;
+                scanRange(range, queries, processorQueue, processors);
+            }
+            return;
+        }
+        final ExecutorService rangeScanners = Executors.newFixedThreadPool(numThreads,
+                new ThreadFactoryBuilder().setNameFormat("range-scanner-%d").build());
+        try {
+            final CompletionService<Void> scans = new ExecutorCompletionService<>(rangeScanners);
+            for (Integer range : ranges) {
+                scans.submit(() -> {
+                    if (!interrupted) scanRange(range, queries, processorQueue, processors);
+                    return null;
+                });
+            }
+            for (int i = 0; i < ranges.size(); i++) {
+                try {
+                    scans.take().get();
+                } catch (ExecutionException e) {
+                    //The remaining ranges are abandoned like the ones after a failed range of a sequential scan
+                    throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                }
+            }
+        } finally {
+            rangeScanners.shutdownNow();
+        }
+    }
+
+    private void scanRange(Integer range, List<SliceQuery> queries, BlockingQueue<Row> processorQueue,
+                           Processor[] processors) throws BackendException, InterruptedException {
+        final long failures = metrics.get(ScanMetrics.Metric.FAILURE);
+        final RangeScan scan = new RangeScan(range, queries);
+        scan.pullRows(processorQueue);
+        if (checkpoints == null) return;
+        waitForProcessors(scan, processors);
+        //Ranges with failed rows are scanned again when the job is restarted. Failures in concurrently scanned
+        //ranges count as well, since their rows may have been part of the same failed chunk of work.
+        if (!interrupted && metrics.get(ScanMetrics.Metric.FAILURE) == failures) {
+            checkpoints.complete(range);
+        }
+    }
+
+    /**
+     * Waits until the processors have processed all rows of the given range and ended their chunks of work.
+     */
+    private void waitForProcessors(RangeScan scan, Processor[] processors) throws InterruptedException {
+        while (scan.pendingRows.get() > 0 && !interrupted) {
+            checkProcessorsAlive(processors);
+            Thread.sleep(TIME_PER_TRY);
+        }
+        final int requested = flushRequests.incrementAndGet();
+        while (!interrupted && Arrays.stream(processors).anyMatch(p -> p.flushed < requested)) {
+            checkProcessorsAlive(processors);
+            Thread.sleep(TIME_PER_TRY);
+        }
+    }
+
+    private static void checkProcessorsAlive(Processor[] processors) {
+        if (!Arrays.stream(processors).allMatch(Thread::isAlive))
+            throw new IllegalStateException("Processing thread terminated before all rows were processed");
+    }
+
     @Override
     protected void interruptTask() {
         interrupted = true;
@@ -223,17 +284,8 @@ class StandardScannerExecutor extends AbstractFuture<ScanMetrics> implements Jan
     private void cleanup() throws BackendException {
         if (!hasCompleted) {
             hasCompleted = true;
-            if (pullThreads!=null) {
-                for (DataPuller pullThread : pullThreads) {
-                    if (pullThread.isAlive()) {
-                        if (storeFeatures.supportsInterruption()) {
-                            pullThread.interrupt();
-                        } else {
-                            log.warn("Store does not support interruption, so data pulling thread cannot be interrupted");
-                            pullThread.finished = true;
-                        }
-                    }
-                }
+            for (RangeScan scan : activeScans) {
+                scan.stopPullers();
             }
             storeTx.rollback();
         }
@@ -256,10 +308,127 @@ class StandardScannerExecutor extends AbstractFuture<ScanMetrics> implements Jan
 
         final StaticBuffer key;
         final Map<SliceQuery,EntryList> entries;
+        final RangeScan scan;
 
-        private Row(StaticBuffer key, Map<SliceQuery, EntryList> entries) {
+        private Row(StaticBuffer key, Map<SliceQuery, EntryList> entries, RangeScan scan) {
             this.key = key;
             this.entries = entries;
+            this.scan = scan;
+        }
+    }
+
+    /**
+     * Reads one key range, or the whole store, with a {@link DataPuller} per query and aligns their results by key
+     * into rows for the processors.
+     */
+    private class RangeScan {
+
+        private final List<SliceQuery> queries;
+        private final List<BlockingQueue<SliceResult>> dataQueues;
+        private final DataPuller[] pullThreads;
+        private final AtomicLong pendingRows;
+
+        private RangeScan(Integer range, List<SliceQuery> queries) throws BackendException {
+            this.queries = queries;
+            this.dataQueues = new ArrayList<>(queries.size());
+            this.pullThreads = new DataPuller[queries.size()];
+            this.pendingRows = new AtomicLong(0);
+            activeScans.add(this);
+            for (int pos = 0; pos < queries.size(); pos++) {
+                pullThreads[pos] = addDataPuller(queries.get(pos), pos, range);
+            }
+        }
+
+        private DataPuller addDataPuller(SliceQuery sq, int pos, Integer range) throws BackendException {
+            final BlockingQueue<SliceResult> queue = new LinkedBlockingQueue<>(
+                    graphConfiguration.get(GraphDatabaseConfiguration.PAGE_SIZE));
+            dataQueues.add(queue);
+
+            final KeyIterator keys;
+            if (range == null) {
+                keys = KCVSUtil.getKeys(store,sq,storeFeatures,MAX_KEY_LENGTH,storeTx);
+            } else if (checkpoints != null) {
+                keys = store.getKeys(new KeyRangeQuery(checkpoints.getKeyStart(range),
+                        checkpoints.getKeyEnd(range, MAX_KEY_LENGTH), sq), storeTx);
+            } else {
+                keys = store.getKeys(new KeyRangeQuery(keyRanges.get(range).getStart(),
+                        keyRanges.get(range).getEnd(), sq), storeTx);
+            }
+            DataPuller dp = new DataPuller(sq, queue, keys, job.getKeyFilter());
+            // setting the name for thread dumps!
+            dp.setName(range == null ? "data-puller-" + pos : "data-puller-" + range + "-" + pos);
+            dp.start();
+            return dp;
+        }
+
+        private void pullRows(BlockingQueue<Row> processorQueue) throws InterruptedException, TemporaryBackendException {
+            final int numQueries = queries.size();
+            SliceResult[] currentResults = new SliceResult[numQueries];
+            while (!interrupted) {
+                for (int i = 0; i < numQueries; i++) {
+                    if (currentResults[i]!=null) continue;
+                    BlockingQueue<SliceResult> queue = dataQueues.get(i);
+
+                    SliceResult qr = queue.poll(TIME_PER_TRY,TimeUnit.MILLISECONDS); //Try very short time to see if we are done
+                    if (qr==null) {
+                        if (pullThreads[i].isFinished()) continue; //No more data to be expected
+                        while (!pullThreads[i].isFinished() && qr == null) {
+                            qr = queue.poll(TIME_PER_TRY, TimeUnit.MILLISECONDS);
+                        }
+                        if (qr==null && !pullThreads[i].isFinished())
+                            throw new TemporaryBackendException("Timed out waiting for next row data - storage error likely");
+                    }
+                    currentResults[i]=qr;
+                }
+                SliceResult conditionQuery = currentResults[0];
+                if (conditionQuery==null) break; //Termination condition - primary query has no more data
+                final StaticBuffer key = conditionQuery.key;
+
+                Map<SliceQuery,EntryList> queryResults = new HashMap<>(numQueries);
+                for (int i=0;i<currentResults.length;i++) {
+                    SliceQuery query = queries.get(i);
+                    EntryList entries = EntryList.EMPTY_LIST;
+                    if (currentResults[i]!=null && currentResults[i].key.equals(key)) {
+                        assert query.equals(currentResults[i].query);
+                        entries = currentResults[i].entries;
+                        currentResults[i]=null;
+                    }
+                    queryResults.put(query,entries);
+                }
+                pendingRows.incrementAndGet();
+                processorQueue.put(new Row(key, queryResults, this));
+            }
+
+            for (int i = 0; i < pullThreads.length; i++) {
+                pullThreads[i].join(10);
+                if (pullThreads[i].isAlive()) {
+                    log.warn("Data pulling thread [{}] did not terminate. Forcing termination",pullThreads[i].getName());
+                    if (storeFeatures.supportsInterruption()) {
+                        pullThreads[i].interrupt();
+                    } else {
+                        log.warn("Store does not support interruption, so data pulling thread [{}] cannot be interrupted", pullThreads[i].getName());
+                        pullThreads[i].finished = true;
+                    }
+                }
+                if (pullThreads[i].failure != null) {
+                    //The rows after the failure have not been read, so the range must not be checkpointed
+                    metrics.increment(ScanMetrics.Metric.FAILURE);
+                }
+            }
+            activeScans.remove(this);
+        }
+
+        private void stopPullers() {
+            for (DataPuller pullThread : pullThreads) {
+                if (pullThread != null && pullThread.isAlive()) {
+                    if (storeFeatures.supportsInterruption()) {
+                        pullThread.interrupt();
+                    } else {
+                        log.warn("Store does not support interruption, so data pulling thread cannot be interrupted");
+                        pullThread.finished = true;
+                    }
+                }
+            }
         }
     }
 
@@ -271,6 +440,7 @@ class StandardScannerExecutor extends AbstractFuture<ScanMetrics> implements Jan
         private final BlockingQueue<Row> processorQueue;
 
         private volatile boolean finished;
+        private volatile int flushed;
         private int numProcessed;
 
 
@@ -279,6 +449,7 @@ class StandardScannerExecutor extends AbstractFuture<ScanMetrics> implements Jan
             this.processorQueue = processorQueue;
 
             this.finished = false;
+            this.flushed = 0;
             this.numProcessed = 0;
         }
 
@@ -302,9 +473,13 @@ class StandardScannerExecutor extends AbstractFuture<ScanMetrics> implements Jan
                         } catch (Throwable ex) {
                             log.error("Exception processing row ["+row.key+"]: ",ex);
                             metrics.increment(ScanMetrics.Metric.FAILURE);
+                        } finally {
+                            row.scan.pendingRows.decrementAndGet();
                         }
                         numProcessed++;
+                        flushIfRequested();
                     }
+                    flushIfRequested();
                 }
             } catch (InterruptedException e) {
                 log.error("Processing thread interrupted while waiting on queue or processing data", e);
@@ -315,6 +490,34 @@ class StandardScannerExecutor extends AbstractFuture<ScanMetrics> implements Jan
             }
         }
 
+        /**
+         * Ends the current chunk of work if a key range is waiting to be checkpointed. This is checked after every
+         * row, since rows of concurrently scanned ranges may keep the queue from running empty.
+         */
+        private void flushIfRequested() {
+            final int requested = flushRequests.get();
+            if (flushed < requested) {
+                flush();
+                flushed = requested;
+            }
+        }
+
+        /**
+         * Ends the current chunk of work, e.g. to commit its changes before the key range it belongs to is
+         * checkpointed, and sets up a new one.
+         */
+        private void flush() {
+            try {
+                job.workerIterationEnd(metrics);
+            } catch (Throwable ex) {
+                log.error("Exception completing chunk of work: ",ex);
+                metrics.increment(ScanMetrics.Metric.FAILURE);
+            }
+            job = job.clone();
+            job.workerIterationStart(jobConfiguration, graphConfiguration, metrics);
+            numProcessed=0;
+        }
+
         public void finish() {
             this.finished=true;
         }
@@ -328,6 +531,7 @@ class StandardScannerExecutor extends AbstractFuture<ScanMetrics> implements Jan
         private final SliceQuery query;
         private final Predicate<StaticBuffer> keyFilter;
         private volatile boolean finished;
+        private volatile Throwable failure;
 
         private DataPuller(SliceQuery query, BlockingQueue<SliceResult> queue,
                            KeyIterator keyIterator, Predicate<StaticBuffer> keyFilter) {
@@ -351,7 +555,8 @@ class StandardScannerExecutor extends AbstractFuture<ScanMetrics> implements Jan
             } catch (InterruptedException e) {
                 log.error("Data-pulling thread interrupted while waiting on queue or data", e);
             } catch (Throwable e) {
-                log.error("Could not load data from storage: {}",e);
+                log.error("Could not load data from storage", e);
+                failure = e;
             } finally {
                 try {
                     keyIterator.close();
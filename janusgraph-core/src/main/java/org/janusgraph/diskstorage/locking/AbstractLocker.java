@@ -270,6 +270,27 @@ public abstract class AbstractLocker<S extends LockStatus> implements Locker {
      */
     protected abstract void checkSingleLock(KeyColumn lockID, S lockStatus, StoreTransaction tx) throws Throwable;
 
+    /**
+     * Verify all locks held by {@code tx} at once. Implementations which can
+     * check several locks with fewer round trips to the storage backend than
+     * one per lock should override this method. The default implementation
+     * calls {@link #checkSingleLock(KeyColumn, LockStatus, StoreTransaction)}
+     * for each lock.
+     * <p>
+     * Implementations may replace the values of {@code locks}, e.g. to record
+     * lock claims that were written during the check.
+     *
+     * @param locks the locks held by {@code tx} and their statuses
+     * @param tx    identifies the process claiming the locks
+     * @throws Throwable if any lock fails the check or if the attempted check
+     *                   encountered an error
+     */
+    protected void checkMultipleLocks(Map<KeyColumn, S> locks, StoreTransaction tx) throws Throwable {
+        for (final Map.Entry<KeyColumn, S> entry : locks.entrySet()) {
+            checkSingleLock(entry.getKey(), entry.getValue(), tx);
+        }
+    }
+
     /**
      * Try to unlock/release/delete the lock identified by {@code lockID} and
      * both held by and verified for {@code tx}. This method is only called with
@@ -347,9 +368,7 @@ public abstract class AbstractLocker<S extends LockStatus> implements Locker {
         // interrupt
         boolean ok = false;
         try {
-            for (final Map.Entry<KeyColumn, S> entry : m.entrySet()) {
-                checkSingleLock(entry.getKey(), entry.getValue(), tx);
-            }
+            checkMultipleLocks(m, tx);
             ok = true;
         } catch (TemporaryLockingException | PermanentLockingException | AssertionError tle) {
             throw tle;
@@ -36,16 +36,32 @@ public class ConsistentKeyLockStatus implements LockStatus {
         this.checked = false;
     }
 
+    /**
+     * Status of a lock whose claim has not been written to the store yet.
+     *
+     * @param expire the expiration timestamp of the local lock
+     */
+    public ConsistentKeyLockStatus(Instant expire) {
+        this(null, expire);
+    }
+
     @Override
     public Instant getExpirationTimestamp() {
         return expire;
     }
 
 
+    /**
+     * @return the timestamp of the written lock claim or null if the claim has not been written yet
+     */
     public Instant getWriteTimestamp() {
         return write;
     }
 
+    public boolean isWritten() {
+        return null != write;
+    }
+
     public boolean isChecked() {
         return checked;
     }
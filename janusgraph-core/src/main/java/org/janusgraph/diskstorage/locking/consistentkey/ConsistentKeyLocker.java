@@ -36,7 +36,9 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.janusgraph.util.encoding.StringEncoding.UTF8_CHARSET;
 
@@ -113,6 +115,20 @@ import static org.janusgraph.util.encoding.StringEncoding.UTF8_CHARSET;
  * {@code rid} is only unique at the process level.  Without a mediator, distinct
  * threads could write lock columns with the same {@code rid} and be unable to
  * tell their lock claims apart.
+ * <p>
+ * <h4>Batched lock I/O</h4>
+ * <p>
+ * The locks of a transaction are checked together: the locker sleeps once
+ * until {@code lockWait} has passed since the latest claim was written and
+ * then reads the columns of all lock keys in a single multi-key slice if the
+ * store supports {@link StoreFeatures#hasMultiQuery()}.
+ * <p>
+ * If batched writes are enabled, writing the claims is deferred until the
+ * locks are checked. All pending claims of a transaction are then written
+ * with the same timestamp in a single
+ * {@link KeyColumnValueStoreManager#mutateMany(Map, StoreTransaction)} call.
+ * Contention with other processes is only detected at that point, since only
+ * the inter-thread lock is taken when a lock is requested.
  */
 public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus> implements Locker {
 
@@ -130,6 +146,11 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
 
     private final int lockRetryCount;
 
+    /**
+     * Whether lock claims are written in a single batch when the locks are checked.
+     */
+    private final boolean batchWrites;
+
     /**
      * Expired lock cleaner in charge of {@link #store}.
      */
@@ -177,6 +198,7 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
         // Optional (has default)
         private Duration lockWait;
         private int lockRetryCount;
+        private boolean batchWrites;
 
         private enum CleanerConfig {
             NONE,
@@ -192,6 +214,7 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
             this.manager = manager;
             this.lockWait = GraphDatabaseConfiguration.LOCK_WAIT.getDefaultValue();
             this.lockRetryCount = GraphDatabaseConfiguration.LOCK_RETRY.getDefaultValue();
+            this.batchWrites = GraphDatabaseConfiguration.LOCK_BATCH_WRITES.getDefaultValue();
         }
 
         public Builder lockWait(Duration d) {
@@ -204,6 +227,11 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
             return self();
         }
 
+        public Builder batchWrites(boolean batchWrites) {
+            this.batchWrites = batchWrites;
+            return self();
+        }
+
         public Builder standardCleaner() {
             this.cleanerConfig = CleanerConfig.STANDARD;
             this.customCleanerService = null;
@@ -233,6 +261,8 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
 
             lockExpire(config.get(GraphDatabaseConfiguration.LOCK_EXPIRE));
 
+            batchWrites(config.get(GraphDatabaseConfiguration.LOCK_BATCH_WRITES));
+
             if (config.get(GraphDatabaseConfiguration.LOCK_CLEAN_EXPIRED)) {
                 standardCleaner();
             }
@@ -262,6 +292,7 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
                     serializer, llm,
                     lockWait,
                     lockRetryCount,
+                    batchWrites,
                     lockExpire,
                     lockState, cleaner);
         }
@@ -284,7 +315,7 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
     private ConsistentKeyLocker(KeyColumnValueStore store, StoreManager manager, StaticBuffer rid,
                                 TimestampProvider times, ConsistentKeyLockerSerializer serializer,
                                 LocalLockMediator<StoreTransaction> llm, Duration lockWait,
-                                int lockRetryCount, Duration lockExpire,
+                                int lockRetryCount, boolean batchWrites, Duration lockExpire,
                                 LockerState<ConsistentKeyLockStatus> lockState,
                                 LockCleanerService cleanerService) {
         super(rid, times, serializer, llm, lockState, lockExpire, log);
@@ -292,6 +323,7 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
         this.manager = manager;
         this.lockWait = lockWait;
         this.lockRetryCount = lockRetryCount;
+        this.batchWrites = batchWrites;
         this.cleanerService = cleanerService;
     }
 
@@ -304,6 +336,10 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
      * the retry limit. If the store throws anything else, such as an unchecked
      * exception or a {@link org.janusgraph.diskstorage.PermanentBackendException}, then we'll try to
      * delete whatever we added and return without further retries.
+     * <p>
+     * If batched writes are enabled, nothing is written here. The claim is
+     * written together with all other claims of the transaction by
+     * {@link #checkMultipleLocks(Map, StoreTransaction)}.
      *
      * @param lockID lock to acquire
      * @param txh    transaction
@@ -316,6 +352,10 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
     @Override
     protected ConsistentKeyLockStatus writeSingleLock(KeyColumn lockID, StoreTransaction txh) throws Throwable {
 
+        if (batchWrites) {
+            return new ConsistentKeyLockStatus(times.getTime().plus(lockExpire));
+        }
+
         final StaticBuffer lockKey = serializer.toLockKey(lockID.getKey(), lockID.getColumn());
         StaticBuffer oldLockCol = null;
 
@@ -416,7 +456,6 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
             return;
 
         // Sleep, if necessary
-        // We could be smarter about sleeping by iterating oldest -> latest...
         final Instant now = times.sleepPast(ls.getWriteTimestamp().plus(lockWait));
 
         // Slice the store
@@ -424,6 +463,60 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
             LOCK_COL_END);
         List<Entry> claimEntries = getSliceWithRetries(ksq, tx);
 
+        checkClaims(kc, ls, claimEntries, now, tx);
+    }
+
+    /**
+     * Write all pending lock claims if batched writes are enabled, sleep once
+     * until {@code lockWait} has passed since the latest claim was written and
+     * then read the lock columns of all unchecked locks, in a single multi-key
+     * slice if the store supports it.
+     */
+    @Override
+    protected void checkMultipleLocks(final Map<KeyColumn, ConsistentKeyLockStatus> locks,
+                                      final StoreTransaction tx) throws Throwable {
+
+        if (batchWrites) {
+            writeMultipleLocks(locks, tx);
+        }
+
+        final Map<StaticBuffer, KeyColumn> unchecked = new LinkedHashMap<>(locks.size());
+        Instant latestWrite = null;
+        for (final Map.Entry<KeyColumn, ConsistentKeyLockStatus> entry : locks.entrySet()) {
+            final ConsistentKeyLockStatus ls = entry.getValue();
+            if (ls.isChecked())
+                continue;
+            final KeyColumn kc = entry.getKey();
+            unchecked.put(serializer.toLockKey(kc.getKey(), kc.getColumn()), kc);
+            if (null == latestWrite || latestWrite.isBefore(ls.getWriteTimestamp()))
+                latestWrite = ls.getWriteTimestamp();
+        }
+
+        if (unchecked.isEmpty())
+            return;
+
+        // Sleep, if necessary, once for all locks
+        final Instant now = times.sleepPast(latestWrite.plus(lockWait));
+
+        if (1 < unchecked.size() && manager.getFeatures().hasMultiQuery()) {
+            final List<StaticBuffer> lockKeys = new ArrayList<>(unchecked.keySet());
+            final Map<StaticBuffer, EntryList> claims = getSliceWithRetries(lockKeys, tx);
+            for (final Map.Entry<StaticBuffer, KeyColumn> entry : unchecked.entrySet()) {
+                final EntryList claimEntries = claims.get(entry.getKey());
+                checkClaims(entry.getValue(), locks.get(entry.getValue()),
+                    null == claimEntries ? EntryList.EMPTY_LIST : claimEntries, now, tx);
+            }
+        } else {
+            for (final Map.Entry<StaticBuffer, KeyColumn> entry : unchecked.entrySet()) {
+                final KeySliceQuery ksq = new KeySliceQuery(entry.getKey(), LOCK_COL_START, LOCK_COL_END);
+                checkClaims(entry.getValue(), locks.get(entry.getValue()), getSliceWithRetries(ksq, tx), now, tx);
+            }
+        }
+    }
+
+    private void checkClaims(final KeyColumn kc, final ConsistentKeyLockStatus ls, final List<Entry> claimEntries,
+                             final Instant now, final StoreTransaction tx) throws BackendException {
+
         // Extract timestamp and rid from the column in each returned Entry...
         final Iterable<TimestampRid> iterable = Iterables.transform(claimEntries,
             e -> serializer.fromLockColumn(e.getColumnAs(StaticBuffer.STATIC_FACTORY), times));
@@ -472,6 +565,123 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
         throw new TemporaryBackendException("Maximum retries (" + lockRetryCount + ") exceeded while checking locks");
     }
 
+    private Map<StaticBuffer, EntryList> getSliceWithRetries(List<StaticBuffer> lockKeys,
+                                                             StoreTransaction tx) throws BackendException {
+
+        final SliceQuery sq = new SliceQuery(LOCK_COL_START, LOCK_COL_END);
+        for (int i = 0; i < lockRetryCount; i++) {
+            try {
+                return store.getSlice(lockKeys, sq, tx);
+            } catch (PermanentBackendException e) {
+                log.error("Failed to check locks", e);
+                throw new PermanentLockingException(e);
+            } catch (TemporaryBackendException e) {
+                log.warn("Temporary storage failure while checking locks", e);
+            }
+        }
+
+        throw new TemporaryBackendException("Maximum retries (" + lockRetryCount + ") exceeded while checking locks");
+    }
+
+    /**
+     * Write the claims of all locks in {@code locks} which have not been
+     * written yet with a single mutation, retrying like
+     * {@link #writeSingleLock(KeyColumn, StoreTransaction)}. All claims share
+     * the same timestamp. The statuses of the written locks are replaced in
+     * {@code locks} and their inter-thread locks are extended to the
+     * expiration of the claims.
+     */
+    private void writeMultipleLocks(final Map<KeyColumn, ConsistentKeyLockStatus> locks,
+                                    final StoreTransaction tx) throws Throwable {
+
+        final Map<StaticBuffer, KeyColumn> pending = new LinkedHashMap<>(locks.size());
+        for (final Map.Entry<KeyColumn, ConsistentKeyLockStatus> entry : locks.entrySet()) {
+            if (!entry.getValue().isWritten()) {
+                final KeyColumn kc = entry.getKey();
+                pending.put(serializer.toLockKey(kc.getKey(), kc.getColumn()), kc);
+            }
+        }
+
+        if (pending.isEmpty())
+            return;
+
+        StaticBuffer oldLockCol = null;
+        for (int i = 0; i < lockRetryCount; i++) {
+            final Timer writeTimer = times.getTimer().start();
+            final StaticBuffer newLockCol = serializer.toLockCol(writeTimer.getStartTime(), rid, times);
+            final List<Entry> additions = Collections.singletonList(StaticArrayEntry.of(newLockCol, zeroBuf));
+            final List<StaticBuffer> deletions = null == oldLockCol ?
+                KeyColumnValueStore.NO_DELETIONS : Collections.singletonList(oldLockCol);
+            Throwable error = null;
+            try {
+                mutateMultipleLocks(pending.keySet(), additions, deletions,
+                    overrideTimestamp(tx, writeTimer.getStartTime()));
+            } catch (BackendException e) {
+                log.debug("Batched lock write attempt failed with exception", e);
+                error = e;
+            }
+            writeTimer.stop();
+
+            if (null == error && writeTimer.elapsed().compareTo(lockWait) <= 0) {
+                final Instant writeInstant = writeTimer.getStartTime();
+                final Instant expireInstant = writeInstant.plus(lockExpire);
+                for (final KeyColumn kc : pending.values()) {
+                    locks.put(kc, new ConsistentKeyLockStatus(writeInstant, expireInstant));
+                }
+                // Extend the inter-thread locks, which were taken with the expiration of the unwritten claims
+                for (final KeyColumn kc : pending.values()) {
+                    if (!llm.lock(kc, tx, expireInstant)) {
+                        throw new TemporaryLockingException("Local lock on " + kc + " expired before its claim was written");
+                    }
+                }
+                return;
+            }
+
+            oldLockCol = newLockCol;
+            if (null == error) {
+                log.warn("Batched lock write succeeded but took too long: duration {} exceeded limit {}",
+                    writeTimer.elapsed(), lockWait);
+            } else if (error instanceof TemporaryBackendException) {
+                log.warn("Temporary exception during batched lock write", error);
+            } else {
+                log.error("Fatal exception encountered during attempted batched lock write", error);
+                tryDeleteMultipleLocksOnce(pending.keySet(), oldLockCol, tx);
+                throw error;
+            }
+        }
+        tryDeleteMultipleLocksOnce(pending.keySet(), oldLockCol, tx);
+        throw new TemporaryBackendException("Lock write retry count exceeded");
+    }
+
+    private void tryDeleteMultipleLocksOnce(Iterable<StaticBuffer> lockKeys, StaticBuffer col, StoreTransaction tx) {
+        try {
+            mutateMultipleLocks(lockKeys, KeyColumnValueStore.NO_ADDITIONS, Collections.singletonList(col),
+                overrideTimestamp(tx, times.getTime()));
+        } catch (BackendException e) {
+            log.warn("Failed to delete batched lock write: abandoning potentially-unreleased locks", e);
+        }
+    }
+
+    /**
+     * Apply the same additions and deletions to all lock keys, in a single
+     * {@code mutateMany} call if the store manager supports it.
+     */
+    private void mutateMultipleLocks(Iterable<StaticBuffer> lockKeys, List<Entry> additions,
+                                     List<StaticBuffer> deletions, StoreTransaction tx) throws BackendException {
+        if (manager instanceof KeyColumnValueStoreManager) {
+            final Map<StaticBuffer, KCVMutation> mutations = new LinkedHashMap<>();
+            for (final StaticBuffer lockKey : lockKeys) {
+                mutations.put(lockKey, new KCVMutation(additions, deletions));
+            }
+            ((KeyColumnValueStoreManager) manager).mutateMany(
+                Collections.singletonMap(store.getName(), mutations), tx);
+        } else {
+            for (final StaticBuffer lockKey : lockKeys) {
+                store.mutate(lockKey, additions, deletions, tx);
+            }
+        }
+    }
+
     private void checkSeniority(KeyColumn target, ConsistentKeyLockStatus ls,
                                 Iterable<TimestampRid> claimTRs) throws BackendException {
 
@@ -530,6 +740,8 @@ public class ConsistentKeyLocker extends AbstractLocker<ConsistentKeyLockStatus>
 
     @Override
     protected void deleteSingleLock(KeyColumn kc, ConsistentKeyLockStatus ls, StoreTransaction tx) {
+        if (!ls.isWritten())
+            return; // the claim was never written to the store
         List<StaticBuffer> deletions = Collections.singletonList(serializer.toLockCol(ls.getWriteTimestamp(), rid, times));
         for (int i = 0; i < lockRetryCount; i++) {
             try {
@@ -0,0 +1,139 @@
+// Copyright 2020 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.util;
+
+import com.google.common.base.Preconditions;
+import org.janusgraph.diskstorage.StaticBuffer;
+
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * {@link BackendCompression} which compresses values with DEFLATE, optionally primed with a preset dictionary of
+ * byte sequences that frequently occur in the values (e.g. common property values or type ids). A dictionary
+ * considerably improves the compression of short values which do not contain enough repetition by themselves.
+ * <p>
+ * Each compressed value starts with a header byte which records how the value is encoded:
+ * <ul>
+ *     <li>{@link #UNCOMPRESSED}: the original value follows. Used for values which are shorter than the minimum
+ *     size or which do not shrink when compressed.</li>
+ *     <li>{@link #DEFLATED}: the length of the original value follows as an int, followed by the deflated value.</li>
+ * </ul>
+ * Decompression requires the same dictionary that was used for compression.
+ */
+public class DeflateCompression implements BackendCompression {
+
+    public static final byte UNCOMPRESSED = 0;
+    public static final byte DEFLATED = 1;
+
+    private static final int DEFLATED_HEADER_LENGTH = 1 + Integer.BYTES;
+
+    private final int minSize;
+    private final byte[] dictionary;
+    private final ThreadLocal<Deflater> deflaters;
+    private final ThreadLocal<Inflater> inflaters;
+
+    /**
+     * @param level the compression level between 0 and 9 or -1 for the default level
+     * @param minSize the minimum size of values to compress
+     * @param dictionary the preset dictionary or null
+     */
+    public DeflateCompression(int level, int minSize, byte[] dictionary) {
+        Preconditions.checkArgument(level >= Deflater.DEFAULT_COMPRESSION && level <= Deflater.BEST_COMPRESSION,
+            "Invalid compression level: %s", level);
+        Preconditions.checkArgument(minSize >= 0, "Invalid minimum size: %s", minSize);
+        this.minSize = Math.max(minSize, DEFLATED_HEADER_LENGTH + 1);
+        this.dictionary = dictionary == null || dictionary.length == 0 ? null : dictionary.clone();
+        this.deflaters = ThreadLocal.withInitial(() -> new Deflater(level));
+        this.inflaters = ThreadLocal.withInitial(Inflater::new);
+    }
+
+    @Override
+    public StaticBuffer compress(StaticBuffer value) {
+        final int length = value.length();
+        final byte[] input = value.as(StaticBuffer.ARRAY_FACTORY);
+        if (length >= minSize) {
+            final Deflater deflater = deflaters.get();
+            deflater.reset();
+            if (dictionary != null) deflater.setDictionary(dictionary);
+            deflater.setInput(input, 0, length);
+            deflater.finish();
+            //The deflated value is only kept if it is smaller than the original one
+            final byte[] output = new byte[length];
+            output[0] = DEFLATED;
+            putInt(output, 1, length);
+            int position = DEFLATED_HEADER_LENGTH;
+            while (!deflater.finished() && position < output.length) {
+                position += deflater.deflate(output, position, output.length - position);
+            }
+            if (deflater.finished()) return new StaticArrayBuffer(output, 0, position);
+        }
+        final byte[] output = new byte[length + 1];
+        output[0] = UNCOMPRESSED;
+        System.arraycopy(input, 0, output, 1, length);
+        return new StaticArrayBuffer(output);
+    }
+
+    @Override
+    public StaticBuffer decompress(StaticBuffer value) {
+        if (value.length() == 0) return value;
+        final byte header = value.getByte(0);
+        switch (header) {
+            case UNCOMPRESSED:
+                return value.subrange(1, value.length() - 1);
+            case DEFLATED:
+                return inflate(value);
+            default:
+                throw new IllegalArgumentException("Unknown compression header: " + header);
+        }
+    }
+
+    private StaticBuffer inflate(StaticBuffer value) {
+        final int length = value.getInt(1);
+        final byte[] input = value.subrange(DEFLATED_HEADER_LENGTH, value.length() - DEFLATED_HEADER_LENGTH)
+            .as(StaticBuffer.ARRAY_FACTORY);
+        final Inflater inflater = inflaters.get();
+        inflater.reset();
+        inflater.setInput(input);
+        final byte[] output = new byte[length];
+        int position = 0;
+        try {
+            while (position < length) {
+                final int inflated = inflater.inflate(output, position, length - position);
+                if (inflated == 0) {
+                    if (inflater.needsDictionary()) {
+                        Preconditions.checkState(dictionary != null,
+                            "Value has been compressed with a dictionary but none is configured");
+                        inflater.setDictionary(dictionary);
+                    } else if (inflater.finished() || inflater.needsInput()) {
+                        throw new IllegalArgumentException("Compressed value is truncated");
+                    }
+                }
+                position += inflated;
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Invalid compressed value", e);
+        }
+        return new StaticArrayBuffer(output);
+    }
+
+    private static void putInt(byte[] array, int offset, int value) {
+        for (int i = Integer.BYTES - 1; i >= 0; i--) {
+            array[offset + i] = (byte) value;
+            value >>= 8;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+// Copyright 2020 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.util;
+
+import com.google.common.base.Preconditions;
+import org.janusgraph.diskstorage.StaticBuffer;
+
+/**
+ * Allocates entries as slices of large shared arrays instead of one array per entry. This is used to serialize
+ * all relations of a transaction commit into a few arrays, which reduces the number of allocations considerably
+ * when many small entries are written.
+ * <p>
+ * Entries which are larger than a quarter of the chunk size get their own array, so that they do not waste the
+ * remaining space of a chunk. A chunk is retained as long as any of its entries is referenced.
+ * <p>
+ * This class is not thread-safe.
+ */
+public class EntryArena {
+
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    private final int chunkSize;
+    private byte[] chunk = null;
+    private int position = 0;
+
+    public EntryArena() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    public EntryArena(int chunkSize) {
+        Preconditions.checkArgument(chunkSize > 0, "Invalid chunk size: %s", chunkSize);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Copies the given buffer into the arena.
+     *
+     * @param buffer the column and value of the entry
+     * @param valuePosition the position of the value in the buffer
+     * @return the entry which is backed by the arena
+     */
+    public StaticArrayEntry copyOf(StaticBuffer buffer, int valuePosition) {
+        final int length = buffer.length();
+        final byte[] array;
+        final int offset;
+        if (length > chunkSize / 4) {
+            array = new byte[length];
+            offset = 0;
+        } else {
+            if (chunk == null || chunkSize - position < length) {
+                chunk = new byte[chunkSize];
+                position = 0;
+            }
+            array = chunk;
+            offset = position;
+            position += length;
+        }
+        buffer.as((source, sourceOffset, sourceLimit) -> {
+            System.arraycopy(source, sourceOffset, array, offset, length);
+            return Boolean.TRUE;
+        });
+        return new StaticArrayEntry(array, offset, offset + length, valuePosition);
+    }
+}
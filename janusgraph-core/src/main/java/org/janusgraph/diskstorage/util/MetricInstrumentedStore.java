@@ -168,6 +168,11 @@ public class MetricInstrumentedStore implements KeyColumnValueStore {
         });
     }
 
+    @Override
+    public List<KeyRange> getKeyRanges() throws BackendException {
+        return backend.getKeyRanges();
+    }
+
     @Override
     public String getName() {
         return backend.getName();
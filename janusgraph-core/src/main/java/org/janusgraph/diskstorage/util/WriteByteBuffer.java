@@ -130,6 +130,21 @@ public class WriteByteBuffer implements WriteBuffer {
         return buffer.position();
     }
 
+    /**
+     * @return the number of bytes this buffer can hold without growing
+     */
+    public int getCapacity() {
+        return buffer.capacity();
+    }
+
+    /**
+     * Discards the written data so that this buffer can be reused. Static buffers which have been obtained from
+     * this buffer before are overwritten by subsequent writes.
+     */
+    public void clear() {
+        buffer.clear();
+    }
+
     @Override
     public StaticBuffer getStaticBuffer() {
         return getStaticBufferFlipBytes(0,0);
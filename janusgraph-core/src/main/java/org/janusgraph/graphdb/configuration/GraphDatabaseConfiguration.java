@@ -24,6 +24,7 @@ import org.janusgraph.diskstorage.configuration.converter.ReadConfigurationConve
 import org.janusgraph.graphdb.configuration.converter.RegisteredAttributeClassesConverter;
 import org.janusgraph.graphdb.query.index.ApproximateIndexSelectionStrategy;
 import org.janusgraph.graphdb.query.index.BruteForceIndexSelectionStrategy;
+import org.janusgraph.graphdb.query.index.CachingIndexSelectionStrategy;
 import org.janusgraph.graphdb.query.index.IndexSelectionStrategy;
 import org.janusgraph.graphdb.query.index.ThresholdBasedIndexSelectionStrategy;
 import org.janusgraph.graphdb.tinkerpop.JanusGraphDefaultSchemaMaker;
@@ -207,6 +208,23 @@ public class GraphDatabaseConfiguration {
             "How the graph computer should return the computed results. 'persist' for writing them into the graph, " +
                     "'localtx' for writing them into the local transaction, or 'none' (default)", ConfigOption.Type.MASKABLE, "none");
 
+    public static final ConfigOption<Boolean> COMPUTER_IN_MEMORY_SNAPSHOT = new ConfigOption<>(COMPUTER_NS,"in-memory-snapshot",
+            "Whether the graph computer should load the rows of all vertices into memory with a single scan and execute " +
+                    "all iterations of the vertex program and the map jobs against that snapshot instead of scanning the " +
+                    "storage backend for each of them. Requires enough heap to hold the entire graph unless computer.spill-directory is set.", ConfigOption.Type.MASKABLE, false);
+
+    public static final ConfigOption<Boolean> COMPUTER_COLUMNAR_VERTEX_MEMORY = new ConfigOption<>(COMPUTER_NS,"columnar-vertex-memory",
+            "Whether the graph computer should store the compute keys and messages of the vertices in primitive columns " +
+                    "indexed by vertex instead of one state object per vertex. This reduces the memory footprint of vertex " +
+                    "programs which compute numeric values. Only applies if computer.in-memory-snapshot is enabled.",
+            ConfigOption.Type.MASKABLE, false);
+
+    public static final ConfigOption<String> COMPUTER_SPILL_DIRECTORY = new ConfigOption<>(COMPUTER_NS,"spill-directory",
+            "Local directory in which the graph computer stores the in-memory snapshot and the primitive values of the " +
+                    "columnar vertex memory as memory-mapped files, so that graphs which do not fit into the heap can be " +
+                    "processed. Only applies if computer.in-memory-snapshot is enabled.",
+            ConfigOption.Type.MASKABLE, String.class);
+
 
     // ################ Transaction #######################
     // ################################################
@@ -225,6 +243,12 @@ public class GraphDatabaseConfiguration {
             ConfigOption.Type.GLOBAL, Duration.ofSeconds(10));
 
 
+    public static final ConfigOption<Boolean> SERIALIZATION_ARENA = new ConfigOption<>(TRANSACTION_NS,"serialization-arena",
+            "Whether the relations of a transaction are serialized into a reused thread-local buffer and stored as slices " +
+            "of a few large arrays per commit instead of allocating and growing separate arrays for every relation. " +
+            "This reduces the allocation rate of write-heavy workloads such as bulk loading.",
+            ConfigOption.Type.MASKABLE, false);
+
     public static final ConfigNamespace TRANSACTION_RECOVERY_NS = new ConfigNamespace(TRANSACTION_NS,"recovery",
             "Configuration options for transaction recovery processes");
 
@@ -277,12 +301,24 @@ public class GraphDatabaseConfiguration {
                     ApproximateIndexSelectionStrategy.NAME, ThresholdBasedIndexSelectionStrategy.NAME),
             ConfigOption.Type.MASKABLE, ThresholdBasedIndexSelectionStrategy.NAME);
 
+    public static final ConfigOption<Integer> INDEX_SELECT_CACHE_SIZE = new ConfigOption<>(QUERY_NS, "index-select-cache-size",
+            "Maximum number of index selections to cache. Queries with the same conditions except for the queried values " +
+                    "reuse the cached combination of indexes instead of solving the index selection again. " +
+                    "The cache is invalidated whenever the schema is changed. Set to 0 to disable the cache.",
+            ConfigOption.Type.MASKABLE, 0, ConfigOption.nonnegativeInt());
+
     public static final ConfigOption<Boolean> BATCH_PROPERTY_PREFETCHING = new ConfigOption<>(QUERY_NS,"batch-property-prefetch",
             "Whether to do a batched pre-fetch of all properties on adjacent vertices against the storage backend prior to evaluating a has condition against those vertices. " +
                     "Because these vertex properties will be loaded into the transaction-level cache of recently-used vertices when the condition is evaluated this can " +
-                    "lead to significant performance improvement if there are many edges to adjacent vertices and there is a non-trivial latency to the backend.",
+                    "lead to significant performance improvement if there are many edges to adjacent vertices and there is a non-trivial latency to the backend. " +
+                    "The same pre-fetch is applied page by page to vertices returned by a graph step (e.g. g.V(ids) or index queries) when their properties are read next.",
             ConfigOption.Type.MASKABLE, false);
 
+    public static final ConfigOption<Integer> BATCH_PROPERTY_PREFETCH_SIZE = new ConfigOption<>(QUERY_NS,"batch-property-prefetch-size",
+            "The maximum number of vertices returned by a graph step whose properties are pre-fetched together when " +
+                    "query.batch-property-prefetch is enabled. A smaller page is used when the traversal limits the number of results.",
+            ConfigOption.Type.MASKABLE, 100, ConfigOption.positiveInt());
+
     // ################ SCHEMA #######################
     // ################################################
 
@@ -597,6 +633,76 @@ public class GraphDatabaseConfiguration {
             "always dropped when clearing storage.",
             ConfigOption.Type.MASKABLE, true);
 
+    // ################ STORAGE - COMPRESSION #######################
+    // ################################################
+
+    public static final ConfigNamespace COMPRESSION_NS = new ConfigNamespace(STORAGE_NS, "compression",
+            "Options for the compression of values in the storage backend");
+
+    public static final String COMPRESSION_NONE = "none";
+    public static final String COMPRESSION_DEFLATE = "deflate";
+
+    public static final ConfigOption<String> COMPRESSION_ALGORITHM = new ConfigOption<>(COMPRESSION_NS, "algorithm",
+            "The algorithm used to compress the values of the stores configured in storage.compression.stores. " +
+            "Supported algorithms are \"" + COMPRESSION_NONE + "\" and \"" + COMPRESSION_DEFLATE + "\".  Compressed values " +
+            "carry a header which records how they are encoded.",
+            ConfigOption.Type.FIXED, COMPRESSION_NONE);
+
+    public static final ConfigOption<String[]> COMPRESSION_STORES = new ConfigOption<>(COMPRESSION_NS, "stores",
+            "The names of the stores whose values are compressed",
+            ConfigOption.Type.FIXED, new String[]{"edgestore"});
+
+    public static final ConfigOption<Integer> COMPRESSION_LEVEL = new ConfigOption<>(COMPRESSION_NS, "level",
+            "The compression level between 0 (no compression) and 9 (best compression) or -1 for the default level " +
+            "of the compression algorithm",
+            ConfigOption.Type.GLOBAL_OFFLINE, -1);
+
+    public static final ConfigOption<Integer> COMPRESSION_MIN_SIZE = new ConfigOption<>(COMPRESSION_NS, "min-size",
+            "Values which are shorter than this number of bytes are stored uncompressed",
+            ConfigOption.Type.GLOBAL_OFFLINE, 32);
+
+    public static final ConfigOption<String> COMPRESSION_DICTIONARY = new ConfigOption<>(COMPRESSION_NS, "dictionary",
+            "A preset dictionary for the compression algorithm which contains byte sequences that frequently occur " +
+            "in the compressed values, such as common property values.  A dictionary considerably improves the " +
+            "compression of short values.  The dictionary cannot be changed once values have been compressed with it.",
+            ConfigOption.Type.FIXED, String.class);
+
+    // ################ STORAGE - SCAN #######################
+    // ################################################
+
+    public static final ConfigNamespace SCAN_NS = new ConfigNamespace(STORAGE_NS, "scan",
+            "Options for the index repair and removal jobs which JanusGraph instances run as scans over the storage backend");
+
+    public static final ConfigOption<Integer> SCAN_THREADS = new ConfigOption<>(SCAN_NS, "threads",
+            "The number of threads which process the rows read by an index repair or removal job",
+            ConfigOption.Type.MASKABLE, 1, ConfigOption.positiveInt());
+
+    public static final ConfigOption<Integer> SCAN_CHECKPOINT_RANGES = new ConfigOption<>(SCAN_NS, "checkpoint-ranges",
+            "The number of key ranges into which an index repair or removal job splits the store it scans.  The " +
+            "completion of each range is recorded in the system store, so that a job which is restarted after a " +
+            "failure skips the ranges it has already processed.  The ranges can be shared among several JanusGraph " +
+            "instances with storage.scan.instance-count.  Checkpoints require a storage backend with ordered key scans.  " +
+            "Set to 0 to scan the store without checkpoints.",
+            ConfigOption.Type.MASKABLE, 0, i -> i != null && i >= 0 && i <= 1 << 16);
+
+    public static final ConfigOption<Integer> SCAN_PARALLELISM = new ConfigOption<>(SCAN_NS, "parallelism",
+            "The number of key ranges which an index repair or removal job reads concurrently, each with its own " +
+            "scanners.  The ranges are those of storage.scan.checkpoint-ranges.  If checkpoints are disabled, they " +
+            "are the partitions of the storage backend, such as the regions of an HBase table, or otherwise as many " +
+            "ranges as this value.  Concurrent ranges require a storage backend with ordered key scans.",
+            ConfigOption.Type.MASKABLE, 1, ConfigOption.positiveInt());
+
+    public static final ConfigOption<Integer> SCAN_INSTANCE_COUNT = new ConfigOption<>(SCAN_NS, "instance-count",
+            "The number of JanusGraph instances among which the key ranges of a checkpointed index repair or " +
+            "removal job are shared.  Each instance runs the job for the ranges assigned to its " +
+            "storage.scan.instance-index, and the instance which completes the last range finishes the job.",
+            ConfigOption.Type.LOCAL, 1, ConfigOption.positiveInt());
+
+    public static final ConfigOption<Integer> SCAN_INSTANCE_INDEX = new ConfigOption<>(SCAN_NS, "instance-index",
+            "The index of this JanusGraph instance, between 0 and storage.scan.instance-count - 1, among the " +
+            "instances which share the key ranges of a checkpointed index repair or removal job",
+            ConfigOption.Type.LOCAL, 0, ConfigOption.nonnegativeInt());
+
     public static final ConfigNamespace LOCK_NS =
             new ConfigNamespace(STORAGE_NS, "lock", "Options for locking on eventually-consistent stores");
 
@@ -643,6 +749,19 @@ public class GraphDatabaseConfiguration {
             "Whether to delete expired locks from the storage backend",
             ConfigOption.Type.MASKABLE, false);
 
+    /**
+     * Whether to defer writing the lock claims of a transaction until its locks are checked and then write all of
+     * them in a single batch. Lock contention with other instances is then only detected when the transaction
+     * commits. This option is only meaningful for the default lock backend.
+     *
+     * @see #LOCK_BACKEND
+     */
+    public static final ConfigOption<Boolean> LOCK_BATCH_WRITES = new ConfigOption<>(LOCK_NS, "batch-writes",
+            "Whether to defer writing the lock claims of a transaction until its locks are checked at commit time " +
+            "and then write all of them in a single batch mutation.  This saves one storage backend round trip per " +
+            "lock, but lock contention with other JanusGraph instances is only detected at commit time.",
+            ConfigOption.Type.MASKABLE, false);
+
     /**
      * Locker type to use.  The supported types are in {@link org.janusgraph.diskstorage.Backend}.
      */
@@ -1141,6 +1260,7 @@ public class GraphDatabaseConfiguration {
     public static final String SYSTEM_PROPERTIES_STORE_NAME = "system_properties";
     public static final String SYSTEM_CONFIGURATION_IDENTIFIER = "configuration";
     public static final String USER_CONFIGURATION_IDENTIFIER = "userconfig";
+    public static final String SCAN_CHECKPOINT_IDENTIFIER = "scancheckpoints";
 
     private static final Map<String, String> REGISTERED_INDEX_SELECTION_STRATEGIES = new HashMap() {{
         put(ThresholdBasedIndexSelectionStrategy.NAME, ThresholdBasedIndexSelectionStrategy.class.getName());
@@ -1166,8 +1286,10 @@ public class GraphDatabaseConfiguration {
     private Boolean useMultiQuery;
     private IndexSelectionStrategy indexSelectionStrategy;
     private Boolean batchPropertyPrefetching;
+    private int batchPropertyPrefetchSize;
     private boolean allowVertexIdSetting;
     private boolean logTransactions;
+    private boolean serializationArena;
     private String metricsPrefix;
     private String unknownIndexKeyName;
 
@@ -1260,6 +1382,10 @@ public class GraphDatabaseConfiguration {
         return batchPropertyPrefetching;
     }
 
+    public int getBatchPropertyPrefetchSize() {
+        return batchPropertyPrefetchSize;
+    }
+
     public boolean adjustQueryLimit() {
         return adjustQueryLimit;
     }
@@ -1272,6 +1398,10 @@ public class GraphDatabaseConfiguration {
         return logTransactions;
     }
 
+    public boolean useSerializationArena() {
+        return serializationArena;
+    }
+
     public TimestampProvider getTimestampProvider() {
         return configuration.get(TIMESTAMP_PROVIDER);
     }
@@ -1372,10 +1502,16 @@ public class GraphDatabaseConfiguration {
         useMultiQuery = configuration.get(USE_MULTIQUERY);
         indexSelectionStrategy = Backend.getImplementationClass(configuration, configuration.get(INDEX_SELECT_STRATEGY),
             REGISTERED_INDEX_SELECTION_STRATEGIES);
+        if (configuration.get(INDEX_SELECT_CACHE_SIZE) > 0) {
+            indexSelectionStrategy = new CachingIndexSelectionStrategy(configuration, indexSelectionStrategy,
+                configuration.get(INDEX_SELECT_CACHE_SIZE));
+        }
         batchPropertyPrefetching = configuration.get(BATCH_PROPERTY_PREFETCHING);
+        batchPropertyPrefetchSize = configuration.get(BATCH_PROPERTY_PREFETCH_SIZE);
         adjustQueryLimit = configuration.get(ADJUST_LIMIT);
         allowVertexIdSetting = configuration.get(ALLOW_SETTING_VERTEX_ID);
         logTransactions = configuration.get(SYSTEM_LOG_TRANSACTIONS);
+        serializationArena = configuration.get(SERIALIZATION_ARENA);
 
         unknownIndexKeyName = configuration.get(IGNORE_UNKNOWN_INDEX_FIELD) ? UNKNOWN_FIELD_NAME : null;
 
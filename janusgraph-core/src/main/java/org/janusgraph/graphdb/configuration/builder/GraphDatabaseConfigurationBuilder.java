@@ -16,7 +16,9 @@ package org.janusgraph.graphdb.configuration.builder;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Maps;
+import org.janusgraph.core.JanusGraphException;
 import org.janusgraph.diskstorage.Backend;
+import org.janusgraph.diskstorage.BackendException;
 import org.janusgraph.diskstorage.configuration.*;
 import org.janusgraph.diskstorage.configuration.backend.CommonsConfiguration;
 import org.janusgraph.diskstorage.configuration.backend.builder.KCVSConfigurationBuilder;
@@ -47,12 +49,22 @@ public class GraphDatabaseConfigurationBuilder {
         BasicConfiguration localBasicConfiguration = new BasicConfiguration(ROOT_NS,localConfig, BasicConfiguration.Restriction.NONE);
         ModifiableConfiguration overwrite = new ModifiableConfiguration(ROOT_NS,new CommonsConfiguration(), BasicConfiguration.Restriction.NONE);
 
+        //The storage manager is only needed to read the global configuration, the graph opens its own one
         final KeyColumnValueStoreManager storeManager = Backend.getStorageManager(localBasicConfiguration);
         final StoreFeatures storeFeatures = storeManager.getFeatures();
 
-        final ReadConfiguration globalConfig = new ReadConfigurationBuilder().buildGlobalConfiguration(
-            localConfig, localBasicConfiguration, overwrite, storeManager,
-            new ModifiableConfigurationBuilder(), new KCVSConfigurationBuilder());
+        final ReadConfiguration globalConfig;
+        try {
+            globalConfig = new ReadConfigurationBuilder().buildGlobalConfiguration(
+                localConfig, localBasicConfiguration, overwrite, storeManager,
+                new ModifiableConfigurationBuilder(), new KCVSConfigurationBuilder());
+        } finally {
+            try {
+                storeManager.close();
+            } catch (BackendException e) {
+                throw new JanusGraphException("Could not close storage manager " + storeManager.getName(), e);
+            }
+        }
 
         //Copy over local config options
         ModifiableConfiguration localConfiguration = new ModifiableConfiguration(ROOT_NS, new CommonsConfiguration(), BasicConfiguration.Restriction.LOCAL);
@@ -26,6 +26,7 @@ import org.janusgraph.diskstorage.ReadBuffer;
 import org.janusgraph.diskstorage.StaticBuffer;
 import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
 import org.janusgraph.diskstorage.util.BufferUtil;
+import org.janusgraph.diskstorage.util.EntryArena;
 import org.janusgraph.diskstorage.util.StaticArrayEntry;
 import org.janusgraph.graphdb.database.idhandling.IDHandler;
 import org.janusgraph.graphdb.database.idhandling.VariableLong;
@@ -44,6 +45,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.Arrays;
 import java.util.Map;
+import java.util.function.Supplier;
 
 import static org.janusgraph.graphdb.database.idhandling.IDHandler.DirectionID;
 import static org.janusgraph.graphdb.database.idhandling.IDHandler.RelationTypeParse;
@@ -124,6 +126,16 @@ public class EdgeSerializer implements RelationReader {
             assert relationType.isPropertyKey();
             PropertyKey key = (PropertyKey) relationType;
 
+            if (excludeProperties && !multiplicity.isUnique(dir)) {
+                //The relation id of SET and LIST properties can be read without the value, hence defer its decoding.
+                //For SINGLE properties, the value has to be read to reach the relation id that follows it.
+                in.movePositionTo(data.getValuePosition());
+                if (multiplicity.isConstrained()) relationId = VariableLong.readPositive(in);
+                else relationId = VariableLong.readPositiveBackward(in);
+                final int valueStart = multiplicity.isConstrained() ? startKeyPos : data.getValuePosition();
+                return RelationCache.ofLazyValue(dir, typeId, relationId, propertyValueDecoder(data, valueStart, key));
+            }
+
             if (multiplicity.isConstrained()) {
                 other = readPropertyValue(in,key);
                 relationId = VariableLong.readPositive(in);
@@ -194,6 +206,20 @@ public class EdgeSerializer implements RelationReader {
         return readPropertyValue(read, key, inlineType);
     }
 
+    /**
+     * Returns a decoder for the property value starting at the given position of the entry. The data type is resolved
+     * eagerly so that the decoder does not hold on to the transactional property key.
+     */
+    private Supplier<Object> propertyValueDecoder(Entry data, int position, PropertyKey key) {
+        final boolean generic = InternalAttributeUtil.hasGenericDataType(key);
+        final Class<?> dataType = key.dataType();
+        return () -> {
+            ReadBuffer in = data.asReadBuffer();
+            in.movePositionTo(position);
+            return generic ? serializer.readClassAndObject(in) : serializer.readObject(in, dataType);
+        };
+    }
+
     private Object readPropertyValue(ReadBuffer read, PropertyKey key) {
         return readPropertyValue(read,key,InlineType.NORMAL);
     }
@@ -238,6 +264,17 @@ public class EdgeSerializer implements RelationReader {
 
     public StaticArrayEntry writeRelation(InternalRelation relation, InternalRelationType type, int position,
                                           TypeInspector tx) {
+        return writeRelation(relation, type, position, tx, null);
+    }
+
+    /**
+     * Serializes the relation into an entry.
+     *
+     * @param arena the arena which backs the entry or null to allocate a dedicated array for the entry. If provided,
+     *              the relation is serialized into the pooled output of the serializer and then copied into the arena.
+     */
+    public StaticArrayEntry writeRelation(InternalRelation relation, InternalRelationType type, int position,
+                                          TypeInspector tx, EntryArena arena) {
         assert type==relation.getType() || (type.getBaseType() != null
                 && type.getBaseType().equals(relation.getType()));
         Direction dir = EdgeDirection.fromPosition(position);
@@ -245,7 +282,7 @@ public class EdgeSerializer implements RelationReader {
         long typeId = type.longId();
         DirectionID dirID = getDirID(dir, relation.isProperty() ? RelationCategory.PROPERTY : RelationCategory.EDGE);
 
-        DataOutput out = serializer.getDataOutput(DEFAULT_CAPACITY);
+        DataOutput out = arena == null ? serializer.getDataOutput(DEFAULT_CAPACITY) : serializer.getPooledDataOutput();
         int valuePosition;
         IDHandler.writeRelationType(out, typeId, dirID, type.isInvisibleType());
         Multiplicity multiplicity = type.multiplicity();
@@ -327,9 +364,10 @@ public class EdgeSerializer implements RelationReader {
         }
         assert valuePosition>0;
 
-        return new StaticArrayEntry(type.getSortOrder() == Order.DESC ?
-                                    out.getStaticBufferFlipBytes(keyStartPos, keyEndPos) :
-                                    out.getStaticBuffer(), valuePosition);
+        StaticBuffer data = type.getSortOrder() == Order.DESC ?
+                            out.getStaticBufferFlipBytes(keyStartPos, keyEndPos) :
+                            out.getStaticBuffer();
+        return arena == null ? new StaticArrayEntry(data, valuePosition) : arena.copyOf(data, valuePosition);
     }
 
     private enum InlineType {
@@ -49,6 +49,7 @@ import org.janusgraph.diskstorage.log.Message;
 import org.janusgraph.diskstorage.log.ReadMarker;
 import org.janusgraph.diskstorage.log.kcvs.KCVSLog;
 import org.janusgraph.diskstorage.util.RecordIterator;
+import org.janusgraph.diskstorage.util.EntryArena;
 import org.janusgraph.diskstorage.util.StaticArrayEntry;
 import org.janusgraph.diskstorage.util.time.TimestampProvider;
 import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
@@ -68,6 +69,7 @@ import org.janusgraph.graphdb.internal.InternalVertexLabel;
 import org.janusgraph.graphdb.query.QueryUtil;
 import org.janusgraph.graphdb.query.index.ApproximateIndexSelectionStrategy;
 import org.janusgraph.graphdb.query.index.BruteForceIndexSelectionStrategy;
+import org.janusgraph.graphdb.query.index.CachingIndexSelectionStrategy;
 import org.janusgraph.graphdb.query.index.IndexSelectionStrategy;
 import org.janusgraph.graphdb.query.index.ThresholdBasedIndexSelectionStrategy;
 import org.janusgraph.graphdb.relations.EdgeDirection;
@@ -303,6 +305,15 @@ public class StandardJanusGraph extends JanusGraphBlueprintsGraph {
         return indexSelector;
     }
 
+    /**
+     * Drops all cached index selections so that subsequent queries select their indexes based on the current schema.
+     */
+    public void invalidateIndexSelections() {
+        if (indexSelector instanceof CachingIndexSelectionStrategy) {
+            ((CachingIndexSelectionStrategy) indexSelector).invalidate();
+        }
+    }
+
     public Backend getBackend() {
         return backend;
     }
@@ -605,6 +616,7 @@ public class StandardJanusGraph extends JanusGraphBlueprintsGraph {
         }
 
         //5) Add relation mutations
+        final EntryArena arena = config.useSerializationArena() ? new EntryArena() : null;
         for (Long vertexId : mutations.keySet()) {
             Preconditions.checkArgument(vertexId > 0, "Vertex has no id: %s", vertexId);
             final List<InternalRelation> edges = mutations.get(vertexId);
@@ -620,7 +632,7 @@ public class StandardJanusGraph extends JanusGraphBlueprintsGraph {
                         if (!type.isUnidirected(Direction.BOTH) && !type.isUnidirected(EdgeDirection.fromPosition(pos)))
                             continue; //Directionality is not covered
                         if (edge.getVertex(pos).longId()==vertexId) {
-                            StaticArrayEntry entry = edgeSerializer.writeRelation(edge, type, pos, tx);
+                            StaticArrayEntry entry = edgeSerializer.writeRelation(edge, type, pos, tx, arena);
                             if (edge.isRemoved()) {
                                 deletions.add(entry);
                             } else {
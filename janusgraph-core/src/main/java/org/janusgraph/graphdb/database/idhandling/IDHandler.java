@@ -162,6 +162,41 @@ public class IDHandler {
         return IDManager.addRelationTypePadding(compressId);
     }
 
+    /**
+     * Whether the two column ranges each cover all entries of one property key and those property keys have the same
+     * visibility and consecutive ids whose serialized forms only differ in the last byte. Since property keys are only
+     * ever written with {@link DirectionID#PROPERTY_DIR}, no entry of another relation type is serialized in between and the ranges can be merged into one range
+     * spanning from the first start to the second end without retrieving any additional entries.
+     *
+     * @param firstStart start of the range of the property key with the smaller id
+     * @param firstEnd end of the range of the property key with the smaller id
+     * @param secondStart start of the range of the property key with the larger id
+     * @param secondEnd end of the range of the property key with the larger id
+     * @return whether the ranges cover two consecutive property keys in their entirety
+     */
+    public static boolean isConsecutivePropertyKeyRange(StaticBuffer firstStart, StaticBuffer firstEnd,
+                                                        StaticBuffer secondStart, StaticBuffer secondEnd) {
+        final long[] first = readPropertyKeyRange(firstStart, firstEnd);
+        final long[] second = readPropertyKeyRange(secondStart, secondEnd);
+        if (first == null || second == null || first[1] != second[1] || (first[0] >>> 1) + 1 != (second[0] >>> 1)) {
+            return false;
+        }
+        //The variable length encoding is only order preserving between values of equal length, hence both types must
+        //only differ in the last byte so that no other relation type can be serialized in between
+        final int length = firstStart.length();
+        return secondStart.length() == length
+            && firstStart.subrange(0, length - 1).equals(secondStart.subrange(0, length - 1));
+    }
+
+    private static long[] readPropertyKeyRange(StaticBuffer start, StaticBuffer end) {
+        if (!end.equals(BufferUtil.nextBiggerBuffer(start))) return null;
+        final ReadBuffer in = start.asReadBuffer();
+        final long[] countPrefix = VariableLong.readPositiveWithPrefix(in, PREFIX_BIT_LEN);
+        //The range must consist of the relation type only and belong to a property key
+        if (in.hasRemaining() || (countPrefix[1] & 1) != 0 || (countPrefix[0] & 1) != 0) return null;
+        return countPrefix;
+    }
+
     private static StaticBuffer getPrefixed(int prefix) {
         assert prefix < (1 << PREFIX_BIT_LEN) && prefix >= 0;
         byte[] arr = new byte[1];
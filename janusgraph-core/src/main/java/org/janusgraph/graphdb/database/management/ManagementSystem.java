@@ -196,6 +196,7 @@ public class ManagementSystem implements JanusGraphManagement {
             for (JanusGraphSchemaVertex schemaVertex : updatedTypes) {
                 schemaCache.expireSchemaElement(schemaVertex.longId());
             }
+            graph.invalidateIndexSelections();
         }
 
         if (graphShutdownRequired) graph.close();
@@ -828,6 +829,7 @@ public class ManagementSystem implements JanusGraphManagement {
                 builder = graph.getBackend().buildEdgeScanJob();
                 builder.setFinishJob(indexId.getIndexJobFinisher(graph, SchemaAction.ENABLE_INDEX));
                 builder.setJobId(indexId);
+                builder.setCheckpointName(indexId.getCheckpointName(updateAction, schemaVertex));
                 builder.setJob(VertexJobConverter.convert(graph, new IndexRepairJob(indexId.indexName, indexId.relationTypeName)));
                 try {
                     future = builder.execute();
@@ -859,6 +861,7 @@ public class ManagementSystem implements JanusGraphManagement {
                 }
                 builder.setFinishJob(indexId.getIndexJobFinisher());
                 builder.setJobId(indexId);
+                builder.setCheckpointName(indexId.getCheckpointName(updateAction, schemaVertex));
                 builder.setJob(new IndexRemoveJob(graph, indexId.indexName, indexId.relationTypeName));
                 try {
                     future = builder.execute();
@@ -1119,6 +1122,14 @@ public class ManagementSystem implements JanusGraphManagement {
                     (relationTypeName == oth.relationTypeName || (relationTypeName != null && relationTypeName.equals(oth.relationTypeName)));
         }
 
+        /**
+         * The name under which the progress of an index job is checkpointed. It includes the id of the index, so
+         * that the checkpoints of a job are not picked up by a later index with the same name.
+         */
+        private String getCheckpointName(SchemaAction action, JanusGraphSchemaVertex schemaVertex) {
+            return action + "." + this + "." + schemaVertex.longId();
+        }
+
         public Consumer<ScanMetrics> getIndexJobFinisher() {
             return getIndexJobFinisher(null, null);
         }
@@ -30,4 +30,11 @@ public interface Serializer extends AttributeHandler, Closeable {
 
     DataOutput getDataOutput(int initialCapacity);
 
+    /**
+     * Returns an empty {@link DataOutput} which is owned by the current thread and reused by subsequent calls on the
+     * same thread. Hence, the written data has to be copied (e.g. into an
+     * {@link org.janusgraph.diskstorage.util.EntryArena}) before this method is called again.
+     */
+    DataOutput getPooledDataOutput();
+
 }
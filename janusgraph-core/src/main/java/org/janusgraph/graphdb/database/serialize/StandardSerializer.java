@@ -66,9 +66,14 @@ public class StandardSerializer implements AttributeHandler, Serializer {
     private static final int CLASS_REGISTRATION_OFFSET = 100;
     private static final int MAX_REGISTRATION_NO = 100000;
 
+    private static final int DEFAULT_POOLED_CAPACITY = 1024;
+    private static final int MAX_POOLED_CAPACITY = 1024 * 1024;
+
 
     private final BiMap<Integer,Class> registrations;
     private final Map<Class,AttributeSerializer> handlers;
+    private final ThreadLocal<StandardDataOutput> pooledOutputs =
+        ThreadLocal.withInitial(() -> new StandardDataOutput(DEFAULT_POOLED_CAPACITY));
 
     public StandardSerializer() {
         handlers = new HashMap<>(60);
@@ -282,6 +287,19 @@ public class StandardSerializer implements AttributeHandler, Serializer {
         return new StandardDataOutput(initialCapacity);
     }
 
+    @Override
+    public DataOutput getPooledDataOutput() {
+        StandardDataOutput out = pooledOutputs.get();
+        if (out.getCapacity() > MAX_POOLED_CAPACITY) {
+            //Do not retain the memory of exceptionally large values
+            out = new StandardDataOutput(DEFAULT_POOLED_CAPACITY);
+            pooledOutputs.set(out);
+        } else {
+            out.clear();
+        }
+        return out;
+    }
+
     @Override
     public void close() throws IOException {
         //Nothing to close
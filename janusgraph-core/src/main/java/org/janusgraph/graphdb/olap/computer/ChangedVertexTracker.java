@@ -0,0 +1,91 @@
+// Copyright 2020 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.olap.computer;
+
+import org.janusgraph.core.JanusGraphComputer;
+import org.janusgraph.core.JanusGraphTransaction;
+import org.janusgraph.core.JanusGraphVertex;
+import org.janusgraph.core.VertexList;
+import org.janusgraph.core.log.Change;
+import org.janusgraph.core.log.ChangeProcessor;
+import org.janusgraph.core.log.ChangeState;
+import org.janusgraph.core.log.TransactionId;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link ChangeProcessor} which collects the ids of the vertices that are changed by the transactions of a
+ * transaction log, so that a vertex program can be re-executed incrementally for those vertices via
+ * {@link JanusGraphComputer#incremental(Set)} instead of over the entire graph.
+ * <p>
+ * A vertex counts as changed if it was added or removed, one of its properties was changed or it is an endpoint of
+ * a changed edge. Optionally, the neighbors of changed vertices can be tracked as well.
+ * <p>
+ * Register the tracker with a log processor via {@link org.janusgraph.core.log.LogProcessorBuilder#addProcessor(ChangeProcessor)}
+ * and retrieve the vertices which have changed since the previous execution via {@link #drain()}.
+ */
+public class ChangedVertexTracker implements ChangeProcessor {
+
+    private final boolean includeNeighbors;
+    private final Set<Long> changedVertices = ConcurrentHashMap.newKeySet();
+
+    public ChangedVertexTracker() {
+        this(false);
+    }
+
+    /**
+     * @param includeNeighbors whether the current neighbors of changed vertices are tracked as changed as well
+     */
+    public ChangedVertexTracker(boolean includeNeighbors) {
+        this.includeNeighbors = includeNeighbors;
+    }
+
+    @Override
+    public void process(JanusGraphTransaction tx, TransactionId txId, ChangeState changeState) {
+        for (JanusGraphVertex vertex : changeState.getVertices(Change.ANY)) {
+            changedVertices.add(vertex.longId());
+            if (includeNeighbors) {
+                JanusGraphVertex current = tx.getVertex(vertex.longId());
+                if (current == null) continue;
+                VertexList neighbors = current.query().vertexIds();
+                for (int i = 0; i < neighbors.size(); i++) {
+                    changedVertices.add(neighbors.getID(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes and returns the vertices which have been tracked as changed so far. Vertices which are changed
+     * concurrently are either contained in the returned set or retained for the next call.
+     *
+     * @return the ids of the changed vertices
+     */
+    public Set<Long> drain() {
+        Set<Long> result = new HashSet<>();
+        for (Iterator<Long> iterator = changedVertices.iterator(); iterator.hasNext(); ) {
+            result.add(iterator.next());
+            iterator.remove();
+        }
+        return result;
+    }
+
+    public int size() {
+        return changedVertices.size();
+    }
+}
@@ -0,0 +1,334 @@
+// Copyright 2020 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.olap.computer;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Iterators;
+import org.apache.tinkerpop.gremlin.process.computer.MessageScope;
+import org.apache.tinkerpop.gremlin.process.computer.VertexProgram;
+import org.janusgraph.graphdb.idmanagement.IDManager;
+
+import java.nio.LongBuffer;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * {@link FulgoraVertexMemory} which stores the state of the vertices in columns instead of one {@link VertexState}
+ * object per vertex.
+ * <p>
+ * The ids of all vertices are known up front (e.g. from {@link FulgoraGraphSnapshot#getVertexIds(IDManager)}) and
+ * mapped onto dense indexes via binary search over the sorted ids. Each compute key and each message scope is
+ * stored in a {@link Column} which keeps numeric values in a primitive array and only retains other values as
+ * objects. This avoids the per-vertex objects and boxed values of {@link VertexState} and hence reduces the memory
+ * footprint and the garbage collection load of vertex programs which compute numeric values, like PageRank.
+ * <p>
+ * Messages to the global scope are combined as they are received using the message combiner of the vertex program.
+ * The state of vertices which are not part of the provided ids is kept by {@link FulgoraVertexMemory}.
+ * <p>
+ * If a {@link FulgoraSpillSpace} is provided, the primitive values are stored in memory-mapped files so that they
+ * can be paged out to disk.
+ */
+public class ColumnarVertexMemory<M> extends FulgoraVertexMemory<M> {
+
+    private static final MessageScope.Global GLOBAL_SCOPE = MessageScope.Global.instance();
+    private static final int NUM_LOCKS = 1024;
+
+    private final long[] vertexIds;
+    private final FulgoraSpillSpace spillSpace;
+    private final Column[] properties;
+    private final Object[] locks;
+    private final Deque<Column> spareColumns = new ArrayDeque<>();
+
+    private Column[] previousMessages = new Column[0];
+    private Column[] currentMessages = new Column[0];
+
+    /**
+     * @param vertexIds sorted and unique canonical ids of the vertices
+     * @param idManager id manager of the graph
+     * @param vertexProgram the vertex program which is executed
+     */
+    public ColumnarVertexMemory(final long[] vertexIds, final IDManager idManager, final VertexProgram<M> vertexProgram) {
+        this(vertexIds, idManager, vertexProgram, null);
+    }
+
+    /**
+     * @param vertexIds sorted and unique canonical ids of the vertices
+     * @param idManager id manager of the graph
+     * @param vertexProgram the vertex program which is executed
+     * @param spillSpace spill space in which the primitive values are stored or null to store them on heap
+     */
+    public ColumnarVertexMemory(final long[] vertexIds, final IDManager idManager, final VertexProgram<M> vertexProgram,
+                                final FulgoraSpillSpace spillSpace) {
+        super(64, idManager, vertexProgram);
+        Preconditions.checkArgument(vertexIds != null);
+        this.vertexIds = vertexIds;
+        this.spillSpace = spillSpace;
+        this.properties = new Column[elementKeyMap.size()];
+        for (int i = 0; i < properties.length; i++) {
+            properties[i] = new Column(vertexIds.length, spillSpace);
+        }
+        this.locks = new Object[NUM_LOCKS];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    private int getIndex(long vertexId) {
+        assert vertexId == getCanonicalId(vertexId);
+        return Arrays.binarySearch(vertexIds, vertexId);
+    }
+
+    private Object getLock(int index) {
+        return locks[index & (NUM_LOCKS - 1)];
+    }
+
+    @Override
+    public <V> void setProperty(long vertexId, String key, V value) {
+        final int index = getIndex(vertexId);
+        if (index < 0) {
+            super.setProperty(vertexId, key, value);
+            return;
+        }
+        assert elementKeyMap.containsKey(key);
+        properties[elementKeyMap.get(key)].set(index, value);
+    }
+
+    @Override
+    public <V> V getProperty(long vertexId, String key) {
+        final int index = getIndex(vertexId);
+        if (index < 0) return super.getProperty(vertexId, key);
+        assert elementKeyMap.containsKey(key);
+        return (V) properties[elementKeyMap.get(key)].get(index);
+    }
+
+    @Override
+    void sendMessage(long vertexId, M message, MessageScope scope) {
+        final int index = getIndex(vertexId);
+        if (index < 0) {
+            super.sendMessage(vertexId, message, scope);
+            return;
+        }
+        assert message != null && scope != null;
+        final boolean isGlobal = scope instanceof MessageScope.Global;
+        final MessageScope normalizedScope = isGlobal ? GLOBAL_SCOPE : scope;
+        Preconditions.checkArgument(currentScopes.containsKey(normalizedScope),
+            "Provided scope was not declared in the VertexProgram: %s", scope);
+        final Column messages = currentMessages[currentScopes.get(normalizedScope)];
+        synchronized (getLock(index)) {
+            final Object previous = messages.get(index);
+            if (isGlobal && previous != null) {
+                messages.set(index, VertexState.combineMessages(combiner, message, previous));
+            } else {
+                messages.set(index, message);
+            }
+        }
+    }
+
+    @Override
+    Stream<M> getMessage(long vertexId, MessageScope scope) {
+        final int index = getIndex(vertexId);
+        if (index < 0) return super.getMessage(vertexId, scope);
+        final Integer position = previousScopes.get(normalizeScope(scope));
+        if (position == null) return Stream.empty();
+        return VertexState.toStream(previousMessages[position].get(index));
+    }
+
+    @Override
+    void nextIteration(Set<MessageScope> scopes) {
+        super.nextIteration(scopes);
+        currentMessages = new Column[currentScopes.size()];
+        for (int i = 0; i < currentMessages.length; i++) {
+            final Column column = spareColumns.poll();
+            currentMessages[i] = column != null ? column : new Column(vertexIds.length, spillSpace);
+        }
+    }
+
+    @Override
+    void completeIteration() {
+        super.completeIteration();
+        //The columns of the previous iteration are recycled to avoid allocating large arrays in every iteration
+        for (final Column column : previousMessages) {
+            column.clear();
+            spareColumns.add(column);
+        }
+        previousMessages = currentMessages;
+        currentMessages = new Column[0];
+    }
+
+    @Override
+    public Map<Long, Map<String, Object>> getMutableVertexProperties() {
+        final Map<Long, Map<String, Object>> fallback = super.getMutableVertexProperties();
+        return new AbstractMap<Long, Map<String, Object>>() {
+
+            @Override
+            public Map<String, Object> get(Object key) {
+                if (!(key instanceof Long)) return null;
+                final int index = getIndex((Long) key);
+                return index < 0 ? fallback.get(key) : getProperties(index);
+            }
+
+            @Override
+            public boolean containsKey(Object key) {
+                return get(key) != null;
+            }
+
+            @Override
+            public Set<Entry<Long, Map<String, Object>>> entrySet() {
+                return new AbstractSet<Entry<Long, Map<String, Object>>>() {
+
+                    @Override
+                    public Iterator<Entry<Long, Map<String, Object>>> iterator() {
+                        return Iterators.concat(new PropertyIterator(), fallback.entrySet().iterator());
+                    }
+
+                    @Override
+                    public int size() {
+                        return Iterators.size(iterator());
+                    }
+                };
+            }
+        };
+    }
+
+    private Map<String, Object> getProperties(int index) {
+        Map<String, Object> map = null;
+        for (final Map.Entry<String, Integer> key : elementKeyMap.entrySet()) {
+            final Object value = properties[key.getValue()].get(index);
+            if (value == null) continue;
+            if (map == null) map = new HashMap<>(elementKeyMap.size());
+            map.put(key.getKey(), value);
+        }
+        return map;
+    }
+
+    /**
+     * Iterates over the properties of all vertices for which at least one property is set
+     */
+    private class PropertyIterator implements Iterator<Map.Entry<Long, Map<String, Object>>> {
+
+        private int index = 0;
+        private Map<String, Object> next = null;
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && index < vertexIds.length) {
+                next = getProperties(index++);
+            }
+            return next != null;
+        }
+
+        @Override
+        public Map.Entry<Long, Map<String, Object>> next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            final Map.Entry<Long, Map<String, Object>> entry = new SimpleImmutableEntry<>(vertexIds[index - 1], next);
+            next = null;
+            return entry;
+        }
+    }
+
+    /**
+     * Values of one compute key or message scope for all vertices. Values of type Double, Long and Integer are
+     * stored in a primitive array and all other values in an object array. Both arrays are only allocated once
+     * the first value of the respective kind is set. The primitive array is memory-mapped if a spill space is
+     * provided.
+     * <p>
+     * Distinct indexes may be set concurrently, but setting the same index concurrently requires external
+     * synchronization.
+     */
+    static class Column {
+
+        private static final byte ABSENT = 0;
+        private static final byte DOUBLE = 1;
+        private static final byte LONG = 2;
+        private static final byte INTEGER = 3;
+        private static final byte OBJECT = 4;
+
+        private final byte[] types;
+        private final FulgoraSpillSpace spillSpace;
+        private volatile LongBuffer[] values = null;
+        private volatile Object[] objects = null;
+
+        Column(int size, FulgoraSpillSpace spillSpace) {
+            this.types = new byte[size];
+            this.spillSpace = spillSpace;
+        }
+
+        void set(int index, Object value) {
+            if (types[index] == OBJECT) objects[index] = null;
+            if (value == null) {
+                types[index] = ABSENT;
+            } else if (value instanceof Double) {
+                setValue(index, Double.doubleToRawLongBits((Double) value));
+                types[index] = DOUBLE;
+            } else if (value instanceof Long) {
+                setValue(index, (Long) value);
+                types[index] = LONG;
+            } else if (value instanceof Integer) {
+                setValue(index, (Integer) value);
+                types[index] = INTEGER;
+            } else {
+                getObjects()[index] = value;
+                types[index] = OBJECT;
+            }
+        }
+
+        Object get(int index) {
+            switch (types[index]) {
+                case ABSENT: return null;
+                case DOUBLE: return Double.longBitsToDouble(getValue(index));
+                case LONG: return getValue(index);
+                case INTEGER: return (int) getValue(index);
+                case OBJECT: return objects[index];
+                default: throw new AssertionError(types[index]);
+            }
+        }
+
+        void clear() {
+            Arrays.fill(types, ABSENT);
+            if (objects != null) Arrays.fill(objects, null);
+        }
+
+        private long getValue(int index) {
+            return values[index / FulgoraSpillSpace.getSegmentSize()].get(index % FulgoraSpillSpace.getSegmentSize());
+        }
+
+        private void setValue(int index, long value) {
+            if (values == null) {
+                synchronized (this) {
+                    if (values == null) values = FulgoraSpillSpace.allocateLongs(types.length, spillSpace);
+                }
+            }
+            values[index / FulgoraSpillSpace.getSegmentSize()].put(index % FulgoraSpillSpace.getSegmentSize(), value);
+        }
+
+        private Object[] getObjects() {
+            if (objects == null) {
+                synchronized (this) {
+                    if (objects == null) objects = new Object[types.length];
+                }
+            }
+            return objects;
+        }
+    }
+}
@@ -16,6 +16,7 @@ package org.janusgraph.graphdb.olap.computer;
 
 import com.google.common.base.Function;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
 import org.janusgraph.core.JanusGraphException;
 import org.janusgraph.core.JanusGraphComputer;
@@ -27,7 +28,7 @@ import org.janusgraph.diskstorage.keycolumnvalue.scan.ScanMetrics;
 import org.janusgraph.diskstorage.keycolumnvalue.scan.StandardScanner;
 import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
 import org.janusgraph.graphdb.database.StandardJanusGraph;
-import org.janusgraph.graphdb.util.WorkerPool;
+import org.janusgraph.graphdb.idmanagement.IDManager;
 
 import org.apache.tinkerpop.gremlin.process.computer.ComputerResult;
 import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
@@ -85,9 +86,16 @@ public class FulgoraGraphComputer implements JanusGraphComputer {
     private FulgoraVertexMemory vertexMemory;
     private boolean executed = false;
 
-    private int numThreads = 1;//Math.max(1,Runtime.getRuntime().availableProcessors());
+    private int numThreads = Math.max(1, Runtime.getRuntime().availableProcessors());
     private final int readBatchSize;
     private final int writeBatchSize;
+    private final boolean useSnapshot;
+    private final boolean useColumnarMemory;
+    private final String spillDirectory;
+    private FulgoraGraphSnapshot snapshot = null;
+    private FulgoraSpillSpace spillSpace = null;
+    private FulgoraWorkerPool workers = null;
+    private Set<Long> activeVertices = null;
 
     private ResultGraph resultGraphMode = null;
     private Persist persistMode = null;
@@ -102,6 +110,16 @@ public class FulgoraGraphComputer implements JanusGraphComputer {
         this.graph = graph;
         this.writeBatchSize = configuration.get(GraphDatabaseConfiguration.BUFFER_SIZE);
         this.readBatchSize = this.writeBatchSize * 10;
+        this.useSnapshot = configuration.get(GraphDatabaseConfiguration.COMPUTER_IN_MEMORY_SNAPSHOT);
+        this.useColumnarMemory = configuration.get(GraphDatabaseConfiguration.COMPUTER_COLUMNAR_VERTEX_MEMORY);
+        this.spillDirectory = configuration.has(GraphDatabaseConfiguration.COMPUTER_SPILL_DIRECTORY) ?
+            configuration.get(GraphDatabaseConfiguration.COMPUTER_SPILL_DIRECTORY) : null;
+        if (useColumnarMemory && !useSnapshot) {
+            log.warn("Columnar vertex memory requires the in-memory snapshot to be enabled and is not used");
+        }
+        if (spillDirectory != null && !useSnapshot) {
+            log.warn("Spilling requires the in-memory snapshot to be enabled and is not used");
+        }
         this.name = "compute" + computerCounter.incrementAndGet();
     }
 
@@ -138,6 +156,13 @@ public class FulgoraGraphComputer implements JanusGraphComputer {
         return this;
     }
 
+    @Override
+    public JanusGraphComputer incremental(Set<Long> activeVertices) {
+        Preconditions.checkNotNull(activeVertices, "Need to specify the active vertices");
+        this.activeVertices = ImmutableSet.copyOf(activeVertices);
+        return this;
+    }
+
     @Override
     public GraphComputer program(final VertexProgram vertexProgram) {
         Preconditions.checkState(this.vertexProgram == null, "A vertex program has already been set");
@@ -195,25 +220,43 @@ public class FulgoraGraphComputer implements JanusGraphComputer {
 
     private ComputerResult submitAsync() {
         final long time = System.currentTimeMillis();
-        executeVertexProgram();
+        try (FulgoraWorkerPool workerPool = new FulgoraWorkerPool(numThreads)) {
+            workers = workerPool;
+            try {
+                executeVertexProgram();
 
-        Map<MapReduce, FulgoraMapEmitter> mapJobs = collectMapJobs();
-        executeMapJobs(mapJobs);
+                Map<MapReduce, FulgoraMapEmitter> mapJobs = collectMapJobs();
+                executeMapJobs(mapJobs);
+            } finally {
+                snapshot = null;
+                if (spillSpace != null) {
+                    spillSpace.close();
+                    spillSpace = null;
+                }
+            }
 
-        Graph resultgraph = writeMutatedPropertiesBackIntoGraph();
-        // update runtime and return the newly computed graph
-        this.memory.setRuntime(System.currentTimeMillis() - time);
-        this.memory.complete();
-        return new DefaultComputerResult(resultgraph, this.memory);
+            Graph resultgraph = writeMutatedPropertiesBackIntoGraph();
+            // update runtime and return the newly computed graph
+            this.memory.setRuntime(System.currentTimeMillis() - time);
+            this.memory.complete();
+            return new DefaultComputerResult(resultgraph, this.memory);
+        } finally {
+            workers = null;
+        }
     }
 
     private void executeVertexProgram() {
         if (null == vertexProgram) return;
 
-        vertexMemory = new FulgoraVertexMemory(expectedNumVertices, graph.getIDManager(), vertexProgram);
+        if (useSnapshot) loadSnapshot();
+        if (snapshot != null && useColumnarMemory) {
+            vertexMemory = new ColumnarVertexMemory(snapshot.getVertexIds(graph.getIDManager()), graph.getIDManager(), vertexProgram, spillSpace);
+        } else {
+            vertexMemory = new FulgoraVertexMemory(expectedNumVertices, graph.getIDManager(), vertexProgram);
+        }
         vertexProgram.setup(memory);
 
-        try (VertexProgramScanJob.Executor job = VertexProgramScanJob.getVertexProgramScanJob(graph, memory, vertexMemory, vertexProgram)) {
+        try (VertexProgramScanJob.Executor job = VertexProgramScanJob.getVertexProgramScanJob(graph, memory, vertexMemory, vertexProgram, activeVertices)) {
             for (int iteration = 1; ; iteration++) {
                 memory.completeSubRound();
                 executeIterationOfJob(job, iteration);
@@ -229,13 +272,27 @@ public class FulgoraGraphComputer implements JanusGraphComputer {
         }
     }
 
+    private void loadSnapshot() {
+        StandardScanner.Builder scanBuilder = graph.getBackend().buildEdgeScanJob();
+        scanBuilder.setJobId(name + "#snapshot");
+        scanBuilder.setNumProcessingThreads(numThreads);
+        scanBuilder.setWorkBlockSize(readBatchSize);
+        try {
+            if (spillDirectory != null) spillSpace = new FulgoraSpillSpace(spillDirectory);
+            IDManager idManager = graph.getIDManager();
+            snapshot = FulgoraGraphSnapshot.load(scanBuilder, key -> !IDManager.VertexIDType.Invisible.is(idManager.getKeyID(key)), spillSpace);
+        } catch (Exception e) {
+            throw new JanusGraphException("Could not load the graph into memory", e);
+        }
+    }
+
     private void executeIterationOfJob(VertexProgramScanJob.Executor job, int iteration) {
         initializeVertexMemoryForIteration();
         StandardScanner.Builder scanBuilder = createScanBuilderForJob(job, iteration);
         PartitionedVertexProgramExecutor programExecutor = new PartitionedVertexProgramExecutor(graph, memory, vertexMemory, vertexProgram);
         try {
             //Iterates over all vertices and computes the vertex program on all non-partitioned vertices. For partitioned ones, the data is aggregated
-            ScanMetrics jobResult = executeOnNonPartitionedVertices(iteration, scanBuilder);
+            ScanMetrics jobResult = executeOnNonPartitionedVertices(iteration, job, scanBuilder);
 
             executeOnPartitionedVertices(iteration, programExecutor, jobResult);
         } catch (Exception e) {
@@ -266,8 +323,10 @@ public class FulgoraGraphComputer implements JanusGraphComputer {
         return scanBuilder;
     }
 
-    private ScanMetrics executeOnNonPartitionedVertices(int iteration, StandardScanner.Builder scanBuilder) throws InterruptedException, ExecutionException, BackendException {
-        ScanMetrics jobResult = scanBuilder.execute().get();
+    private ScanMetrics executeOnNonPartitionedVertices(int iteration, VertexProgramScanJob.Executor job, StandardScanner.Builder scanBuilder) throws InterruptedException, ExecutionException, BackendException {
+        ScanMetrics jobResult = snapshot != null ?
+            snapshot.execute(job, workers.getExecutor(), readBatchSize) :
+            scanBuilder.execute().get();
         long failures = jobResult.get(ScanMetrics.Metric.FAILURE);
         if (failures > 0) {
             throw new JanusGraphException("Failed to process [" + failures + "] vertices in vertex program iteration " +
@@ -277,7 +336,7 @@ public class FulgoraGraphComputer implements JanusGraphComputer {
     }
 
     private void executeOnPartitionedVertices(int iteration, PartitionedVertexProgramExecutor programExecutor, ScanMetrics jobResult) {
-        programExecutor.run(numThreads, jobResult);
+        programExecutor.run(workers, jobResult);
         long failures = jobResult.getCustom(PartitionedVertexProgramExecutor.PARTITION_VERTEX_POSTFAIL);
         if (failures > 0) {
             throw new JanusGraphException("Failed to process [" + failures + "] partitioned vertices in vertex " +
@@ -312,7 +371,9 @@ public class FulgoraGraphComputer implements JanusGraphComputer {
         scanBuilder.setWorkBlockSize(readBatchSize);
         scanBuilder.setJob(job);
         try {
-            ScanMetrics jobResult = scanBuilder.execute().get();
+            ScanMetrics jobResult = snapshot != null ?
+                snapshot.execute(job, workers.getExecutor(), readBatchSize) :
+                scanBuilder.execute().get();
             long failures = jobResult.get(ScanMetrics.Metric.FAILURE);
             if (failures > 0) {
                 throw new JanusGraphException("Failed to process [" + failures + "] vertices in map phase. Computer is aborting.");
@@ -335,18 +396,20 @@ public class FulgoraGraphComputer implements JanusGraphComputer {
             mapEmitter.complete(mapReduce); // sort results if a map output sort is defined
             if (mapReduce.doStage(MapReduce.Stage.REDUCE)) {
                 final FulgoraReduceEmitter<?, ?> reduceEmitter = new FulgoraReduceEmitter<>();
-                try (WorkerPool workers = new WorkerPool(numThreads)) {
-                    workers.submit(() -> mapReduce.workerStart(MapReduce.Stage.REDUCE));
-                    for (final Map.Entry queueEntry : mapEmitter.reduceMap.entrySet()) {
-                        if (null == queueEntry) break;
-                        workers.submit(() -> mapReduce.reduce(queueEntry.getKey(),
-                            ((Iterable) queueEntry.getValue()).iterator(), reduceEmitter));
-                    }
-                    workers.submit(() -> mapReduce.workerEnd(MapReduce.Stage.REDUCE));
+                //Each chunk of keys is reduced by its own clone of the MapReduce, like a worker in TinkerPop
+                List<Map.Entry> queueEntries = new ArrayList<>(mapEmitter.reduceMap.entrySet());
+                try {
+                    workers.processChunks(queueEntries, chunk -> {
+                        MapReduce worker = mapReduce.clone();
+                        worker.workerStart(MapReduce.Stage.REDUCE);
+                        for (Map.Entry queueEntry : chunk) {
+                            worker.reduce(queueEntry.getKey(), ((Iterable) queueEntry.getValue()).iterator(), reduceEmitter);
+                        }
+                        worker.workerEnd(MapReduce.Stage.REDUCE);
+                    });
                 } catch (Exception e) {
                     throw new JanusGraphException("Exception while executing reduce phase", e);
                 }
-//                    mapEmitter.reduceMap.entrySet().parallelStream().forEach(entry -> mapReduce.reduce(entry.getKey(), entry.getValue().iterator(), reduceEmitter));
 
                 reduceEmitter.complete(mapReduce); // sort results if a reduce output sort is defined
                 mapReduce.addResultToMemory(this.memory, reduceEmitter.reduceQueue.iterator());
@@ -397,21 +460,9 @@ public class FulgoraGraphComputer implements JanusGraphComputer {
 
             if (resultGraphMode == ResultGraph.ORIGINAL) {
                 AtomicInteger failures = new AtomicInteger(0);
-                try (WorkerPool workers = new WorkerPool(numThreads)) {
-                    List<Map.Entry<Long, Map<String, Object>>> subset = new ArrayList<>(writeBatchSize / vertexProgram.getVertexComputeKeys().size());
-                    int currentSize = 0;
-                    for (Map.Entry<Long, Map<String, Object>> entry : mutatedProperties.entrySet()) {
-                        subset.add(entry);
-                        currentSize += entry.getValue().size();
-                        if (currentSize >= writeBatchSize) {
-                            workers.submit(new VertexPropertyWriter(subset, failures));
-                            subset = new ArrayList<>(subset.size());
-                            currentSize = 0;
-                        }
-                    }
-                    if (!subset.isEmpty()) {
-                        workers.submit(new VertexPropertyWriter(subset, failures));
-                    }
+                try {
+                    workers.processBatches(mutatedProperties.entrySet().iterator(), entry -> entry.getValue().size(),
+                        writeBatchSize, subset -> new VertexPropertyWriter(subset, failures).run());
                 } catch (Exception e) {
                     throw new JanusGraphException("Exception while attempting to persist result into graph", e);
                 }
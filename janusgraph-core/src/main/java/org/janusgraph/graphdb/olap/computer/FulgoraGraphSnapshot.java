@@ -0,0 +1,338 @@
+// Copyright 2020 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.olap.computer;
+
+import com.google.common.base.Preconditions;
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.configuration.Configuration;
+import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.scan.ScanJob;
+import org.janusgraph.diskstorage.keycolumnvalue.scan.ScanMetrics;
+import org.janusgraph.diskstorage.keycolumnvalue.scan.StandardScanMetrics;
+import org.janusgraph.diskstorage.keycolumnvalue.scan.StandardScanner;
+import org.janusgraph.diskstorage.util.BufferUtil;
+import org.janusgraph.diskstorage.util.EntryArrayList;
+import org.janusgraph.diskstorage.util.StaticArrayEntry;
+import org.janusgraph.graphdb.idmanagement.IDManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+
+/**
+ * In-memory snapshot of the rows of all vertices which allows {@link FulgoraGraphComputer} to execute the
+ * iterations of a vertex program without scanning the storage backend each time.
+ * <p>
+ * The snapshot is loaded with a single scan and stores the rows in a compressed sparse row layout: the vertex keys
+ * are kept in one array and the entries of all rows are serialized back to back into large pages, so that the
+ * snapshot only needs a few objects regardless of the number of vertices and edges. When the snapshot is replayed
+ * for a {@link ScanJob}, the entries of each row are handed out as views on those pages, sliced according to the
+ * queries of the job as the storage backend would have done.
+ * <p>
+ * If a {@link FulgoraSpillSpace} is provided, the pages are memory-mapped files so that the snapshot can be larger
+ * than the heap. Rows are then copied out of the pages when they are replayed.
+ * <p>
+ * Only the column and value of the entries are retained, i.e. their meta data (TTL, timestamps, visibility) is not
+ * available to the scan job.
+ */
+public class FulgoraGraphSnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(FulgoraGraphSnapshot.class);
+
+    /**
+     * Query which retrieves the entire row of a vertex
+     */
+    static final SliceQuery FULL_ROW_QUERY = new SliceQuery(BufferUtil.zeroBuffer(1), BufferUtil.oneBuffer(4));
+
+    private static final int PAGE_SIZE = 1 << 24; //16 MB
+    private static final int SPILL_PAGE_SIZE = 1 << 28; //256 MB
+    private static final int ENTRY_HEADER_SIZE = 8; //length and value position of an entry
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final FulgoraSpillSpace spillSpace;
+    private final List<ByteBuffer> pages = new ArrayList<>();
+    private ByteBuffer currentPage = null;
+    private int pagePosition = 0;
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private int[] rowPages = new int[INITIAL_CAPACITY];
+    private int[] rowOffsets = new int[INITIAL_CAPACITY];
+    private int[] rowSizes = new int[INITIAL_CAPACITY];
+    private int numRows = 0;
+
+    private FulgoraGraphSnapshot(FulgoraSpillSpace spillSpace) {
+        this.spillSpace = spillSpace;
+    }
+
+    /**
+     * Loads the rows of all vertices which pass the key filter into a new snapshot.
+     *
+     * @param scanBuilder builder for the scan over the edgestore, the job is set by this method
+     * @param keyFilter filter for the vertex keys to retain
+     * @return the loaded snapshot
+     */
+    public static FulgoraGraphSnapshot load(StandardScanner.Builder scanBuilder, Predicate<StaticBuffer> keyFilter)
+        throws Exception {
+        return load(scanBuilder, keyFilter, null);
+    }
+
+    /**
+     * Loads the rows of all vertices which pass the key filter into a new snapshot whose pages are memory-mapped
+     * files in the given spill space, so that the snapshot does not have to fit into the heap.
+     *
+     * @param scanBuilder builder for the scan over the edgestore, the job is set by this method
+     * @param keyFilter filter for the vertex keys to retain
+     * @param spillSpace spill space to allocate the pages in or null to allocate them on heap
+     * @return the loaded snapshot
+     */
+    public static FulgoraGraphSnapshot load(StandardScanner.Builder scanBuilder, Predicate<StaticBuffer> keyFilter,
+                                            FulgoraSpillSpace spillSpace) throws Exception {
+        final FulgoraGraphSnapshot snapshot = new FulgoraGraphSnapshot(spillSpace);
+        scanBuilder.setJob(snapshot.new Loader(keyFilter));
+        final ScanMetrics metrics = scanBuilder.execute().get();
+        final long failures = metrics.get(ScanMetrics.Metric.FAILURE);
+        if (failures > 0) {
+            throw new IllegalStateException("Failed to load [" + failures + "] vertices into the snapshot");
+        }
+        log.debug("Loaded [{}] vertices into {} pages", snapshot.numRows, snapshot.pages.size());
+        return snapshot;
+    }
+
+    /**
+     * @return the number of vertices in the snapshot
+     */
+    public int size() {
+        return numRows;
+    }
+
+    /**
+     * Returns the sorted and unique canonical ids of the vertices in the snapshot. Partitioned vertices are stored
+     * in multiple rows which map onto the same canonical id.
+     *
+     * @param idManager id manager of the graph
+     * @return the ids of the vertices in the snapshot
+     */
+    public long[] getVertexIds(IDManager idManager) {
+        final long[] vertexIds = new long[numRows];
+        for (int row = 0; row < numRows; row++) {
+            final long vertexId = idManager.getKeyID(BufferUtil.getLongBuffer(keys[row]));
+            vertexIds[row] = idManager.isPartitionedVertex(vertexId) ? idManager.getCanonicalVertexId(vertexId) : vertexId;
+        }
+        Arrays.sort(vertexIds);
+        int size = 0;
+        for (int i = 0; i < vertexIds.length; i++) {
+            if (size == 0 || vertexIds[i] != vertexIds[size - 1]) vertexIds[size++] = vertexIds[i];
+        }
+        return size == vertexIds.length ? vertexIds : Arrays.copyOf(vertexIds, size);
+    }
+
+    private synchronized void addRow(long key, EntryList entries) {
+        int rowLength = 0;
+        for (final Entry entry : entries) {
+            rowLength += ENTRY_HEADER_SIZE + entry.length();
+        }
+        if (currentPage == null || pagePosition + rowLength > currentPage.capacity()) {
+            //Rows never span multiple pages, hence rows which are larger than the page size get a page on their own
+            currentPage = spillSpace == null ? ByteBuffer.wrap(new byte[Math.max(PAGE_SIZE, rowLength)]) :
+                spillSpace.allocate(Math.max(SPILL_PAGE_SIZE, rowLength));
+            pagePosition = 0;
+            pages.add(currentPage);
+        }
+        if (numRows == keys.length) {
+            final int capacity = keys.length * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            rowPages = Arrays.copyOf(rowPages, capacity);
+            rowOffsets = Arrays.copyOf(rowOffsets, capacity);
+            rowSizes = Arrays.copyOf(rowSizes, capacity);
+        }
+        keys[numRows] = key;
+        rowPages[numRows] = pages.size() - 1;
+        rowOffsets[numRows] = pagePosition;
+        rowSizes[numRows] = entries.size();
+        numRows++;
+
+        for (final Entry entry : entries) {
+            currentPage.putInt(pagePosition, entry.length());
+            currentPage.putInt(pagePosition + 4, entry.getValuePosition());
+            final ByteBuffer target = currentPage.duplicate();
+            target.position(pagePosition + ENTRY_HEADER_SIZE);
+            entry.as((array, from, to) -> target.put(array, from, to - from));
+            pagePosition += ENTRY_HEADER_SIZE + entry.length();
+        }
+    }
+
+    private List<Entry> getRow(int row) {
+        final ByteBuffer page = pages.get(rowPages[row]);
+        final byte[] array;
+        int position;
+        if (page.hasArray()) {
+            array = page.array();
+            position = page.arrayOffset() + rowOffsets[row];
+        } else {
+            //Entries require a byte array, hence the row is copied out of the memory-mapped page
+            int end = rowOffsets[row];
+            for (int i = 0; i < rowSizes[row]; i++) {
+                end += ENTRY_HEADER_SIZE + page.getInt(end);
+            }
+            array = new byte[end - rowOffsets[row]];
+            final ByteBuffer source = page.duplicate();
+            source.position(rowOffsets[row]);
+            source.get(array);
+            position = 0;
+        }
+        final List<Entry> entries = new ArrayList<>(rowSizes[row]);
+        for (int i = 0; i < rowSizes[row]; i++) {
+            final int length = readInt(array, position);
+            final int valuePosition = readInt(array, position + 4);
+            position += ENTRY_HEADER_SIZE;
+            entries.add(new StaticArrayEntry(array, position, position + length, valuePosition));
+            position += length;
+        }
+        return entries;
+    }
+
+    /**
+     * Returns the entries of the given row which fall into the slice of the query, respecting its limit.
+     * The entries of a row are sorted by column, hence the start of the slice is found by binary search.
+     */
+    private static EntryList getSlice(List<Entry> row, SliceQuery query) {
+        int low = 0;
+        int high = row.size();
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (row.get(mid).getColumn().compareTo(query.getSliceStart()) < 0) low = mid + 1;
+            else high = mid;
+        }
+        final EntryArrayList result = new EntryArrayList();
+        for (int i = low; i < row.size() && result.size() < query.getLimit(); i++) {
+            final Entry entry = row.get(i);
+            if (entry.getColumn().compareTo(query.getSliceEnd()) >= 0) break;
+            result.add(entry);
+        }
+        return result;
+    }
+
+    /**
+     * Executes the scan job against the rows of the snapshot. As in {@link StandardScanner}, the rows are processed
+     * in blocks of the given size by a clone of the job which is set up and torn down for each block.
+     *
+     * @param job the job to execute
+     * @param executor executor which processes the blocks
+     * @param blockSize number of rows processed by one clone of the job
+     * @return the metrics of the job
+     */
+    public ScanMetrics execute(ScanJob job, ExecutorService executor, int blockSize) throws InterruptedException, ExecutionException {
+        Preconditions.checkArgument(blockSize > 0, "Invalid block size: %s", blockSize);
+        final ScanMetrics metrics = new StandardScanMetrics();
+        job.workerIterationStart(Configuration.EMPTY, Configuration.EMPTY, metrics);
+        final List<Future<?>> blocks = new ArrayList<>();
+        try {
+            final List<SliceQuery> queries = job.getQueries();
+            Preconditions.checkArgument(!queries.isEmpty(), "Must at least specify one query for job: %s", job);
+            final Predicate<StaticBuffer> keyFilter = job.getKeyFilter();
+            for (int start = 0; start < numRows; start += blockSize) {
+                final int from = start;
+                final int to = Math.min(numRows, start + blockSize);
+                final ScanJob blockJob = job.clone();
+                blocks.add(executor.submit(() -> processBlock(blockJob, queries, keyFilter, from, to, metrics)));
+            }
+            for (final Future<?> block : blocks) {
+                block.get();
+            }
+        } finally {
+            //Blocks which have not completed yet are only left in case of a failure
+            for (final Future<?> block : blocks) {
+                block.cancel(true);
+            }
+            job.workerIterationEnd(metrics);
+        }
+        return metrics;
+    }
+
+    private void processBlock(ScanJob job, List<SliceQuery> queries, Predicate<StaticBuffer> keyFilter,
+                              int from, int to, ScanMetrics metrics) {
+        job.workerIterationStart(Configuration.EMPTY, Configuration.EMPTY, metrics);
+        try {
+            for (int row = from; row < to; row++) {
+                final StaticBuffer key = BufferUtil.getLongBuffer(keys[row]);
+                if (!keyFilter.test(key)) continue;
+                try {
+                    final List<Entry> entries = getRow(row);
+                    final Map<SliceQuery, EntryList> slices = new HashMap<>(queries.size());
+                    for (final SliceQuery query : queries) {
+                        slices.put(query, getSlice(entries, query));
+                    }
+                    job.process(key, slices, metrics);
+                    metrics.increment(ScanMetrics.Metric.SUCCESS);
+                } catch (Throwable e) {
+                    log.error("Exception processing row [" + key + "]: ", e);
+                    metrics.increment(ScanMetrics.Metric.FAILURE);
+                }
+            }
+        } finally {
+            job.workerIterationEnd(metrics);
+        }
+    }
+
+    private static int readInt(byte[] array, int position) {
+        return ((array[position] & 0xFF) << 24) | ((array[position + 1] & 0xFF) << 16)
+            | ((array[position + 2] & 0xFF) << 8) | (array[position + 3] & 0xFF);
+    }
+
+    /**
+     * Scan job which adds the rows read from the storage backend to the snapshot
+     */
+    private class Loader implements ScanJob {
+
+        private final Predicate<StaticBuffer> keyFilter;
+
+        private Loader(Predicate<StaticBuffer> keyFilter) {
+            this.keyFilter = keyFilter;
+        }
+
+        @Override
+        public void process(StaticBuffer key, Map<SliceQuery, EntryList> entries, ScanMetrics metrics) {
+            final EntryList row = entries.get(FULL_ROW_QUERY);
+            if (row != null && !row.isEmpty()) addRow(key.getLong(0), row);
+        }
+
+        @Override
+        public List<SliceQuery> getQueries() {
+            return Collections.singletonList(FULL_ROW_QUERY);
+        }
+
+        @Override
+        public Predicate<StaticBuffer> getKeyFilter() {
+            return keyFilter;
+        }
+
+        @Override
+        public Loader clone() {
+            return this;
+        }
+    }
+}
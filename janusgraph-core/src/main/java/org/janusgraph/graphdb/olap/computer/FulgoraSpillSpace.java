@@ -0,0 +1,137 @@
+// Copyright 2020 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.olap.computer;
+
+import com.google.common.base.Preconditions;
+import org.janusgraph.core.JanusGraphException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Local directory into which {@link FulgoraGraphComputer} spills the data of the in-memory snapshot and the
+ * columnar vertex memory. The data is kept in memory-mapped files, so that the operating system can page it out
+ * to disk when the graph does not fit into memory, which allows to process graphs which are larger than the heap
+ * (and the physical memory) on a single machine with fast local disks.
+ * <p>
+ * All files are created in a temporary directory below the configured directory which is deleted when the spill
+ * space is closed. Mapped buffers remain valid after the spill space is closed and are released by the garbage
+ * collector.
+ */
+public class FulgoraSpillSpace implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(FulgoraSpillSpace.class);
+
+    /**
+     * Maximum number of longs in one mapped segment of a long array
+     */
+    private static final int SEGMENT_SIZE = 1 << 26;
+
+    private final Path directory;
+    private final List<File> files = new ArrayList<>();
+    private int fileCounter = 0;
+
+    public FulgoraSpillSpace(String directory) {
+        Preconditions.checkArgument(directory != null && !directory.isEmpty(), "Need to specify a spill directory");
+        try {
+            final Path parent = Paths.get(directory);
+            Files.createDirectories(parent);
+            this.directory = Files.createTempDirectory(parent, "fulgora");
+        } catch (IOException e) {
+            throw new JanusGraphException("Could not create spill directory in: " + directory, e);
+        }
+        log.debug("Spilling graph computer data to {}", this.directory);
+    }
+
+    /**
+     * Allocates a zero-initialized buffer of the given size which is backed by a memory-mapped file
+     *
+     * @param size the size of the buffer in bytes
+     * @return the buffer
+     */
+    public synchronized ByteBuffer allocate(int size) {
+        Preconditions.checkArgument(size >= 0, "Invalid size: %s", size);
+        final File file = directory.resolve("spill-" + fileCounter++).toFile();
+        files.add(file);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(size);
+            return raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } catch (IOException e) {
+            throw new JanusGraphException("Could not allocate spill file: " + file, e);
+        }
+    }
+
+    /**
+     * Allocates a zero-initialized array of longs which is split into memory-mapped segments as a single mapping
+     * cannot exceed 2 GB.
+     *
+     * @param length the number of longs
+     * @return the segments of the array, all but the last one contain {@link #getSegmentSize()} longs
+     */
+    public LongBuffer[] allocateLongs(int length) {
+        return allocateLongs(length, this);
+    }
+
+    /**
+     * Allocates a zero-initialized array of longs which is split into segments of {@link #getSegmentSize()} longs.
+     * The segments are memory-mapped if a spill space is provided or are allocated on heap otherwise.
+     *
+     * @param length the number of longs
+     * @param spillSpace the spill space to allocate the segments in or null
+     * @return the segments of the array
+     */
+    public static LongBuffer[] allocateLongs(int length, FulgoraSpillSpace spillSpace) {
+        Preconditions.checkArgument(length >= 0, "Invalid length: %s", length);
+        final int numSegments = Math.max(1, (int) ((length + (long) SEGMENT_SIZE - 1) / SEGMENT_SIZE));
+        final LongBuffer[] segments = new LongBuffer[numSegments];
+        for (int i = 0; i < numSegments; i++) {
+            final int segmentLength = Math.min(SEGMENT_SIZE, length - i * SEGMENT_SIZE);
+            segments[i] = spillSpace == null ? LongBuffer.allocate(segmentLength) :
+                spillSpace.allocate(segmentLength * Long.BYTES).asLongBuffer();
+        }
+        return segments;
+    }
+
+    public static int getSegmentSize() {
+        return SEGMENT_SIZE;
+    }
+
+    @Override
+    public synchronized void close() {
+        for (final File file : files) {
+            if (!file.delete()) {
+                log.warn("Could not delete spill file {}", file);
+                file.deleteOnExit();
+            }
+        }
+        files.clear();
+        if (!directory.toFile().delete()) {
+            log.warn("Could not delete spill directory {}", directory);
+            directory.toFile().deleteOnExit();
+        }
+    }
+}
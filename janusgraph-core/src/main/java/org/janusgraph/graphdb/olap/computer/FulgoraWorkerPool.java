@@ -0,0 +1,170 @@
+// Copyright 2020 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.olap.computer;
+
+import com.google.common.base.Preconditions;
+import org.janusgraph.core.JanusGraphException;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Work-stealing thread pool which is shared by the phases of a {@link FulgoraGraphComputer} that are executed
+ * in memory, i.e. the reduce phase, the processing of partitioned vertices, the replay of the in-memory snapshot
+ * and the write-back of the computed properties. Scans of the storage backend, i.e. the iterations and the map
+ * phase without a snapshot, keep using the processor threads of their {@link org.janusgraph.diskstorage.keycolumnvalue.scan.StandardScanner}.
+ * <p>
+ * Lists of work items are recursively split into chunks so that idle threads can steal the remaining halves of
+ * busy threads, which balances the load even if individual items take very different amounts of time.
+ */
+public class FulgoraWorkerPool implements AutoCloseable {
+
+    /**
+     * Number of chunks per thread into which a list of work items is split at most
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private static final long SHUTDOWN_WAIT_MS = 10000;
+
+    private final ForkJoinPool pool;
+    private final int numThreads;
+
+    public FulgoraWorkerPool(int numThreads) {
+        Preconditions.checkArgument(numThreads > 0, "Invalid number of threads: %s", numThreads);
+        this.numThreads = numThreads;
+        this.pool = new ForkJoinPool(numThreads);
+    }
+
+    public int getNumThreads() {
+        return numThreads;
+    }
+
+    /**
+     * @return the executor of this pool for submitting individual tasks
+     */
+    public ExecutorService getExecutor() {
+        return pool;
+    }
+
+    /**
+     * Processes the items of the list in parallel and waits until all of them have been processed. The processor
+     * is invoked for chunks of consecutive items, such that it can set up per-chunk state.
+     *
+     * @param items the items to process
+     * @param chunkProcessor the processor for a chunk of items
+     * @throws JanusGraphException if the processor fails for any of the chunks
+     */
+    public <E> void processChunks(List<E> items, Consumer<List<E>> chunkProcessor) {
+        if (items.isEmpty()) return;
+        final int chunkSize = Math.max(1, items.size() / (numThreads * CHUNKS_PER_THREAD));
+        try {
+            pool.invoke(new ChunkTask<>(items, chunkSize, chunkProcessor));
+        } catch (RuntimeException e) {
+            throw new JanusGraphException("Could not process chunk", e);
+        }
+    }
+
+    /**
+     * Collects the items of the iterator into batches of the given weight and processes the batches in parallel.
+     * Only a bounded number of batches is collected ahead of processing, hence the items are never materialized
+     * at once. Waits until all batches have been processed.
+     *
+     * @param items the items to process
+     * @param weight the weight of an item
+     * @param batchWeight the weight at which a batch is complete
+     * @param batchProcessor the processor for a batch of items
+     * @throws JanusGraphException if the processor fails for any of the batches
+     */
+    public <E> void processBatches(Iterator<E> items, ToIntFunction<E> weight, int batchWeight,
+                                   Consumer<List<E>> batchProcessor) {
+        final Semaphore permits = new Semaphore(numThreads * 2);
+        final List<Future<?>> batches = new ArrayList<>();
+        try {
+            List<E> batch = new ArrayList<>();
+            int currentWeight = 0;
+            while (items.hasNext()) {
+                final E item = items.next();
+                batch.add(item);
+                currentWeight += weight.applyAsInt(item);
+                if (currentWeight >= batchWeight || !items.hasNext()) {
+                    permits.acquire();
+                    final List<E> completeBatch = batch;
+                    batches.add(pool.submit(() -> {
+                        try {
+                            batchProcessor.accept(completeBatch);
+                        } finally {
+                            permits.release();
+                        }
+                    }));
+                    batch = new ArrayList<>(batch.size());
+                    currentWeight = 0;
+                }
+            }
+            for (final Future<?> future : batches) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JanusGraphException("Interrupted while processing batches", e);
+        } catch (ExecutionException e) {
+            throw new JanusGraphException("Could not process batch", e.getCause());
+        }
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+        try {
+            if (!pool.awaitTermination(SHUTDOWN_WAIT_MS, TimeUnit.MILLISECONDS)) pool.shutdownNow();
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class ChunkTask<E> extends RecursiveAction {
+
+        private final List<E> items;
+        private final int chunkSize;
+        private final Consumer<List<E>> chunkProcessor;
+
+        private ChunkTask(List<E> items, int chunkSize, Consumer<List<E>> chunkProcessor) {
+            this.items = items;
+            this.chunkSize = chunkSize;
+            this.chunkProcessor = chunkProcessor;
+        }
+
+        @Override
+        protected void compute() {
+            if (items.size() <= chunkSize) {
+                chunkProcessor.accept(items);
+            } else {
+                final int middle = items.size() / 2;
+                invokeAll(new ChunkTask<>(items.subList(0, middle), chunkSize, chunkProcessor),
+                    new ChunkTask<>(items.subList(middle, items.size()), chunkSize, chunkProcessor));
+            }
+        }
+    }
+}
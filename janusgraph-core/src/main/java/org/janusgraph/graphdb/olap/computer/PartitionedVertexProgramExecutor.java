@@ -22,12 +22,13 @@ import org.janusgraph.graphdb.database.StandardJanusGraph;
 import org.janusgraph.graphdb.idmanagement.IDManager;
 import org.janusgraph.graphdb.olap.VertexJobConverter;
 import org.janusgraph.graphdb.transaction.StandardJanusGraphTx;
-import org.janusgraph.graphdb.util.WorkerPool;
 import org.janusgraph.graphdb.vertices.PreloadedVertex;
 import org.apache.tinkerpop.gremlin.process.computer.VertexProgram;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -58,20 +59,22 @@ public class PartitionedVertexProgramExecutor<M> {
         this.vertexProgram = vertexProgram;
     }
 
-    public void run(int numThreads, ScanMetrics metrics) {
+    public void run(FulgoraWorkerPool workers, ScanMetrics metrics) {
         StandardJanusGraphTx tx=null;
         Map<Long,EntryList> pVertexAggregates = vertexMemory.retrievePartitionAggregates();
         if (pVertexAggregates.isEmpty()) return; //Nothing to do here
 
-        try (WorkerPool workers = new WorkerPool(numThreads)) {
+        try {
             tx = VertexJobConverter.startTransaction(graph);
+            List<PartitionedVertexProcessor> processors = new ArrayList<>(pVertexAggregates.size());
             for (Map.Entry<Long,EntryList> partitionedVertices : pVertexAggregates.entrySet()) {
                 if (partitionedVertices.getValue()==null) {
                     metrics.incrementCustom(GHOST_PARTITION_VERTEX);
                     continue;
                 }
-                workers.submit(new PartitionedVertexProcessor(partitionedVertices.getKey(),partitionedVertices.getValue(),tx,metrics));
+                processors.add(new PartitionedVertexProcessor(partitionedVertices.getKey(),partitionedVertices.getValue(),tx,metrics));
             }
+            workers.processChunks(processors, chunk -> chunk.forEach(PartitionedVertexProcessor::run));
         } catch (Throwable ex) {
             log.error("Could not post-process partitioned vertices", ex);
             metrics.incrementCustom(PARTITION_VERTEX_POSTFAIL);
@@ -32,14 +32,17 @@ import org.janusgraph.graphdb.tinkerpop.optimize.step.JanusGraphVertexStep;
 import org.janusgraph.graphdb.vertices.PreloadedVertex;
 
 import org.apache.tinkerpop.gremlin.process.computer.MessageScope;
+import org.apache.tinkerpop.gremlin.process.computer.VertexComputeKey;
 import org.apache.tinkerpop.gremlin.process.computer.VertexProgram;
 import org.apache.tinkerpop.gremlin.process.computer.clustering.connected.ConnectedComponentVertexProgram;
 import org.apache.tinkerpop.gremlin.process.computer.search.path.ShortestPathVertexProgram;
 import org.apache.tinkerpop.gremlin.process.computer.traversal.TraversalVertexProgram;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
 
 import java.io.Closeable;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 
@@ -53,19 +56,22 @@ public class VertexProgramScanJob<M> implements VertexScanJob {
     private final FulgoraMemory memory;
     private final FulgoraVertexMemory<M> vertexMemory;
     private final VertexProgram<M> vertexProgram;
+    private final Set<Long> activeVertices;
 
     private VertexProgramScanJob(IDManager idManager, FulgoraMemory memory,
-                                FulgoraVertexMemory vertexMemory, VertexProgram<M> vertexProgram) {
+                                FulgoraVertexMemory vertexMemory, VertexProgram<M> vertexProgram,
+                                Set<Long> activeVertices) {
         this.idManager = idManager;
         this.memory = memory;
         this.vertexMemory = vertexMemory;
         this.vertexProgram = vertexProgram;
+        this.activeVertices = activeVertices;
     }
 
     @Override
     public VertexProgramScanJob<M> clone() {
         return new VertexProgramScanJob<>(this.idManager, this.memory, this.vertexMemory, this.vertexProgram
-                .clone());
+                .clone(), this.activeVertices);
     }
 
     @Override
@@ -99,6 +105,15 @@ public class VertexProgramScanJob<M> implements VertexScanJob {
                 }
             }
         } else {
+            if (activeVertices != null && memory.isInitialIteration()) {
+                //Incremental execution: start from the results of the previous execution and only execute the
+                //vertices which have changed since then, all others are activated by the messages they receive
+                loadPersistedProperties(v);
+                if (!activeVertices.contains(vertexId)) {
+                    vh.setInExecute(false);
+                    return;
+                }
+            }
             v.setPropertyMixing(vh);
             try {
                 vertexProgram.execute(v, vh, memory);
@@ -110,6 +125,14 @@ public class VertexProgramScanJob<M> implements VertexScanJob {
         vh.setInExecute(false);
     }
 
+    private void loadPersistedProperties(PreloadedVertex v) {
+        for (VertexComputeKey key : vertexProgram.getVertexComputeKeys()) {
+            if (key.isTransient() || !v.tx().containsPropertyKey(key.getKey())) continue;
+            Iterator<VertexProperty<Object>> properties = v.properties(key.getKey());
+            if (properties.hasNext()) vertexMemory.setProperty(v.longId(), key.getKey(), properties.next().value());
+        }
+    }
+
     @Override
     public void getQueries(QueryContainer queries) {
         Set<MessageScope> previousScopes = vertexMemory.getPreviousScopes();
@@ -136,7 +159,18 @@ public class VertexProgramScanJob<M> implements VertexScanJob {
 
     public static<M> Executor getVertexProgramScanJob(StandardJanusGraph graph, FulgoraMemory memory,
                                                   FulgoraVertexMemory vertexMemory, VertexProgram<M> vertexProgram) {
-        final VertexProgramScanJob<M> job = new VertexProgramScanJob<>(graph.getIDManager(), memory, vertexMemory, vertexProgram);
+        return getVertexProgramScanJob(graph, memory, vertexMemory, vertexProgram, null);
+    }
+
+    /**
+     * @param activeVertices the ids of the vertices which are executed in the first iteration or null to execute
+     *                       all vertices. All other vertices start from the persisted values of the compute keys.
+     */
+    public static<M> Executor getVertexProgramScanJob(StandardJanusGraph graph, FulgoraMemory memory,
+                                                  FulgoraVertexMemory vertexMemory, VertexProgram<M> vertexProgram,
+                                                  Set<Long> activeVertices) {
+        final VertexProgramScanJob<M> job = new VertexProgramScanJob<>(graph.getIDManager(), memory, vertexMemory,
+            vertexProgram, activeVertices);
         return new Executor(graph,job);
     }
 
@@ -96,7 +96,7 @@ public class VertexState<M> {
         }
     }
 
-    private Object combineMessages(MessageCombiner<M> combiner, M messageA, Object messageB) {
+    static <M> Object combineMessages(MessageCombiner<M> combiner, M messageA, Object messageB) {
         Object combinedMessage;
         if (combiner != null) {
             combinedMessage = combiner.combine(messageA, (M) messageB);
@@ -123,6 +123,13 @@ public class VertexState<M> {
         } else {
             message = null;
         }
+        return toStream(message);
+    }
+
+    /**
+     * Converts a stored message, which is either a single message or a list of uncombined messages, into a stream
+     */
+    static <M> Stream<M> toStream(Object message) {
         if (message instanceof ObjectArrayList) {
             Iterator<M> transform = Iterators.transform(((ObjectArrayList<M>) message).iterator(), e -> e.value);
             return StreamSupport.stream(
@@ -24,6 +24,9 @@ import org.janusgraph.graphdb.predicate.OrJanusPredicate;
 import org.janusgraph.graphdb.query.condition.*;
 import org.janusgraph.graphdb.transaction.StandardJanusGraphTx;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 
 /**
  * Utility methods used in query optimization and processing.
@@ -337,6 +340,20 @@ public class QueryUtil {
 
 
     public static <R> List<R> processIntersectingRetrievals(List<IndexCall<R>> retrievals, final int limit) {
+        return processIntersectingRetrievals(retrievals, limit, null);
+    }
+
+    /**
+     * Computes the intersection of the results returned by the given retrievals. If an executor is provided
+     * and there is more than one retrieval, all retrievals of a round are issued concurrently so that a round
+     * costs as much as the slowest retrieval instead of the sum of all of them.
+     *
+     * @param retrievals index calls whose results are intersected
+     * @param limit the minimum number of results to retrieve if possible
+     * @param executor executor used to run the retrievals concurrently, or null to run them sequentially
+     * @return the intersected results
+     */
+    public static <R> List<R> processIntersectingRetrievals(List<IndexCall<R>> retrievals, final int limit, final Executor executor) {
         Preconditions.checkArgument(!retrievals.isEmpty());
         Preconditions.checkArgument(limit >= 0, "Invalid limit: %s", limit);
         List<R> results;
@@ -353,14 +370,7 @@ public class QueryUtil {
         do {
             exhaustedResults = true;
             results = null;
-            for (final IndexCall<R> call : retrievals) {
-                Collection<R> subResult;
-                try {
-                    subResult = call.call(subLimit);
-                } catch (final Exception e) {
-                    throw new JanusGraphException("Could not process individual retrieval call ", e);
-                }
-
+            for (final Collection<R> subResult : executeRetrievals(retrievals, subLimit, executor)) {
                 if (subResult.size() >= subLimit) exhaustedResults = false;
                 if (results == null) {
                     results = new ArrayList<>(subResult);
@@ -379,6 +389,46 @@ public class QueryUtil {
         return results;
     }
 
+    private static <R> List<Collection<R>> executeRetrievals(List<IndexCall<R>> retrievals, final int limit, final Executor executor) {
+        final List<Collection<R>> subResults = new ArrayList<>(retrievals.size());
+        if (executor == null || retrievals.size() < 2) {
+            for (final IndexCall<R> call : retrievals) {
+                subResults.add(executeRetrieval(call, limit));
+            }
+            return subResults;
+        }
+        //Fan out all but the first retrieval and execute the first one in the calling thread
+        final List<CompletableFuture<Collection<R>>> futures = new ArrayList<>(retrievals.size() - 1);
+        for (final IndexCall<R> call : retrievals.subList(1, retrievals.size())) {
+            futures.add(CompletableFuture.supplyAsync(() -> executeRetrieval(call, limit), executor));
+        }
+        try {
+            subResults.add(executeRetrieval(retrievals.get(0), limit));
+            for (final CompletableFuture<Collection<R>> future : futures) {
+                subResults.add(future.get());
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JanusGraphException("Interrupted while waiting for index retrievals to complete", e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof JanusGraphException) throw (JanusGraphException) e.getCause();
+            throw new JanusGraphException("Could not process individual retrieval call ", e.getCause());
+        } finally {
+            for (final CompletableFuture<Collection<R>> future : futures) {
+                future.cancel(true);
+            }
+        }
+        return subResults;
+    }
+
+    private static <R> Collection<R> executeRetrieval(IndexCall<R> call, final int limit) {
+        try {
+            return call.call(limit);
+        } catch (final Exception e) {
+            throw new JanusGraphException("Could not process individual retrieval call ", e);
+        }
+    }
+
 
     public interface IndexCall<R> {
 
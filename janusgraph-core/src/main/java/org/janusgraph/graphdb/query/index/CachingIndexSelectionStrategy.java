@@ -0,0 +1,181 @@
+// Copyright 2020 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.query.index;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.janusgraph.core.JanusGraphElement;
+import org.janusgraph.core.RelationType;
+import org.janusgraph.diskstorage.configuration.Configuration;
+import org.janusgraph.graphdb.database.IndexSerializer;
+import org.janusgraph.graphdb.internal.OrderList;
+import org.janusgraph.graphdb.query.condition.Condition;
+import org.janusgraph.graphdb.query.condition.MultiCondition;
+import org.janusgraph.graphdb.query.condition.PredicateCondition;
+import org.janusgraph.graphdb.query.graph.JointIndexQuery;
+import org.janusgraph.graphdb.types.CompositeIndexType;
+import org.janusgraph.graphdb.types.IndexType;
+import org.janusgraph.graphdb.types.MixedIndexType;
+import org.janusgraph.graphdb.types.ParameterIndexField;
+import org.janusgraph.graphdb.types.system.ImplicitKey;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index selection strategy which caches the indexes selected by another {@link IndexSelectionStrategy} for a query.
+ * Selecting the best combination of indexes is a set cover problem which has to be solved again for each query.
+ * Since the selection only depends on the shape of the query conditions (i.e. the keys, predicates and labels but
+ * not the queried values), the order and the state of the candidate indexes, the selected plan is cached under
+ * those and reused for all queries of the same shape. Only the index sub-queries for the actual values are
+ * constructed for a cached plan.
+ * <p>
+ * The state of the candidate indexes is part of the cache key so that plans are not reused once an index or one of
+ * its fields changes its status. In addition, all cached plans are dropped via {@link #invalidate()} when the schema
+ * is changed.
+ */
+public class CachingIndexSelectionStrategy extends AbstractIndexSelectionStrategy {
+
+    private final IndexSelectionStrategy strategy;
+    private final Cache<String, SelectedPlan> plans;
+
+    public CachingIndexSelectionStrategy(Configuration config, IndexSelectionStrategy strategy, int cacheSize) {
+        super(config);
+        Preconditions.checkNotNull(strategy);
+        Preconditions.checkArgument(cacheSize > 0, "Invalid cache size: %s", cacheSize);
+        this.strategy = strategy;
+        this.plans = CacheBuilder.newBuilder().maximumSize(cacheSize).build();
+    }
+
+    @Override
+    public SelectedIndexQuery selectIndices(final Set<IndexType> indexCandidates,
+                                            final MultiCondition<JanusGraphElement> conditions,
+                                            final Set<Condition> coveredClauses, OrderList orders,
+                                            IndexSerializer serializer) {
+        final String planKey = getPlanKey(indexCandidates, conditions, orders);
+        final SelectedPlan plan = plans.getIfPresent(planKey);
+        if (plan != null) {
+            final SelectedIndexQuery query = applyPlan(plan, indexCandidates, conditions, coveredClauses, orders, serializer);
+            if (query != null) return query;
+            coveredClauses.clear();
+        }
+
+        final SelectedIndexQuery query = strategy.selectIndices(indexCandidates, conditions, coveredClauses, orders, serializer);
+        final List<String> indexNames = new ArrayList<>(query.getQuery().size());
+        for (int i = 0; i < query.getQuery().size(); i++) {
+            indexNames.add(query.getQuery().getQuery(i).getIndex().getName());
+        }
+        plans.put(planKey, new SelectedPlan(indexNames, query.isSorted()));
+        return query;
+    }
+
+    /**
+     * Drops all cached plans, e.g. because the schema has been modified.
+     */
+    public void invalidate() {
+        plans.invalidateAll();
+    }
+
+    public long size() {
+        return plans.size();
+    }
+
+    private SelectedIndexQuery applyPlan(final SelectedPlan plan, final Set<IndexType> indexCandidates,
+                                         final MultiCondition<JanusGraphElement> conditions,
+                                         final Set<Condition> coveredClauses, final OrderList orders,
+                                         final IndexSerializer serializer) {
+        final Map<String, IndexType> indexesByName = new HashMap<>(indexCandidates.size());
+        indexCandidates.forEach(index -> indexesByName.put(index.getName(), index));
+        final JointIndexQuery jointQuery = new JointIndexQuery();
+        for (final String indexName : plan.indexNames) {
+            final IndexType index = indexesByName.get(indexName);
+            final IndexCandidate candidate = index == null ? null : createIndexCandidate(index, conditions, serializer);
+            if (candidate == null) {
+                //The plan does not apply to these conditions, hence the indexes have to be selected again
+                return null;
+            }
+            coveredClauses.addAll(candidate.getSubCover());
+            addToJointQuery(candidate, jointQuery, serializer, orders);
+        }
+        return new SelectedIndexQuery(jointQuery, plan.isSorted);
+    }
+
+    private static String getPlanKey(final Set<IndexType> indexCandidates, final Condition<JanusGraphElement> conditions,
+                                     final OrderList orders) {
+        final StringBuilder key = new StringBuilder();
+        appendShape(conditions, key);
+        key.append('|');
+        for (int i = 0; i < orders.size(); i++) {
+            key.append(orders.getKey(i).longId()).append(orders.getOrder(i)).append(',');
+        }
+        key.append('|');
+        final List<IndexType> candidates = new ArrayList<>(indexCandidates);
+        candidates.sort(Comparator.comparing(IndexType::getName));
+        for (final IndexType index : candidates) {
+            key.append(index.getName());
+            if (index.isCompositeIndex()) {
+                key.append(':').append(((CompositeIndexType) index).getStatus());
+            } else {
+                for (final ParameterIndexField field : ((MixedIndexType) index).getFieldKeys()) {
+                    key.append(':').append(field.getFieldKey().longId()).append(field.getStatus());
+                }
+            }
+            key.append(',');
+        }
+        return key.toString();
+    }
+
+    /**
+     * Appends the shape of the given condition which identifies the keys, predicates and structure of the condition
+     * but not the values except for labels, since those determine which indexes are applicable.
+     */
+    private static void appendShape(final Condition<JanusGraphElement> condition, final StringBuilder key) {
+        if (condition.getType() != Condition.Type.LITERAL) {
+            key.append(condition.getType()).append('(');
+            for (final Condition<JanusGraphElement> child : condition.getChildren()) {
+                appendShape(child, key);
+                key.append(',');
+            }
+            key.append(')');
+        } else if (condition instanceof PredicateCondition) {
+            final PredicateCondition<RelationType, JanusGraphElement> atom = (PredicateCondition) condition;
+            key.append(atom.getKey().longId()).append(' ')
+                .append(atom.getPredicate().getClass().getName()).append(' ').append(atom.getPredicate());
+            if (atom.getValue() == null) {
+                key.append(" null");
+            } else if (atom.getKey().equals(ImplicitKey.LABEL)) {
+                key.append(' ').append(atom.getValue());
+            }
+        } else {
+            key.append(condition);
+        }
+    }
+
+    private static class SelectedPlan {
+
+        private final List<String> indexNames;
+        private final boolean isSorted;
+
+        private SelectedPlan(List<String> indexNames, boolean isSorted) {
+            this.indexNames = indexNames;
+            this.isSorted = isSorted;
+        }
+    }
+}
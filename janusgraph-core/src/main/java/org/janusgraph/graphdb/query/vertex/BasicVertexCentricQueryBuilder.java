@@ -20,8 +20,10 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import org.janusgraph.core.*;
 import org.janusgraph.core.attribute.Cmp;
+import org.janusgraph.diskstorage.StaticBuffer;
 import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
 import org.janusgraph.graphdb.database.EdgeSerializer;
+import org.janusgraph.graphdb.database.idhandling.IDHandler;
 import org.janusgraph.graphdb.internal.*;
 import org.janusgraph.graphdb.query.*;
 import org.janusgraph.graphdb.query.condition.*;
@@ -589,12 +591,52 @@ public abstract class BasicVertexCentricQueryBuilder<Q extends BaseVertexQuery<Q
             }
             if (queries.isEmpty())
                 return BaseVertexCentricQuery.emptyQuery();
+            //Retrieve the requested types with as few slices as possible if their order does not matter
+            if (orders.isEmpty()) queries = coalesceAdjacentSlices(queries);
 
             conditions.add(getTypeCondition(ts));
         }
         return new BaseVertexCentricQuery(QueryUtil.simplifyQNF(conditions), dir, queries, orders, limit);
     }
 
+    /**
+     * Merges slice queries whose column ranges are adjacent into a single slice query spanning both ranges.
+     * Ranges are adjacent if one ends where the other starts or if they cover two property keys with consecutive ids
+     * (e.g. property keys defined together) in their entirety. The projected relation types are thereby retrieved
+     * with a single slice instead of one slice per type. Only unlimited slices are merged since a limit applies to
+     * each slice individually.
+     *
+     * @param queries the slice queries for the requested types
+     * @return the coalesced slice queries or the given list if no slices could be merged
+     */
+    private static List<BackendQueryHolder<SliceQuery>> coalesceAdjacentSlices(List<BackendQueryHolder<SliceQuery>> queries) {
+        if (queries.size() < 2) return queries;
+        final List<BackendQueryHolder<SliceQuery>> sorted = new ArrayList<>(queries);
+        sorted.sort(Comparator.comparing((BackendQueryHolder<SliceQuery> q) -> q.getBackendQuery().getSliceStart()));
+        final List<BackendQueryHolder<SliceQuery>> coalesced = new ArrayList<>(sorted.size());
+        BackendQueryHolder<SliceQuery> current = sorted.get(0);
+        //Start of the last range merged into the current slice which is needed to check for consecutive property keys
+        StaticBuffer lastStart = current.getBackendQuery().getSliceStart();
+        for (int i = 1; i < sorted.size(); i++) {
+            final BackendQueryHolder<SliceQuery> next = sorted.get(i);
+            final SliceQuery currentSlice = current.getBackendQuery();
+            final SliceQuery nextSlice = next.getBackendQuery();
+            if (!currentSlice.hasLimit() && !nextSlice.hasLimit()
+                    && (currentSlice.getSliceEnd().equals(nextSlice.getSliceStart())
+                        || IDHandler.isConsecutivePropertyKeyRange(lastStart, currentSlice.getSliceEnd(),
+                                nextSlice.getSliceStart(), nextSlice.getSliceEnd()))) {
+                current = new BackendQueryHolder<>(new SliceQuery(currentSlice.getSliceStart(), nextSlice.getSliceEnd()),
+                        current.isFitted() && next.isFitted(), current.isSorted() && next.isSorted());
+            } else {
+                coalesced.add(current);
+                current = next;
+            }
+            lastStart = nextSlice.getSliceStart();
+        }
+        coalesced.add(current);
+        return coalesced.size() < queries.size() ? coalesced : queries;
+    }
+
     private void constructSliceQueries(PropertyKey[] extendedSortKey, EdgeSerializer.TypedInterval[] sortKeyConstraints,
                                        int position,
                                        InternalRelationType bestCandidate, Direction direction,
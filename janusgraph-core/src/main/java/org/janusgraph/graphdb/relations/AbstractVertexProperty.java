@@ -37,6 +37,15 @@ public abstract class AbstractVertexProperty<V> extends AbstractTypedRelation im
         this.value = Preconditions.checkNotNull(value, "null value for property key %s",type);
     }
 
+    /**
+     * Constructor for properties which decode their value lazily and therefore must override {@link #value()}.
+     */
+    protected AbstractVertexProperty(long id, PropertyKey type, InternalVertex vertex) {
+        super(id, type);
+        this.vertex = Preconditions.checkNotNull(vertex, "null vertex");
+        this.value = null;
+    }
+
     @Override
     public String toString() {
         return StringFactory.propertyString(this);
@@ -37,11 +37,27 @@ public class CacheVertexProperty extends AbstractVertexProperty {
     public CacheVertexProperty(long id, PropertyKey key, InternalVertex start, Object value, Entry data) {
         super(id, key, start.it(), value);
         this.data = data;
+        this.relation = null;
+    }
+
+    /**
+     * Creates a property whose value is only deserialized from the given relation cache when it is accessed.
+     */
+    public CacheVertexProperty(PropertyKey key, InternalVertex start, RelationCache relation, Entry data) {
+        super(relation.relationId, key, start.it());
+        this.data = data;
+        this.relation = relation;
     }
 
     //############## Similar code as CacheEdge but be careful when copying #############################
 
     private final Entry data;
+    private final RelationCache relation;
+
+    @Override
+    public Object value() {
+        return relation == null ? super.value() : relation.getValue();
+    }
 
     @Override
     public InternalRelation it() {
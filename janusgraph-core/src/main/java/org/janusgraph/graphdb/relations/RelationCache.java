@@ -16,13 +16,18 @@ package org.janusgraph.graphdb.relations;
 
 import com.carrotsearch.hppc.LongObjectHashMap;
 import com.carrotsearch.hppc.cursors.LongObjectCursor;
+import com.google.common.base.Preconditions;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 
 import java.util.*;
+import java.util.function.Supplier;
 
 /**
  * Immutable map from long key ids to objects.
  * Implemented for memory and time efficiency.
+ * <p>
+ * The value of a property may be decoded lazily on first access (see {@link #ofLazyValue(Direction, long, long, Supplier)})
+ * so that relations whose value is never inspected do not pay for its deserialization.
  *
  * @author Matthias Broecheler (me@matthiasb.com)
  */
@@ -33,7 +38,8 @@ public class RelationCache implements Iterable<LongObjectCursor<Object>> {
     public final Direction direction;
     public final long typeId;
     public final long relationId;
-    private final Object other;
+    private volatile Object other;
+    private final Supplier<Object> valueDecoder;
     private final LongObjectHashMap<Object> properties;
 
     public RelationCache(final Direction direction, final long typeId, final long relationId,
@@ -42,14 +48,34 @@ public class RelationCache implements Iterable<LongObjectCursor<Object>> {
         this.typeId = typeId;
         this.relationId = relationId;
         this.other = other;
+        this.valueDecoder = null;
         this.properties = (properties == null || properties.size() > 0) ? properties : EMPTY;
     }
 
+    private RelationCache(final Direction direction, final long typeId, final long relationId,
+                          final Supplier<Object> valueDecoder) {
+        this.direction = direction;
+        this.typeId = typeId;
+        this.relationId = relationId;
+        this.valueDecoder = valueDecoder;
+        this.properties = null;
+    }
+
     public RelationCache(final Direction direction, final long typeId, final long relationId,
                          final Object other) {
         this(direction,typeId,relationId,other,null);
     }
 
+    /**
+     * Creates a header-only relation cache whose value is decoded by the given decoder on the first call to
+     * {@link #getValue()}. The decoder may be invoked more than once when the value is accessed concurrently
+     * and hence must be free of side effects.
+     */
+    public static RelationCache ofLazyValue(final Direction direction, final long typeId, final long relationId,
+                                            final Supplier<Object> valueDecoder) {
+        return new RelationCache(direction, typeId, relationId, Preconditions.checkNotNull(valueDecoder));
+    }
+
     @SuppressWarnings("unchecked")
     public <O> O get(long key) {
         return (O) properties.get(key);
@@ -64,7 +90,20 @@ public class RelationCache implements Iterable<LongObjectCursor<Object>> {
     }
 
     public Object getValue() {
-        return other;
+        Object value = other;
+        if (value == null && valueDecoder != null) {
+            value = Preconditions.checkNotNull(valueDecoder.get(),
+                "Encountered error in deserializer [null value returned]. Check serializer compatibility.");
+            other = value;
+        }
+        return value;
+    }
+
+    /**
+     * Whether the value has been decoded already, i.e. {@link #getValue()} returns without deserializing it.
+     */
+    public boolean isValueDecoded() {
+        return other != null || valueDecoder == null;
     }
 
     public Long getOtherVertexId() {
@@ -82,7 +121,7 @@ public class RelationCache implements Iterable<LongObjectCursor<Object>> {
 
     @Override
     public String toString() {
-         return typeId + "-" + direction + "->" + other + ":" + relationId;
+         return typeId + "-" + direction + "->" + getValue() + ":" + relationId;
     }
 
 }
@@ -28,15 +28,21 @@ import org.apache.tinkerpop.gremlin.process.traversal.step.branch.BranchStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.branch.OptionalStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.branch.RepeatStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.branch.RepeatStep.RepeatEndStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.filter.TraversalFilterStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.ElementMapStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.PropertiesStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.PropertyMapStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.IdentityStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.SideEffectStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.StartStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.util.wrapped.WrappedVertex;
 
@@ -82,6 +88,49 @@ public class JanusGraphTraversalUtil {
         return currentStep;
     }
 
+    /**
+     * Whether the given step reads the properties of the elements it receives and hence
+     * benefits from having the properties of many vertices pre-fetched in one backend call.
+     */
+    public static boolean isPropertyReadingStep(Step<?, ?> step) {
+        return step instanceof PropertiesStep || step instanceof PropertyMapStep || step instanceof ElementMapStep
+            || step instanceof HasStep && getHasPropertyKeys((HasStep<?>) step).length > 0;
+    }
+
+    /**
+     * Returns the property keys read by the given property reading step, or null if the step reads
+     * all properties of the elements it receives. Hidden keys as well as the id and label of has steps are not
+     * included since they are not loaded as properties.
+     *
+     * @see #isPropertyReadingStep(Step)
+     */
+    public static String[] getReadPropertyKeys(Step<?, ?> step) {
+        final String[] keys;
+        if (step instanceof PropertiesStep) {
+            keys = ((PropertiesStep<?>) step).getPropertyKeys();
+        } else if (step instanceof PropertyMapStep) {
+            keys = ((PropertyMapStep<?, ?>) step).getPropertyKeys();
+        } else if (step instanceof ElementMapStep) {
+            keys = ((ElementMapStep<?, ?>) step).getPropertyKeys();
+        } else if (step instanceof HasStep) {
+            keys = getHasPropertyKeys((HasStep<?>) step);
+        } else {
+            return null;
+        }
+        final String[] visibleKeys = Arrays.stream(keys).filter(k -> !Graph.Hidden.isHidden(k)).distinct().toArray(String[]::new);
+        return visibleKeys.length == 0 ? null : visibleKeys;
+    }
+
+    /**
+     * Returns the keys of the has containers of the given step which refer to properties, i.e. without the
+     * containers on {@link T#id} and {@link T#label} which are answered without loading any properties.
+     */
+    private static String[] getHasPropertyKeys(HasStep<?> step) {
+        return step.getHasContainers().stream().map(HasContainer::getKey)
+            .filter(k -> !k.equals(T.id.getAccessor()) && !k.equals(T.label.getAccessor()))
+            .toArray(String[]::new);
+    }
+
     public static JanusGraphTransaction getTx(Traversal.Admin<?, ?> traversal) {
         final JanusGraphTransaction tx;
         Optional<Graph> optGraph = TraversalHelper.getRootTraversal(traversal.asAdmin()).getGraph();
@@ -21,9 +21,13 @@ import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
 import org.apache.tinkerpop.gremlin.process.traversal.util.AndP;
 import org.apache.tinkerpop.gremlin.process.traversal.util.ConnectiveP;
+import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.janusgraph.core.Cardinality;
 import org.janusgraph.core.PropertyKey;
 import org.janusgraph.core.JanusGraphTransaction;
+import org.janusgraph.core.RelationType;
+import org.janusgraph.core.schema.SchemaStatus;
+import org.janusgraph.graphdb.internal.InternalRelationType;
 import org.janusgraph.graphdb.query.JanusGraphPredicateUtils;
 import org.janusgraph.graphdb.query.QueryUtil;
 import org.apache.tinkerpop.gremlin.process.traversal.Order;
@@ -40,10 +44,12 @@ import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
 
 import org.janusgraph.graphdb.tinkerpop.optimize.JanusGraphTraversalUtil;
+import org.janusgraph.graphdb.types.system.ImplicitKey;
 import org.javatuples.Pair;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -116,6 +122,76 @@ public interface HasStepFolder<S, E> extends Step<S, E> {
         return true;
     }
 
+    /**
+     * Determines whether the given order can be answered by a vertex-centric index of every edge label traversed by
+     * the given vertex step, i.e. whether each of those edge labels has an enabled relation index whose first sort key
+     * is the ordered property key sorted in the requested order and which would be chosen for the step's conditions.
+     * In that case each vertex returns its edges in the requested order straight from the storage backend so that a
+     * subsequent limit translates into a bounded slice read per vertex.
+     *
+     * @param vertexStep the vertex step returning edges
+     * @param orderGlobalStep the order step following the vertex step
+     * @param rootTraversal the root traversal used to access the schema
+     * @return the order which is supported by the vertex-centric indexes or null if the order cannot be pushed down
+     */
+    static OrderEntry getVertexCentricIndexOrder(final JanusGraphVertexStep<?> vertexStep,
+                                                 final OrderGlobalStep<?, ?> orderGlobalStep,
+                                                 final Traversal<?, ?> rootTraversal) {
+        final List<Pair<Traversal.Admin, Object>> comparators = orderGlobalStep.getComparators();
+        if (comparators.size() != 1 || vertexStep.getEdgeLabels().length == 0
+            || !validJanusGraphOrder(orderGlobalStep, rootTraversal, false)) {
+            return null;
+        }
+        final Pair<Traversal.Admin, Object> comp = comparators.get(0);
+        final OrderEntry orderEntry;
+        if (comp.getValue0() instanceof ElementValueTraversal) {
+            orderEntry = new OrderEntry(((ElementValueTraversal) comp.getValue0()).getPropertyKey(), (Order) comp.getValue1());
+        } else {
+            final ElementValueComparator evc = (ElementValueComparator) comp.getValue1();
+            orderEntry = new OrderEntry(evc.getPropertyKey(), (Order) evc.getValueComparator());
+        }
+        if (orderEntry.order == Order.shuffle) return null;
+
+        final JanusGraphTransaction tx = JanusGraphTraversalUtil.getTx(rootTraversal.asAdmin());
+        final long orderKeyId = tx.getPropertyKey(orderEntry.key).longId();
+        final org.janusgraph.graphdb.internal.Order order = org.janusgraph.graphdb.internal.Order.convert(orderEntry.order);
+        final Set<Long> conditionKeyIds = new HashSet<>();
+        for (final HasContainer has : vertexStep.getHasContainers()) {
+            final RelationType key = tx.getRelationType(has.getKey());
+            //Conditions on implicit keys (e.g. the adjacent vertex) can make the query use a different index
+            if (key == null || key instanceof ImplicitKey) return null;
+            conditionKeyIds.add(key.longId());
+        }
+
+        for (final String label : vertexStep.getEdgeLabels()) {
+            final RelationType relationType = tx.getRelationType(label);
+            if (!(relationType instanceof InternalRelationType) || !relationType.isEdgeLabel()) return null;
+            final InternalRelationType type = (InternalRelationType) relationType;
+            Direction[] dirs = {vertexStep.getDirection()};
+            if (vertexStep.getDirection() == Direction.BOTH) {
+                if (type.isUnidirected(Direction.BOTH)) dirs = new Direction[]{Direction.OUT, Direction.IN};
+                else if (type.isUnidirected(Direction.OUT)) dirs = new Direction[]{Direction.OUT};
+                else dirs = new Direction[]{Direction.IN};
+            }
+            for (final Direction direction : dirs) {
+                boolean supportsOrder = false;
+                for (final InternalRelationType candidate : type.getRelationIndexes()) {
+                    if (!candidate.isUnidirected(Direction.BOTH) && !candidate.isUnidirected(direction)) continue;
+                    if (!candidate.equals(type) && candidate.getStatus() != SchemaStatus.ENABLED) continue;
+                    final long[] sortKey = candidate.getSortKey();
+                    if (sortKey.length > 0 && sortKey[0] == orderKeyId && candidate.getSortOrder() == order) {
+                        supportsOrder = true;
+                    } else if (sortKey.length > 0 && sortKey[0] != orderKeyId && conditionKeyIds.contains(sortKey[0])) {
+                        //An index on another key might fit the conditions better and would then be chosen for the query
+                        return null;
+                    }
+                }
+                if (!supportsOrder) return null;
+            }
+        }
+        return orderEntry;
+    }
+
     static void foldInIds(final HasStepFolder janusgraphStep, final Traversal.Admin<?, ?> traversal) {
         Step<?, ?> currentStep = janusgraphStep.getNextStep();
         while (true) {
@@ -21,6 +21,7 @@ import org.janusgraph.core.JanusGraphElement;
 import org.janusgraph.core.JanusGraphQuery;
 import org.janusgraph.core.JanusGraphTransaction;
 import org.janusgraph.core.JanusGraphVertex;
+import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
 import org.janusgraph.graphdb.internal.ElementCategory;
 import org.janusgraph.graphdb.query.BaseQuery;
 import org.janusgraph.graphdb.query.JanusGraphPredicateUtils;
@@ -32,6 +33,7 @@ import org.janusgraph.graphdb.tinkerpop.optimize.QueryInfo;
 import org.janusgraph.graphdb.tinkerpop.optimize.step.HasStepFolder;
 import org.janusgraph.graphdb.tinkerpop.profile.TP3ProfileWrapper;
 import org.janusgraph.graphdb.util.MultiDistinctOrderedIterator;
+import org.janusgraph.graphdb.util.PropertyPrefetchingIterator;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ArrayListMultimap;
@@ -67,6 +69,9 @@ public class JanusGraphStep<S, E extends Element> extends GraphStep<S, E> implem
     private int highLimit = BaseQuery.NO_LIMIT;
     private final List<OrderEntry> orders = new ArrayList<>();
     private QueryProfiler queryProfiler = QueryProfiler.NO_OP;
+    private boolean batchPropertyPrefetching = false;
+    private int prefetchBatchSize = GraphDatabaseConfiguration.BATCH_PROPERTY_PREFETCH_SIZE.getDefaultValue();
+    private String[] prefetchKeys = null;
 
 
     public JanusGraphStep(final GraphStep<S, E> originalStep) {
@@ -78,7 +83,7 @@ public class JanusGraphStep<S, E extends Element> extends GraphStep<S, E> implem
             }
             else if (this.ids.length > 0) {
                 final Graph graph = (Graph)traversal.asAdmin().getGraph().get();
-                return iteratorList((Iterator)graph.vertices(this.ids));
+                return prefetchProperties(iteratorList((Iterator)graph.vertices(this.ids)));
             }
             if (hasLocalContainers.isEmpty()) {
                 hasLocalContainers.put(new ArrayList<>(), new QueryInfo(new ArrayList<>(), 0, BaseQuery.NO_LIMIT));
@@ -97,10 +102,40 @@ public class JanusGraphStep<S, E extends Element> extends GraphStep<S, E> implem
             final List<Iterator<E>> responses = new ArrayList<>();
             queries.entries().forEach(q ->  executeGraphCentricQuery(builder, responses, q));
 
-            return new MultiDistinctOrderedIterator<E>(lowLimit, highLimit, responses, orders);
+            return prefetchProperties(new MultiDistinctOrderedIterator<E>(lowLimit, highLimit, responses, orders));
         });
     }
 
+    public void setBatchPropertyPrefetching(boolean batchPropertyPrefetching) {
+        this.batchPropertyPrefetching = batchPropertyPrefetching;
+    }
+
+    /**
+     * Sets the maximum number of vertices whose properties are pre-fetched together. The first vertex is only
+     * returned once the properties of its page have been fetched, so this also bounds the latency of the step.
+     *
+     * @param prefetchBatchSize the maximum number of vertices pre-fetched in one multiQuery
+     */
+    public void setPrefetchBatchSize(int prefetchBatchSize) {
+        this.prefetchBatchSize = prefetchBatchSize;
+    }
+
+    /**
+     * Restricts the batch property pre-fetch to the given keys.
+     *
+     * @param prefetchKeys the property keys read after this step or null if all properties are read
+     */
+    public void setPrefetchKeys(String[] prefetchKeys) {
+        this.prefetchKeys = prefetchKeys;
+    }
+
+    private Iterator<E> prefetchProperties(final Iterator<E> iterator) {
+        if (!batchPropertyPrefetching || !returnsVertex()) {
+            return iterator;
+        }
+        return new PropertyPrefetchingIterator<>(iterator, JanusGraphTraversalUtil.getTx(traversal), queryProfiler, prefetchBatchSize, prefetchKeys);
+    }
+
     private GraphCentricQuery buildGlobalGraphCentricQuery(final JanusGraphTransaction tx) {
         //If a query have a local offset or have a local order without a global order and if a query have a limit lower than the global different from other query we can not build globalquery
         final Iterator<QueryInfo> itQueryInfo =  hasLocalContainers.values().iterator();
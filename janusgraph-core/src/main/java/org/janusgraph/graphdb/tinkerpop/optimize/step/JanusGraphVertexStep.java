@@ -243,6 +243,10 @@ public class JanusGraphVertexStep<E extends Element> extends VertexStep<E> imple
         throw new UnsupportedOperationException("addLocalAll is not supported for graph vertex step.");
     }
 
+    public List<HasContainer> getHasContainers() {
+        return Collections.unmodifiableList(hasContainers);
+    }
+
     @Override
     public void orderBy(String key, Order order) {
         orders.add(new OrderEntry(key, order));
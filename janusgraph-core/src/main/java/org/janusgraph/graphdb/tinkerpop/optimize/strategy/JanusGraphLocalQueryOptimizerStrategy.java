@@ -27,6 +27,7 @@ import org.apache.tinkerpop.gremlin.process.traversal.Traversal.Admin;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.step.branch.LocalStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.filter.RangeGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.OrderGlobalStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.PropertiesStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
@@ -90,6 +91,8 @@ public class JanusGraphLocalQueryOptimizerStrategy extends AbstractTraversalStra
             if (nextStep instanceof RangeGlobalStep) {
                 final int limit = QueryUtil.convertLimit(((RangeGlobalStep) nextStep).getHighRange());
                 vertexStep.setLimit(0, QueryUtil.mergeHighLimits(limit, vertexStep.getHighLimit()));
+            } else if (nextStep instanceof OrderGlobalStep && JanusGraphTraversalUtil.isEdgeReturnStep(vertexStep)) {
+                applyVertexCentricIndexOrder(traversal, vertexStep, (OrderGlobalStep<?, ?>) nextStep);
             }
 
             if (useMultiQuery) {
@@ -161,6 +164,28 @@ public class JanusGraphLocalQueryOptimizerStrategy extends AbstractTraversalStra
         });
     }
 
+    /**
+     * If the edges returned by this step are ordered and then limited, each vertex contributes at most limit many
+     * edges to the result. When the order is supported by the vertex-centric indexes of the traversed edge labels,
+     * the order and limit are pushed down to the step so that each vertex only reads its top edges from the storage
+     * backend. The order and range steps are retained since they still need to be applied across all vertices.
+     *
+     * @param traversal The traversal containing the step
+     * @param vertexStep The step returning edges
+     * @param orderStep The order step following the vertex step
+     */
+    private void applyVertexCentricIndexOrder(final Admin<?, ?> traversal, final JanusGraphVertexStep<?> vertexStep,
+                                              final OrderGlobalStep<?, ?> orderStep) {
+        final Step<?, ?> rangeStep = JanusGraphTraversalUtil.getNextNonIdentityStep(orderStep);
+        if (!(rangeStep instanceof RangeGlobalStep) || ((RangeGlobalStep<?>) rangeStep).getHighRange() < 0) return;
+        final HasStepFolder.OrderEntry order = HasStepFolder.getVertexCentricIndexOrder(vertexStep, orderStep, traversal);
+        if (order != null) {
+            vertexStep.orderBy(order.key, order.order);
+            final int limit = QueryUtil.convertLimit(((RangeGlobalStep<?>) rangeStep).getHighRange());
+            vertexStep.setLimit(0, QueryUtil.mergeHighLimits(limit, vertexStep.getHighLimit()));
+        }
+    }
+
     /**
      * If this step is followed by a subsequent has step then the properties will need to be
      * known when that has step is executed. The batch property pre-fetching optimisation
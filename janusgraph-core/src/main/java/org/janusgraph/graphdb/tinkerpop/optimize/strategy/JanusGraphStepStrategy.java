@@ -15,16 +15,21 @@
 package org.janusgraph.graphdb.tinkerpop.optimize.strategy;
 
 import org.janusgraph.graphdb.tinkerpop.ElementUtils;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.RangeGlobalStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
+import org.janusgraph.graphdb.database.StandardJanusGraph;
 import org.janusgraph.graphdb.tinkerpop.optimize.JanusGraphTraversalUtil;
 import org.janusgraph.graphdb.tinkerpop.optimize.step.HasStepFolder;
 import org.janusgraph.graphdb.tinkerpop.optimize.step.JanusGraphStep;
+import org.janusgraph.graphdb.transaction.StandardJanusGraphTx;
 
 /**
  * @author Matthias Broecheler (me@matthiasb.com)
@@ -41,6 +46,9 @@ public class JanusGraphStepStrategy extends AbstractTraversalStrategy<TraversalS
         if (TraversalHelper.onGraphComputer(traversal))
             return;
 
+        final GraphDatabaseConfiguration configuration = getConfiguration(traversal);
+        final boolean batchPropertyPrefetching = configuration != null && configuration.batchPropertyPrefetching();
+
         TraversalHelper.getStepsOfClass(GraphStep.class, traversal).forEach(originalGraphStep -> {
             if (originalGraphStep.getIds() == null || originalGraphStep.getIds().length == 0) {
                 //Try to optimize for index calls
@@ -50,25 +58,71 @@ public class JanusGraphStepStrategy extends AbstractTraversalStrategy<TraversalS
                 HasStepFolder.foldInHasContainer(janusGraphStep, traversal, traversal);
                 HasStepFolder.foldInOrder(janusGraphStep, janusGraphStep.getNextStep(), traversal, traversal, janusGraphStep.returnsVertex(), null);
                 HasStepFolder.foldInRange(janusGraphStep, JanusGraphTraversalUtil.getNextNonIdentityStep(janusGraphStep), traversal, null);
+                final Step<?, ?> nextStep = JanusGraphTraversalUtil.getNextNonIdentityStep(janusGraphStep);
+                if (batchPropertyPrefetching && janusGraphStep.returnsVertex() && JanusGraphTraversalUtil.isPropertyReadingStep(nextStep)) {
+                    enableBatchPropertyPrefetching(janusGraphStep, nextStep, configuration);
+                }
             } else {
                 //Make sure that any provided "start" elements are instantiated in the current transaction
                 final Object[] ids = originalGraphStep.getIds();
                 ElementUtils.verifyArgsMustBeEitherIdOrElement(ids);
+                final Object[] elementIds;
                 if (ids[0] instanceof Element) {
                     //GraphStep constructor ensures that the entire array is elements
-                    final Object[] elementIds = new Object[ids.length];
+                    elementIds = new Object[ids.length];
                     for (int i = 0; i < ids.length; i++) {
                         elementIds[i] = ((Element) ids[i]).id();
                     }
+                } else {
+                    elementIds = null;
+                }
+                //Pre-fetch the properties of the looked up vertices page by page if they are read next
+                final Step<?, ?> nextStep = JanusGraphTraversalUtil.getNextNonIdentityStep(originalGraphStep);
+                if (batchPropertyPrefetching && originalGraphStep.returnsVertex()
+                        && JanusGraphTraversalUtil.isPropertyReadingStep(nextStep)) {
+                    //JanusGraphStep looks up the given ids or elements in the current transaction
+                    final JanusGraphStep<?, ?> janusGraphStep = new JanusGraphStep<>(originalGraphStep);
+                    TraversalHelper.replaceStep(originalGraphStep, janusGraphStep, traversal);
+                    enableBatchPropertyPrefetching(janusGraphStep, nextStep, configuration);
+                } else if (elementIds != null) {
                     originalGraphStep.setIteratorSupplier(() -> originalGraphStep.returnsVertex() ?
-                            ((Graph) originalGraphStep.getTraversal().getGraph().get()).vertices(elementIds) :
-                            ((Graph) originalGraphStep.getTraversal().getGraph().get()).edges(elementIds));
+                        ((Graph) originalGraphStep.getTraversal().getGraph().get()).vertices(elementIds) :
+                        ((Graph) originalGraphStep.getTraversal().getGraph().get()).edges(elementIds));
                 }
             }
 
         });
     }
 
+    private static void enableBatchPropertyPrefetching(final JanusGraphStep<?, ?> janusGraphStep, final Step<?, ?> nextStep,
+                                                       final GraphDatabaseConfiguration configuration) {
+        janusGraphStep.setBatchPropertyPrefetching(true);
+        janusGraphStep.setPrefetchBatchSize(getPrefetchBatchSize(nextStep, configuration));
+        janusGraphStep.setPrefetchKeys(JanusGraphTraversalUtil.getReadPropertyKeys(nextStep));
+    }
+
+    /**
+     * The page size of the property pre-fetch. If the property reading step is followed by a limit, the first page
+     * is not made larger than the limit since the remaining vertices are likely never looked at.
+     */
+    private static int getPrefetchBatchSize(final Step<?, ?> propertyReadingStep, final GraphDatabaseConfiguration configuration) {
+        final int batchSize = configuration.getBatchPropertyPrefetchSize();
+        final Step<?, ?> limitStep = JanusGraphTraversalUtil.getNextNonIdentityStep(propertyReadingStep);
+        if (limitStep instanceof RangeGlobalStep) {
+            final long highRange = ((RangeGlobalStep<?>) limitStep).getHighRange();
+            if (highRange > 0 && highRange < batchSize) return (int) highRange;
+        }
+        return batchSize;
+    }
+
+    private static GraphDatabaseConfiguration getConfiguration(final Traversal.Admin<?, ?> traversal) {
+        if (!traversal.getGraph().isPresent()) return null;
+        final Graph graph = traversal.getGraph().get();
+        if (graph instanceof StandardJanusGraphTx) return ((StandardJanusGraphTx) graph).getGraph().getConfiguration();
+        if (graph instanceof StandardJanusGraph) return ((StandardJanusGraph) graph).getConfiguration();
+        return null;
+    }
+
     public static JanusGraphStepStrategy instance() {
         return INSTANCE;
     }
@@ -85,7 +85,7 @@ public class RelationConstructor {
 
         if (type.isPropertyKey()) {
             assert relation.direction == Direction.OUT;
-            return new CacheVertexProperty(relation.relationId, (PropertyKey) type, vertex, relation.getValue(), data);
+            return new CacheVertexProperty((PropertyKey) type, vertex, relation, data);
         }
 
         if (type.isEdgeLabel()) {
@@ -0,0 +1,110 @@
+// Copyright 2020 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.util;
+
+import com.google.common.base.Preconditions;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.janusgraph.core.JanusGraphMultiVertexQuery;
+import org.janusgraph.core.JanusGraphTransaction;
+import org.janusgraph.graphdb.query.profile.QueryProfiler;
+import org.janusgraph.graphdb.query.vertex.BasicVertexCentricQueryBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Iterator which reads the wrapped iterator page by page and pre-fetches the properties of all vertices
+ * of a page with a single multiQuery before handing them out. This populates the transaction-level
+ * vertex cache so that subsequent property lookups on those vertices don't have to go to the storage
+ * backend one vertex at a time. It implements the optimisation enabled via the query.batch-property-prefetch
+ * config option for vertices returned by a graph step.
+ * <p>
+ * If the property keys read by the subsequent step are known, only those keys are pre-fetched so that
+ * neither the backend nor the vertex cache has to deal with properties which are never looked at.
+ */
+public class PropertyPrefetchingIterator<E extends Element> implements Iterator<E> {
+
+    private final Iterator<E> iterator;
+    private final JanusGraphTransaction tx;
+    private final QueryProfiler profiler;
+    private final int batchSize;
+    private final String[] keys;
+
+    private Iterator<E> currentBatch = Collections.emptyIterator();
+
+    public PropertyPrefetchingIterator(Iterator<E> iterator, JanusGraphTransaction tx, QueryProfiler profiler, int batchSize) {
+        this(iterator, tx, profiler, batchSize, null);
+    }
+
+    /**
+     * @param iterator the elements to hand out
+     * @param tx the transaction in which the properties are pre-fetched
+     * @param profiler profiler for the pre-fetch queries
+     * @param batchSize maximum number of vertices pre-fetched in one multiQuery
+     * @param keys the property keys to pre-fetch or null to pre-fetch all properties
+     */
+    public PropertyPrefetchingIterator(Iterator<E> iterator, JanusGraphTransaction tx, QueryProfiler profiler, int batchSize,
+                                       String[] keys) {
+        Preconditions.checkArgument(batchSize > 0, "Invalid batch size: %s", batchSize);
+        this.iterator = iterator;
+        this.tx = tx;
+        this.profiler = profiler;
+        this.batchSize = batchSize;
+        this.keys = keys;
+    }
+
+    private void nextBatch() {
+        final List<E> batch = new ArrayList<>();
+        final Set<Vertex> vertices = new HashSet<>();
+        while (batch.size() < batchSize && iterator.hasNext()) {
+            final E element = iterator.next();
+            batch.add(element);
+            if (element instanceof Vertex) {
+                vertices.add((Vertex) element);
+            }
+        }
+
+        // If there are multiple vertices then fetch the properties for all of them in a single multiQuery to
+        // populate the vertex cache so subsequent queries of properties don't have to go to the storage back end
+        if (vertices.size() > 1) {
+            final JanusGraphMultiVertexQuery multiQuery = tx.multiQuery();
+            ((BasicVertexCentricQueryBuilder) multiQuery).profiler(profiler);
+            if (keys != null && keys.length > 0) multiQuery.keys(keys);
+            multiQuery.addAllVertices(vertices).preFetch();
+        }
+        currentBatch = batch.iterator();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!currentBatch.hasNext() && iterator.hasNext()) {
+            nextBatch();
+        }
+        return currentBatch.hasNext();
+    }
+
+    @Override
+    public E next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        return currentBatch.next();
+    }
+
+}
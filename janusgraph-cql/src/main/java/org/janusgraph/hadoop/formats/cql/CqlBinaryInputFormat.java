@@ -28,6 +28,9 @@ import org.apache.hadoop.mapreduce.TaskAttemptContext;
 import org.janusgraph.diskstorage.Entry;
 import org.janusgraph.diskstorage.StaticBuffer;
 import org.janusgraph.diskstorage.cql.CQLConfigOptions;
+import org.janusgraph.diskstorage.cql.CQLKeyColumnValueStore;
+import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
+import org.janusgraph.diskstorage.util.Hex;
 import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
 import org.janusgraph.hadoop.config.JanusGraphHadoopConfiguration;
 import org.janusgraph.hadoop.formats.util.AbstractBinaryInputFormat;
@@ -55,6 +58,17 @@ public class CqlBinaryInputFormat extends AbstractBinaryInputFormat {
 
     @Override
     public RecordReader<StaticBuffer, Iterable<Entry>> createRecordReader(InputSplit inputSplit, TaskAttemptContext taskAttemptContext) throws IOException, InterruptedException {
+        // Only read the columns needed for the graph filter. A CQL query can only restrict the clustering column
+        // to a single range, so this reads the smallest range covering all slices.
+        final List<SliceQuery> inputSlices = getInputSlices(taskAttemptContext);
+        if (!inputSlices.contains(JanusGraphHadoopSetupImpl.DEFAULT_SLICE_QUERY)) {
+            final StaticBuffer start = inputSlices.get(0).getSliceStart();
+            final StaticBuffer end = inputSlices.get(inputSlices.size() - 1).getSliceEnd();
+            final String whereClause = CQLKeyColumnValueStore.COLUMN_COLUMN_NAME + " >= " + toBlobLiteral(start)
+                + " AND " + CQLKeyColumnValueStore.COLUMN_COLUMN_NAME + " < " + toBlobLiteral(end);
+            CqlConfigHelper.setInputWhereClauses(taskAttemptContext.getConfiguration(), whereClause);
+            log.debug("Restricted input columns: {}", whereClause);
+        }
         CqlRecordReader recordReader = (CqlRecordReader) cqlInputFormat.createRecordReader(inputSplit, taskAttemptContext);
         return new CqlBinaryRecordReader(recordReader);
     }
@@ -87,6 +101,10 @@ public class CqlBinaryInputFormat extends AbstractBinaryInputFormat {
         ConfigHelper.setInputSlicePredicate(config, predicate);
     }
 
+    private static String toBlobLiteral(final StaticBuffer buffer) {
+        return "0x" + Hex.bytesToHex(buffer.as(StaticBuffer.ARRAY_FACTORY));
+    }
+
     private SliceRange getSliceRange(final int limit) {
         final SliceRange sliceRange = new SliceRange();
         sliceRange.setStart(JanusGraphHadoopSetupImpl.DEFAULT_SLICE_QUERY.getSliceStart().asByteBuffer());
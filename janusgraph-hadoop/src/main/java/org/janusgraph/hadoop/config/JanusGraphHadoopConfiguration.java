@@ -17,6 +17,8 @@ package org.janusgraph.hadoop.config;
 import org.janusgraph.diskstorage.Backend;
 import org.janusgraph.diskstorage.configuration.*;
 
+import java.time.Duration;
+
 public class JanusGraphHadoopConfiguration {
 
     public static final ConfigNamespace MAPRED_NS =
@@ -61,6 +63,14 @@ public class JanusGraphHadoopConfiguration {
                     "The name of the column family from which the Hadoop input format should read.  " +
                             "Usually edgestore or graphindex.", ConfigOption.Type.LOCAL, Backend.EDGESTORE_NAME);
 
+    public static final ConfigOption<Duration> SETUP_KEEP_ALIVE =
+            new ConfigOption<>(IOFORMAT_NS, "setup-keep-alive",
+                    "Time (in ms) for which the graph opened to decode the input stays open after the last reader of " +
+                    "a job in a JVM has released it.  Tasks of the same job which start within this time, e.g. on " +
+                    "the same Spark executor, reuse the graph and its loaded schema instead of opening the graph " +
+                    "again.  The graph is never reused by another job.  Zero closes the graph as soon as it is " +
+                    "released.", ConfigOption.Type.LOCAL, Duration.ofMinutes(1L));
+
     // JanusGraph bulkload vertex program configuration
 
     public static final ConfigNamespace BULKLOAD_NS =
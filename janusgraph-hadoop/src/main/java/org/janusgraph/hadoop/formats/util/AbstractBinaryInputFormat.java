@@ -14,14 +14,25 @@
 
 package org.janusgraph.hadoop.formats.util;
 
+import org.janusgraph.core.JanusGraphException;
 import org.janusgraph.diskstorage.Entry;
 import org.janusgraph.diskstorage.StaticBuffer;
 import org.janusgraph.diskstorage.configuration.ModifiableConfiguration;
+import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
 import org.janusgraph.hadoop.config.ModifiableHadoopConfiguration;
 import org.janusgraph.hadoop.config.JanusGraphHadoopConfiguration;
+import org.janusgraph.hadoop.formats.util.input.current.JanusGraphHadoopSetupImpl;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.mapreduce.InputFormat;
+import org.apache.hadoop.mapreduce.JobContext;
+import org.apache.tinkerpop.gremlin.hadoop.Constants;
 import org.apache.tinkerpop.gremlin.hadoop.structure.io.HadoopPoolsConfigurable;
+import org.apache.tinkerpop.gremlin.hadoop.structure.util.ConfUtil;
+import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
+import org.apache.tinkerpop.gremlin.process.computer.util.VertexProgramHelper;
+
+import java.util.Collections;
+import java.util.List;
 
 public abstract class AbstractBinaryInputFormat extends InputFormat<StaticBuffer, Iterable<Entry>> implements HadoopPoolsConfigurable {
 
@@ -41,4 +52,35 @@ public abstract class AbstractBinaryInputFormat extends InputFormat<StaticBuffer
     public Configuration getConf() {
         return hadoopConf;
     }
+
+    /**
+     * Returns the column slices of the edgestore rows which have to be read for the graph filter of the job,
+     * so that edges the filter excludes by label and direction are not read from the storage backend.
+     * Without an edge filter, this is a single slice covering the entire row.
+     * <p>
+     * Opening the graph to map edge labels to columns is deferred until the job is known, so that the graph is
+     * shared with the record readers of the same job instead of being opened and closed again by every task.
+     */
+    protected List<SliceQuery> getInputSlices(final JobContext context) {
+        if (null == hadoopConf.get(Constants.GREMLIN_HADOOP_GRAPH_FILTER, null)) {
+            return Collections.singletonList(JanusGraphHadoopSetupImpl.DEFAULT_SLICE_QUERY);
+        }
+        final GraphFilter graphFilter = VertexProgramHelper.deserialize(ConfUtil.makeApacheConfiguration(hadoopConf),
+            Constants.GREMLIN_HADOOP_GRAPH_FILTER);
+        if (!graphFilter.hasEdgeFilter()) {
+            return Collections.singletonList(JanusGraphHadoopSetupImpl.DEFAULT_SLICE_QUERY);
+        }
+        // The schema is needed to map edge labels to columns, it is shared with the record readers of the job
+        final JanusGraphVertexDeserializer deserializer =
+            HadoopInputFormat.refCounter.acquire(hadoopConf, context.getJobID().toString());
+        try {
+            return deserializer.getInputSlices(graphFilter);
+        } finally {
+            try {
+                HadoopInputFormat.refCounter.release(deserializer);
+            } catch (Exception e) {
+                throw new JanusGraphException("Could not release the shared graph setup", e);
+            }
+        }
+    }
 }
@@ -15,8 +15,12 @@
 package org.janusgraph.hadoop.formats.util;
 
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.janusgraph.diskstorage.Entry;
 import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.configuration.ConfigElement;
+import org.janusgraph.hadoop.config.JanusGraphHadoopConfiguration;
+import org.janusgraph.hadoop.config.ModifiableHadoopConfiguration;
 import org.apache.tinkerpop.gremlin.hadoop.structure.io.GraphFilterAware;
 import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
 import org.apache.tinkerpop.gremlin.hadoop.structure.io.VertexWritable;
@@ -25,16 +29,27 @@ import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.io.NullWritable;
 import org.apache.hadoop.mapreduce.*;
 import org.janusgraph.hadoop.formats.util.input.current.JanusGraphHadoopSetupImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import java.util.regex.Pattern;
 
 
 public abstract class HadoopInputFormat extends InputFormat<NullWritable, VertexWritable> implements Configurable, GraphFilterAware {
 
     private final InputFormat<StaticBuffer, Iterable<Entry>> inputFormat;
-    private static final RefCountedCloseable<JanusGraphVertexDeserializer> refCounter;
+    static final RefCountedCloseable<JanusGraphVertexDeserializer> refCounter;
 
     static {
         refCounter = new RefCountedCloseable<>((conf) ->
@@ -53,14 +68,13 @@ public abstract class HadoopInputFormat extends InputFormat<NullWritable, Vertex
 
     @Override
     public RecordReader<NullWritable, VertexWritable> createRecordReader(InputSplit split, TaskAttemptContext context) throws IOException, InterruptedException {
-        return new HadoopRecordReader(refCounter, inputFormat.createRecordReader(split, context));
+        return new HadoopRecordReader(refCounter, context.getConfiguration(), context.getJobID().toString(),
+            inputFormat.createRecordReader(split, context));
     }
 
     @Override
     public void setConf(final Configuration conf) {
         ((Configurable)inputFormat).setConf(conf);
-
-        refCounter.setBuilderConfiguration(conf);
     }
 
     @Override
@@ -73,41 +87,114 @@ public abstract class HadoopInputFormat extends InputFormat<NullWritable, Vertex
         // do nothing -- loaded via configuration
     }
 
+    /**
+     * Shares the instances built from a configuration between all their users in the same JVM, e.g. between all
+     * tasks of a job which run on the same Spark executor. Instances acquired for a scope, such as a job, stay open
+     * for the {@link JanusGraphHadoopConfiguration#SETUP_KEEP_ALIVE keep-alive time} after they have been released
+     * for the last time, so that the following tasks of the same scope reuse them instead of building new ones.
+     * Instances are never shared between scopes, as the graph may have changed in between, e.g. its schema.
+     */
     public static class RefCountedCloseable<T extends AutoCloseable> {
 
-        private T current;
-        private long refCount;
+        private static final Logger log = LoggerFactory.getLogger(RefCountedCloseable.class);
+
+        private static final String IOFORMAT_PREFIX =
+            ConfigElement.getPath(JanusGraphHadoopConfiguration.IOFORMAT_NS, true) + ".";
+
+        private static final ScheduledExecutorService closer = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("janusgraph-hadoop-closer-%d").build());
+
         private final Function<Configuration, T> builder;
-        private Configuration configuration;
+        // Instances by the input format configuration they were built from
+        private final Map<String, Shared<T>> instances = new HashMap<>();
 
         public RefCountedCloseable(Function<Configuration, T> builder) {
             this.builder = builder;
         }
 
-        public synchronized void setBuilderConfiguration(Configuration configuration) {
-            this.configuration = configuration;
+        /**
+         * Acquires an instance which is not kept alive after it has been released for the last time.
+         */
+        public T acquire(Configuration configuration) {
+            return acquire(configuration, null);
         }
 
-        public synchronized T acquire() {
-            if (null == current) {
-                Preconditions.checkState(0 == refCount);
-                current = builder.apply(configuration);
+        /**
+         * Acquires an instance which is only shared with the users of the same scope, e.g. the tasks of one job.
+         *
+         * @param scope identifies the users which may share the instance, or null to not keep the instance alive
+         */
+        public synchronized T acquire(Configuration configuration, String scope) {
+            final String key = scope + " " +
+                new TreeMap<>(configuration.getValByRegex("^" + Pattern.quote(IOFORMAT_PREFIX)));
+            Shared<T> shared = instances.get(key);
+            if (null == shared) {
+                final Duration keepAlive = null == scope ? Duration.ZERO :
+                    ModifiableHadoopConfiguration.of(JanusGraphHadoopConfiguration.MAPRED_NS, configuration)
+                        .get(JanusGraphHadoopConfiguration.SETUP_KEEP_ALIVE, true);
+                shared = new Shared<>(key, builder.apply(configuration), keepAlive);
+                instances.put(key, shared);
+            } else if (null != shared.pendingClose) {
+                shared.pendingClose.cancel(false);
+                shared.pendingClose = null;
             }
 
-            refCount++;
+            shared.refCount++;
+
+            return shared.instance;
+        }
+
+        public synchronized void release(T instance) throws Exception {
+            Shared<T> shared = null;
+            for (Shared<T> s : instances.values()) {
+                if (s.instance == instance) {
+                    shared = s;
+                    break;
+                }
+            }
+            Preconditions.checkNotNull(shared);
+            Preconditions.checkState(0 < shared.refCount);
+
+            shared.refCount--;
+
+            if (0 == shared.refCount) {
+                if (shared.keepAlive.isZero()) {
+                    close(shared);
+                } else {
+                    final Shared<T> idle = shared;
+                    shared.pendingClose = closer.schedule(() -> closeIdle(idle),
+                        shared.keepAlive.toMillis(), TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+
+        private synchronized void closeIdle(Shared<T> shared) {
+            // The instance may have been acquired again in the meantime
+            if (0 < shared.refCount || instances.get(shared.key) != shared) return;
+            try {
+                close(shared);
+            } catch (Exception e) {
+                log.warn("Could not close idle instance {}", shared.instance, e);
+            }
+        }
 
-            return current;
+        private void close(Shared<T> shared) throws Exception {
+            instances.remove(shared.key);
+            shared.instance.close();
         }
 
-        public synchronized void release() throws Exception {
-            Preconditions.checkNotNull(current);
-            Preconditions.checkState(0 < refCount);
+        private static class Shared<T> {
 
-            refCount--;
+            private final String key;
+            private final T instance;
+            private final Duration keepAlive;
+            private long refCount;
+            private ScheduledFuture<?> pendingClose;
 
-            if (0 == refCount) {
-                current.close();
-                current = null;
+            private Shared(String key, T instance, Duration keepAlive) {
+                this.key = key;
+                this.instance = instance;
+                this.keepAlive = keepAlive;
             }
         }
     }
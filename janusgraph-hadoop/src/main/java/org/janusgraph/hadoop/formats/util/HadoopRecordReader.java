@@ -16,13 +16,14 @@ package org.janusgraph.hadoop.formats.util;
 
 import org.janusgraph.diskstorage.Entry;
 import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.keycolumnvalue.compression.CompressedKCVS;
+import org.janusgraph.diskstorage.util.BackendCompression;
 import org.apache.tinkerpop.gremlin.hadoop.Constants;
 import org.apache.tinkerpop.gremlin.hadoop.structure.util.ConfUtil;
 import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
 import org.apache.tinkerpop.gremlin.process.computer.util.VertexProgramHelper;
 import org.apache.tinkerpop.gremlin.structure.util.star.StarGraph;
 import org.apache.tinkerpop.gremlin.hadoop.structure.io.VertexWritable;
-import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerVertex;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.io.NullWritable;
 import org.apache.hadoop.mapreduce.InputSplit;
@@ -38,16 +39,20 @@ import java.util.Optional;
 public class HadoopRecordReader extends RecordReader<NullWritable, VertexWritable> {
 
     private final RecordReader<StaticBuffer, Iterable<Entry>> reader;
-    private final HadoopInputFormat.RefCountedCloseable countedDeserializer;
+    private final HadoopInputFormat.RefCountedCloseable<JanusGraphVertexDeserializer> countedDeserializer;
     private JanusGraphVertexDeserializer deserializer;
+    private final BackendCompression compression;
     private VertexWritable vertex;
     private GraphFilter graphFilter;
 
     public HadoopRecordReader(final HadoopInputFormat.RefCountedCloseable<JanusGraphVertexDeserializer> countedDeserializer,
+                              final Configuration configuration,
+                              final String jobId,
                               final RecordReader<StaticBuffer, Iterable<Entry>> reader) {
         this.countedDeserializer = countedDeserializer;
         this.reader = reader;
-        this.deserializer = countedDeserializer.acquire();
+        this.deserializer = countedDeserializer.acquire(configuration, jobId);
+        this.compression = deserializer.getCompression();
     }
 
     @Override
@@ -64,11 +69,13 @@ public class HadoopRecordReader extends RecordReader<NullWritable, VertexWritabl
     @Override
     public boolean nextKeyValue() throws IOException, InterruptedException {
         while (reader.nextKeyValue()) {
-            // TODO janusgraph05 integration -- the duplicate() call may be unnecessary
-            final TinkerVertex maybeNullTinkerVertex =
-                    deserializer.readHadoopVertex(reader.getCurrentKey(), reader.getCurrentValue());
-            if (null != maybeNullTinkerVertex) {
-                vertex = new VertexWritable(maybeNullTinkerVertex);
+            // Edges excluded by label and direction are already skipped by the deserializer, the vertex filter
+            // and any remaining edge filtering are applied to the resulting star vertex
+            final Iterable<Entry> entries = CompressedKCVS.decompress(reader.getCurrentValue(), compression);
+            final StarGraph.StarVertex maybeNullStarVertex =
+                    deserializer.readHadoopVertex(reader.getCurrentKey(), entries, graphFilter);
+            if (null != maybeNullStarVertex) {
+                vertex = new VertexWritable(maybeNullStarVertex);
                 if (graphFilter == null) {
                     return true;
                 } else {
@@ -96,8 +103,9 @@ public class HadoopRecordReader extends RecordReader<NullWritable, VertexWritabl
     @Override
     public void close() throws IOException {
         try {
+            final JanusGraphVertexDeserializer released = deserializer;
             deserializer = null;
-            countedDeserializer.release();
+            countedDeserializer.release(released);
         } catch (Exception e) {
             throw new IOException(e);
         }
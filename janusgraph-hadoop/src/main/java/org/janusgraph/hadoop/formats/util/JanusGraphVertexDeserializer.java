@@ -19,26 +19,29 @@ import com.google.common.base.Preconditions;
 import org.janusgraph.core.*;
 import org.janusgraph.diskstorage.Entry;
 import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
+import org.janusgraph.diskstorage.util.BackendCompression;
 import org.janusgraph.graphdb.database.RelationReader;
+import org.janusgraph.graphdb.database.idhandling.IDHandler;
 import org.janusgraph.graphdb.idmanagement.IDManager;
 import org.janusgraph.graphdb.internal.InternalRelationType;
 import org.janusgraph.graphdb.relations.RelationCache;
 import org.janusgraph.graphdb.types.TypeInspector;
 import org.janusgraph.hadoop.formats.util.input.SystemTypeInspector;
 import org.janusgraph.hadoop.formats.util.input.JanusGraphHadoopSetup;
+import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
 import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Direction;
-import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
-import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerEdge;
-import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
-import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerVertex;
+import org.apache.tinkerpop.gremlin.structure.util.star.StarGraph;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Iterator;
-import java.util.NoSuchElementException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 public class JanusGraphVertexDeserializer implements AutoCloseable {
 
@@ -46,6 +49,7 @@ public class JanusGraphVertexDeserializer implements AutoCloseable {
     private final TypeInspector typeManager;
     private final SystemTypeInspector systemTypes;
     private final IDManager idManager;
+    private final RelationReader relationReader;
 
     private static final Logger log =
             LoggerFactory.getLogger(JanusGraphVertexDeserializer.class);
@@ -55,26 +59,22 @@ public class JanusGraphVertexDeserializer implements AutoCloseable {
         this.typeManager = setup.getTypeInspector();
         this.systemTypes = setup.getSystemTypeInspector();
         this.idManager = setup.getIDManager();
+        this.relationReader = setup.getRelationReader();
     }
 
+    public BackendCompression getCompression() {
+        return setup.getCompression();
+    }
 
-    private static Boolean isLoopAdded(Vertex vertex, String label) {
-        Iterator<Vertex> adjacentVertices = vertex.vertices(Direction.BOTH, label);
-
-        while (adjacentVertices.hasNext()) {
-            Vertex adjacentVertex = adjacentVertices.next();
-
-            if(adjacentVertex.equals(vertex)){
-                return true;
-            }
-        }
-
-        return false;
+    public StarGraph.StarVertex readHadoopVertex(final StaticBuffer key, Iterable<Entry> entries) {
+        return readHadoopVertex(key, entries, null);
     }
 
-    // Read a single row from the edgestore and create a TinkerVertex corresponding to the row
-    // The neighboring vertices are represented by DetachedVertex instances
-    public TinkerVertex readHadoopVertex(final StaticBuffer key, Iterable<Entry> entries) {
+    // Read a single row from the edgestore and create a StarVertex corresponding to the row
+    // The neighboring vertices are represented by StarAdjacentVertex instances
+    // Edges which the graph filter excludes by label and direction are skipped before they are parsed
+    public StarGraph.StarVertex readHadoopVertex(final StaticBuffer key, Iterable<Entry> entries,
+                                                 final GraphFilter graphFilter) {
 
         // Convert key to a vertex ID
         final long vertexId = idManager.getKeyID(key);
@@ -88,131 +88,137 @@ public class JanusGraphVertexDeserializer implements AutoCloseable {
             return null;
         }
 
-        // Create TinkerVertex
-        TinkerGraph tg = TinkerGraph.open();
-
-        TinkerVertex tv = null;
+        final boolean filterEdges = null != graphFilter && graphFilter.hasEdgeFilter();
+        String label = null;
+        final List<RelationCache> relations = new ArrayList<>();
 
-        // Iterate over edgestore columns to find the vertex's label relation
+        // Iterate over edgestore columns once to find the vertex's label and to parse its visible relations
         for (final Entry data : entries) {
-            RelationReader relationReader = setup.getRelationReader();
-            final RelationCache relation = relationReader.parseRelation(data, false, typeManager);
-            if (systemTypes.isVertexLabelSystemType(relation.typeId)) {
-                // Found vertex Label
-                long vertexLabelId = relation.getOtherVertexId();
-                VertexLabel vl = typeManager.getExistingVertexLabel(vertexLabelId);
-                // Create TinkerVertex with this label
-                tv = getOrCreateVertex(vertexId, vl.name(), tg);
-            } else if (systemTypes.isTypeSystemType(relation.typeId)) {
-                log.trace("Vertex {} is a system vertex", vertexId);
-                return null;
+            try {
+                // Only read the type and direction to decide whether the relation is needed
+                final IDHandler.RelationTypeParse typeAndDir = IDHandler.readRelationType(data.asReadBuffer());
+                final long typeId = typeAndDir.typeId;
+
+                if (systemTypes.isVertexLabelSystemType(typeId)) {
+                    // Found vertex Label
+                    long vertexLabelId = relationReader.parseRelation(data, false, typeManager).getOtherVertexId();
+                    label = typeManager.getExistingVertexLabel(vertexLabelId).name();
+                    continue;
+                } else if (systemTypes.isTypeSystemType(typeId)) {
+                    log.trace("Vertex {} is a system vertex", vertexId);
+                    return null;
+                }
+
+                if (systemTypes.isSystemType(typeId)) continue; //Ignore system types
+                final RelationType type = typeManager.getExistingRelationType(typeId);
+                if (((InternalRelationType)type).isInvisibleType()) continue; //Ignore hidden types
+
+                if (filterEdges && type.isEdgeLabel() &&
+                        graphFilter.checkEdgeLegality(typeAndDir.dirID.getDirection(), type.name()).negative()) {
+                    continue; //Ignore edges the graph filter excludes
+                }
+
+                relations.add(relationReader.parseRelation(data, false, typeManager));
+            } catch (Exception e) {
+                throw new RuntimeException(e);
             }
         }
 
-        // Added this following testing
-        if (null == tv) {
-            tv = getOrCreateVertex(vertexId, null, tg);
-        }
+        // Create StarVertex
+        final StarGraph starGraph = StarGraph.open();
+        final StarGraph.StarVertex sv = (StarGraph.StarVertex) (null == label
+                ? starGraph.addVertex(T.id, vertexId)
+                : starGraph.addVertex(T.label, label, T.id, vertexId));
 
-        Preconditions.checkNotNull(tv, "Unable to determine vertex label for vertex with ID %s", vertexId);
+        // Relation IDs of the self-loops which have already been added
+        Set<Long> loops = null;
 
-        // Iterate over and decode edgestore columns (relations) on this vertex
-        for (final Entry data : entries) {
+        // Decode and create the relations (edges and properties) on this vertex
+        for (final RelationCache relation : relations) {
             try {
-                RelationReader relationReader = setup.getRelationReader();
-                final RelationCache relation = relationReader.parseRelation(data, false, typeManager);
-
-                if (systemTypes.isSystemType(relation.typeId)) continue; //Ignore system types
                 final RelationType type = typeManager.getExistingRelationType(relation.typeId);
-                if (((InternalRelationType)type).isInvisibleType()) continue; //Ignore hidden types
 
-                // Decode and create the relation (edge or property)
                 if (type.isPropertyKey()) {
                     // Decode property
                     Object value = relation.getValue();
                     Preconditions.checkNotNull(value);
-                    VertexProperty.Cardinality card = getPropertyKeyCardinality(type.name());
-                    VertexProperty<Object> vp = tv.property(card, type.name(), value, T.id, relation.relationId);
+                    VertexProperty.Cardinality card = getPropertyKeyCardinality((PropertyKey) type);
+                    VertexProperty<Object> vp = sv.property(card, type.name(), value, T.id, relation.relationId);
 
                     // Decode meta properties
-                    decodeProperties(relation, vp);
+                    final Object[] metaProperties = decodeProperties(relation, 0);
+                    for (int i = 0; i < metaProperties.length; i += 2) {
+                        vp.property((String) metaProperties[i], metaProperties[i + 1]);
+                    }
                 } else {
                     assert type.isEdgeLabel();
+                    final long otherVertexId = relation.getOtherVertexId();
 
                     // Partitioned vertex handling
-                    if (idManager.isPartitionedVertex(relation.getOtherVertexId())) {
+                    if (idManager.isPartitionedVertex(otherVertexId)) {
                         Preconditions.checkState(setup.getFilterPartitionedVertices(),
                                 "Read edge incident on a partitioned vertex, but partitioned vertex filtering is disabled.  " +
                                 "Relation ID: %s.  This vertex ID: %s.  Other vertex ID: %s.  Edge label: %s.",
-                                relation.relationId, vertexId, relation.getOtherVertexId(), type.name());
+                                relation.relationId, vertexId, otherVertexId, type.name());
                         log.debug("Skipping edge with ID {} incident on partitioned vertex with ID {} (and nonpartitioned vertex with ID {})",
-                                relation.relationId, relation.getOtherVertexId(), vertexId);
+                                relation.relationId, otherVertexId, vertexId);
                         continue;
                     }
 
-                    // Decode edge
-                    TinkerEdge te;
-
-                    // We don't know the label of the other vertex, but one must be provided
-                    TinkerVertex adjacentVertex = getOrCreateVertex(relation.getOtherVertexId(), null, tg);
-
-                    // handle self-loop edges
-                    if (tv.equals(adjacentVertex) && isLoopAdded(tv, type.name())) {
+                    // Decode edge, the ID and properties are passed along so they also end up on both sides of a self-loop
+                    final Object[] keyValues = decodeProperties(relation, 2);
+                    keyValues[0] = T.id;
+                    keyValues[1] = relation.relationId;
+
+                    if (otherVertexId == vertexId) {
+                        // handle self-loop edges, which are stored once per direction but added in both directions
+                        if (null == loops) loops = new HashSet<>();
+                        if (loops.add(relation.relationId)) {
+                            sv.addEdge(type.name(), sv, keyValues);
+                        }
                         continue;
                     }
 
+                    // We don't know the label of the other vertex
+                    Vertex adjacentVertex = starGraph.addVertex(T.id, otherVertexId);
+
                     if (relation.direction.equals(Direction.IN)) {
-                        te = (TinkerEdge)adjacentVertex.addEdge(type.name(), tv, T.id, relation.relationId);
+                        adjacentVertex.addEdge(type.name(), sv, keyValues);
                     } else if (relation.direction.equals(Direction.OUT)) {
-                        te = (TinkerEdge)tv.addEdge(type.name(), adjacentVertex, T.id, relation.relationId);
+                        sv.addEdge(type.name(), adjacentVertex, keyValues);
                     } else {
                         throw new RuntimeException("Direction.BOTH is not supported");
                     }
-                    decodeProperties(relation, te);
                 }
             } catch (Exception e) {
                 throw new RuntimeException(e);
             }
         }
-        return tv;
+        return sv;
     }
 
-    private void decodeProperties(final RelationCache relation, final Element element) {
-        if (relation.hasProperties()) {
-            // Load relation properties
-            for (final LongObjectCursor<Object> next : relation) {
-                assert next.value != null;
-                RelationType rt = typeManager.getExistingRelationType(next.key);
-                if (rt.isPropertyKey()) {
-                    element.property(rt.name(), next.value);
-                } else {
-                    throw new RuntimeException("Metaedges are not supported");
-                }
-            }
+    // Returns the relation's properties as key/value pairs, preceded by offset empty slots
+    private Object[] decodeProperties(final RelationCache relation, final int offset) {
+        if (!relation.hasProperties()) {
+            return new Object[offset];
         }
-    }
-
-    public TinkerVertex getOrCreateVertex(final long vertexId, final String label, final TinkerGraph tg) {
-        TinkerVertex v;
-
-        try {
-            v = (TinkerVertex)tg.vertices(vertexId).next();
-        } catch (NoSuchElementException e) {
-            if (null != label) {
-                v = (TinkerVertex) tg.addVertex(T.label, label, T.id, vertexId);
+        final Object[] keyValues = new Object[offset + 2 * relation.numProperties()];
+        int i = offset;
+        // Load relation properties
+        for (final LongObjectCursor<Object> next : relation) {
+            assert next.value != null;
+            RelationType rt = typeManager.getExistingRelationType(next.key);
+            if (rt.isPropertyKey()) {
+                keyValues[i++] = rt.name();
+                keyValues[i++] = next.value;
             } else {
-                v = (TinkerVertex) tg.addVertex(T.id, vertexId);
+                throw new RuntimeException("Metaedges are not supported");
             }
         }
-
-        return v;
+        return keyValues;
     }
 
-    private VertexProperty.Cardinality getPropertyKeyCardinality(String name) {
-        RelationType rt = typeManager.getRelationType(name);
-        if (null == rt || !rt.isPropertyKey())
-            return VertexProperty.Cardinality.single;
-        PropertyKey pk = typeManager.getExistingPropertyKey(rt.longId());
+    private VertexProperty.Cardinality getPropertyKeyCardinality(PropertyKey pk) {
         switch (pk.cardinality()) {
             case SINGLE: return VertexProperty.Cardinality.single;
             case LIST: return VertexProperty.Cardinality.list;
@@ -221,6 +227,13 @@ public class JanusGraphVertexDeserializer implements AutoCloseable {
         }
     }
 
+    /**
+     * @see JanusGraphHadoopSetup#getInputSlices(GraphFilter)
+     */
+    public List<SliceQuery> getInputSlices(final GraphFilter graphFilter) {
+        return setup.getInputSlices(graphFilter);
+    }
+
     public void close() {
         setup.close();
     }
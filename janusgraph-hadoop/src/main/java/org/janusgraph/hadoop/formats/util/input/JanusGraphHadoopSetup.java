@@ -14,10 +14,15 @@
 
 package org.janusgraph.hadoop.formats.util.input;
 
+import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
+import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
+import org.janusgraph.diskstorage.util.BackendCompression;
 import org.janusgraph.graphdb.database.RelationReader;
 import org.janusgraph.graphdb.idmanagement.IDManager;
 import org.janusgraph.graphdb.types.TypeInspector;
 
+import java.util.List;
+
 /**
  * @author Matthias Broecheler (me@matthiasb.com)
  */
@@ -35,4 +40,19 @@ public interface JanusGraphHadoopSetup {
 
     boolean getFilterPartitionedVertices();
 
+    /**
+     * Returns the compression of the values of the input store, which the record readers undo before the rows are
+     * deserialized.
+     */
+    BackendCompression getCompression();
+
+    /**
+     * Returns the sorted and non-overlapping column slices of an edgestore row which hold the relations
+     * a vertex needs to pass the given graph filter. Edges the filter excludes by label and direction
+     * are left out. System relations and properties are always included.
+     *
+     * @param graphFilter the graph filter of the job, or null if there is none
+     */
+    List<SliceQuery> getInputSlices(GraphFilter graphFilter);
+
 }
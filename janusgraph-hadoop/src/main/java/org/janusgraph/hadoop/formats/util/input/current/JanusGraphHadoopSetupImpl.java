@@ -15,16 +15,23 @@
 package org.janusgraph.hadoop.formats.util.input.current;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Sets;
 import org.janusgraph.core.JanusGraphFactory;
 import org.janusgraph.core.JanusGraphVertex;
+import org.janusgraph.core.RelationType;
+import org.janusgraph.diskstorage.Backend;
 import org.janusgraph.diskstorage.StaticBuffer;
 import org.janusgraph.diskstorage.configuration.BasicConfiguration;
 import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
+import org.janusgraph.diskstorage.util.BackendCompression;
 import org.janusgraph.diskstorage.util.StaticArrayBuffer;
+import org.janusgraph.graphdb.database.EdgeSerializer;
 import org.janusgraph.graphdb.database.RelationReader;
 import org.janusgraph.graphdb.database.StandardJanusGraph;
 import org.janusgraph.graphdb.idmanagement.IDManager;
+import org.janusgraph.graphdb.internal.InternalRelationType;
 import org.janusgraph.graphdb.internal.JanusGraphSchemaCategory;
+import org.janusgraph.graphdb.internal.RelationCategory;
 import org.janusgraph.graphdb.query.QueryUtil;
 import org.janusgraph.graphdb.transaction.StandardJanusGraphTx;
 import org.janusgraph.graphdb.types.TypeDefinitionCategory;
@@ -37,9 +44,16 @@ import org.janusgraph.hadoop.config.ModifiableHadoopConfiguration;
 import org.janusgraph.hadoop.config.JanusGraphHadoopConfiguration;
 import org.janusgraph.hadoop.formats.util.input.JanusGraphHadoopSetup;
 import org.janusgraph.hadoop.formats.util.input.SystemTypeInspector;
+import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.hadoop.conf.Configuration;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
 /**
  * @author Matthias Broecheler (me@matthiasb.com)
  */
@@ -128,4 +142,66 @@ public class JanusGraphHadoopSetupImpl implements JanusGraphHadoopSetup {
     public boolean getFilterPartitionedVertices() {
         return scanConf.get(JanusGraphHadoopConfiguration.FILTER_PARTITIONED_VERTICES, true);
     }
+
+    @Override
+    public BackendCompression getCompression() {
+        return Backend.getCompression(graph.getConfiguration().getConfiguration(),
+            scanConf.get(JanusGraphHadoopConfiguration.COLUMN_FAMILY_NAME));
+    }
+
+    @Override
+    public List<SliceQuery> getInputSlices(final GraphFilter graphFilter) {
+        if (null == graphFilter || !graphFilter.hasEdgeFilter()) {
+            return Collections.singletonList(DEFAULT_SLICE_QUERY);
+        }
+        final EdgeSerializer edgeSerializer = graph.getEdgeSerializer();
+        final List<SliceQuery> slices = new ArrayList<>();
+        // System relations hold the vertex label and identify schema vertices, properties are never filtered
+        slices.add(edgeSerializer.getQuery(RelationCategory.RELATION, true));
+        slices.add(edgeSerializer.getQuery(RelationCategory.PROPERTY, false));
+
+        final Set<String> outLabels = graphFilter.getLegallyPositiveEdgeLabels(Direction.OUT);
+        final Set<String> inLabels = graphFilter.getLegallyPositiveEdgeLabels(Direction.IN);
+        if (outLabels.contains(null) || inLabels.contains(null)) {
+            // The filter accepts edges of any label in some direction
+            slices.add(edgeSerializer.getQuery(RelationCategory.EDGE, false));
+        } else {
+            for (final String label : Sets.union(outLabels, inLabels)) {
+                final RelationType relationType = tx.getRelationType(label);
+                if (null == relationType || !relationType.isEdgeLabel()) continue; //No such edges are stored
+                final InternalRelationType type = (InternalRelationType) relationType;
+                final EdgeSerializer.TypedInterval[] sortKey = new EdgeSerializer.TypedInterval[type.getSortKey().length];
+                // Unidirected edges are only stored on their out-vertex
+                final boolean out = outLabels.contains(label);
+                final boolean in = inLabels.contains(label) && type.isUnidirected(Direction.BOTH);
+                if (out && in) {
+                    slices.add(edgeSerializer.getQuery(type, Direction.BOTH, sortKey));
+                } else if (out) {
+                    slices.add(edgeSerializer.getQuery(type, Direction.OUT, sortKey));
+                } else if (in) {
+                    slices.add(edgeSerializer.getQuery(type, Direction.IN, sortKey));
+                }
+            }
+        }
+        return mergeSlices(slices);
+    }
+
+    private static List<SliceQuery> mergeSlices(final List<SliceQuery> slices) {
+        slices.sort(Comparator.comparing(SliceQuery::getSliceStart));
+        final List<SliceQuery> merged = new ArrayList<>(slices.size());
+        SliceQuery current = slices.get(0);
+        for (int i = 1; i < slices.size(); i++) {
+            final SliceQuery next = slices.get(i);
+            if (next.getSliceStart().compareTo(current.getSliceEnd()) <= 0) {
+                if (next.getSliceEnd().compareTo(current.getSliceEnd()) > 0) {
+                    current = new SliceQuery(current.getSliceStart(), next.getSliceEnd());
+                }
+            } else {
+                merged.add(current);
+                current = next;
+            }
+        }
+        merged.add(current);
+        return merged;
+    }
 }
@@ -15,6 +15,7 @@
 package org.janusgraph.hadoop.scan;
 
 import com.google.common.base.Preconditions;
+import org.janusgraph.diskstorage.Backend;
 import org.janusgraph.diskstorage.Entry;
 import org.janusgraph.diskstorage.EntryList;
 import org.janusgraph.diskstorage.StaticBuffer;
@@ -22,7 +23,9 @@ import org.janusgraph.diskstorage.configuration.ConfigNamespace;
 import org.janusgraph.diskstorage.configuration.Configuration;
 import org.janusgraph.diskstorage.configuration.ModifiableConfiguration;
 import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.compression.CompressedKCVS;
 import org.janusgraph.diskstorage.keycolumnvalue.scan.ScanJob;
+import org.janusgraph.diskstorage.util.BackendCompression;
 import org.janusgraph.diskstorage.util.BufferUtil;
 import org.janusgraph.diskstorage.util.EntryArrayList;
 import org.janusgraph.hadoop.config.ModifiableHadoopConfiguration;
@@ -51,6 +54,7 @@ public class HadoopScanMapper extends Mapper<StaticBuffer, Iterable<Entry>, Null
     private Predicate<StaticBuffer> keyFilter;
     private SliceQuery initialQuery;
     private List<SliceQuery> subsequentQueries;
+    private BackendCompression compression;
 
     @Override
     protected void setup(Context context) throws IOException, InterruptedException {
@@ -65,6 +69,7 @@ public class HadoopScanMapper extends Mapper<StaticBuffer, Iterable<Entry>, Null
 
     protected void finishSetup(ModifiableHadoopConfiguration scanConf, Configuration graphConf) {
         jobConf = getJobConfiguration(scanConf);
+        compression = Backend.getCompression(graphConf, scanConf.get(JanusGraphHadoopConfiguration.COLUMN_FAMILY_NAME));
         Preconditions.checkNotNull(metrics);
         // Allowed to be null for jobs that specify no configuration and no configuration root
         //Preconditions.checkNotNull(jobConf);
@@ -94,7 +99,7 @@ public class HadoopScanMapper extends Mapper<StaticBuffer, Iterable<Entry>, Null
 
     @Override
     protected void map(StaticBuffer key, Iterable<Entry> values, Context context) throws IOException, InterruptedException {
-        EntryArrayList al = EntryArrayList.of(values);
+        EntryArrayList al = EntryArrayList.of(CompressedKCVS.decompress(values, compression));
 
         // KeyFilter check
         if (!keyFilter.test(key)) {
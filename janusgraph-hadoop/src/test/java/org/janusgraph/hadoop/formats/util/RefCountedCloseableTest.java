@@ -0,0 +1,145 @@
+// Copyright 2020 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.hadoop.formats.util;
+
+import org.apache.hadoop.conf.Configuration;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RefCountedCloseableTest {
+
+    private static final String KEEP_ALIVE = "janusgraphmr.ioformat.setup-keep-alive";
+    private static final String HOSTNAME = "janusgraphmr.ioformat.conf.storage.hostname";
+
+    private final AtomicInteger built = new AtomicInteger();
+    private final HadoopInputFormat.RefCountedCloseable<Instance> instances =
+        new HadoopInputFormat.RefCountedCloseable<>(conf -> {
+            built.incrementAndGet();
+            return new Instance();
+        });
+
+    private static Configuration configuration(String hostname, long keepAliveMillis) {
+        final Configuration conf = new Configuration(false);
+        conf.set(HOSTNAME, hostname);
+        conf.set(KEEP_ALIVE, String.valueOf(keepAliveMillis));
+        return conf;
+    }
+
+    @Test
+    public void testInstanceIsSharedAndClosedWhenReleased() throws Exception {
+        final Configuration conf = configuration("a", 0);
+        final Instance first = instances.acquire(conf);
+        final Instance second = instances.acquire(configuration("a", 0));
+        assertSame(first, second);
+        assertEquals(1, built.get());
+
+        instances.release(first);
+        assertFalse(first.closed);
+        instances.release(second);
+        assertTrue(first.closed);
+
+        assertNotSame(first, instances.acquire(conf));
+        assertEquals(2, built.get());
+    }
+
+    @Test
+    public void testInstancesAreSeparatedByConfiguration() throws Exception {
+        final Instance a = instances.acquire(configuration("a", 0));
+        final Instance b = instances.acquire(configuration("b", 0));
+        assertNotSame(a, b);
+
+        instances.release(a);
+        assertTrue(a.closed);
+        assertFalse(b.closed);
+        instances.release(b);
+        assertTrue(b.closed);
+    }
+
+    @Test
+    public void testIdleInstanceIsReusedWithinKeepAlive() throws Exception {
+        final Configuration conf = configuration("a", 200);
+        final Instance first = instances.acquire(conf, "job");
+        instances.release(first);
+        assertFalse(first.closed);
+
+        final Instance second = instances.acquire(conf, "job");
+        assertSame(first, second);
+        assertEquals(1, built.get());
+        instances.release(second);
+
+        final long deadline = System.currentTimeMillis() + 10000;
+        while (!first.closed && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertTrue(first.closed);
+    }
+
+    @Test
+    public void testIdleInstanceIsNotReusedByAnotherScope() throws Exception {
+        final Configuration conf = configuration("a", 60000);
+        final Instance first = instances.acquire(conf, "job1");
+        instances.release(first);
+        assertFalse(first.closed);
+
+        final Instance second = instances.acquire(conf, "job2");
+        assertNotSame(first, second);
+        assertEquals(2, built.get());
+        instances.release(second);
+    }
+
+    @Test
+    public void testUnscopedInstanceIsNotKeptAlive() throws Exception {
+        final Configuration conf = configuration("a", 60000);
+        final Instance first = instances.acquire(conf);
+        instances.release(first);
+        assertTrue(first.closed);
+
+        final Instance second = instances.acquire(conf, "job");
+        assertNotSame(first, second);
+        instances.release(second);
+        assertFalse(second.closed);
+    }
+
+    @Test
+    public void testScopedInstanceIsKeptAliveByDefault() throws Exception {
+        final Configuration conf = new Configuration(false);
+        conf.set(HOSTNAME, "a");
+        final Instance first = instances.acquire(conf, "job");
+        instances.release(first);
+        assertFalse(first.closed);
+
+        final Instance second = instances.acquire(conf, "job");
+        assertSame(first, second);
+        assertEquals(1, built.get());
+        instances.release(second);
+    }
+
+    private static class Instance implements AutoCloseable {
+
+        private volatile boolean closed;
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -28,6 +28,9 @@ for jar in ./target/test-lib/*.jar; do
     HBASE_CLASSPATH="$HBASE_CLASSPATH:$jar"
 done
 
+# JanusGraph's server-side HBase filters, compiled by the module whose tests start the daemon
+HBASE_CLASSPATH="$HBASE_CLASSPATH:./target/classes"
+
 # Extra Java CLASSPATH elements.  Optional.
 export HBASE_CLASSPATH=$HBASE_CLASSPATH
 
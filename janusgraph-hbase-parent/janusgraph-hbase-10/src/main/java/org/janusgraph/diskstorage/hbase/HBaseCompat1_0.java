@@ -17,12 +17,17 @@ package org.janusgraph.diskstorage.hbase;
 import java.io.IOException;
 
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hbase.Cell;
 import org.apache.hadoop.hbase.HColumnDescriptor;
 import org.apache.hadoop.hbase.HTableDescriptor;
 import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.ConnectionFactory;
 import org.apache.hadoop.hbase.client.Delete;
 import org.apache.hadoop.hbase.io.compress.Compression;
+import org.apache.hadoop.hbase.io.hfile.CacheConfig;
+import org.apache.hadoop.hbase.io.hfile.HFile;
+import org.apache.hadoop.hbase.io.hfile.HFileContextBuilder;
 
 public class HBaseCompat1_0 implements HBaseCompat {
 
@@ -55,4 +60,21 @@ public class HBaseCompat1_0 implements HBaseCompat {
         d.setTimestamp(timestamp);
     }
 
+    @Override
+    public void writeHFile(Configuration conf, Path path, String algorithm, Iterable<Cell> cells) throws IOException
+    {
+        HFileContextBuilder context = new HFileContextBuilder();
+        if (algorithm != null) {
+            context.withCompression(Compression.Algorithm.valueOf(algorithm));
+        }
+        try (HFile.Writer writer = HFile.getWriterFactory(conf, new CacheConfig(conf))
+                .withPath(path.getFileSystem(conf), path)
+                .withFileContext(context.build())
+                .create()) {
+            for (Cell cell : cells) {
+                writer.append(cell);
+            }
+        }
+    }
+
 }
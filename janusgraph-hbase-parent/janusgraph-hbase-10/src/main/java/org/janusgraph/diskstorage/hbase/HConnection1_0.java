@@ -17,9 +17,14 @@ package org.janusgraph.diskstorage.hbase;
 import java.io.IOException;
 import java.util.List;
 
+import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hbase.HRegionLocation;
 import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Admin;
 import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.RegionLocator;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.mapreduce.LoadIncrementalHFiles;
 
 public class HConnection1_0 implements ConnectionMask
 {
@@ -55,4 +60,21 @@ public class HConnection1_0 implements ConnectionMask
     {
         return this.cnx.getRegionLocator(TableName.valueOf(tableName)).getAllRegionLocations();
     }
+
+    @Override
+    public void bulkLoad(String tableName, Path directory) throws IOException
+    {
+        final TableName name = TableName.valueOf(tableName);
+        final LoadIncrementalHFiles loader;
+        try {
+            loader = new LoadIncrementalHFiles(cnx.getConfiguration());
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+        try (Admin admin = cnx.getAdmin();
+             Table table = cnx.getTable(name);
+             RegionLocator locator = cnx.getRegionLocator(name)) {
+            loader.doBulkLoad(directory, admin, table, locator);
+        }
+    }
 }
@@ -0,0 +1,184 @@
+// Copyright 2020 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.hbase;
+
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.KeyValueUtil;
+import org.apache.hadoop.hbase.exceptions.DeserializationException;
+import org.apache.hadoop.hbase.filter.Filter;
+import org.apache.hadoop.hbase.filter.FilterBase;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Server-side filter which returns the columns of a row that fall into one of several column ranges, up to a
+ * limit per row.
+ * <p>
+ * Each range includes its start and excludes its end. An empty start or end leaves that side of the range
+ * unbounded. The ranges have to be sorted and must not overlap. Columns in front of a range are skipped by
+ * seeking to the start of the range, and once the limit is reached the scanner moves on to the next row, so
+ * that a limited slice of a wide row reads about as many cells as it returns.
+ * <p>
+ * This filter only depends on HBase classes. The jar containing it has to be on the classpath of the region
+ * servers, see {@link HBaseStoreManager#COLUMN_SLICE_FILTER}.
+ */
+public class ColumnSliceFilter extends FilterBase {
+
+    private static final byte[] UNBOUNDED = new byte[0];
+
+    private final byte[][] starts;
+    private final byte[][] ends;
+    private final int limit;
+
+    private int range;
+    private int count;
+
+    /**
+     * @param ranges pairs of the inclusive start and the exclusive end column of each range
+     * @param limit maximum number of columns returned per row, or a negative value for no limit
+     */
+    public ColumnSliceFilter(List<byte[][]> ranges, int limit) {
+        this.starts = new byte[ranges.size()][];
+        this.ends = new byte[ranges.size()][];
+        for (int i = 0; i < ranges.size(); i++) {
+            starts[i] = ranges.get(i)[0] == null ? UNBOUNDED : ranges.get(i)[0];
+            ends[i] = ranges.get(i)[1] == null ? UNBOUNDED : ranges.get(i)[1];
+            if (i > 0 && (ends[i - 1].length == 0 || Bytes.compareTo(ends[i - 1], starts[i]) > 0)) {
+                throw new IllegalArgumentException("Column ranges must be sorted and must not overlap");
+            }
+        }
+        this.limit = limit;
+    }
+
+    public ColumnSliceFilter(byte[] start, byte[] end, int limit) {
+        this(Collections.singletonList(new byte[][]{ start, end }), limit);
+    }
+
+    @Override
+    public void reset() {
+        range = 0;
+        count = 0;
+    }
+
+    @Override
+    public boolean filterAllRemaining() {
+        return false;
+    }
+
+    @Override
+    public ReturnCode filterKeyValue(Cell cell) {
+        if (limit >= 0 && count >= limit) {
+            return ReturnCode.NEXT_ROW;
+        }
+        while (range < starts.length && ends[range].length > 0 && compareQualifier(cell, ends[range]) >= 0) {
+            range++;
+        }
+        if (range == starts.length) {
+            return ReturnCode.NEXT_ROW;
+        }
+        if (compareQualifier(cell, starts[range]) < 0) {
+            return ReturnCode.SEEK_NEXT_USING_HINT;
+        }
+        count++;
+        return ReturnCode.INCLUDE_AND_NEXT_COL;
+    }
+
+    @Override
+    public Cell getNextCellHint(Cell cell) {
+        return KeyValueUtil.createFirstOnRow(CellUtil.cloneRow(cell), CellUtil.cloneFamily(cell), starts[range]);
+    }
+
+    private static int compareQualifier(Cell cell, byte[] column) {
+        return Bytes.compareTo(cell.getQualifierArray(), cell.getQualifierOffset(), cell.getQualifierLength(),
+            column, 0, column.length);
+    }
+
+    @Override
+    public byte[] toByteArray() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(limit);
+        out.writeInt(starts.length);
+        for (int i = 0; i < starts.length; i++) {
+            writeBytes(out, starts[i]);
+            writeBytes(out, ends[i]);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Deserializes a filter which has been serialized with {@link #toByteArray()}. HBase looks this method up
+     * by reflection when it receives the filter.
+     */
+    public static Filter parseFrom(byte[] serialized) throws DeserializationException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(serialized))) {
+            final int limit = in.readInt();
+            final int numRanges = in.readInt();
+            final List<byte[][]> ranges = new ArrayList<>(numRanges);
+            for (int i = 0; i < numRanges; i++) {
+                ranges.add(new byte[][]{ readBytes(in), readBytes(in) });
+            }
+            return new ColumnSliceFilter(ranges, limit);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new DeserializationException(e);
+        }
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] value) throws IOException {
+        out.writeInt(value.length);
+        out.write(value);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        final byte[] value = new byte[in.readInt()];
+        in.readFully(value);
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder ranges = new StringBuilder();
+        for (int i = 0; i < starts.length; i++) {
+            if (i > 0) ranges.append(", ");
+            ranges.append('[').append(Bytes.toStringBinary(starts[i])).append(", ")
+                .append(Bytes.toStringBinary(ends[i])).append(')');
+        }
+        return getClass().getSimpleName() + " " + ranges + " limit " + limit;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (!(other instanceof ColumnSliceFilter)) return false;
+        final ColumnSliceFilter filter = (ColumnSliceFilter) other;
+        return limit == filter.limit && Arrays.deepEquals(starts, filter.starts) && Arrays.deepEquals(ends, filter.ends);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * Arrays.deepHashCode(starts) + Arrays.deepHashCode(ends)) + limit;
+    }
+}
@@ -22,6 +22,7 @@ package org.janusgraph.diskstorage.hbase;
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.List;
+import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hbase.HRegionLocation;
 
 /**
@@ -53,4 +54,12 @@ public interface ConnectionMask extends Closeable
      * @throws IOException in the case of backend exceptions.
      */
     List<HRegionLocation> getRegionLocations(String tableName) throws IOException;
+
+    /**
+     * Bulk load the HFiles in the supplied directory into the named table.
+     * @param tableName
+     * @param directory A directory with one subdirectory of HFiles per column family.
+     * @throws IOException in the case of backend exceptions.
+     */
+    void bulkLoad(String tableName, Path directory) throws IOException;
 }
@@ -0,0 +1,198 @@
+// Copyright 2020 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.hbase;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.janusgraph.diskstorage.BackendException;
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.EntryMetaData;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.TemporaryBackendException;
+import org.janusgraph.diskstorage.keycolumnvalue.KCVMutation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Buffers the additions to a set of stores and loads them into the HBase table as HFiles, bypassing the
+ * write-ahead log and the memstores of the region servers.
+ * <p>
+ * Additions are buffered per column family. On {@link #flush()}, each buffer is sorted into one HFile in a
+ * fresh subdirectory of the staging directory, which is then bulk loaded and deleted. Deletions and additions
+ * with a TTL are not buffered and have to be applied to the table as usual.
+ */
+class HBaseBulkLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(HBaseBulkLoader.class);
+
+    private static final Comparator<BufferedCell> CELL_ORDER = Comparator
+        .comparing((BufferedCell c) -> c.row)
+        .thenComparing(c -> c.column)
+        .thenComparing(Comparator.comparingLong((BufferedCell c) -> c.timestamp).reversed())
+        .thenComparing(Comparator.comparingLong((BufferedCell c) -> c.sequence).reversed());
+
+    private final HBaseCompat compat;
+    private final ConnectionMask cnx;
+    private final Configuration hconf;
+    private final String tableName;
+    private final String compression;
+    private final Path stagingDirectory;
+    // Maps the names of the buffered stores to their column families
+    private final Map<String, String> families;
+    private final int flushSize;
+
+    private final Map<String, List<BufferedCell>> buffers = new HashMap<>();
+    private long sequence;
+    private int numCells;
+
+    HBaseBulkLoader(HBaseCompat compat, ConnectionMask cnx, Configuration hconf, String tableName, String compression,
+                    String stagingDirectory, Map<String, String> families, int flushSize) {
+        this.compat = compat;
+        this.cnx = cnx;
+        this.hconf = hconf;
+        this.tableName = tableName;
+        this.compression = compression;
+        this.stagingDirectory = new Path(stagingDirectory);
+        this.families = families;
+        this.flushSize = flushSize;
+    }
+
+    /**
+     * Buffers the additions of all mutations on buffered stores.
+     *
+     * @return the mutations which still have to be applied to the table
+     */
+    synchronized Map<String, Map<StaticBuffer, KCVMutation>> stage(Map<String, Map<StaticBuffer, KCVMutation>> mutations,
+                                                                 long timestamp) {
+        final Map<String, Map<StaticBuffer, KCVMutation>> remaining = new HashMap<>(mutations.size());
+        for (Map.Entry<String, Map<StaticBuffer, KCVMutation>> storeMutations : mutations.entrySet()) {
+            final String family = families.get(storeMutations.getKey());
+            if (family == null) {
+                remaining.put(storeMutations.getKey(), storeMutations.getValue());
+                continue;
+            }
+            final List<BufferedCell> buffer = buffers.computeIfAbsent(family, f -> new ArrayList<>());
+            final Map<StaticBuffer, KCVMutation> remainingMutations = new HashMap<>();
+            for (Map.Entry<StaticBuffer, KCVMutation> mutation : storeMutations.getValue().entrySet()) {
+                final List<Entry> ttlAdditions = new ArrayList<>();
+                for (Entry addition : mutation.getValue().getAdditions()) {
+                    final Integer ttl = (Integer) addition.getMetaData().get(EntryMetaData.TTL);
+                    if (null != ttl && ttl > 0) {
+                        ttlAdditions.add(addition);
+                    } else {
+                        buffer.add(new BufferedCell(mutation.getKey(), addition.getColumn(), addition.getValue(),
+                            timestamp, sequence++));
+                        numCells++;
+                    }
+                }
+                if (!ttlAdditions.isEmpty() || mutation.getValue().hasDeletions()) {
+                    remainingMutations.put(mutation.getKey(),
+                        new KCVMutation(ttlAdditions, mutation.getValue().getDeletions()));
+                }
+            }
+            if (!remainingMutations.isEmpty()) {
+                remaining.put(storeMutations.getKey(), remainingMutations);
+            }
+        }
+        return remaining;
+    }
+
+    synchronized boolean isFull() {
+        return numCells >= flushSize;
+    }
+
+    /**
+     * Writes all buffered additions to HFiles and bulk loads them into the table.
+     */
+    synchronized void flush() throws BackendException {
+        if (numCells == 0) return;
+        final Path directory = new Path(stagingDirectory, UUID.randomUUID().toString());
+        try {
+            for (Map.Entry<String, List<BufferedCell>> buffer : buffers.entrySet()) {
+                if (buffer.getValue().isEmpty()) continue;
+                final Path file = new Path(new Path(directory, buffer.getKey()), UUID.randomUUID().toString());
+                compat.writeHFile(hconf, file, compression, toCells(buffer.getKey(), buffer.getValue()));
+            }
+            cnx.bulkLoad(tableName, directory);
+            log.debug("Bulk loaded {} cells into table {}", numCells, tableName);
+        } catch (IOException e) {
+            throw new TemporaryBackendException("Could not bulk load HFiles from " + directory, e);
+        } finally {
+            try {
+                final FileSystem fs = directory.getFileSystem(hconf);
+                fs.delete(directory, true);
+            } catch (IOException e) {
+                log.warn("Could not delete HFile staging directory {}", directory, e);
+            }
+        }
+        buffers.clear();
+        numCells = 0;
+    }
+
+    synchronized void clear() {
+        buffers.clear();
+        numCells = 0;
+    }
+
+    /**
+     * Sorts the cells into HFile order. Of several additions to the same column with the same timestamp,
+     * only the last one is kept.
+     */
+    private static List<Cell> toCells(String family, List<BufferedCell> buffer) {
+        buffer.sort(CELL_ORDER);
+        final byte[] familyBytes = Bytes.toBytes(family);
+        final List<Cell> cells = new ArrayList<>(buffer.size());
+        BufferedCell previous = null;
+        for (BufferedCell cell : buffer) {
+            if (previous != null && previous.timestamp == cell.timestamp
+                    && previous.row.equals(cell.row) && previous.column.equals(cell.column)) {
+                continue;
+            }
+            cells.add(new KeyValue(cell.row.as(StaticBuffer.ARRAY_FACTORY), familyBytes,
+                cell.column.as(StaticBuffer.ARRAY_FACTORY), cell.timestamp, cell.value.as(StaticBuffer.ARRAY_FACTORY)));
+            previous = cell;
+        }
+        return cells;
+    }
+
+    private static class BufferedCell {
+
+        private final StaticBuffer row;
+        private final StaticBuffer column;
+        private final StaticBuffer value;
+        private final long timestamp;
+        private final long sequence;
+
+        private BufferedCell(StaticBuffer row, StaticBuffer column, StaticBuffer value, long timestamp, long sequence) {
+            this.row = row;
+            this.column = column;
+            this.value = value;
+            this.timestamp = timestamp;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -17,6 +17,8 @@ package org.janusgraph.diskstorage.hbase;
 import java.io.IOException;
 
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hbase.Cell;
 import org.apache.hadoop.hbase.HColumnDescriptor;
 import org.apache.hadoop.hbase.HTableDescriptor;
 import org.apache.hadoop.hbase.client.Delete;
@@ -57,4 +59,21 @@ public interface HBaseCompat {
     void addColumnFamilyToTableDescriptor(HTableDescriptor tableDescriptor, HColumnDescriptor columnDescriptor);
 
     void setTimestamp(Delete d, long timestamp);
+
+    /**
+     * Write the {@code cells} to a new HFile at {@code path}, from where it can be bulk loaded with
+     * {@link ConnectionMask#bulkLoad(String, Path)}. The cells have to be sorted and must all belong to the
+     * column family whose name is the name of the file's parent directory.
+     *
+     * @param conf
+     *            configuration of the file system and the HFile writer
+     * @param path
+     *            path of the new HFile
+     * @param algorithm
+     *            compression type to use, or null to write an uncompressed file
+     * @param cells
+     *            the sorted cells to write
+     * @throws IOException in the case of file system exceptions.
+     */
+    void writeHFile(Configuration conf, Path path, String algorithm, Iterable<Cell> cells) throws IOException;
 }
@@ -15,9 +15,13 @@
 package org.janusgraph.diskstorage.hbase;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Iterators;
+import com.google.common.collect.PeekingIterator;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.HRegionLocation;
 import org.apache.hadoop.hbase.util.Bytes;
 import org.janusgraph.diskstorage.*;
 import org.janusgraph.diskstorage.keycolumnvalue.*;
@@ -47,10 +51,9 @@ import java.util.*;
  * <p>
  * - batching? (consider HTable#batch, HTable#setAutoFlush(false)
  * - tuning HTable#setWriteBufferSize (?)
- * - writing a server-side filter to replace ColumnCountGetFilter, which drops
- * all columns on the row where it reaches its limit.  This requires getSlice,
- * currently, to impose its limit on the client side.  That obviously won't
- * scale.
+ * - making {@link ColumnSliceFilter}, which stops reading a row at the slice
+ * limit, the default once deploying it to the region servers is part of the
+ * standard setup.
  * - RowMutations for combining Puts+Deletes (need a newer HBase than 0.92 for this)
  * - (maybe) fiddle with HTable#setRegionCachePrefetch and/or #prewarmRegionCache
  * <p>
@@ -89,13 +92,13 @@ public class HBaseKeyColumnValueStore implements KeyColumnValueStore {
 
     @Override
     public EntryList getSlice(KeySliceQuery query, StoreTransaction txh) throws BackendException {
-        Map<StaticBuffer, EntryList> result = getHelper(Collections.singletonList(query.getKey()), getFilter(query));
+        Map<StaticBuffer, EntryList> result = getHelper(Collections.singletonList(query.getKey()), createFilter(query));
         return Iterables.getOnlyElement(result.values(), EntryList.EMPTY_LIST);
     }
 
     @Override
     public Map<StaticBuffer,EntryList> getSlice(List<StaticBuffer> keys, SliceQuery query, StoreTransaction txh) throws BackendException {
-        return getHelper(keys, getFilter(query));
+        return getHelper(keys, createFilter(query));
     }
 
     @Override
@@ -130,6 +133,27 @@ public class HBaseKeyColumnValueStore implements KeyColumnValueStore {
         return executeKeySliceQuery(new FilterList(FilterList.Operator.MUST_PASS_ALL), query);
     }
 
+    /**
+     * Returns the key ranges of the regions of the table, as located by its {@code RegionLocator}, so that scans
+     * which read several key ranges at the same time read each region with its own scanner.
+     */
+    @Override
+    public List<KeyRange> getKeyRanges() throws BackendException {
+        final List<HRegionLocation> locations;
+        try {
+            locations = new ArrayList<>(cnx.getRegionLocations(tableName));
+        } catch (IOException e) {
+            throw new TemporaryBackendException(e);
+        }
+        locations.sort((a, b) -> Bytes.BYTES_COMPARATOR.compare(a.getRegionInfo().getStartKey(), b.getRegionInfo().getStartKey()));
+        final List<KeyRange> ranges = new ArrayList<>(locations.size());
+        for (HRegionLocation location : locations) {
+            ranges.add(new KeyRange(StaticArrayBuffer.of(location.getRegionInfo().getStartKey()),
+                StaticArrayBuffer.of(location.getRegionInfo().getEndKey())));
+        }
+        return ranges;
+    }
+
     public static Filter getFilter(SliceQuery query) {
         byte[] colStartBytes = query.getSliceStart().length() > 0 ? query.getSliceStart().as(StaticBuffer.ARRAY_FACTORY) : null;
         byte[] colEndBytes = query.getSliceEnd().length() > 0 ? query.getSliceEnd().as(StaticBuffer.ARRAY_FACTORY) : null;
@@ -147,6 +171,42 @@ public class HBaseKeyColumnValueStore implements KeyColumnValueStore {
         return filter;
     }
 
+    /**
+     * Returns a filter for the columns in any of the given sorted and non-overlapping slices. The limits of the
+     * slices are ignored.
+     *
+     * @param columnSliceFilter whether to use a {@link ColumnSliceFilter} instead of the filters shipped with HBase
+     */
+    public static Filter getFilter(List<SliceQuery> slices, boolean columnSliceFilter) {
+        final Filter filter;
+        if (columnSliceFilter) {
+            final List<byte[][]> ranges = new ArrayList<>(slices.size());
+            for (SliceQuery slice : slices) {
+                ranges.add(new byte[][]{ slice.getSliceStart().as(StaticBuffer.ARRAY_FACTORY),
+                    slice.getSliceEnd().as(StaticBuffer.ARRAY_FACTORY) });
+            }
+            filter = new ColumnSliceFilter(ranges, -1);
+        } else {
+            final FilterList filters = new FilterList(FilterList.Operator.MUST_PASS_ONE);
+            for (SliceQuery slice : slices) {
+                filters.addFilter(getFilter(new SliceQuery(slice.getSliceStart(), slice.getSliceEnd())));
+            }
+            filter = slices.size() == 1 ? filters.getFilters().get(0) : filters;
+        }
+        logger.debug("Generated HBase Filter {}", filter);
+        return filter;
+    }
+
+    private Filter createFilter(SliceQuery query) {
+        if (!storeManager.useColumnSliceFilter()) {
+            return getFilter(query);
+        }
+        final Filter filter = new ColumnSliceFilter(query.getSliceStart().as(StaticBuffer.ARRAY_FACTORY),
+            query.getSliceEnd().as(StaticBuffer.ARRAY_FACTORY), query.hasLimit() ? query.getLimit() : -1);
+        logger.debug("Generated HBase Filter {}", filter);
+        return filter;
+    }
+
     private Map<StaticBuffer,EntryList> getHelper(List<StaticBuffer> keys, Filter getFilter) throws BackendException {
         List<Get> requests = new ArrayList<>(keys.size());
         {
@@ -217,6 +277,23 @@ public class HBaseKeyColumnValueStore implements KeyColumnValueStore {
                                             @Nullable byte[] endKey,
                                             FilterList filters,
                                             @Nullable SliceQuery columnSlice) throws BackendException {
+        final Scan scan = createScan(startKey, endKey, filters, columnSlice);
+
+        TableMask table = null;
+
+        try {
+            table = cnx.getTable(tableName);
+            return new RowIterator(table, table.getScanner(scan), columnFamilyBytes);
+        } catch (IOException e) {
+            IOUtils.closeQuietly(table);
+            throw new PermanentBackendException(e);
+        }
+    }
+
+    private Scan createScan(@Nullable byte[] startKey,
+                            @Nullable byte[] endKey,
+                            FilterList filters,
+                            @Nullable SliceQuery columnSlice) throws BackendException {
         Scan scan = new Scan().addFamily(columnFamilyBytes);
 
         try {
@@ -232,18 +309,30 @@ public class HBaseKeyColumnValueStore implements KeyColumnValueStore {
             scan.setStopRow(endKey);
 
         if (columnSlice != null) {
-            filters.addFilter(getFilter(columnSlice));
+            filters.addFilter(createFilter(columnSlice));
         }
 
-        TableMask table = null;
+        return storeManager.configureScan(scan.setFilter(filters));
+    }
 
-        try {
-            table = cnx.getTable(tableName);
-            return new RowIterator(table, table.getScanner(scan.setFilter(filters)), columnFamilyBytes);
-        } catch (IOException e) {
-            IOUtils.closeQuietly(table);
-            throw new PermanentBackendException(e);
-        }
+    /**
+     * Reassembles rows which a scan with a batch size returns in several consecutive results.
+     */
+    private static Iterator<Result> joinBatches(Iterator<Result> results) {
+        final PeekingIterator<Result> batches = Iterators.peekingIterator(results);
+        return new AbstractIterator<Result>() {
+            @Override
+            protected Result computeNext() {
+                if (!batches.hasNext()) return endOfData();
+                final Result row = batches.next();
+                if (!batches.hasNext() || !Bytes.equals(row.getRow(), batches.peek().getRow())) return row;
+                final List<Cell> cells = new ArrayList<>(Arrays.asList(row.rawCells()));
+                while (batches.hasNext() && Bytes.equals(row.getRow(), batches.peek().getRow())) {
+                    Collections.addAll(cells, batches.next().rawCells());
+                }
+                return Result.create(cells);
+            }
+        };
     }
 
     private class RowIterator implements KeyIterator {
@@ -257,7 +346,7 @@ public class HBaseKeyColumnValueStore implements KeyColumnValueStore {
         public RowIterator(Closeable table, ResultScanner rows, byte[] columnFamilyBytes) {
             this.table = table;
             this.columnFamilyBytes = Arrays.copyOf(columnFamilyBytes, columnFamilyBytes.length);
-            this.rows = Iterators.filter(rows.iterator(), result -> null != result && null != result.getRow());
+            this.rows = joinBatches(Iterators.filter(rows.iterator(), result -> null != result && null != result.getRow()));
         }
 
         @Override
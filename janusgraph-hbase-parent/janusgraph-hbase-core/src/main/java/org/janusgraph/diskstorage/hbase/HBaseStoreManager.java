@@ -59,6 +59,7 @@ import org.apache.hadoop.hbase.client.HBaseAdmin;
 import org.apache.hadoop.hbase.client.HTable;
 import org.apache.hadoop.hbase.client.Put;
 import org.apache.hadoop.hbase.client.Row;
+import org.apache.hadoop.hbase.client.Scan;
 import org.apache.hadoop.hbase.util.Bytes;
 import org.apache.hadoop.hbase.util.Pair;
 import org.apache.hadoop.hbase.util.VersionInfo;
@@ -239,6 +240,59 @@ public class HBaseStoreManager extends DistributedStoreManager implements KeyCol
             "at runtime.  Setting this option forces JanusGraph to instead reflectively load and instantiate the specified class.",
             ConfigOption.Type.MASKABLE, String.class);
 
+    public static final ConfigOption<Integer> SCAN_CACHING =
+            new ConfigOption<>(HBASE_NS, "scan-caching",
+            "The number of rows fetched per RPC by the scanners of key scans.  When this option is unset, " +
+            "HBase's hbase.client.scanner.caching setting applies.",
+            ConfigOption.Type.MASKABLE, Integer.class, ConfigOption.positiveInt());
+
+    public static final ConfigOption<Integer> SCAN_BATCH =
+            new ConfigOption<>(HBASE_NS, "scan-batch-size",
+            "The maximum number of columns returned per result by the scanners of key scans.  Wide rows are " +
+            "fetched in several results and reassembled on the client.  When this option is unset, rows are " +
+            "fetched in one piece.",
+            ConfigOption.Type.MASKABLE, Integer.class, ConfigOption.positiveInt());
+
+    public static final ConfigOption<Boolean> SCAN_CACHE_BLOCKS =
+            new ConfigOption<>(HBASE_NS, "scan-cache-blocks",
+            "Whether key scans, as issued by reindexing and other scan jobs, populate the region servers' block " +
+            "cache.  These scans read every block of the scanned key range once, so caching them evicts the " +
+            "working set of other queries.",
+            ConfigOption.Type.MASKABLE, false);
+
+    /**
+     * Requires the janusgraph-hbase jar, which contains {@link ColumnSliceFilter}, to be on the classpath of all
+     * region servers, e.g. in their lib directory or in the directory configured by {@code hbase.dynamic.jars.dir}.
+     */
+    public static final ConfigOption<Boolean> COLUMN_SLICE_FILTER =
+            new ConfigOption<>(HBASE_NS, "column-slice-filter",
+            "Whether column slices are filtered on the region servers with JanusGraph's ColumnSliceFilter instead of " +
+            "HBase's ColumnRangeFilter and ColumnPaginationFilter.  The filter seeks to the start of the slice and " +
+            "moves on to the next row once the slice limit is reached.  The janusgraph-hbase jar has to be on the " +
+            "classpath of all region servers.",
+            ConfigOption.Type.MASKABLE, false);
+
+    /**
+     * Turns {@link GraphDatabaseConfiguration#STORAGE_BATCH batch loading} into an offline import mode for the
+     * edge and index stores, whose additions are written to HFiles which are bulk loaded into the table.
+     * This bypasses the write-ahead log and the memstores of the region servers. Additions only become visible
+     * once they have been loaded, which happens when the buffer is full and when the manager is closed.
+     */
+    public static final ConfigOption<String> BULK_LOAD_DIRECTORY =
+            new ConfigOption<>(HBASE_NS, "bulk-load-directory",
+            "Staging directory for bulk loads while " + ConfigElement.getPath(GraphDatabaseConfiguration.STORAGE_BATCH) +
+            " is enabled.  When this option is set, additions to the edge and index stores are buffered, written to " +
+            "sorted HFiles in this directory and bulk loaded into JanusGraph's table instead of being sent to the " +
+            "region servers.  Buffered additions are loaded when the buffer is full and when the storage backend is " +
+            "closed.  Reads do not see additions which are still buffered, so an import must not read back the " +
+            "edges and index entries it has written.  The directory must be readable by the region servers.",
+            ConfigOption.Type.LOCAL, String.class);
+
+    public static final ConfigOption<Integer> BULK_LOAD_FLUSH_SIZE =
+            new ConfigOption<>(HBASE_NS, "bulk-load-flush-size",
+            "The number of buffered cells at which the HFiles of a bulk load are written and loaded into the table.",
+            ConfigOption.Type.MASKABLE, 1000000, ConfigOption.positiveInt());
+
     public static final int PORT_DEFAULT = 2181;  // Not used. Just for the parent constructor.
 
     public static final TimestampProviders PREFERRED_TIMESTAMPS = TimestampProviders.MILLI;
@@ -258,6 +312,11 @@ public class HBaseStoreManager extends DistributedStoreManager implements KeyCol
     private final boolean shortCfNames;
     private final boolean skipSchemaCheck;
     private final HBaseCompat compat;
+    private final int scanCaching;
+    private final int scanBatch;
+    private final boolean scanCacheBlocks;
+    private final boolean columnSliceFilter;
+    private final HBaseBulkLoader bulkLoader;
     // Cached return value of getDeployment() as requesting it can be expensive.
     private Deployment deployment = null;
 
@@ -282,6 +341,10 @@ public class HBaseStoreManager extends DistributedStoreManager implements KeyCol
         this.regionCount = config.has(REGION_COUNT) ? config.get(REGION_COUNT) : -1;
         this.regionsPerServer = config.has(REGIONS_PER_SERVER) ? config.get(REGIONS_PER_SERVER) : -1;
         this.skipSchemaCheck = config.get(SKIP_SCHEMA_CHECK);
+        this.scanCaching = config.has(SCAN_CACHING) ? config.get(SCAN_CACHING) : -1;
+        this.scanBatch = config.has(SCAN_BATCH) ? config.get(SCAN_BATCH) : -1;
+        this.scanCacheBlocks = config.get(SCAN_CACHE_BLOCKS);
+        this.columnSliceFilter = config.get(COLUMN_SLICE_FILTER);
         final String compatClass = config.has(COMPAT_CLASS) ? config.get(COMPAT_CLASS) : null;
         this.compat = HBaseCompatLoader.getCompat(compatClass);
 
@@ -349,6 +412,18 @@ public class HBaseStoreManager extends DistributedStoreManager implements KeyCol
         }
         logger.debug("End of HBase config key=value pairs");
 
+        if (batchLoading && config.has(BULK_LOAD_DIRECTORY)) {
+            final Map<String, String> bulkLoadFamilies = new HashMap<>();
+            for (String storeName : new String[]{ EDGESTORE_NAME, INDEXSTORE_NAME }) {
+                bulkLoadFamilies.put(storeName, getCfNameForStoreName(storeName));
+            }
+            bulkLoader = new HBaseBulkLoader(compat, cnx, hconf, tableName,
+                compression.equals(COMPRESSION_DEFAULT) ? null : compression,
+                config.get(BULK_LOAD_DIRECTORY), bulkLoadFamilies, config.get(BULK_LOAD_FLUSH_SIZE));
+        } else {
+            bulkLoader = null;
+        }
+
         openStores = new ConcurrentHashMap<>();
     }
 
@@ -382,6 +457,22 @@ public class HBaseStoreManager extends DistributedStoreManager implements KeyCol
         return deployment;
     }
 
+    boolean useColumnSliceFilter() {
+        return columnSliceFilter;
+    }
+
+    /**
+     * Applies the configured caching and batch sizes to a key scan over this manager's table.
+     * The scan bypasses the block cache unless {@link #SCAN_CACHE_BLOCKS} is enabled.
+     */
+    Scan configureScan(Scan scan) {
+        if (scanCaching > 0)
+            scan.setCaching(scanCaching);
+        if (scanBatch > 0)
+            scan.setBatch(scanBatch);
+        return scan.setCacheBlocks(scanCacheBlocks);
+    }
+
     @Override
     public String toString() {
         return "hbase[" + tableName + "@" + super.toString() + "]";
@@ -397,11 +488,16 @@ public class HBaseStoreManager extends DistributedStoreManager implements KeyCol
     }
 
     @Override
-    public void close() {
-        openStores.clear();
-        if (logger.isTraceEnabled())
-            openManagers.remove(this);
-        IOUtils.closeQuietly(cnx);
+    public void close() throws BackendException {
+        try {
+            if (bulkLoader != null)
+                bulkLoader.flush();
+        } finally {
+            openStores.clear();
+            if (logger.isTraceEnabled())
+                openManagers.remove(this);
+            IOUtils.closeQuietly(cnx);
+        }
     }
 
     @Override
@@ -427,6 +523,9 @@ public class HBaseStoreManager extends DistributedStoreManager implements KeyCol
     @Override
     public void mutateMany(Map<String, Map<StaticBuffer, KCVMutation>> mutations, StoreTransaction txh) throws BackendException {
         final MaskedTimestamp commitTime = new MaskedTimestamp(txh);
+        if (bulkLoader != null) {
+            mutations = bulkLoader.stage(mutations, commitTime.getAdditionTime(times));
+        }
         // In case of an addition and deletion with identical timestamps, the
         // deletion tombstone wins.
         // https://hbase.apache.org/book/versions.html#d244e4250
@@ -460,6 +559,10 @@ public class HBaseStoreManager extends DistributedStoreManager implements KeyCol
             throw new TemporaryBackendException(e);
         }
 
+        if (bulkLoader != null && bulkLoader.isFull()) {
+            bulkLoader.flush();
+        }
+
         sleepAfterWrite(txh, commitTime);
     }
 
@@ -510,6 +613,8 @@ public class HBaseStoreManager extends DistributedStoreManager implements KeyCol
      */
     @Override
     public void clearStorage() throws BackendException {
+        if (bulkLoader != null)
+            bulkLoader.clear();
         try (AdminMask adm = getAdminInterface()) {
             if (this.storageConfig.get(DROP_ON_CLEAR)) {
                 adm.dropTable(tableName);
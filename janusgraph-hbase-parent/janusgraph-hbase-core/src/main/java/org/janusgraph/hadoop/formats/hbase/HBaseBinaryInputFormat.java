@@ -17,10 +17,13 @@ package org.janusgraph.hadoop.formats.hbase;
 import org.janusgraph.diskstorage.Entry;
 import org.janusgraph.diskstorage.PermanentBackendException;
 import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.hbase.HBaseKeyColumnValueStore;
 import org.janusgraph.diskstorage.hbase.HBaseStoreManager;
+import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
 import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
 import org.janusgraph.hadoop.config.JanusGraphHadoopConfiguration;
 import org.janusgraph.hadoop.formats.util.AbstractBinaryInputFormat;
+import org.janusgraph.hadoop.formats.util.input.current.JanusGraphHadoopSetupImpl;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hbase.HBaseConfiguration;
 import org.apache.hadoop.hbase.HConstants;
@@ -59,6 +62,12 @@ public class HBaseBinaryInputFormat extends AbstractBinaryInputFormat {
 
     @Override
     public RecordReader<StaticBuffer, Iterable<Entry>> createRecordReader(final InputSplit inputSplit, final TaskAttemptContext taskAttemptContext) throws IOException, InterruptedException {
+        // Only read the columns needed for the graph filter
+        final List<SliceQuery> inputSlices = getInputSlices(taskAttemptContext);
+        if (!inputSlices.contains(JanusGraphHadoopSetupImpl.DEFAULT_SLICE_QUERY)) {
+            tableInputFormat.getScan().setFilter(HBaseKeyColumnValueStore.getFilter(inputSlices,
+                janusgraphConf.get(HBaseStoreManager.COLUMN_SLICE_FILTER)));
+        }
         tableReader = tableInputFormat.createRecordReader(inputSplit, taskAttemptContext);
         return new HBaseBinaryRecordReader(tableReader, edgeStoreFamily);
     }
@@ -96,7 +105,6 @@ public class HBaseBinaryInputFormat extends AbstractBinaryInputFormat {
         edgeStoreFamily = Bytes.toBytes(cfName);
         scanner.addFamily(edgeStoreFamily);
 
-        //scanner.setFilter(getColumnFilter(janusgraphSetup.inputSlice(this.vertexQuery))); // TODO
         //TODO (minor): should we set other options in https://hbase.apache.org/apidocs/org/apache/hadoop/hbase/client/Scan.html for optimization?
         // This is a workaround, to be removed when convertScanToString becomes public in hbase
         // package.
@@ -17,9 +17,12 @@ package org.janusgraph.hadoop.formats.hbase;
 import org.janusgraph.diskstorage.Entry;
 import org.janusgraph.diskstorage.PermanentBackendException;
 import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.hbase.HBaseKeyColumnValueStore;
 import org.janusgraph.diskstorage.hbase.HBaseStoreManager;
+import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
 import org.janusgraph.hadoop.config.JanusGraphHadoopConfiguration;
 import org.janusgraph.hadoop.formats.util.AbstractBinaryInputFormat;
+import org.janusgraph.hadoop.formats.util.input.current.JanusGraphHadoopSetupImpl;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hbase.HBaseConfiguration;
@@ -88,10 +91,18 @@ public class HBaseSnapshotBinaryInputFormat extends AbstractBinaryInputFormat {
     private final TableSnapshotInputFormat tableSnapshotInputFormat = new TableSnapshotInputFormat();
     private RecordReader<ImmutableBytesWritable, Result> tableReader;
     private byte[] edgeStoreFamily;
+    private Scan scanner;
     private RecordReader<StaticBuffer, Iterable<Entry>> janusgraphRecordReader;
 
     @Override
     public List<InputSplit> getSplits(final JobContext jobContext) throws IOException, InterruptedException {
+        // Only read the columns needed for the graph filter. The scan is part of the splits, so it is set up here.
+        final List<SliceQuery> inputSlices = getInputSlices(jobContext);
+        if (!inputSlices.contains(JanusGraphHadoopSetupImpl.DEFAULT_SLICE_QUERY)) {
+            scanner.setFilter(HBaseKeyColumnValueStore.getFilter(inputSlices,
+                janusgraphConf.get(HBaseStoreManager.COLUMN_SLICE_FILTER)));
+            jobContext.getConfiguration().set(TableInputFormat.SCAN, convertScanToString(scanner));
+        }
         return this.tableSnapshotInputFormat.getSplits(jobContext);
     }
 
@@ -116,7 +127,7 @@ public class HBaseSnapshotBinaryInputFormat extends AbstractBinaryInputFormat {
         }
 
         config.set("autotype", "none");
-        final Scan scanner = new Scan();
+        scanner = new Scan();
         String cfName = mrConf.get(JanusGraphHadoopConfiguration.COLUMN_FAMILY_NAME);
         // TODO the space-saving short name mapping leaks from HBaseStoreManager here
         if (janusgraphConf.get(HBaseStoreManager.SHORT_CF_NAMES)) {
@@ -130,15 +141,7 @@ public class HBaseSnapshotBinaryInputFormat extends AbstractBinaryInputFormat {
         edgeStoreFamily = Bytes.toBytes(cfName);
         scanner.addFamily(edgeStoreFamily);
 
-        // This is a workaround, to be removed when convertScanToString becomes public in hbase package.
-        Method converter;
-        try {
-            converter = TableMapReduceUtil.class.getDeclaredMethod("convertScanToString", Scan.class);
-            converter.setAccessible(true);
-            config.set(TableInputFormat.SCAN, (String) converter.invoke(null, scanner));
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        config.set(TableInputFormat.SCAN, convertScanToString(scanner));
 
         final String snapshotName = janusgraphConf.get(HBaseStoreManager.HBASE_SNAPSHOT);
         final String restoreDirString = janusgraphConf.get(HBaseStoreManager.HBASE_SNAPSHOT_RESTORE_DIR);
@@ -161,4 +164,15 @@ public class HBaseSnapshotBinaryInputFormat extends AbstractBinaryInputFormat {
     public Configuration getConf() {
         return super.getConf();
     }
+
+    private static String convertScanToString(final Scan scan) {
+        // This is a workaround, to be removed when convertScanToString becomes public in hbase package.
+        try {
+            final Method converter = TableMapReduceUtil.class.getDeclaredMethod("convertScanToString", Scan.class);
+            converter.setAccessible(true);
+            return (String) converter.invoke(null, scan);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
 }
@@ -0,0 +1,85 @@
+// Copyright 2020 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.hbase;
+
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.filter.Filter.ReturnCode;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ColumnSliceFilterTest {
+
+    private static final byte[] ROW = Bytes.toBytes("row");
+    private static final byte[] FAMILY = Bytes.toBytes("e");
+
+    private static Cell cell(String column) {
+        return new KeyValue(ROW, FAMILY, Bytes.toBytes(column), Bytes.toBytes("value"));
+    }
+
+    private static byte[][] range(String start, String end) {
+        return new byte[][]{ start == null ? null : Bytes.toBytes(start), end == null ? null : Bytes.toBytes(end) };
+    }
+
+    @Test
+    public void testSeeksToRangesAndStopsAtLimit() {
+        final ColumnSliceFilter filter = new ColumnSliceFilter(Arrays.asList(range("b", "d"), range("f", "h")), 3);
+
+        assertEquals(ReturnCode.SEEK_NEXT_USING_HINT, filter.filterKeyValue(cell("a")));
+        assertArrayEquals(Bytes.toBytes("b"), CellUtil.cloneQualifier(filter.getNextCellHint(cell("a"))));
+        assertEquals(ReturnCode.INCLUDE_AND_NEXT_COL, filter.filterKeyValue(cell("b")));
+        assertEquals(ReturnCode.INCLUDE_AND_NEXT_COL, filter.filterKeyValue(cell("c")));
+        assertEquals(ReturnCode.SEEK_NEXT_USING_HINT, filter.filterKeyValue(cell("d")));
+        assertArrayEquals(Bytes.toBytes("f"), CellUtil.cloneQualifier(filter.getNextCellHint(cell("d"))));
+        assertEquals(ReturnCode.INCLUDE_AND_NEXT_COL, filter.filterKeyValue(cell("f")));
+        assertEquals(ReturnCode.NEXT_ROW, filter.filterKeyValue(cell("g")));
+
+        filter.reset();
+        assertEquals(ReturnCode.INCLUDE_AND_NEXT_COL, filter.filterKeyValue(cell("b")));
+    }
+
+    @Test
+    public void testUnboundedRangesWithoutLimit() {
+        final ColumnSliceFilter filter = new ColumnSliceFilter(null, Bytes.toBytes("c"), -1);
+        assertEquals(ReturnCode.INCLUDE_AND_NEXT_COL, filter.filterKeyValue(cell("a")));
+        assertEquals(ReturnCode.INCLUDE_AND_NEXT_COL, filter.filterKeyValue(cell("b")));
+        assertEquals(ReturnCode.NEXT_ROW, filter.filterKeyValue(cell("c")));
+
+        final ColumnSliceFilter open = new ColumnSliceFilter(Bytes.toBytes("b"), new byte[0], -1);
+        assertEquals(ReturnCode.SEEK_NEXT_USING_HINT, open.filterKeyValue(cell("a")));
+        assertEquals(ReturnCode.INCLUDE_AND_NEXT_COL, open.filterKeyValue(cell("z")));
+    }
+
+    @Test
+    public void testSerializationRoundTrip() throws Exception {
+        final ColumnSliceFilter filter = new ColumnSliceFilter(Arrays.asList(range(null, "b"), range("c", null)), 10);
+        assertEquals(filter, ColumnSliceFilter.parseFrom(filter.toByteArray()));
+    }
+
+    @Test
+    public void testOverlappingRangesAreRejected() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new ColumnSliceFilter(Arrays.asList(range("a", "c"), range("b", "d")), -1));
+        assertThrows(IllegalArgumentException.class,
+            () -> new ColumnSliceFilter(Arrays.asList(range("a", null), range("b", "d")), -1));
+    }
+}
@@ -0,0 +1,133 @@
+// Copyright 2020 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.hbase;
+
+import org.janusgraph.HBaseStorageSetup;
+import org.janusgraph.diskstorage.AbstractKCVSTest;
+import org.janusgraph.diskstorage.BackendException;
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.configuration.ModifiableConfiguration;
+import org.janusgraph.diskstorage.keycolumnvalue.KCVMutation;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
+import org.janusgraph.diskstorage.keycolumnvalue.KeySliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
+import org.janusgraph.diskstorage.util.BufferUtil;
+import org.janusgraph.diskstorage.util.StaticArrayEntry;
+import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.janusgraph.diskstorage.Backend.EDGESTORE_NAME;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HBaseBulkLoadTest extends AbstractKCVSTest {
+
+    private static final String TABLE_NAME = "bulkLoadTest";
+    private static final int NUM_KEYS = 100;
+    private static final int NUM_COLUMNS = 5;
+
+    @TempDir
+    Path stagingDirectory;
+
+    private HBaseStoreManager bulkManager;
+    private HBaseStoreManager manager;
+
+    @BeforeAll
+    public static void startHBase() throws IOException, BackendException {
+        HBaseStorageSetup.startHBase();
+    }
+
+    @BeforeEach
+    public void setUp() throws BackendException {
+        final ModifiableConfiguration config = HBaseStorageSetup.getHBaseConfiguration(TABLE_NAME)
+            .set(GraphDatabaseConfiguration.STORAGE_BATCH, true)
+            .set(HBaseStoreManager.BULK_LOAD_DIRECTORY, stagingDirectory.toString());
+        bulkManager = new HBaseStoreManager(config);
+        bulkManager.clearStorage();
+        manager = new HBaseStoreManager(HBaseStorageSetup.getHBaseConfiguration(TABLE_NAME));
+    }
+
+    @AfterEach
+    public void tearDown() throws BackendException {
+        bulkManager.close();
+        manager.close();
+    }
+
+    @Test
+    public void testAdditionsAreBulkLoadedOnClose() throws BackendException {
+        final KeyColumnValueStore bulkStore = bulkManager.openDatabase(EDGESTORE_NAME);
+        final KeyColumnValueStore store = manager.openDatabase(EDGESTORE_NAME);
+
+        final Map<StaticBuffer, KCVMutation> mutations = new HashMap<>();
+        for (int i = NUM_KEYS - 1; i >= 0; i--) {
+            final List<Entry> additions = new ArrayList<>(NUM_COLUMNS);
+            for (int j = NUM_COLUMNS - 1; j >= 0; j--) {
+                additions.add(StaticArrayEntry.of(BufferUtil.getIntBuffer(j), BufferUtil.getIntBuffer(i)));
+            }
+            mutations.put(BufferUtil.getIntBuffer(i), new KCVMutation(additions, KeyColumnValueStore.NO_DELETIONS));
+        }
+        StoreTransaction tx = bulkManager.beginTransaction(getTxConfig());
+        bulkManager.mutateMany(Collections.singletonMap(EDGESTORE_NAME, mutations), tx);
+        tx.commit();
+
+        // The additions are still buffered and have not been sent to the region servers
+        tx = manager.beginTransaction(getTxConfig());
+        assertTrue(store.getSlice(query(0), tx).isEmpty());
+        tx.commit();
+
+        // Reading the buffered store does not load the additions
+        tx = bulkManager.beginTransaction(getTxConfig());
+        assertTrue(bulkStore.getSlice(query(0), tx).isEmpty());
+        tx.commit();
+
+        // Closing the manager bulk loads the additions
+        bulkManager.close();
+        final File[] staged = stagingDirectory.toFile().listFiles();
+        assertTrue(staged == null || staged.length == 0);
+
+        tx = manager.beginTransaction(getTxConfig());
+        for (int i = 0; i < NUM_KEYS; i++) {
+            checkRow(store.getSlice(query(i), tx), i);
+        }
+        tx.commit();
+    }
+
+    private static KeySliceQuery query(int key) {
+        return new KeySliceQuery(BufferUtil.getIntBuffer(key), BufferUtil.zeroBuffer(4), BufferUtil.oneBuffer(4));
+    }
+
+    private static void checkRow(EntryList entries, int key) {
+        assertEquals(NUM_COLUMNS, entries.size());
+        for (int j = 0; j < NUM_COLUMNS; j++) {
+            assertEquals(BufferUtil.getIntBuffer(j), entries.get(j).getColumn());
+            assertEquals(key, entries.get(j).getValue().getInt(0));
+        }
+    }
+}
@@ -0,0 +1,29 @@
+// Copyright 2020 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.hbase;
+
+import org.janusgraph.diskstorage.configuration.ModifiableConfiguration;
+
+/**
+ * Runs the store tests with {@link ColumnSliceFilter}, which the test HBase daemon loads from the module's classes,
+ * so that the filter is serialized to and evaluated by the region server.
+ */
+public class HBaseColumnSliceFilterStoreTest extends HBaseStoreTest {
+
+    @Override
+    protected ModifiableConfiguration getHBaseConfiguration(String tableName, String graphName) {
+        return super.getHBaseConfiguration(tableName, graphName).set(HBaseStoreManager.COLUMN_SLICE_FILTER, true);
+    }
+}
@@ -14,11 +14,23 @@
 
 package org.janusgraph.diskstorage.hbase;
 
+import com.google.common.collect.ImmutableList;
 import org.janusgraph.HBaseStorageSetup;
 import org.janusgraph.diskstorage.BackendException;
+import org.janusgraph.diskstorage.Entry;
 import org.janusgraph.diskstorage.KeyColumnValueStoreTest;
+import org.janusgraph.diskstorage.SimpleScanJob;
 import org.janusgraph.diskstorage.configuration.BasicConfiguration;
 import org.janusgraph.diskstorage.configuration.ModifiableConfiguration;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyIterator;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyRange;
+import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.scan.ScanMetrics;
+import org.janusgraph.diskstorage.keycolumnvalue.scan.StandardScanner;
+import org.janusgraph.diskstorage.util.BufferUtil;
+import org.janusgraph.diskstorage.util.RecordIterator;
+import org.janusgraph.diskstorage.util.StaticArrayEntry;
 import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
 
 import org.junit.jupiter.api.BeforeAll;
@@ -26,8 +38,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInfo;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class HBaseStoreTest extends KeyColumnValueStoreTest {
 
@@ -49,7 +67,11 @@ public class HBaseStoreTest extends KeyColumnValueStoreTest {
     }
 
     public HBaseStoreManager openStorageManager(String tableName, String graphName) throws BackendException {
-        return new HBaseStoreManager(HBaseStorageSetup.getHBaseConfiguration(tableName, graphName));
+        return new HBaseStoreManager(getHBaseConfiguration(tableName, graphName));
+    }
+
+    protected ModifiableConfiguration getHBaseConfiguration(String tableName, String graphName) {
+        return HBaseStorageSetup.getHBaseConfiguration(tableName, graphName);
     }
 
     @Test
@@ -59,7 +81,7 @@ public class HBaseStoreTest extends KeyColumnValueStoreTest {
 
     @Override
     public HBaseStoreManager openStorageManagerForClearStorageTest() throws Exception {
-        return openStorageManager(HBaseStorageSetup.getHBaseConfiguration().set(GraphDatabaseConfiguration.DROP_ON_CLEAR, true));
+        return openStorageManager(getHBaseConfiguration("", "").set(GraphDatabaseConfiguration.DROP_ON_CLEAR, true));
     }
 
     @Test
@@ -73,4 +95,114 @@ public class HBaseStoreTest extends KeyColumnValueStoreTest {
         final HBaseStoreManager mgr = openStorageManager("", "randomGraphName");
         assertEquals("randomGraphName", mgr.getName());
     }
+
+    @Test
+    public void testKeyRangesFollowRegions() throws Exception {
+        close();
+        manager = openStorageManager(getHBaseConfiguration("regionKeyRanges", "")
+            .set(HBaseStoreManager.REGION_COUNT, 4));
+        manager.clearStorage();
+        store = manager.openDatabase(storeName);
+
+        final List<KeyRange> ranges = store.getKeyRanges();
+        assertEquals(4, ranges.size());
+        assertEquals(0, ranges.get(0).getStart().length());
+        for (int i = 1; i < ranges.size(); i++) {
+            assertEquals(ranges.get(i - 1).getEnd(), ranges.get(i).getStart());
+            assertTrue(ranges.get(i - 1).getStart().compareTo(ranges.get(i).getStart()) < 0);
+        }
+        assertEquals(0, ranges.get(3).getEnd().length());
+    }
+
+    @Test
+    public void testConcurrentScanOfRegions() throws Exception {
+        final int numKeys = 1000;
+
+        close();
+        // The four regions of the table line up with the four key ranges of the scan
+        manager = openStorageManager(getHBaseConfiguration("concurrentRegionScan", "")
+            .set(HBaseStoreManager.REGION_COUNT, 4));
+        manager.clearStorage();
+        store = manager.openDatabase(storeName);
+        tx = startTx();
+
+        loadKeysOverKeySpace(numKeys);
+        newTx();
+
+        assertKeyRangesScannedConcurrently(numKeys, 4);
+    }
+
+    @Test
+    public void testConcurrentScanIsSplitAtRegions() throws Exception {
+        final int numKeys = 1000;
+
+        close();
+        manager = openStorageManager(getHBaseConfiguration("regionSplitScan", "")
+            .set(HBaseStoreManager.REGION_COUNT, 4));
+        manager.clearStorage();
+        store = manager.openDatabase(storeName);
+        tx = startTx();
+
+        loadKeysOverKeySpace(numKeys);
+        newTx();
+
+        // Every region is read by its own data puller, even though only two of them run at the same time
+        final Set<String> pullers = ConcurrentHashMap.newKeySet();
+        final StandardScanner.Builder jobBuilder = new StandardScanner(manager).build();
+        jobBuilder.setStoreName(store.getName());
+        jobBuilder.setJobConfiguration(SimpleScanJob.getJobConf(
+            ImmutableList.of(new SliceQuery(BufferUtil.zeroBuffer(1), BufferUtil.oneBuffer(128)))));
+        jobBuilder.setNumProcessingThreads(2);
+        jobBuilder.setScanParallelism(2);
+        jobBuilder.setTimestampProvider(times);
+        jobBuilder.setJob(new SimpleScanJob(null, key -> {
+            pullers.add(Thread.currentThread().getName());
+            return true;
+        }));
+        final ScanMetrics metrics = jobBuilder.execute().get();
+
+        assertEquals(numKeys, metrics.getCustom(SimpleScanJob.KEY_COUNT));
+        assertEquals(4, pullers.size());
+    }
+
+    @Test
+    public void testBatchedScanReturnsRowsInKeyOrder() throws Exception {
+        final int numKeys = 200;
+        final int numColumns = 10;
+        // Spread the keys over all regions of the pre-split table
+        final long stride = 0xFFFFFFFFL / numKeys;
+
+        close();
+        manager = openStorageManager(getHBaseConfiguration("batchedScan", "")
+            .set(HBaseStoreManager.REGION_COUNT, 8)
+            .set(HBaseStoreManager.SCAN_CACHING, 10)
+            .set(HBaseStoreManager.SCAN_BATCH, 3));
+        manager.clearStorage();
+        store = manager.openDatabase(storeName);
+        tx = startTx();
+
+        for (int i = 0; i < numKeys; i++) {
+            final List<Entry> additions = new ArrayList<>(numColumns);
+            for (int j = 0; j < numColumns; j++) {
+                additions.add(StaticArrayEntry.of(BufferUtil.getIntBuffer(j), BufferUtil.getIntBuffer(i)));
+            }
+            store.mutate(BufferUtil.getIntBuffer((int) (i * stride)), additions, KeyColumnValueStore.NO_DELETIONS, tx);
+        }
+        newTx();
+
+        final KeyIterator keys = store.getKeys(new SliceQuery(BufferUtil.zeroBuffer(1), BufferUtil.oneBuffer(4)), tx);
+        for (int i = 0; i < numKeys; i++) {
+            assertTrue(keys.hasNext());
+            assertEquals(BufferUtil.getIntBuffer((int) (i * stride)), keys.next());
+            final RecordIterator<Entry> entries = keys.getEntries();
+            int columns = 0;
+            while (entries.hasNext()) {
+                assertEquals(i, entries.next().getValue().getInt(0));
+                columns++;
+            }
+            assertEquals(numColumns, columns);
+        }
+        assertFalse(keys.hasNext());
+        keys.close();
+    }
 }
@@ -0,0 +1,44 @@
+// Copyright 2020 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.hadoop;
+
+import org.apache.commons.configuration.ConfigurationException;
+import org.apache.commons.configuration.PropertiesConfiguration;
+import org.janusgraph.HBaseStorageSetup;
+import org.janusgraph.diskstorage.configuration.WriteConfiguration;
+import org.janusgraph.diskstorage.hbase.ColumnSliceFilter;
+import org.janusgraph.diskstorage.hbase.HBaseStoreManager;
+
+import java.io.IOException;
+
+/**
+ * Runs the input format tests with {@link ColumnSliceFilter}. The edge filtering tests read several column slices
+ * per row, which the input format scans with a single filter of multiple column ranges.
+ */
+public class HBaseColumnSliceFilterInputFormatIT extends HBaseInputFormatIT {
+
+    @Override
+    protected PropertiesConfiguration getGraphConfiguration() throws IOException, ConfigurationException {
+        final PropertiesConfiguration config = super.getGraphConfiguration();
+        config.setProperty("janusgraphmr.ioformat.conf.storage.hbase.column-slice-filter", true);
+        return config;
+    }
+
+    @Override
+    public WriteConfiguration getConfiguration() {
+        return HBaseStorageSetup.getHBaseConfiguration().set(HBaseStoreManager.COLUMN_SLICE_FILTER, true)
+            .getConfiguration();
+    }
+}
@@ -0,0 +1,47 @@
+// Copyright 2020 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.hadoop;
+
+import org.apache.commons.configuration.ConfigurationException;
+import org.apache.commons.configuration.PropertiesConfiguration;
+import org.janusgraph.HBaseStorageSetup;
+import org.janusgraph.diskstorage.configuration.WriteConfiguration;
+
+import java.io.IOException;
+
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.COMPRESSION_ALGORITHM;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.COMPRESSION_DEFLATE;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.COMPRESSION_MIN_SIZE;
+
+/**
+ * Runs the input format tests on a graph whose edgestore values are compressed. The record readers have to
+ * decompress the cells they read, or the deserialized vertices lose their properties and edges.
+ */
+public class HBaseCompressedInputFormatIT extends HBaseInputFormatIT {
+
+    @Override
+    protected PropertiesConfiguration getGraphConfiguration() throws IOException, ConfigurationException {
+        final PropertiesConfiguration config = super.getGraphConfiguration();
+        config.setProperty("janusgraphmr.ioformat.conf.storage.compression.algorithm", COMPRESSION_DEFLATE);
+        config.setProperty("janusgraphmr.ioformat.conf.storage.compression.min-size", 1);
+        return config;
+    }
+
+    @Override
+    public WriteConfiguration getConfiguration() {
+        return HBaseStorageSetup.getHBaseConfiguration().set(COMPRESSION_ALGORITHM, COMPRESSION_DEFLATE)
+            .set(COMPRESSION_MIN_SIZE, 1).getConfiguration();
+    }
+}
@@ -41,12 +41,16 @@ public class HBaseInputFormatIT extends AbstractInputFormatIT {
     }
 
     protected Graph getGraph() throws IOException, ConfigurationException {
+        return GraphFactory.open(getGraphConfiguration());
+    }
+
+    protected PropertiesConfiguration getGraphConfiguration() throws IOException, ConfigurationException {
         final PropertiesConfiguration config = new PropertiesConfiguration("target/test-classes/hbase-read.properties");
         Path baseOutDir = Paths.get((String) config.getProperty("gremlin.hadoop.outputLocation"));
         baseOutDir.toFile().mkdirs();
         String outDir = Files.createTempDirectory(baseOutDir, null).toAbsolutePath().toString();
         config.setProperty("gremlin.hadoop.outputLocation", outDir);
-        return GraphFactory.open(config);
+        return config;
     }
 
     @Override
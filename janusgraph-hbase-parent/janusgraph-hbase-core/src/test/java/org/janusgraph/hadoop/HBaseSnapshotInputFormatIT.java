@@ -29,6 +29,7 @@ import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.spark.process.computer.SparkGraphComputer;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.util.GraphFactory;
 import org.junit.jupiter.api.AfterEach;
@@ -192,6 +193,28 @@ public class HBaseSnapshotInputFormatIT extends AbstractInputFormatIT {
         assertEquals(14L, (long) t.E().count().next());
     }
 
+    @Test
+    @Override
+    public void testReadGraphOfTheGodsWithDirectionalEdgeFiltering() throws Exception {
+        GraphOfTheGodsFactory.load(graph, null, true);
+        assertEquals(3L, (long) graph.traversal().E().hasLabel("battled").count().next());
+        // Take a snapshot of the graph table
+        HBaseStorageSetup.createSnapshot(snapshotName, table);
+
+        // Read graph keeping only outgoing "battled" edges.
+        Graph g = getGraph();
+        Computer computer = Computer.compute(SparkGraphComputer.class)
+            .edges(__.outE("battled"));
+        GraphTraversalSource t = g.traversal().withComputer(computer);
+        assertEquals(3L, (long) t.E().count().next());
+        assertEquals(3L, (long) t.E().values("time").count().next());
+        assertEquals(0L, (long) t.V().inE().count().next());
+        // Vertices and their properties are read even if the filter excludes all their edges
+        assertEquals(12L, (long) t.V().count().next());
+        assertEquals(12L, (long) t.V().values("name").count().next());
+        assertEquals(3L, (long) t.V().hasLabel("location").count().next());
+    }
+
     @Test
     @Override
     public void testGraphWithIsolatedVertices() throws Exception {
@@ -263,6 +286,36 @@ public class HBaseSnapshotInputFormatIT extends AbstractInputFormatIT {
             .properties("meta_property").count().next());
     }
 
+    @Test
+    @Override
+    public void testReadAfterGraphIsReloaded() throws Exception {
+        GraphOfTheGodsFactory.load(graph, null, true);
+        // Take a snapshot of the graph table
+        HBaseStorageSetup.createSnapshot(snapshotName, table);
+        Graph g = getGraph();
+        GraphTraversalSource t = g.traversal().withComputer(SparkGraphComputer.class);
+        assertEquals(12L, (long) t.V().values("name").count().next());
+
+        // Reload the graph with a different schema, so that its types get other ids than before
+        close();
+        clearGraph(config);
+        open(config);
+        mgmt.makePropertyKey("color").dataType(String.class).make();
+        mgmt.makeVertexLabel("car").make();
+        finishSchema();
+        graph.addVertex(T.label, "car", "color", "red");
+        graph.addVertex(T.label, "car", "color", "blue");
+        graph.tx().commit();
+        HBaseStorageSetup.deleteSnapshot(snapshotName);
+        HBaseStorageSetup.createSnapshot(snapshotName, table);
+
+        // The next job reads the graph with its new schema
+        g = getGraph();
+        t = g.traversal().withComputer(SparkGraphComputer.class);
+        assertEquals(2L, (long) t.V().hasLabel("car").count().next());
+        assertEquals(new HashSet<>(Arrays.asList("red", "blue")), t.V().values("color").toSet());
+    }
+
     protected Graph getGraph() throws IOException, ConfigurationException {
         final PropertiesConfiguration config =
                 new PropertiesConfiguration("target/test-classes/hbase-read-snapshot.properties");
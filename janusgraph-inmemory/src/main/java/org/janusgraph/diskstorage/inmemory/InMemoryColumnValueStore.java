@@ -37,25 +37,39 @@ import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.ST
  * Implements a "row" in the {@link InMemoryKeyColumnValueStore}, which is comprised of
  * column-value pairs. This data is held in a shared sorted array for space and retrieval efficiency, and is paged
  * when/if data size exceeds a threshold to avoid excessive copying on updates.
+ * <p>
+ * In copy-on-write mode, readers do not take any locks. Instead, writers mutate a shallow copy of the buffer (pages are
+ * never modified once built, so only the changed pages are rebuilt) and atomically publish it when done, so that
+ * concurrent readers always see a consistent snapshot of the row.
  */
 
 class InMemoryColumnValueStore {
 
     static final int DEF_PAGE_SIZE = 500;
 
-    private SharedEntryBuffer buffer;
+    private final boolean copyOnWrite;
+    private volatile SharedEntryBuffer buffer;
 
     public InMemoryColumnValueStore() {
+        this(false);
+    }
+
+    public InMemoryColumnValueStore(boolean copyOnWrite) {
+        this.copyOnWrite = copyOnWrite;
         //we expect most stores to fit into one page, so start with a single-page implementation which has much less overhead
         buffer = new SinglePageEntryBuffer();
     }
 
+    public boolean isCopyOnWrite() {
+        return copyOnWrite;
+    }
+
     public int getMaxPageSize() {
         return DEF_PAGE_SIZE;
     }
 
     boolean isEmpty(StoreTransaction txh) {
-        Lock lock = getLock(txh);
+        Lock lock = getReadLock(txh);
         lock.lock();
         try {
             return buffer.isEmpty();
@@ -65,7 +79,7 @@ class InMemoryColumnValueStore {
     }
 
     EntryList getSlice(KeySliceQuery query, StoreTransaction txh) {
-        Lock lock = getLock(txh);
+        Lock lock = getReadLock(txh);
         lock.lock();
         try {
             return buffer.getSlice(query);
@@ -122,24 +136,36 @@ class InMemoryColumnValueStore {
             Arrays.sort(del);
         } else del = new Entry[0];
 
+        if (copyOnWrite) {
+            //writers are serialized by this method's monitor, readers keep using the current buffer until the new one is published
+            SharedEntryBuffer newBuffer = buffer.copy();
+            newBuffer.mutate(add, del, getMaxPageSize());
+            buffer = switchToPagedIfRequired(newBuffer);
+            return;
+        }
+
         Lock lock = getLock(txh);
         lock.lock();
         try {
             buffer.mutate(add, del, getMaxPageSize());
-
-            if (!buffer.isPaged() && buffer.numEntries() > getMaxPageSize()) {
-                //single buffer exceeded max page size - switch to multipage buffer
-                //expecting any non-paged buffer implementation to implement BufferPage contract i.e. behave same as a single page
-                buffer = new MultiPageEntryBuffer((BufferPage) buffer);
-            }
-            //NOTE: we could check here if a multi-page buffer was reduced to fit into one page, and switch back to single buffer,
-            //however this is unlikely to happen, and would involve copying of all pages into one (similar to defragmentation)
-            //so unclear if we need this at all
+            buffer = switchToPagedIfRequired(buffer);
         } finally {
             lock.unlock();
         }
     }
 
+    private SharedEntryBuffer switchToPagedIfRequired(SharedEntryBuffer buffer) {
+        if (!buffer.isPaged() && buffer.numEntries() > getMaxPageSize()) {
+            //single buffer exceeded max page size - switch to multipage buffer
+            //expecting any non-paged buffer implementation to implement BufferPage contract i.e. behave same as a single page
+            return new MultiPageEntryBuffer((BufferPage) buffer);
+        }
+        //NOTE: we could check here if a multi-page buffer was reduced to fit into one page, and switch back to single buffer,
+        //however this is unlikely to happen, and would involve copying of all pages into one (similar to defragmentation)
+        //so unclear if we need this at all
+        return buffer;
+    }
+
     private volatile ReentrantLock lock = null;
 
     private Lock getLock(StoreTransaction txh) {
@@ -158,34 +184,53 @@ class InMemoryColumnValueStore {
         } else return NoLock.INSTANCE;
     }
 
+    private Lock getReadLock(StoreTransaction txh) {
+        return copyOnWrite ? NoLock.INSTANCE : getLock(txh);
+    }
+
+    private Lock getReadLock() {
+        return copyOnWrite ? NoLock.INSTANCE : this.lock;
+    }
+
     public int numPages(StoreTransaction txh) {
-        this.lock.lock();
+        Lock lock = getReadLock();
+        lock.lock();
         try {
             return buffer.numPages();
         } finally {
-            this.lock.unlock();
+            lock.unlock();
         }
     }
 
     public int numEntries(StoreTransaction txh) {
-        this.lock.lock();
+        Lock lock = getReadLock();
+        lock.lock();
         try {
             return buffer.numEntries();
         } finally {
-            this.lock.unlock();
+            lock.unlock();
         }
     }
 
     public SharedEntryBufferFragmentationReport createFragmentationReport(StoreTransaction txh) {
-        this.lock.lock();
+        Lock lock = getReadLock();
+        lock.lock();
         try {
             return buffer.createFragmentationReport(getMaxPageSize());
         } finally {
-            this.lock.unlock();
+            lock.unlock();
         }
     }
 
     public void quickDefragment(StoreTransaction txh) {
+        if (copyOnWrite) {
+            synchronized (this) {
+                SharedEntryBuffer newBuffer = buffer.copy();
+                newBuffer.quickDefragment(getMaxPageSize());
+                buffer = newBuffer;
+            }
+            return;
+        }
         this.lock.lock();
         try {
             buffer.quickDefragment(getMaxPageSize());
@@ -195,7 +240,8 @@ class InMemoryColumnValueStore {
     }
 
     public void dumpTo(DataOutputStream out) throws IOException {
-        this.lock.lock();
+        Lock lock = getReadLock();
+        lock.lock();
         try {
             buffer.dumpTo(out);
         } finally {
@@ -203,8 +249,22 @@ class InMemoryColumnValueStore {
         }
     }
 
+    /**
+     * Returns a read-only copy of this row which shares all pages with it and is not affected by subsequent mutations.
+     * The copy is in copy-on-write mode so that it can be read without locking.
+     */
+    synchronized InMemoryColumnValueStore snapshot() {
+        InMemoryColumnValueStore copy = new InMemoryColumnValueStore(true);
+        copy.buffer = buffer.copy();
+        return copy;
+    }
+
     public static InMemoryColumnValueStore readFrom(DataInputStream in) throws IOException {
-        InMemoryColumnValueStore store = new InMemoryColumnValueStore();
+        return readFrom(in, false);
+    }
+
+    public static InMemoryColumnValueStore readFrom(DataInputStream in, boolean copyOnWrite) throws IOException {
+        InMemoryColumnValueStore store = new InMemoryColumnValueStore(copyOnWrite);
 
         store.buffer = BufferPageUtils.readFrom(in);
 
@@ -74,11 +74,26 @@ public class InMemoryKeyColumnValueStore implements KeyColumnValueStore {
     private static final Logger log = LoggerFactory.getLogger(InMemoryKeyColumnValueStore.class);
 
     private final String name;
+    private final boolean copyOnWrite;
+    private final MutationGate mutationGate;
     private final ConcurrentNavigableMap<StaticBuffer, InMemoryColumnValueStore> kcv;
 
     public InMemoryKeyColumnValueStore(final String name) {
+        this(name, false);
+    }
+
+    /**
+     * @param copyOnWrite whether rows are read without locking from immutable snapshots, see {@link InMemoryColumnValueStore}
+     */
+    public InMemoryKeyColumnValueStore(final String name, final boolean copyOnWrite) {
+        this(name, copyOnWrite, new MutationGate());
+    }
+
+    InMemoryKeyColumnValueStore(final String name, final boolean copyOnWrite, final MutationGate mutationGate) {
         Preconditions.checkArgument(StringUtils.isNotBlank(name));
         this.name = name;
+        this.copyOnWrite = copyOnWrite;
+        this.mutationGate = Preconditions.checkNotNull(mutationGate);
         this.kcv = new ConcurrentSkipListMap<>();
     }
 
@@ -98,9 +113,22 @@ public class InMemoryKeyColumnValueStore implements KeyColumnValueStore {
 
     @Override
     public void mutate(StaticBuffer key, List<Entry> additions, List<StaticBuffer> deletions, StoreTransaction txh) throws BackendException {
+        mutationGate.enterMutation();
+        try {
+            mutateWithinGate(key, additions, deletions, txh);
+        } finally {
+            mutationGate.exitMutation();
+        }
+    }
+
+    /**
+     * Applies a mutation without entering the {@link MutationGate}, which the caller has to hold already, so that
+     * several mutations are captured by a snapshot either all together or not at all.
+     */
+    void mutateWithinGate(StaticBuffer key, List<Entry> additions, List<StaticBuffer> deletions, StoreTransaction txh) throws BackendException {
         InMemoryColumnValueStore cvs = kcv.get(key);
         if (cvs == null) {
-            kcv.putIfAbsent(key, new InMemoryColumnValueStore());
+            kcv.putIfAbsent(key, new InMemoryColumnValueStore(copyOnWrite));
             cvs = kcv.get(key);
         }
         cvs.mutate(additions, deletions, txh);
@@ -128,6 +156,7 @@ public class InMemoryKeyColumnValueStore implements KeyColumnValueStore {
 
     public void clear() {
         kcv.clear();
+        mutationGate.markModified();
     }
 
     @Override
@@ -236,7 +265,12 @@ public class InMemoryKeyColumnValueStore implements KeyColumnValueStore {
 
     public void quickDefragment(Collection<InMemoryColumnValueStore> stores, StoreTransaction txh) throws BackendException {
         for (InMemoryColumnValueStore cvs : stores) {
-            cvs.quickDefragment(txh);
+            mutationGate.enterMutation();
+            try {
+                cvs.quickDefragment(txh);
+            } finally {
+                mutationGate.exitMutation();
+            }
         }
     }
 
@@ -252,26 +286,43 @@ public class InMemoryKeyColumnValueStore implements KeyColumnValueStore {
         return new InflaterInputStream(streamToWrap, new Inflater(true));
     }
 
+    /**
+     * Returns copies of all rows of this store which share their pages with the original rows but are not affected
+     * by subsequent mutations. Must be called while no mutations are in progress, see {@link MutationGate}.
+     */
+    List<Map.Entry<StaticBuffer, InMemoryColumnValueStore>> snapshotRows() {
+        List<Map.Entry<StaticBuffer, InMemoryColumnValueStore>> rows = new ArrayList<>(kcv.size());
+        for (Map.Entry<StaticBuffer, InMemoryColumnValueStore> e : kcv.entrySet()) {
+            rows.add(new AbstractMap.SimpleImmutableEntry<>(e.getKey(), e.getValue().snapshot()));
+        }
+        return rows;
+    }
+
     public void dumpTo(Path storePath, ForkJoinPool parallelOperationsExecutor) {
-        if (kcv.size() < 1)
+        dumpTo(getName(), new ArrayList<>(kcv.entrySet()), storePath, parallelOperationsExecutor);
+    }
+
+    static void dumpTo(String name, List<Map.Entry<StaticBuffer, InMemoryColumnValueStore>> rows, Path storePath,
+                       ForkJoinPool parallelOperationsExecutor) {
+        if (rows.size() < 1)
             return;
 
         int numChunks = Runtime.getRuntime().availableProcessors() * 2;
 
-        int chunkSize = kcv.size() > 1000 ? kcv.size() / numChunks : kcv.size();
+        int chunkSize = rows.size() > 1000 ? rows.size() / numChunks : rows.size();
 
-        ArrayList<List<Map.Entry<StaticBuffer, InMemoryColumnValueStore>>> chunks = Lists.newArrayList(Iterators.partition(kcv.entrySet().iterator(), chunkSize));
+        ArrayList<List<Map.Entry<StaticBuffer, InMemoryColumnValueStore>>> chunks = Lists.newArrayList(Iterators.partition(rows.iterator(), chunkSize));
 
         IntStream.range(0, chunks.size()).mapToObj(i ->
         {
-            Path filePath = Paths.get(storePath.toString(), getName() + "_" + i);
+            Path filePath = Paths.get(storePath.toString(), name + "_" + i);
 
             return parallelOperationsExecutor.submit(() -> dumpChunk(filePath, chunks.get(i)));
         }).collect(Collectors.toList()) //collecting here to make sure all tasks are submitted eagerly
             .stream().map(ForkJoinTask::join).collect(Collectors.toList());
     }
 
-    private void dumpChunk(Path filePath, List<Map.Entry<StaticBuffer, InMemoryColumnValueStore>> chunk) {
+    private static void dumpChunk(Path filePath, List<Map.Entry<StaticBuffer, InMemoryColumnValueStore>> chunk) {
         if (log.isDebugEnabled()) {
             log.debug("number of column stores in chunk " + filePath + ": " + chunk.size() + " " + Thread.currentThread().getName());
         }
@@ -301,8 +352,14 @@ public class InMemoryKeyColumnValueStore implements KeyColumnValueStore {
     }
 
     public static InMemoryKeyColumnValueStore readFrom(Path storePath, String name, ForkJoinPool parallelOperationsExecutor) throws IOException {
-        InMemoryKeyColumnValueStore store = new InMemoryKeyColumnValueStore(name);
+        return readFrom(storePath, new InMemoryKeyColumnValueStore(name), parallelOperationsExecutor);
+    }
 
+    /**
+     * Reads the dumped rows into the given (empty) store.
+     */
+    static InMemoryKeyColumnValueStore readFrom(Path storePath, InMemoryKeyColumnValueStore store,
+                                                ForkJoinPool parallelOperationsExecutor) throws IOException {
         Files.list(storePath).map(p -> parallelOperationsExecutor.submit(() -> readChunkFrom(p, store)))
             .collect(Collectors.toList()).stream() //force it to submit all tasks
             .map(ForkJoinTask::join).collect(Collectors.toList());
@@ -330,7 +387,7 @@ public class InMemoryKeyColumnValueStore implements KeyColumnValueStore {
                 BufferPageUtils.readWholeArray(in, keyData);
 
                 //NOTE: here we know that kcv is a concurrent map so safe to put in parallel from different chunks
-                store.kcv.put(StaticArrayBuffer.of(keyData), InMemoryColumnValueStore.readFrom(in));
+                store.kcv.put(StaticArrayBuffer.of(keyData), InMemoryColumnValueStore.readFrom(in, store.copyOnWrite));
             }
 
             if (log.isDebugEnabled()) {
@@ -15,36 +15,106 @@
 package org.janusgraph.diskstorage.inmemory;
 
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.janusgraph.diskstorage.BackendException;
+import org.janusgraph.diskstorage.PermanentBackendException;
 import org.janusgraph.diskstorage.StaticBuffer;
 import org.janusgraph.diskstorage.BaseTransactionConfig;
 import org.janusgraph.diskstorage.StoreMetaData;
 import org.janusgraph.diskstorage.common.AbstractStoreTransaction;
+import org.janusgraph.diskstorage.configuration.ConfigNamespace;
+import org.janusgraph.diskstorage.configuration.ConfigOption;
 import org.janusgraph.diskstorage.configuration.Configuration;
 import org.janusgraph.diskstorage.keycolumnvalue.*;
 import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
+import org.janusgraph.graphdb.configuration.PreInitializeConfigOptions;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * In-memory backend storage engine.
- *
+ * <p>
+ * If a snapshot directory is configured, the contents of all stores are persisted to it periodically and/or on close
+ * and restored from the most recent snapshot when the manager is instantiated, so that a restart does not require
+ * reloading the graph. Stores are restored lazily when they are first opened. A snapshot is captured while mutations
+ * are briefly blocked, so it reflects a single point in time across all stores, and it is written to a temporary
+ * directory which is only renamed into place once it is complete. Snapshots are written while holding an exclusive
+ * lock on a file in the snapshot directory, and a new snapshot only replaces the snapshots written by the same manager
+ * and the snapshot it has been restored from.
  */
-
+@PreInitializeConfigOptions
 public class InMemoryStoreManager implements KeyColumnValueStoreManager {
 
+    public static final ConfigNamespace INMEMORY_NS =
+        new ConfigNamespace(GraphDatabaseConfiguration.STORAGE_NS, "inmemory", "In-memory storage backend options");
+
+    public static final ConfigOption<Boolean> COPY_ON_WRITE = new ConfigOption<>(INMEMORY_NS, "copy-on-write",
+        "Whether rows are read without locking from immutable snapshots which writers replace atomically. This removes " +
+            "lock contention on frequently read rows at the cost of copying the modified pages on every write.",
+        ConfigOption.Type.MASKABLE, false);
+
+    public static final ConfigOption<String> SNAPSHOT_DIRECTORY = new ConfigOption<>(INMEMORY_NS, "snapshot-directory",
+        "Directory to which snapshots of the in-memory stores are persisted and from which the most recent snapshot is " +
+            "restored on startup. If not set, all data is lost when the graph is closed.",
+        ConfigOption.Type.LOCAL, String.class);
+
+    public static final ConfigOption<Duration> SNAPSHOT_INTERVAL = new ConfigOption<>(INMEMORY_NS, "snapshot-interval",
+        "Time between background snapshots to the snapshot directory. Snapshots are only written if the stores have " +
+            "been modified since the previous one. Set to 0 to disable periodic snapshots.",
+        ConfigOption.Type.LOCAL, Duration.ZERO);
+
+    public static final ConfigOption<Boolean> SNAPSHOT_ON_CLOSE = new ConfigOption<>(INMEMORY_NS, "snapshot-on-close",
+        "Whether a snapshot is persisted to the snapshot directory when the storage backend is closed, if the stores " +
+            "have been modified since the previous one.",
+        ConfigOption.Type.LOCAL, true);
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryStoreManager.class);
+
+    static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_TMP_SUFFIX = ".tmp";
+    private static final String SNAPSHOT_LOCK_FILE = "snapshot.lock";
+    //file locks are held by the entire JVM, hence managers in the same JVM have to be serialized separately
+    private static final ConcurrentHashMap<Path, Object> SNAPSHOT_LOCKS = new ConcurrentHashMap<>();
+
     private ConcurrentHashMap<String, InMemoryKeyColumnValueStore> stores;
 
+    private final boolean copyOnWrite;
+    private final MutationGate mutationGate = new MutationGate();
+
+    private final Path snapshotDirectory;
+    private final boolean snapshotOnClose;
+    private final ScheduledExecutorService snapshotExecutor;
+    //stores of the restored snapshot which have not been opened yet
+    private final Set<String> pendingStores = ConcurrentHashMap.newKeySet();
+    private volatile Path restoredSnapshot;
+    //the most recent snapshot persisted by this manager
+    private Path persistedSnapshot;
+
     private final StoreFeatures features;
 
     public InMemoryStoreManager() {
@@ -54,6 +124,26 @@ public class InMemoryStoreManager implements KeyColumnValueStoreManager {
     public InMemoryStoreManager(final Configuration configuration) {
 
         stores = new ConcurrentHashMap<>();
+        copyOnWrite = configuration.get(COPY_ON_WRITE);
+        snapshotOnClose = configuration.get(SNAPSHOT_ON_CLOSE);
+        if (configuration.has(SNAPSHOT_DIRECTORY)) {
+            snapshotDirectory = Paths.get(configuration.get(SNAPSHOT_DIRECTORY));
+            findLatestSnapshot();
+        } else {
+            snapshotDirectory = null;
+        }
+        Duration snapshotInterval = configuration.get(SNAPSHOT_INTERVAL);
+        if (snapshotDirectory != null && !snapshotInterval.isZero()) {
+            Preconditions.checkArgument(!snapshotInterval.isNegative(), "Invalid snapshot interval: %s", snapshotInterval);
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, new ThreadFactoryBuilder()
+                .setDaemon(true).setNameFormat("InMemorySnapshot-%d").build());
+            executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+            long intervalMs = snapshotInterval.toMillis();
+            executor.scheduleWithFixedDelay(this::persistSnapshotIfModified, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+            snapshotExecutor = executor;
+        } else {
+            snapshotExecutor = null;
+        }
 
         features = new StandardStoreFeatures.Builder()
             .orderedScan(true)
@@ -84,10 +174,27 @@ public class InMemoryStoreManager implements KeyColumnValueStoreManager {
 
     @Override
     public void close() throws BackendException {
+        if (snapshotExecutor != null) {
+            snapshotExecutor.shutdown();
+            try {
+                snapshotExecutor.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new PermanentBackendException("Interrupted while waiting for snapshot to complete", e);
+            }
+        }
+        if (snapshotDirectory != null && snapshotOnClose && mutationGate.isModified()) {
+            try {
+                persistSnapshot();
+            } catch (IOException e) {
+                throw new PermanentBackendException("Could not persist snapshot to " + snapshotDirectory, e);
+            }
+        }
         for (InMemoryKeyColumnValueStore store : stores.values()) {
             store.close();
         }
         stores.clear();
+        pendingStores.clear();
     }
 
     @Override
@@ -96,11 +203,13 @@ public class InMemoryStoreManager implements KeyColumnValueStoreManager {
             store.clear();
         }
         stores.clear();
+        pendingStores.clear();
+        mutationGate.markModified();
     }
 
     @Override
     public boolean exists() throws BackendException {
-        return !stores.isEmpty();
+        return !stores.isEmpty() || !pendingStores.isEmpty();
     }
 
     @Override
@@ -110,8 +219,15 @@ public class InMemoryStoreManager implements KeyColumnValueStoreManager {
 
     @Override
     public KeyColumnValueStore openDatabase(final String name, StoreMetaData.Container metaData) throws BackendException {
+        if (pendingStores.contains(name)) {
+            try {
+                restorePendingStore(name);
+            } catch (IOException e) {
+                throw new PermanentBackendException("Could not restore store " + name + " from snapshot " + restoredSnapshot, e);
+            }
+        }
         if (!stores.containsKey(name)) {
-            stores.putIfAbsent(name, new InMemoryKeyColumnValueStore(name));
+            stores.putIfAbsent(name, newStore(name));
         }
         KeyColumnValueStore store = stores.get(name);
         Preconditions.checkNotNull(store);
@@ -120,12 +236,18 @@ public class InMemoryStoreManager implements KeyColumnValueStoreManager {
 
     @Override
     public void mutateMany(Map<String, Map<StaticBuffer, KCVMutation>> mutations, StoreTransaction txh) throws BackendException {
-        for (Map.Entry<String, Map<StaticBuffer, KCVMutation>> storeMut : mutations.entrySet()) {
-            KeyColumnValueStore store = stores.get(storeMut.getKey());
-            Preconditions.checkNotNull(store);
-            for (Map.Entry<StaticBuffer, KCVMutation> keyMut : storeMut.getValue().entrySet()) {
-                store.mutate(keyMut.getKey(), keyMut.getValue().getAdditions(), keyMut.getValue().getDeletions(), txh);
+        //the mutations of a transaction are applied under a single gate, so that a snapshot never captures only some of them
+        mutationGate.enterMutation();
+        try {
+            for (Map.Entry<String, Map<StaticBuffer, KCVMutation>> storeMut : mutations.entrySet()) {
+                InMemoryKeyColumnValueStore store = stores.get(storeMut.getKey());
+                Preconditions.checkNotNull(store);
+                for (Map.Entry<StaticBuffer, KCVMutation> keyMut : storeMut.getValue().entrySet()) {
+                    store.mutateWithinGate(keyMut.getKey(), keyMut.getValue().getAdditions(), keyMut.getValue().getDeletions(), txh);
+                }
             }
+        } finally {
+            mutationGate.exitMutation();
         }
     }
 
@@ -139,10 +261,29 @@ public class InMemoryStoreManager implements KeyColumnValueStoreManager {
         return toString();
     }
 
+    private InMemoryKeyColumnValueStore newStore(String name) {
+        return new InMemoryKeyColumnValueStore(name, copyOnWrite, mutationGate);
+    }
+
     public void makeSnapshot(File targetSnapshotDirectory, ForkJoinPool parallelOperationsExecutor) throws IOException {
+        makeSnapshot(targetSnapshotDirectory, parallelOperationsExecutor, false);
+    }
+
+    private void makeSnapshot(File targetSnapshotDirectory, ForkJoinPool parallelOperationsExecutor,
+                              boolean resetModified) throws IOException {
+        //a snapshot has to contain the stores of a restored snapshot as well, even if they haven't been opened yet
+        restorePendingStores();
         Files.createDirectory(Paths.get(targetSnapshotDirectory.getAbsolutePath()));
 
-        stores.entrySet().stream().map(e -> parallelOperationsExecutor.submit(() ->
+        //the rows are copied while mutations are blocked, which only copies references to their pages,
+        //and written afterwards without blocking
+        Map<String, List<Map.Entry<StaticBuffer, InMemoryColumnValueStore>>> snapshot = mutationGate.capture(() -> {
+            Map<String, List<Map.Entry<StaticBuffer, InMemoryColumnValueStore>>> rows = new HashMap<>(stores.size());
+            stores.forEach((name, store) -> rows.put(name, store.snapshotRows()));
+            return rows;
+        }, resetModified);
+
+        snapshot.entrySet().stream().map(e -> parallelOperationsExecutor.submit(() ->
         {
             try {
                 dumpStore(e.getKey(), e.getValue(), targetSnapshotDirectory.getAbsolutePath(), parallelOperationsExecutor);
@@ -153,12 +294,125 @@ public class InMemoryStoreManager implements KeyColumnValueStoreManager {
             .map(ForkJoinTask::join).collect(Collectors.toList());
     }
 
-    private void dumpStore(String storeName, InMemoryKeyColumnValueStore store, String rootPath, ForkJoinPool parallelOperationsExecutor) throws IOException {
+    private void dumpStore(String storeName, List<Map.Entry<StaticBuffer, InMemoryColumnValueStore>> rows, String rootPath,
+                           ForkJoinPool parallelOperationsExecutor) throws IOException {
         Path filePath = Paths.get(rootPath, storeName);
 
         Files.createDirectory(filePath);
 
-        store.dumpTo(filePath, parallelOperationsExecutor);
+        InMemoryKeyColumnValueStore.dumpTo(storeName, rows, filePath, parallelOperationsExecutor);
+    }
+
+    /**
+     * Persists a snapshot of all stores to the configured snapshot directory, replacing the previous snapshot
+     * persisted by this manager and the snapshot this manager has been restored from.
+     *
+     * @return the directory of the new snapshot
+     */
+    public synchronized Path persistSnapshot() throws IOException {
+        Preconditions.checkState(snapshotDirectory != null, "No snapshot directory configured: %s", SNAPSHOT_DIRECTORY.getName());
+        Files.createDirectories(snapshotDirectory);
+        synchronized (SNAPSHOT_LOCKS.computeIfAbsent(snapshotDirectory.toAbsolutePath().normalize(), path -> new Object())) {
+            try (FileChannel lockChannel = FileChannel.open(snapshotDirectory.resolve(SNAPSHOT_LOCK_FILE),
+                     StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = lockChannel.lock()) {
+                return persistSnapshotLocked();
+            }
+        }
+    }
+
+    private Path persistSnapshotLocked() throws IOException {
+        long timestamp = System.currentTimeMillis();
+        while (Files.exists(snapshotPath(timestamp)) || Files.exists(tmpSnapshotPath(timestamp))) {
+            timestamp++;
+        }
+        Path tmpSnapshot = tmpSnapshotPath(timestamp);
+        Path snapshot = snapshotPath(timestamp);
+        long start = System.currentTimeMillis();
+        try {
+            makeSnapshot(tmpSnapshot.toFile(), ForkJoinPool.commonPool(), true);
+            Files.move(tmpSnapshot, snapshot, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            //the modifications have not been persisted, so make sure they will be by the next snapshot
+            mutationGate.markModified();
+            deleteRecursively(tmpSnapshot);
+            throw e;
+        }
+        log.info("Persisted snapshot of in-memory stores to {} in {} ms", snapshot, System.currentTimeMillis() - start);
+
+        //the new snapshot contains all stores of the restored snapshot since they are restored before it is made,
+        //snapshots of other managers sharing the snapshot directory are left alone
+        for (Path superseded : new Path[]{persistedSnapshot, restoredSnapshot}) {
+            if (superseded != null && !superseded.equals(snapshot)) {
+                deleteRecursively(superseded);
+            }
+        }
+        persistedSnapshot = snapshot;
+        restoredSnapshot = null;
+        return snapshot;
+    }
+
+    private void persistSnapshotIfModified() {
+        if (!mutationGate.isModified()) return;
+        try {
+            persistSnapshot();
+        } catch (Exception e) {
+            log.warn("Could not persist snapshot of in-memory stores to {}", snapshotDirectory, e);
+        }
+    }
+
+    private Path snapshotPath(long timestamp) {
+        return snapshotDirectory.resolve(String.format("%s%019d", SNAPSHOT_PREFIX, timestamp));
+    }
+
+    private Path tmpSnapshotPath(long timestamp) {
+        return snapshotDirectory.resolve(snapshotPath(timestamp).getFileName() + SNAPSHOT_TMP_SUFFIX);
+    }
+
+    private static boolean isSnapshot(Path path) {
+        return path.getFileName().toString().startsWith(SNAPSHOT_PREFIX) && path.toFile().isDirectory();
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        if (!Files.exists(path)) return;
+        try (Stream<Path> files = Files.walk(path)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * Registers the stores of the most recent complete snapshot in the snapshot directory to be restored when opened.
+     * Incomplete snapshots (which are left behind if the process terminated while writing one) are ignored.
+     */
+    private void findLatestSnapshot() {
+        if (!Files.isDirectory(snapshotDirectory)) return;
+        try (Stream<Path> snapshots = Files.list(snapshotDirectory)) {
+            Path latest = snapshots.filter(p -> isSnapshot(p) && !p.getFileName().toString().endsWith(SNAPSHOT_TMP_SUFFIX))
+                .max(Comparator.comparing(p -> p.getFileName().toString())).orElse(null);
+            if (latest == null) return;
+            try (Stream<Path> storePaths = Files.list(latest)) {
+                storePaths.filter(path -> path.toFile().isDirectory())
+                    .forEach(storePath -> pendingStores.add(storePath.getFileName().toString()));
+            }
+            restoredSnapshot = latest;
+            log.info("Restoring in-memory stores {} from snapshot {}", pendingStores, latest);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read snapshot directory " + snapshotDirectory, e);
+        }
+    }
+
+    private synchronized void restorePendingStore(String name) throws IOException {
+        if (!pendingStores.contains(name)) return;
+        stores.put(name, InMemoryKeyColumnValueStore.readFrom(restoredSnapshot.resolve(name), newStore(name), ForkJoinPool.commonPool()));
+        pendingStores.remove(name);
+    }
+
+    private void restorePendingStores() throws IOException {
+        for (String name : pendingStores) {
+            restorePendingStore(name);
+        }
     }
 
     public void restoreFromSnapshot(File sourceSnapshotDirectory, boolean rollbackIfFailed, ForkJoinPool parallelOperationsExecutor) throws IOException, BackendException {
@@ -168,6 +422,9 @@ public class InMemoryStoreManager implements KeyColumnValueStoreManager {
             //but we lose the ability to go back to old data if load failed
             clearStorage();
         }
+        //the explicitly restored snapshot replaces any snapshot which is still pending
+        pendingStores.clear();
+        mutationGate.markModified();
 
         ConcurrentHashMap<String, InMemoryKeyColumnValueStore> newStores = rollbackIfFailed ? new ConcurrentHashMap<>(stores.size()) : stores;
 
@@ -175,7 +432,7 @@ public class InMemoryStoreManager implements KeyColumnValueStoreManager {
         Files.list(root).filter(path -> path.toFile().isDirectory()).map(storePath -> parallelOperationsExecutor.submit(() ->
         {
             try {
-                newStores.put(storePath.getFileName().toString(), InMemoryKeyColumnValueStore.readFrom(storePath, storePath.getFileName().toString(), parallelOperationsExecutor));
+                newStores.put(storePath.getFileName().toString(), InMemoryKeyColumnValueStore.readFrom(storePath, newStore(storePath.getFileName().toString()), parallelOperationsExecutor));
             } catch (IOException ex) {
                 throw new RuntimeException(ex);
             }
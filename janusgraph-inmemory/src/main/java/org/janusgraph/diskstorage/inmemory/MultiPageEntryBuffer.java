@@ -378,6 +378,11 @@ public class MultiPageEntryBuffer implements SharedEntryBuffer {
         }
     }
 
+    @Override
+    public SharedEntryBuffer copy() {
+        return new MultiPageEntryBuffer(pages);
+    }
+
     @Override
     public void dumpTo(DataOutputStream out) throws IOException {
         //the dump format is: numPages, (pagedump)*
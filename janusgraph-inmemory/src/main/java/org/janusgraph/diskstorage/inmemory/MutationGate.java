@@ -0,0 +1,62 @@
+// Copyright 2020 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.inmemory;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Coordinates the mutations of in-memory stores with the capture of a snapshot across all of them:
+ * mutations run concurrently with each other, but a snapshot is only captured when no mutation is in progress.
+ * Also tracks whether the stores have been modified since the last persisted snapshot.
+ */
+final class MutationGate {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean modified = false;
+
+    void enterMutation() {
+        lock.readLock().lock();
+        modified = true;
+    }
+
+    void exitMutation() {
+        lock.readLock().unlock();
+    }
+
+    void markModified() {
+        modified = true;
+    }
+
+    boolean isModified() {
+        return modified;
+    }
+
+    /**
+     * Blocks all mutations while capturing a snapshot with the given supplier.
+     *
+     * @param resetModified whether the stores are considered unmodified once the snapshot has been captured
+     */
+    <T> T capture(Supplier<T> snapshot, boolean resetModified) {
+        lock.writeLock().lock();
+        try {
+            T result = snapshot.get();
+            if (resetModified) modified = false;
+            return result;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -46,4 +46,10 @@ public interface SharedEntryBuffer {
 
     void dumpTo(DataOutputStream out) throws IOException;
 
+    /**
+     * Returns a shallow copy of this buffer which can be mutated without affecting this buffer. Since pages are never
+     * modified once they are built, they are shared between both buffers instead of being copied.
+     */
+    SharedEntryBuffer copy();
+
 }
@@ -111,6 +111,12 @@ public class SinglePageEntryBuffer extends BufferPage implements SharedEntryBuff
         //do nothing - single buffer is not fragmented by construction
     }
 
+    @Override
+    public SharedEntryBuffer copy() {
+        //mutate() replaces the arrays rather than modifying them, so the copy can safely share them
+        return new SinglePageEntryBuffer(getOffsetIndex(), getRawData());
+    }
+
     @Override
     public void dumpTo(DataOutputStream out) throws IOException {
         //the dump format is: numPages, (pagedump)*
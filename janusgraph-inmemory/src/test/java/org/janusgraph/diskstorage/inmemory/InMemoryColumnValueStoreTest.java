@@ -28,6 +28,10 @@ import static org.janusgraph.diskstorage.inmemory.BufferPageTest.makeEntry;
 import static org.janusgraph.diskstorage.inmemory.BufferPageTest.makeStaticBuffer;
 
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.STORAGE_TRANSACTIONAL;
@@ -56,7 +60,10 @@ public class InMemoryColumnValueStoreTest
                 new InMemoryColumnValueStore(),
                 //same as above but page size = 3 to catch multi-page cases which otherwise
                 // go untested with default page size of 500 due to small sample data set
-                new TestPagedBufferColumnValueStore(3)
+                new TestPagedBufferColumnValueStore(3),
+                //same as above in copy-on-write mode
+                new InMemoryColumnValueStore(true),
+                new TestPagedBufferColumnValueStore(3, true)
         };
 
         //first, add some columns
@@ -503,6 +510,78 @@ public class InMemoryColumnValueStoreTest
         assertEquals(0, report.getAchievablePageReduction());
     }
 
+    @Test
+    public void testCopyOnWriteConcurrentReads() throws Exception
+    {
+        int batchSize = 7;
+        int numBatches = 300;
+
+        StoreTransaction txh = mock(StoreTransaction.class);
+        BaseTransactionConfig mockConfig = mock(BaseTransactionConfig.class);
+        when(txh.getConfiguration()).thenReturn(mockConfig);
+        when(mockConfig.getCustomOption(eq(STORAGE_TRANSACTIONAL))).thenReturn(true);
+
+        InMemoryColumnValueStore cvs = new TestPagedBufferColumnValueStore(10, true);
+        List<Entry> additions = generateEntries(0, batchSize * numBatches, "orig");
+        KeySliceQuery query = new KeySliceQuery(makeStaticBuffer("someRow"),
+                makeStaticBuffer(VERY_START), makeStaticBuffer(VERY_END));
+
+        AtomicBoolean done = new AtomicBoolean(false);
+        ExecutorService readers = Executors.newFixedThreadPool(4);
+        List<Future<Integer>> reads = new ArrayList<>();
+        for (int r = 0; r < 4; r++)
+        {
+            reads.add(readers.submit(() ->
+            {
+                int numReads = 0;
+                int lastSize = 0;
+                while (!done.get())
+                {
+                    //every snapshot has to contain complete batches in order and never go back in time
+                    EntryList result = cvs.getSlice(query, txh);
+                    assertEquals(0, result.size() % batchSize);
+                    assertTrue(result.size() >= lastSize);
+                    for (int i = 0; i < result.size(); i++)
+                    {
+                        assertEquals(additions.get(i), result.get(i));
+                    }
+                    lastSize = result.size();
+                    numReads++;
+                }
+                return numReads;
+            }));
+        }
+
+        try
+        {
+            for (int b = 0; b < numBatches; b++)
+            {
+                //batches are not aligned with the page size, so the last page is repeatedly rebuilt and split
+                cvs.mutate(additions.subList(b * batchSize, (b + 1) * batchSize), Collections.emptyList(), txh);
+            }
+        }
+        finally
+        {
+            done.set(true);
+            readers.shutdown();
+        }
+        for (Future<Integer> read : reads)
+        {
+            assertTrue(read.get() > 0);
+        }
+
+        assertTrue(cvs.numPages(txh) > 1);
+        EntryList result = cvs.getSlice(query, txh);
+        assertEquals(additions.size(), result.size());
+
+        //a previously returned slice is not affected by subsequent writes
+        List<StaticBuffer> deletions = additions.subList(0, batchSize).stream().map(Entry::getColumn).collect(Collectors.toList());
+        cvs.mutate(Collections.emptyList(), deletions, txh);
+        cvs.quickDefragment(txh);
+        assertEquals(additions.size(), result.size());
+        assertEquals(additions.size() - batchSize, cvs.getSlice(query, txh).size());
+    }
+
     public static List<Entry> generateEntries(int start, int end, String suffix)
     {
         List<Entry> entries = new ArrayList<>(end-start);
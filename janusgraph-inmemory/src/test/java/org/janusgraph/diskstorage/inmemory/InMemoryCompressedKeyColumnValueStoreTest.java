@@ -0,0 +1,32 @@
+// Copyright 2020 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.inmemory;
+
+import com.google.common.collect.ImmutableSet;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStoreManager;
+import org.janusgraph.diskstorage.keycolumnvalue.compression.CompressedKCVSManager;
+import org.janusgraph.diskstorage.util.DeflateCompression;
+
+/**
+ * Runs the store tests against an in-memory store whose values are compressed
+ */
+public class InMemoryCompressedKeyColumnValueStoreTest extends InMemoryKeyColumnValueStoreTest {
+
+    @Override
+    public KeyColumnValueStoreManager openStorageManager() {
+        return new CompressedKCVSManager(new InMemoryStoreManager(), new DeflateCompression(-1, 0, null),
+            ImmutableSet.of(storeName));
+    }
+}
@@ -24,16 +24,27 @@ import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
 import org.janusgraph.diskstorage.keycolumnvalue.KeySliceQuery;
 import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
 import org.janusgraph.diskstorage.util.StandardBaseTransactionConfig;
+import org.janusgraph.diskstorage.configuration.ModifiableConfiguration;
 import org.janusgraph.diskstorage.util.time.TimestampProviders;
+import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import static org.janusgraph.diskstorage.inmemory.BufferPageTest.makeEntry;
 import static org.janusgraph.diskstorage.inmemory.BufferPageTest.makeStaticBuffer;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class InMemoryStoreManagerTest
 {
@@ -139,4 +150,117 @@ public class InMemoryStoreManagerTest
 
         imsm.close();
     }
+
+    @Test
+    public void testPersistedSnapshotCycle(@TempDir Path snapshotDir) throws Exception
+    {
+        ModifiableConfiguration config = GraphDatabaseConfiguration.buildGraphConfiguration();
+        config.set(InMemoryStoreManager.SNAPSHOT_DIRECTORY, snapshotDir.toString());
+        KeySliceQuery query = new KeySliceQuery(makeStaticBuffer("row1"),
+                makeStaticBuffer(InMemoryColumnValueStoreTest.VERY_START),
+                makeStaticBuffer(InMemoryColumnValueStoreTest.VERY_END));
+        List<Entry> additions = InMemoryColumnValueStoreTest.generateEntries(0, 1200, "orig");
+
+        InMemoryStoreManager imsm = new InMemoryStoreManager(config);
+        assertFalse(imsm.exists());
+        StoreTransaction txh = imsm.beginTransaction(StandardBaseTransactionConfig.of(TimestampProviders.MICRO, imsm.getFeatures().getKeyConsistentTxConfig()));
+        imsm.openDatabase("testStore1").mutate(makeStaticBuffer("row1"), additions, Collections.emptyList(), txh);
+        imsm.openDatabase("testStore2").mutate(makeStaticBuffer("row1"), additions.subList(0, 2), Collections.emptyList(), txh);
+        //an incomplete snapshot left behind by a crash must be ignored
+        Files.createDirectories(snapshotDir.resolve(InMemoryStoreManager.SNAPSHOT_PREFIX + "9999999999999999999.tmp").resolve("testStore1"));
+        imsm.close();
+        assertEquals(1, listSnapshots(snapshotDir).size());
+
+        imsm = new InMemoryStoreManager(config);
+        assertTrue(imsm.exists());
+        txh = imsm.beginTransaction(StandardBaseTransactionConfig.of(TimestampProviders.MICRO, imsm.getFeatures().getKeyConsistentTxConfig()));
+        assertEquals(additions, imsm.openDatabase("testStore1").getSlice(query, txh));
+
+        //persisting a new snapshot includes stores which haven't been opened since they were restored and replaces the old one
+        imsm.openDatabase("testStore1").mutate(makeStaticBuffer("row1"), Collections.emptyList(),
+            Collections.singletonList(additions.get(0).getColumn()), txh);
+        Path snapshot = imsm.persistSnapshot();
+        assertEquals(Collections.singletonList(snapshot), listSnapshots(snapshotDir));
+        //nothing has been modified since the last snapshot, so closing does not write another one
+        imsm.close();
+        assertEquals(Collections.singletonList(snapshot), listSnapshots(snapshotDir));
+
+        imsm = new InMemoryStoreManager(config);
+        txh = imsm.beginTransaction(StandardBaseTransactionConfig.of(TimestampProviders.MICRO, imsm.getFeatures().getKeyConsistentTxConfig()));
+        assertEquals(additions.subList(1, additions.size()), imsm.openDatabase("testStore1").getSlice(query, txh));
+        assertEquals(additions.subList(0, 2), imsm.openDatabase("testStore2").getSlice(query, txh));
+        imsm.close();
+    }
+
+    @Test
+    public void testSnapshotCapturesWholeTransactions(@TempDir Path snapshotDir) throws Exception
+    {
+        final int commits = 2000;
+        InMemoryStoreManager imsm = new InMemoryStoreManager();
+        imsm.openDatabase("edgestore");
+        imsm.openDatabase("graphindex");
+        StoreTransaction txh = imsm.beginTransaction(StandardBaseTransactionConfig.of(TimestampProviders.MICRO, imsm.getFeatures().getKeyConsistentTxConfig()));
+
+        //every transaction writes both directions of an edge to the edgestore and an entry to the graphindex
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+            try {
+                for (int i = 0; i < commits; i++) {
+                    Map<StaticBuffer, KCVMutation> edgeMut = new HashMap<>();
+                    edgeMut.put(makeStaticBuffer("out" + i), new KCVMutation(Collections.singletonList(makeEntry("edge", "in" + i)), Collections.emptyList()));
+                    edgeMut.put(makeStaticBuffer("in" + i), new KCVMutation(Collections.singletonList(makeEntry("edge", "out" + i)), Collections.emptyList()));
+                    Map<StaticBuffer, KCVMutation> indexMut = new HashMap<>();
+                    indexMut.put(makeStaticBuffer("index" + i), new KCVMutation(Collections.singletonList(makeEntry("edge", "out" + i)), Collections.emptyList()));
+                    Map<String, Map<StaticBuffer, KCVMutation>> allMut = new HashMap<>();
+                    allMut.put("edgestore", edgeMut);
+                    allMut.put("graphindex", indexMut);
+                    imsm.mutateMany(allMut, txh);
+                }
+            } catch (Throwable t) {
+                failure.set(t);
+            }
+        });
+        writer.start();
+        List<File> snapshots = new ArrayList<>();
+        while (writer.isAlive()) {
+            File snapshot = snapshotDir.resolve("snapshot" + snapshots.size()).toFile();
+            imsm.makeSnapshot(snapshot, ForkJoinPool.commonPool());
+            snapshots.add(snapshot);
+        }
+        writer.join();
+        assertNull(failure.get());
+        imsm.close();
+
+        for (File snapshot : snapshots) {
+            InMemoryStoreManager restored = new InMemoryStoreManager();
+            restored.restoreFromSnapshot(snapshot, false, ForkJoinPool.commonPool());
+            StoreTransaction restoredTxh = restored.beginTransaction(StandardBaseTransactionConfig.of(TimestampProviders.MICRO, restored.getFeatures().getKeyConsistentTxConfig()));
+            KeyColumnValueStore edgestore = restored.openDatabase("edgestore");
+            KeyColumnValueStore graphindex = restored.openDatabase("graphindex");
+            for (int i = 0; i < commits; i++) {
+                boolean out = !edgestore.getSlice(rowQuery("out" + i), restoredTxh).isEmpty();
+                boolean in = !edgestore.getSlice(rowQuery("in" + i), restoredTxh).isEmpty();
+                boolean index = !graphindex.getSlice(rowQuery("index" + i), restoredTxh).isEmpty();
+                assertEquals(out, in, "Snapshot " + snapshot + " contains only one direction of edge " + i);
+                assertEquals(out, index, "Snapshot " + snapshot + " contains only part of transaction " + i);
+            }
+            restored.close();
+        }
+    }
+
+    private static KeySliceQuery rowQuery(String row)
+    {
+        return new KeySliceQuery(makeStaticBuffer(row),
+                makeStaticBuffer(InMemoryColumnValueStoreTest.VERY_START),
+                makeStaticBuffer(InMemoryColumnValueStoreTest.VERY_END));
+    }
+
+    private static List<Path> listSnapshots(Path snapshotDir) throws Exception
+    {
+        try (Stream<Path> snapshots = Files.list(snapshotDir))
+        {
+            return snapshots.filter(p -> p.getFileName().toString().startsWith(InMemoryStoreManager.SNAPSHOT_PREFIX)
+                && !p.getFileName().toString().endsWith(".tmp")).collect(Collectors.toList());
+        }
+    }
 }
@@ -25,7 +25,12 @@ class TestPagedBufferColumnValueStore extends InMemoryColumnValueStore
 
     public TestPagedBufferColumnValueStore(int maxPageSize)
     {
-        super();
+        this(maxPageSize, false);
+    }
+
+    public TestPagedBufferColumnValueStore(int maxPageSize, boolean copyOnWrite)
+    {
+        super(copyOnWrite);
         this.maxPageSize = maxPageSize;
     }
 
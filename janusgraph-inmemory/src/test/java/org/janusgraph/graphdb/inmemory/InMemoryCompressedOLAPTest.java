@@ -0,0 +1,41 @@
+// Copyright 2020 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.inmemory;
+
+import org.janusgraph.diskstorage.configuration.ModifiableConfiguration;
+import org.janusgraph.diskstorage.configuration.WriteConfiguration;
+import org.janusgraph.diskstorage.util.time.TimestampProviders;
+import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
+
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.COMPRESSION_ALGORITHM;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.COMPRESSION_DEFLATE;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.COMPRESSION_MIN_SIZE;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.TIMESTAMP_PROVIDER;
+
+/**
+ * Runs the OLAP tests against a graph whose edgestore values are compressed
+ */
+public class InMemoryCompressedOLAPTest extends InMemoryOLAPTest {
+
+    @Override
+    public WriteConfiguration getConfiguration() {
+        ModifiableConfiguration config = GraphDatabaseConfiguration.buildGraphConfiguration();
+        config.set(GraphDatabaseConfiguration.STORAGE_BACKEND,"inmemory");
+        config.set(TIMESTAMP_PROVIDER, TimestampProviders.NANO);
+        config.set(COMPRESSION_ALGORITHM, COMPRESSION_DEFLATE);
+        config.set(COMPRESSION_MIN_SIZE, 0);
+        return config.getConfiguration();
+    }
+}
@@ -18,10 +18,18 @@ import org.janusgraph.core.JanusGraphFactory;
 import org.janusgraph.core.JanusGraphTransaction;
 import org.janusgraph.diskstorage.configuration.ConfigOption;
 import org.janusgraph.diskstorage.configuration.ModifiableConfiguration;
+import org.janusgraph.diskstorage.inmemory.InMemoryStoreManager;
 import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
 import org.janusgraph.graphdb.database.StandardJanusGraph;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.stream.Stream;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -40,7 +48,7 @@ public class InMemoryConfigurationTest {
 
     @AfterEach
     public void shutdown() {
-        graph.close();
+        if (graph != null) graph.close();
     }
 
 
@@ -67,5 +75,34 @@ public class InMemoryConfigurationTest {
 
     }
 
+    @Test
+    public void testSnapshotRestoredOnReopen(@TempDir Path snapshotDir) throws Exception {
+        ModifiableConfiguration config = GraphDatabaseConfiguration.buildGraphConfiguration();
+        config.set(GraphDatabaseConfiguration.STORAGE_BACKEND,"inmemory");
+        config.set(InMemoryStoreManager.SNAPSHOT_DIRECTORY, snapshotDir.toString());
+        config.set(InMemoryStoreManager.SNAPSHOT_INTERVAL, Duration.ofMillis(10));
+
+        graph = (StandardJanusGraph) JanusGraphFactory.open(config);
+        graph.traversal().addV("person").property("name", "marko").iterate();
+        graph.tx().commit();
+        //let periodic snapshots run before the graph is closed
+        Thread.sleep(200);
+        graph.close();
+
+        graph = (StandardJanusGraph) JanusGraphFactory.open(config);
+        assertEquals(1L, (long) graph.traversal().V().has("name", "marko").count().next());
+        graph.traversal().addV("person").property("name", "vadas").iterate();
+        graph.tx().commit();
+        graph.close();
+
+        graph = (StandardJanusGraph) JanusGraphFactory.open(config);
+        assertEquals(2L, (long) graph.traversal().V().hasLabel("person").count().next());
+        graph.close();
+
+        //only the snapshot of the last graph instance is retained
+        try (Stream<Path> snapshots = Files.list(snapshotDir)) {
+            assertEquals(1, snapshots.filter(p -> p.getFileName().toString().startsWith("snapshot-")).count());
+        }
+    }
 
 }
@@ -19,15 +19,18 @@ import static org.janusgraph.diskstorage.locking.consistentkey.ConsistentKeyLock
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.lang.reflect.Method;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalUnit;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -38,6 +41,7 @@ import org.janusgraph.diskstorage.util.time.TimestampProvider;
 import org.janusgraph.diskstorage.util.*;
 import org.janusgraph.diskstorage.util.KeyColumn;
 
+import org.easymock.Capture;
 import org.easymock.EasyMock;
 import org.easymock.IMocksControl;
 import org.junit.jupiter.api.AfterEach;
@@ -46,11 +50,16 @@ import org.junit.jupiter.api.Test;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import org.janusgraph.diskstorage.*;
 import org.janusgraph.diskstorage.configuration.Configuration;
+import org.janusgraph.diskstorage.keycolumnvalue.KCVMutation;
 import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStoreManager;
 import org.janusgraph.diskstorage.keycolumnvalue.KeySliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.StoreFeatures;
 import org.janusgraph.diskstorage.keycolumnvalue.StoreManager;
 import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
 
@@ -1006,6 +1015,78 @@ public class ConsistentKeyLockerTest {
         assertNotNull(ple);
     }
 
+    /**
+     * With batched writes enabled, checkLocks() should write the pending
+     * claims of all locks in a single mutateMany() call, sleep once and read
+     * the lock columns of all locks in a single multi-key slice.
+     *
+     * @throws org.janusgraph.diskstorage.BackendException shouldn't happen
+     * @throws InterruptedException shouldn't happen
+     */
+    @Test
+    public void testCheckLocksWritesAndChecksBatchedClaims() throws BackendException, InterruptedException {
+        final IMocksControl batchCtrl = EasyMock.createControl();
+        final KeyColumnValueStoreManager batchManager = batchCtrl.createMock(KeyColumnValueStoreManager.class);
+        final StoreFeatures features = batchCtrl.createMock(StoreFeatures.class);
+        expect(batchManager.beginTransaction(anyObject())).andReturn(defaultTx).anyTimes();
+        expect(batchManager.getFeatures()).andReturn(features).anyTimes();
+        expect(features.hasMultiQuery()).andReturn(true).anyTimes();
+        final Capture<Map<String, Map<StaticBuffer, KCVMutation>>> mutations = newCapture();
+        batchManager.mutateMany(capture(mutations), eq(defaultTx));
+        expectLastCall().once();
+        batchCtrl.replay();
+
+        final ConsistentKeyLocker batchLocker = new ConsistentKeyLocker.Builder(store, batchManager)
+            .times(times)
+            .mediator(mediator)
+            .internalState(lockState)
+            .lockExpire(defaultExpireNS)
+            .lockWait(defaultWaitNS)
+            .rid(defaultLockRid)
+            .batchWrites(true)
+            .build();
+
+        // Fake two locks whose claims have not been written yet
+        final Map<KeyColumn, ConsistentKeyLockStatus> locks = new LinkedHashMap<>();
+        locks.put(defaultLockID, new ConsistentKeyLockStatus(currentTimeNS.plus(defaultExpireNS)));
+        locks.put(otherLockID, new ConsistentKeyLockStatus(currentTimeNS.plus(defaultExpireNS)));
+        expect(lockState.getLocksForTx(defaultTx)).andReturn(locks);
+
+        // Both claims are written with the same timestamp
+        currentTimeNS = currentTimeNS.plusNanos(1);
+        final Instant writeNS = currentTimeNS;
+        expect(times.getTime()).andReturn(writeNS);
+        expect(store.getName()).andReturn("lockstore");
+        currentTimeNS = currentTimeNS.plusNanos(1);
+        expect(times.getTime()).andReturn(currentTimeNS);
+        expect(mediator.lock(defaultLockID, defaultTx, writeNS.plus(defaultExpireNS))).andReturn(true);
+        expect(mediator.lock(otherLockID, defaultTx, writeNS.plus(defaultExpireNS))).andReturn(true);
+
+        // A single sleep and a single slice for both locks
+        currentTimeNS = currentTimeNS.plusSeconds(10);
+        expect(times.sleepPast(writeNS.plus(defaultWaitNS))).andReturn(currentTimeNS);
+        final StaticBuffer lockCol = codec.toLockCol(writeNS, defaultLockRid, times);
+        final EntryList claims = StaticArrayEntryList.of(StaticArrayEntry.of(lockCol, defaultLockVal));
+        expect(store.getSlice(eq(Arrays.asList(defaultLockKey, otherLockKey)),
+            eq(new SliceQuery(LOCK_COL_START, LOCK_COL_END)), eq(defaultTx)))
+            .andReturn(ImmutableMap.of(defaultLockKey, claims, otherLockKey, claims));
+        ctrl.replay();
+
+        batchLocker.checkLocks(defaultTx);
+
+        batchCtrl.verify();
+        final Map<StaticBuffer, KCVMutation> written = mutations.getValue().get("lockstore");
+        assertEquals(2, written.size());
+        for (StaticBuffer lockKey : Arrays.asList(defaultLockKey, otherLockKey)) {
+            assertEquals(Collections.singletonList(lockCol), Lists.transform(written.get(lockKey).getAdditions(), Entry::getColumn));
+            assertFalse(written.get(lockKey).hasDeletions());
+        }
+        for (ConsistentKeyLockStatus ls : locks.values()) {
+            assertEquals(writeNS, ls.getWriteTimestamp());
+            assertTrue(ls.isChecked());
+        }
+    }
+
     /*
      * Helpers
      */
@@ -0,0 +1,97 @@
+// Copyright 2020 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.util;
+
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DeflateCompressionTest {
+
+    private static final byte[] DICTIONARY = "janusgraph-property-value".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void testRepetitiveValueIsDeflated() {
+        DeflateCompression compression = new DeflateCompression(-1, 16, null);
+        StaticBuffer value = repeat("janusgraph-", 50);
+        StaticBuffer compressed = compression.compress(value);
+        assertEquals(DeflateCompression.DEFLATED, compressed.getByte(0));
+        assertTrue(compressed.length() < value.length());
+        assertEquals(value, compression.decompress(compressed));
+    }
+
+    @Test
+    public void testShortValueIsStoredUncompressed() {
+        DeflateCompression compression = new DeflateCompression(-1, 16, null);
+        StaticBuffer value = repeat("a", 8);
+        StaticBuffer compressed = compression.compress(value);
+        assertEquals(DeflateCompression.UNCOMPRESSED, compressed.getByte(0));
+        assertEquals(value.length() + 1, compressed.length());
+        assertEquals(value, compression.decompress(compressed));
+    }
+
+    @Test
+    public void testIncompressibleValueIsStoredUncompressed() {
+        DeflateCompression compression = new DeflateCompression(9, 0, null);
+        byte[] random = new byte[256];
+        new Random(42).nextBytes(random);
+        StaticBuffer value = new StaticArrayBuffer(random);
+        StaticBuffer compressed = compression.compress(value);
+        assertEquals(DeflateCompression.UNCOMPRESSED, compressed.getByte(0));
+        assertEquals(value, compression.decompress(compressed));
+    }
+
+    @Test
+    public void testEmptyValue() {
+        DeflateCompression compression = new DeflateCompression(-1, 0, null);
+        StaticBuffer compressed = compression.compress(BufferUtil.emptyBuffer());
+        assertEquals(1, compressed.length());
+        assertEquals(0, compression.decompress(compressed).length());
+    }
+
+    @Test
+    public void testDictionaryImprovesShortValues() {
+        DeflateCompression plain = new DeflateCompression(-1, 0, null);
+        DeflateCompression primed = new DeflateCompression(-1, 0, DICTIONARY);
+        StaticBuffer value = repeat("janusgraph-property-value", 1);
+        StaticBuffer compressed = primed.compress(value);
+        assertEquals(DeflateCompression.DEFLATED, compressed.getByte(0));
+        assertTrue(compressed.length() < plain.compress(value).length());
+        assertEquals(value, primed.decompress(compressed));
+        assertThrows(IllegalStateException.class, () -> plain.decompress(compressed));
+    }
+
+    @Test
+    public void testValueInsideLargerBuffer() {
+        DeflateCompression compression = new DeflateCompression(-1, 0, null);
+        StaticBuffer value = repeat("graph", 40);
+        StaticBuffer compressed = compression.compress(value);
+        byte[] padded = new byte[compressed.length() + 6];
+        System.arraycopy(compressed.as(StaticBuffer.ARRAY_FACTORY), 0, padded, 3, compressed.length());
+        assertEquals(value, compression.decompress(new StaticArrayBuffer(padded, 3, 3 + compressed.length())));
+    }
+
+    private static StaticBuffer repeat(String s, int times) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < times; i++) sb.append(s);
+        return new StaticArrayBuffer(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,57 @@
+// Copyright 2020 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.util;
+
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class EntryArenaTest {
+
+    @Test
+    public void testEntriesAreCopied() {
+        EntryArena arena = new EntryArena(64);
+        WriteByteBuffer out = new WriteByteBuffer();
+        List<Entry> entries = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            out.clear();
+            out.putInt(i).putLong(-i);
+            entries.add(arena.copyOf(out.getStaticBuffer(), 4));
+        }
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            assertEquals(12, entry.length());
+            assertEquals(i, entry.getColumn().getInt(0));
+            assertEquals(-i, entry.getValue().getLong(0));
+        }
+    }
+
+    @Test
+    public void testLargeEntry() {
+        EntryArena arena = new EntryArena(64);
+        WriteByteBuffer out = new WriteByteBuffer();
+        for (int i = 0; i < 10; i++) out.putLong(i);
+        StaticBuffer data = out.getStaticBuffer();
+        Entry entry = arena.copyOf(data, 8);
+        assertEquals(data, entry);
+        assertEquals(0, entry.getColumn().getLong(0));
+        assertEquals(9, entry.getValue().getLong(64));
+    }
+}
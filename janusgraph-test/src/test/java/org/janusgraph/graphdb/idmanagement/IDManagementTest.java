@@ -253,6 +253,35 @@ public class IDManagementTest {
         }
     }
 
+    @Test
+    public void testConsecutivePropertyKeyRange() {
+        for (int i=0;i<1000;i++) {
+            //Keep the serialized ids of the three consecutive keys within the same last byte
+            long count = (random.nextInt(10000000) + 1) * 64L + random.nextInt(62);
+            StaticBuffer[] first = getTypeRange(IDManager.getSchemaId(IDManager.VertexIDType.UserPropertyKey, count), IDHandler.DirectionID.PROPERTY_DIR);
+            StaticBuffer[] second = getTypeRange(IDManager.getSchemaId(IDManager.VertexIDType.UserPropertyKey, count + 1), IDHandler.DirectionID.PROPERTY_DIR);
+            StaticBuffer[] third = getTypeRange(IDManager.getSchemaId(IDManager.VertexIDType.UserPropertyKey, count + 2), IDHandler.DirectionID.PROPERTY_DIR);
+            StaticBuffer[] label = getTypeRange(IDManager.getSchemaId(IDManager.VertexIDType.UserEdgeLabel, count + 1), IDHandler.DirectionID.EDGE_OUT_DIR);
+
+            assertTrue(IDHandler.isConsecutivePropertyKeyRange(first[0], first[1], second[0], second[1]));
+            assertTrue(IDHandler.isConsecutivePropertyKeyRange(second[0], second[1], third[0], third[1]));
+            assertFalse(IDHandler.isConsecutivePropertyKeyRange(second[0], second[1], first[0], first[1]));
+            assertFalse(IDHandler.isConsecutivePropertyKeyRange(first[0], first[1], third[0], third[1]));
+            assertFalse(IDHandler.isConsecutivePropertyKeyRange(first[0], first[1], label[0], label[1]));
+            // Partial ranges of a type never qualify
+            assertFalse(IDHandler.isConsecutivePropertyKeyRange(first[0], second[0], second[0], second[1]));
+        }
+        //Consecutive ids which differ in more than the last byte can have other relation types serialized in between
+        StaticBuffer[] first = getTypeRange(IDManager.getSchemaId(IDManager.VertexIDType.UserPropertyKey, 127), IDHandler.DirectionID.PROPERTY_DIR);
+        StaticBuffer[] second = getTypeRange(IDManager.getSchemaId(IDManager.VertexIDType.UserPropertyKey, 128), IDHandler.DirectionID.PROPERTY_DIR);
+        assertFalse(IDHandler.isConsecutivePropertyKeyRange(first[0], first[1], second[0], second[1]));
+    }
+
+    private static StaticBuffer[] getTypeRange(long typeId, IDHandler.DirectionID dir) {
+        StaticBuffer start = IDHandler.getRelationType(typeId, dir, false);
+        return new StaticBuffer[]{start, BufferUtil.nextBiggerBuffer(start)};
+    }
+
     @Test
     public void testUserVertexBitWidth() {
         for (IDManager.VertexIDType type : IDManager.VertexIDType.values()) {
@@ -0,0 +1,79 @@
+// Copyright 2020 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.olap.computer;
+
+import org.janusgraph.core.JanusGraphException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FulgoraWorkerPoolTest {
+
+    @Test
+    public void testProcessChunks() {
+        final List<Integer> items = IntStream.range(0, 10000).boxed().collect(Collectors.toList());
+        final Set<Integer> processed = ConcurrentHashMap.newKeySet();
+        final AtomicInteger numChunks = new AtomicInteger();
+        try (FulgoraWorkerPool workers = new FulgoraWorkerPool(4)) {
+            workers.processChunks(items, chunk -> {
+                numChunks.incrementAndGet();
+                processed.addAll(chunk);
+            });
+            workers.processChunks(Collections.<Integer>emptyList(), chunk -> numChunks.addAndGet(1000));
+        }
+        assertEquals(items.size(), processed.size());
+        assertTrue(numChunks.get() > 1 && numChunks.get() <= 32, "Unexpected number of chunks: " + numChunks.get());
+    }
+
+    @Test
+    public void testProcessBatches() {
+        final List<Integer> items = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+        final List<Integer> processed = Collections.synchronizedList(new ArrayList<>());
+        final AtomicInteger numBatches = new AtomicInteger();
+        try (FulgoraWorkerPool workers = new FulgoraWorkerPool(4)) {
+            workers.processBatches(items.iterator(), item -> 2, 10, batch -> {
+                assertTrue(batch.size() <= 5);
+                numBatches.incrementAndGet();
+                processed.addAll(batch);
+            });
+        }
+        assertEquals(items.size(), processed.size());
+        assertEquals(200, numBatches.get());
+    }
+
+    @Test
+    public void testFailurePropagates() {
+        try (FulgoraWorkerPool workers = new FulgoraWorkerPool(2)) {
+            assertThrows(JanusGraphException.class, () -> workers.processChunks(Collections.singletonList(1), chunk -> {
+                throw new IllegalStateException();
+            }));
+            assertThrows(JanusGraphException.class, () -> workers.processBatches(Collections.singletonList(1).iterator(),
+                item -> 1, 1, batch -> {
+                    throw new IllegalStateException();
+                }));
+        }
+    }
+}
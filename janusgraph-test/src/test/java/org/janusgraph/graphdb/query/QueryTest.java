@@ -24,8 +24,10 @@ import org.janusgraph.core.schema.JanusGraphManagement;
 import org.janusgraph.diskstorage.configuration.ModifiableConfiguration;
 import org.janusgraph.diskstorage.inmemory.InMemoryStoreManager;
 import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
+import org.janusgraph.graphdb.database.StandardJanusGraph;
 import org.janusgraph.graphdb.internal.Order;
 import org.janusgraph.graphdb.internal.OrderList;
+import org.janusgraph.graphdb.query.index.CachingIndexSelectionStrategy;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -33,6 +35,10 @@ import org.junit.jupiter.api.Test;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.janusgraph.testutil.JanusGraphAssert.assertCount;
 import static org.junit.jupiter.api.Assertions.*;
@@ -99,6 +105,48 @@ public class QueryTest {
             .profile().next().getMetrics(0).getAnnotation("query"));
     }
 
+    @Test
+    public void testIndexSelectionCache() {
+        graph.close();
+        ModifiableConfiguration config = GraphDatabaseConfiguration.buildGraphConfiguration();
+        config.set(GraphDatabaseConfiguration.STORAGE_BACKEND, InMemoryStoreManager.class.getCanonicalName());
+        config.set(GraphDatabaseConfiguration.INDEX_SELECT_CACHE_SIZE, 10);
+        graph = JanusGraphFactory.open(config);
+
+        JanusGraphManagement mgmt = graph.openManagement();
+        PropertyKey prop1Key = mgmt.makePropertyKey("prop1").dataType(String.class).make();
+        PropertyKey prop2Key = mgmt.makePropertyKey("prop2").dataType(String.class).make();
+        mgmt.buildIndex("prop1_idx", Vertex.class).addKey(prop1Key).buildCompositeIndex();
+        mgmt.buildIndex("props_idx", Vertex.class).addKey(prop1Key).addKey(prop2Key).buildCompositeIndex();
+        mgmt.commit();
+
+        tx = graph.newTransaction();
+        for (int i = 0; i < 10; i++) {
+            tx.addVertex("prop1", "prop1val" + i % 2, "prop2", "prop2val" + i % 5);
+        }
+        tx.commit();
+
+        CachingIndexSelectionStrategy selector = (CachingIndexSelectionStrategy) ((StandardJanusGraph) graph).getIndexSelector();
+        assertCount(5, graph.traversal().V().has("prop1", "prop1val0"));
+        assertCount(5, graph.traversal().V().has("prop1", "prop1val1"));
+        assertEquals(1, selector.size());
+
+        // Queries only differing in their values reuse the selected indexes
+        assertCount(1, graph.traversal().V().has("prop1", "prop1val0").has("prop2", "prop2val0"));
+        assertCount(1, graph.traversal().V().has("prop1", "prop1val1").has("prop2", "prop2val0"));
+        assertCount(1, graph.traversal().V().has("prop1", "prop1val1").has("prop2", "prop2val2"));
+        assertEquals(2, selector.size());
+        assertCount(2, graph.traversal().V().has("prop2", "prop2val2"));
+        assertEquals(3, selector.size());
+
+        // Schema changes invalidate the cached selections
+        mgmt = graph.openManagement();
+        mgmt.buildIndex("prop2_idx", Vertex.class).addKey(mgmt.getPropertyKey("prop2")).buildCompositeIndex();
+        mgmt.commit();
+        assertEquals(0, selector.size());
+        assertCount(1, graph.traversal().V().has("prop1", "prop1val0").has("prop2", "prop2val0"));
+    }
+
     @Test
     public void testMultipleKeysQuery() {
         tx.makePropertyKey("name").dataType(String.class).make();
@@ -222,6 +270,31 @@ public class QueryTest {
         assertEquals(1, res.size());
     }
 
+    @Test
+    public void testParallelIntersectingRetrievals() {
+        final List<QueryUtil.IndexCall<Integer>> retrievals = Arrays.asList(
+            limit -> IntStream.range(0, 100).limit(limit).boxed().collect(Collectors.toList()),
+            limit -> IntStream.range(50, 150).limit(limit).boxed().collect(Collectors.toList()),
+            limit -> IntStream.range(0, 200).filter(i -> i % 2 == 0).limit(limit).boxed().collect(Collectors.toList()));
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final List<Integer> expected = QueryUtil.processIntersectingRetrievals(retrievals, Query.NO_LIMIT);
+            assertEquals(25, expected.size());
+            assertEquals(expected, QueryUtil.processIntersectingRetrievals(retrievals, Query.NO_LIMIT, executor));
+            assertEquals(QueryUtil.processIntersectingRetrievals(retrievals, 5),
+                QueryUtil.processIntersectingRetrievals(retrievals, 5, executor));
+
+            final List<QueryUtil.IndexCall<Integer>> failing = Arrays.asList(
+                limit -> Collections.singletonList(1),
+                limit -> {
+                    throw new IllegalStateException("index failure");
+                });
+            assertThrows(JanusGraphException.class, () -> QueryUtil.processIntersectingRetrievals(failing, Query.NO_LIMIT, executor));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     @Test
     public void testFuzzyMatchWithoutIndex() {
         JanusGraphManagement mgmt = graph.openManagement();
@@ -14,14 +14,28 @@
 
 package org.janusgraph.graphdb.serializer;
 
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
 import org.janusgraph.StorageSetup;
+import org.janusgraph.core.Cardinality;
 import org.janusgraph.core.Multiplicity;
 import org.janusgraph.core.JanusGraphEdge;
 import org.janusgraph.core.JanusGraphVertex;
 import org.janusgraph.core.schema.JanusGraphManagement;
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.graphdb.database.EdgeSerializer;
 import org.janusgraph.graphdb.database.StandardJanusGraph;
+import org.janusgraph.graphdb.internal.InternalRelation;
+import org.janusgraph.graphdb.relations.RelationCache;
+import org.janusgraph.graphdb.transaction.StandardJanusGraphTx;
 import org.junit.jupiter.api.Test;
 
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 /**
  * @author Matthias Broecheler (me@matthiasb.com)
  */
@@ -46,4 +60,42 @@ public class EdgeSerializerTest {
 
     }
 
+    @Test
+    public void testLazyPropertyValueDecoding() {
+        StandardJanusGraph graph = (StandardJanusGraph) StorageSetup.getInMemoryGraph();
+        JanusGraphManagement management = graph.openManagement();
+        management.makePropertyKey("single").dataType(String.class).cardinality(Cardinality.SINGLE).make();
+        management.makePropertyKey("set").dataType(String.class).cardinality(Cardinality.SET).make();
+        management.makePropertyKey("list").dataType(Object.class).cardinality(Cardinality.LIST).make();
+        management.commit();
+
+        JanusGraphVertex v = graph.addVertex();
+        v.property("single", "one");
+        v.property(VertexProperty.Cardinality.set, "set", "two");
+        v.property(VertexProperty.Cardinality.list, "list", 3L);
+        graph.tx().commit();
+
+        StandardJanusGraphTx tx = (StandardJanusGraphTx) graph.newTransaction();
+        EdgeSerializer serializer = tx.getEdgeSerializer();
+        Map<String, Boolean> decodedEagerly = new HashMap<>();
+        tx.getVertex(v.longId()).properties().forEachRemaining(p -> {
+            InternalRelation property = (InternalRelation) p;
+            Entry entry = serializer.writeRelation(property, 0, tx);
+            RelationCache relation = serializer.readRelation(entry, true, tx);
+            decodedEagerly.put(p.key(), relation.isValueDecoded());
+            assertEquals(property.longId(), relation.relationId);
+            assertEquals(p.value(), relation.getValue());
+            assertTrue(relation.isValueDecoded());
+            //A full parse replaces the header-only cache and still decodes the same value
+            assertEquals(p.value(), serializer.readRelation(entry, false, tx).getValue());
+        });
+        assertEquals(3, decodedEagerly.size());
+        //The value of SINGLE properties precedes the relation id and is therefore always decoded
+        assertTrue(decodedEagerly.get("single"));
+        assertFalse(decodedEagerly.get("set"));
+        assertFalse(decodedEagerly.get("list"));
+        tx.rollback();
+        graph.close();
+    }
+
 }
@@ -19,17 +19,21 @@ import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.process.traversal.step.branch.*;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.RangeGlobalStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.filter.TraversalFilterStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.OrderGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
 import org.janusgraph.diskstorage.configuration.ModifiableConfiguration;
 import org.janusgraph.graphdb.JanusGraphBaseTest;
 import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
+import org.janusgraph.graphdb.query.Query;
 import org.janusgraph.graphdb.query.profile.QueryProfiler;
 import org.janusgraph.graphdb.tinkerpop.optimize.step.JanusGraphPropertiesStep;
 import org.janusgraph.graphdb.tinkerpop.optimize.step.JanusGraphStep;
 import org.janusgraph.graphdb.tinkerpop.optimize.step.JanusGraphVertexStep;
 import org.junit.jupiter.api.Test;
 
+import java.util.Collections;
 import java.util.Map;
 
 import static org.apache.tinkerpop.gremlin.process.traversal.Order.asc;
@@ -116,6 +120,42 @@ public class JanusGraphLocalQueryOptimizerStrategyTest extends OptimizerStrategy
         Traversal t = g.V().has("id", sid).outE("knows").has("weight", P.between(1, 3)).inV().has("weight", P.between(1, 3)).profile("~metrics");
         assertNumStep(superV * (numV / 5 * 2), 2, (GraphTraversal) t, JanusGraphStep.class, JanusGraphVertexStep.class);
         assertFalse(queryProfilerAnnotationIsPresent(t, QueryProfiler.MULTIPREFETCH_ANNOTATION));
+        t = g.V().has("weight", 1).valueMap("id").profile("~metrics");
+        assertCount(numV / 5, t);
+        assertFalse(queryProfilerAnnotationIsPresent(t, QueryProfiler.MULTIPREFETCH_ANNOTATION));
+    }
+
+    @Test
+    public void testVertexCentricIndexOrderWithLimit() {
+        makeSampleGraph();
+
+        // The order and the upper bound of the range are pushed down into the vertex step since they are supported by
+        // the vertex-centric index. Both steps are retained to order and limit the edges across all start vertices.
+        GraphTraversal<?, ?> t = g.V().has("id", sid).outE("knows").order().by("weight", desc).limit(10);
+        assertNumStep(10, 3, t, JanusGraphVertexStep.class, OrderGlobalStep.class, RangeGlobalStep.class);
+        assertEquals(10, getVertexStep(t).getHighLimit());
+        assertEquals(Collections.nCopies(10, 4), g.V().has("id", sid).outE("knows").order().by("weight", desc).limit(10).values("weight").toList());
+        assertEquals(Collections.nCopies(10, 0), g.V().has("id", sid).outE("knows").order().by("weight", asc).limit(10).values("weight").toList());
+
+        t = g.V().has("id", sid).outE("knows").has("weight", P.lt(4)).order().by("weight", desc).range(5, 15);
+        assertNumStep(10, 3, t, JanusGraphVertexStep.class, OrderGlobalStep.class, RangeGlobalStep.class);
+        assertEquals(15, getVertexStep(t).getHighLimit());
+        assertEquals(Collections.nCopies(10, 3), g.V().has("id", sid).outE("knows").has("weight", P.lt(4)).order().by("weight", desc).range(5, 15).values("weight").toList());
+
+        // Orders which are not supported by a vertex-centric index of every edge label are not pushed down
+        t = g.V().has("id", sid).outE().order().by("weight", desc).limit(10);
+        assertNumStep(10, 3, t, JanusGraphVertexStep.class, OrderGlobalStep.class, RangeGlobalStep.class);
+        assertEquals(Query.NO_LIMIT, getVertexStep(t).getHighLimit());
+        t = g.V().has("id", sid).inE("knows").order().by("weight", desc).limit(10);
+        assertNumStep(0, 3, t, JanusGraphVertexStep.class, OrderGlobalStep.class, RangeGlobalStep.class);
+        assertEquals(Query.NO_LIMIT, getVertexStep(t).getHighLimit());
+        t = g.V().has("id", sid).outE("knows").has("weight", 10).order().by("id", desc).limit(10);
+        assertNumStep(0, 3, t, JanusGraphVertexStep.class, OrderGlobalStep.class, RangeGlobalStep.class);
+        assertEquals(Query.NO_LIMIT, getVertexStep(t).getHighLimit());
+    }
+
+    private static JanusGraphVertexStep<?> getVertexStep(GraphTraversal<?, ?> traversal) {
+        return TraversalHelper.getFirstStepOfAssignableClass(JanusGraphVertexStep.class, traversal.asAdmin()).get();
     }
 
     @Test
@@ -137,6 +177,43 @@ public class JanusGraphLocalQueryOptimizerStrategyTest extends OptimizerStrategy
         t = g.V().has("id", sid).outE("knows").inV().has("weight", P.between(1, 3)).limit(1000).profile("~metrics");
         assertNumStep(superV * (numV / 5 * 2), 2, (GraphTraversal)t, JanusGraphStep.class, JanusGraphVertexStep.class);
         assertFalse(queryProfilerAnnotationIsPresent(t, QueryProfiler.MULTIPREFETCH_ANNOTATION));
+
+        // This tests vertex properties read right after a graph step and will trigger the multiQuery property pre-fetch optimisation in JanusGraphStep
+        t = g.V().has("weight", 1).valueMap("id").profile("~metrics");
+        assertCount(numV / 5, t);
+        assertTrue(queryProfilerAnnotationIsPresent(t, QueryProfiler.MULTIPREFETCH_ANNOTATION));
+
+        // Vertices looked up by id are pre-fetched as well before their properties are read
+        t = g.V(vs[0], vs[1], vs[2]).values("id").profile("~metrics");
+        assertCount(3, t);
+        assertTrue(queryProfilerAnnotationIsPresent(t, QueryProfiler.MULTIPREFETCH_ANNOTATION));
+
+        t = g.V(vs[0].id(), vs[1].id(), vs[2].id()).valueMap("id", "weight").profile("~metrics");
+        assertCount(3, t);
+        assertTrue(queryProfilerAnnotationIsPresent(t, QueryProfiler.MULTIPREFETCH_ANNOTATION));
+
+        // Filtering by id or label does not read any properties and hence does not pre-fetch them
+        t = g.V(vs[0], vs[1], vs[2]).hasLabel(vs[0].label()).profile("~metrics");
+        assertCount(3, t);
+        assertFalse(queryProfilerAnnotationIsPresent(t, QueryProfiler.MULTIPREFETCH_ANNOTATION));
+
+        t = g.V(vs[0], vs[1], vs[2]).hasId(vs[0].id(), vs[1].id()).profile("~metrics");
+        assertCount(2, t);
+        assertFalse(queryProfilerAnnotationIsPresent(t, QueryProfiler.MULTIPREFETCH_ANNOTATION));
+
+        // Only the property key of a has step is pre-fetched, not the id or label it also filters by
+        final GraphTraversal<?, ?> hasTraversal = __.hasLabel(vs[0].label()).hasId(vs[0].id()).has("weight", 1);
+        final String[] readKeys = JanusGraphTraversalUtil.getReadPropertyKeys(hasTraversal.asAdmin().getEndStep());
+        assertArrayEquals(new String[]{"weight"}, readKeys);
+
+        // A limit after the property step bounds the page size, so a single vertex is not pre-fetched on its own
+        t = g.V(vs[0].id(), vs[1].id(), vs[2].id()).values("id").limit(1).profile("~metrics");
+        assertCount(1, t);
+        assertFalse(queryProfilerAnnotationIsPresent(t, QueryProfiler.MULTIPREFETCH_ANNOTATION));
+
+        t = g.V().has("weight", 1).valueMap("id").limit(1).profile("~metrics");
+        assertCount(1, t);
+        assertFalse(queryProfilerAnnotationIsPresent(t, QueryProfiler.MULTIPREFETCH_ANNOTATION));
     }
 
     @Test